@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -22,6 +23,8 @@ public class DisasterRestController {
         sistema = new SistemaGestionDesastres();
         sistema.inicializarSistema();
         inicializarDatosPrueba();
+        // Con todas las rutas cargadas, el índice de la estrategia se construye una sola vez al arrancar
+        sistema.seleccionarEstrategiaRutas(EstrategiaRuta.CONTRACCION_JERARQUICA);
     }
 
     // ============ ENDPOINTS DE AUTENTICACIÓN ============
@@ -117,8 +120,25 @@ public class DisasterRestController {
     // ============ ENDPOINTS DE ZONAS ============
 
     @GetMapping("/zonas")
-    public ResponseEntity<List<Map<String, Object>>> obtenerZonas() {
-        List<Map<String, Object>> zonasData = sistema.getZonas().stream()
+    public ResponseEntity<List<Map<String, Object>>> obtenerZonas(
+            @RequestParam(value = "bbox", required = false) String bbox) {
+        List<Zona> zonas;
+        if (bbox == null) {
+            zonas = sistema.getZonas();
+        } else {
+            // bbox=minX,minY,maxX,maxY
+            String[] limites = bbox.split(",");
+            if (limites.length != 4) return ResponseEntity.badRequest().build();
+            try {
+                zonas = sistema.buscarZonasEnRectangulo(Double.parseDouble(limites[0].trim()),
+                        Double.parseDouble(limites[1].trim()), Double.parseDouble(limites[2].trim()),
+                        Double.parseDouble(limites[3].trim()));
+            } catch (NumberFormatException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        List<Map<String, Object>> zonasData = zonas.stream()
                 .map(zona -> {
                     Map<String, Object> zonaMap = new HashMap<>();
                     zonaMap.put("id", zona.getId());
@@ -138,6 +158,24 @@ public class DisasterRestController {
         return ResponseEntity.ok(zonasData);
     }
 
+    // Zonas más cercanas a un punto, de la más cercana a la más lejana
+    @GetMapping("/zonas/cercanas/{coordenadaX}/{coordenadaY}/{k}")
+    public ResponseEntity<List<Map<String, Object>>> obtenerZonasCercanas(@PathVariable double coordenadaX,
+                                                                          @PathVariable double coordenadaY,
+                                                                          @PathVariable int k) {
+        List<Map<String, Object>> data = sistema.buscarZonasCercanas(coordenadaX, coordenadaY, k).stream().map(zona -> {
+            Map<String, Object> m = new HashMap<>();
+            m.put("id", zona.getId());
+            m.put("nombre", zona.getNombre());
+            m.put("coordenadaX", zona.getCoordenadaX());
+            m.put("coordenadaY", zona.getCoordenadaY());
+            m.put("nivelUrgencia", zona.getNivelUrgencia() != null ? zona.getNivelUrgencia().getDescripcion() : null);
+            return m;
+        }).collect(Collectors.toList());
+
+        return ResponseEntity.ok(data);
+    }
+
     @GetMapping("/zonas/{id}")
     public ResponseEntity<Map<String, Object>> obtenerZonaPorId(@PathVariable String id) {
         Zona zona = sistema.buscarZona(id);
@@ -339,6 +377,50 @@ public class DisasterRestController {
         }
     }
 
+    // Evacuación masiva: reparte personas de varias zonas entre rutas y refugios según capacidad
+    @PostMapping("/evacuaciones/masiva")
+    public ResponseEntity<Map<String, Object>> planificarEvacuacionMasiva(@RequestBody SolicitudEvacuacionMasiva solicitud) {
+        try {
+            if (solicitud.getPersonasPorZona() == null || solicitud.getPersonasPorZona().isEmpty()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("success", false, "message", "Se requiere 'personasPorZona'"));
+            }
+
+            PlanFlujoEvacuacion plan = sistema.planificarEvacuacionMasiva(
+                    solicitud.getId(),
+                    solicitud.getPersonasPorZona(),
+                    solicitud.getRefugios(),
+                    solicitud.getNivelUrgencia(),
+                    solicitud.getResponsable()
+            );
+            if (plan == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("success", false, "message", "No se pudo encolar la evacuación: ya existen evacuaciones con ese id"));
+            }
+
+            List<Map<String, Object>> asignaciones = plan.getAsignaciones().stream().map(asignacion -> {
+                Map<String, Object> m = new HashMap<>();
+                m.put("zonaOrigen", asignacion.getIdOrigen());
+                m.put("refugio", asignacion.getIdRefugio());
+                m.put("personas", asignacion.getPersonas());
+                m.put("rutas", asignacion.getCamino().getTramos().stream().map(Ruta::getId).collect(Collectors.toList()));
+                m.put("tiempo", asignacion.getCamino().getTiempoTotal());
+                return m;
+            }).collect(Collectors.toList());
+
+            Map<String, Object> resultado = new HashMap<>();
+            resultado.put("success", true);
+            resultado.put("asignaciones", asignaciones);
+            resultado.put("personasEvacuadas", plan.getPersonasEvacuadas());
+            resultado.put("personasSinEvacuar", plan.getPersonasSinEvacuar());
+            resultado.put("costoTotal", plan.getCostoTotal());
+            return ResponseEntity.ok(resultado);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
     // ============ ENDPOINTS DE RUTAS ============
 
     @GetMapping("/rutas")
@@ -392,6 +474,36 @@ public class DisasterRestController {
         }
     }
 
+    // Rutas: perfil de tiempo de viaje por hora del día (cuerpo vacío o sin 'horas' lo elimina)
+    @SuppressWarnings("unchecked")
+    @PostMapping("/rutas/{id}/perfil")
+    public ResponseEntity<Map<String, Object>> asignarPerfilTiempo(@PathVariable String id,
+                                                                   @RequestBody Map<String, Object> body) {
+        try {
+            PerfilTiempo perfil = null;
+            if (body != null && body.get("horas") != null) {
+                List<Number> horas = (List<Number>) body.get("horas");
+                List<Number> tiempos = (List<Number>) body.get("tiempos");
+                if (tiempos == null) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                            .body(Map.of("success", false, "message", "Se requieren 'horas' y 'tiempos'"));
+                }
+                perfil = new PerfilTiempo(
+                        horas.stream().mapToDouble(Number::doubleValue).toArray(),
+                        tiempos.stream().mapToDouble(Number::doubleValue).toArray());
+            }
+
+            if (sistema.asignarPerfilTiempo(id, perfil)) {
+                return ResponseEntity.ok(Map.of("success", true, "message", "Perfil de tiempo actualizado"));
+            }
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "message", "Ruta no encontrada"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
     // MapaRecursos: recursos por ruta
     @GetMapping("/mapa/recursos/ruta/{rutaId}")
     public ResponseEntity<List<Map<String, Object>>> obtenerRecursosPorRuta(@PathVariable String rutaId) {
@@ -474,6 +586,153 @@ public class DisasterRestController {
         return ResponseEntity.ok(data);
     }
 
+    // Grafo: caminos no dominados en distancia, tiempo y riesgo entre dos zonas
+    @GetMapping("/grafo/pareto/{idOrigen}/{idDestino}")
+    public ResponseEntity<List<Map<String, Object>>> obtenerAlternativasPareto(@PathVariable String idOrigen,
+                                                                               @PathVariable String idDestino) {
+        List<Camino> caminos = sistema.calcularAlternativasPareto(idOrigen, idDestino, 10);
+
+        List<Map<String, Object>> data = caminos.stream().map(camino -> {
+            Map<String, Object> m = new HashMap<>();
+            m.put("rutas", camino.getTramos().stream().map(Ruta::getId).collect(Collectors.toList()));
+            m.put("zonas", camino.obtenerZonas().stream().map(Zona::getId).collect(Collectors.toList()));
+            m.put("distancia", camino.getDistanciaTotal());
+            m.put("tiempoEstimado", camino.getTiempoTotal());
+            m.put("riesgo", camino.calcularCosto(CriterioRuta.RIESGO));
+            return m;
+        }).collect(Collectors.toList());
+
+        return ResponseEntity.ok(data);
+    }
+
+    // Grafo: camino de mayor capacidad disponible (cuello de botella) entre dos zonas
+    @GetMapping("/grafo/ancho/{idOrigen}/{idDestino}")
+    public ResponseEntity<Map<String, Object>> obtenerRutaMasAncha(@PathVariable String idOrigen,
+                                                                   @PathVariable String idDestino) {
+        Camino camino = sistema.calcularRutaMasAncha(idOrigen, idDestino);
+        if (camino == null) return ResponseEntity.notFound().build();
+
+        int capacidad = camino.getTramos().stream()
+                .filter(ruta -> ruta.getCapacidadMaxima() > 0)
+                .mapToInt(Ruta::obtenerCapacidadDisponible)
+                .min()
+                .orElse(-1);
+        Map<String, Object> data = new HashMap<>();
+        data.put("rutas", camino.getTramos().stream().map(Ruta::getId).collect(Collectors.toList()));
+        data.put("capacidadDisponible", capacidad >= 0 ? capacidad : null);
+        data.put("distancia", camino.getDistanciaTotal());
+        data.put("tiempoEstimado", camino.getTiempoTotal());
+        return ResponseEntity.ok(data);
+    }
+
+    // Grafo: mejor camino usando solo rutas activas de los tipos permitidos y con capacidad disponible
+    // (p. ej. ?criterio=TIEMPO&excluirTipos=MARITIMA&capacidadMinima=50)
+    @GetMapping("/grafo/camino/{idOrigen}/{idDestino}")
+    public ResponseEntity<Map<String, Object>> obtenerCaminoFiltrado(
+            @PathVariable String idOrigen,
+            @PathVariable String idDestino,
+            @RequestParam(value = "criterio", defaultValue = "TIEMPO") String criterio,
+            @RequestParam(value = "excluirTipos", required = false) String excluirTipos,
+            @RequestParam(value = "capacidadMinima", defaultValue = "0") int capacidadMinima) {
+        try {
+            List<TipoRuta> excluidos = new ArrayList<>();
+            if (excluirTipos != null && !excluirTipos.isBlank()) {
+                for (String tipo : excluirTipos.split(",")) excluidos.add(TipoRuta.valueOf(tipo.trim().toUpperCase()));
+            }
+            FiltroRutas filtro = FiltroRutas.sinTipos(excluidos.toArray(new TipoRuta[0]))
+                    .conCapacidadMinima(capacidadMinima);
+            Camino camino = sistema.calcularRutaFiltrada(idOrigen, idDestino,
+                    CriterioRuta.valueOf(criterio.toUpperCase()), filtro);
+            if (camino == null) return ResponseEntity.notFound().build();
+
+            Map<String, Object> data = new HashMap<>();
+            data.put("rutas", camino.getTramos().stream().map(Ruta::getId).collect(Collectors.toList()));
+            data.put("zonas", camino.obtenerZonas().stream().map(Zona::getId).collect(Collectors.toList()));
+            data.put("distancia", camino.getDistanciaTotal());
+            data.put("tiempoEstimado", camino.getTiempoTotal());
+            data.put("riesgo", camino.calcularCosto(CriterioRuta.RIESGO));
+            return ResponseEntity.ok(data);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    // Grafo: itinerario de llegada más temprana saliendo en un instante (ISO, p. ej. 2024-05-10T07:30)
+    @GetMapping("/grafo/itinerario/{idOrigen}/{idDestino}/{salida}")
+    public ResponseEntity<Map<String, Object>> obtenerItinerario(@PathVariable String idOrigen,
+                                                                 @PathVariable String idDestino,
+                                                                 @PathVariable String salida) {
+        try {
+            Itinerario itinerario = sistema.calcularItinerario(idOrigen, idDestino, LocalDateTime.parse(salida));
+            if (itinerario == null) return ResponseEntity.notFound().build();
+
+            Camino camino = itinerario.getCamino();
+            Map<String, Object> data = new HashMap<>();
+            data.put("rutas", camino.getTramos().stream().map(Ruta::getId).collect(Collectors.toList()));
+            data.put("salidasTramos", itinerario.getSalidasTramos().stream()
+                    .map(LocalDateTime::toString).collect(Collectors.toList()));
+            data.put("salida", itinerario.getSalida().toString());
+            data.put("llegada", itinerario.getLlegada().toString());
+            data.put("duracionHoras", itinerario.calcularDuracionHoras());
+            data.put("distancia", camino.getDistanciaTotal());
+            return ResponseEntity.ok(data);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    // Grafo: si hay algún camino de rutas activas entre dos zonas
+    @GetMapping("/grafo/alcanzable/{idOrigen}/{idDestino}")
+    public ResponseEntity<Map<String, Object>> verificarAlcanzable(@PathVariable String idOrigen,
+                                                                   @PathVariable String idDestino) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("origen", idOrigen);
+        data.put("destino", idDestino);
+        data.put("alcanzable", sistema.esAlcanzableEnGrafo(idOrigen, idDestino));
+        return ResponseEntity.ok(data);
+    }
+
+    // Grafo: zonas sin camino hacia ningún refugio por las rutas activas
+    @GetMapping("/grafo/incomunicadas")
+    public ResponseEntity<List<Map<String, Object>>> obtenerZonasIncomunicadas() {
+        List<Map<String, Object>> data = sistema.obtenerZonasIncomunicadas().stream().map(zona -> {
+            Map<String, Object> m = new HashMap<>();
+            m.put("id", zona.getId());
+            m.put("nombre", zona.getNombre());
+            m.put("nivelUrgencia", zona.getNivelUrgencia() != null ? zona.getNivelUrgencia().getDescripcion() : null);
+            return m;
+        }).collect(Collectors.toList());
+
+        return ResponseEntity.ok(data);
+    }
+
+    // Grafo: zonas alcanzables desde una zona en un tiempo máximo (minutos), con su tiempo de llegada
+    @GetMapping("/grafo/isocrona/{idOrigen}/{minutos}")
+    public ResponseEntity<List<Map<String, Object>>> obtenerIsocrona(@PathVariable String idOrigen,
+                                                                     @PathVariable double minutos) {
+        return ResponseEntity.ok(mapearAlcance(sistema.calcularZonasAlcanzables(idOrigen, minutos / 60.0)));
+    }
+
+    // Equipos: zonas a las que llega el equipo desde su ubicación actual en un tiempo máximo (minutos)
+    @GetMapping("/equipos/{id}/alcance/{minutos}")
+    public ResponseEntity<List<Map<String, Object>>> obtenerAlcanceEquipo(@PathVariable String id,
+                                                                          @PathVariable double minutos) {
+        if (sistema.buscarEquipo(id) == null) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(mapearAlcance(sistema.calcularAlcanceEquipo(id, minutos / 60.0)));
+    }
+
+    private List<Map<String, Object>> mapearAlcance(Map<String, Double> tiempos) {
+        return tiempos.entrySet().stream().map(entrada -> {
+            Map<String, Object> m = new HashMap<>();
+            m.put("zona", entrada.getKey());
+            m.put("tiempoLlegada", entrada.getValue());
+            m.put("minutos", entrada.getValue() * 60.0);
+            return m;
+        }).collect(Collectors.toList());
+    }
+
     // Grafo: obtener nodo por id (retorna representación mínima)
     @GetMapping("/grafo/nodo/{id}")
     public ResponseEntity<Map<String, Object>> obtenerNodoGrafo(@PathVariable String id) {
@@ -489,6 +748,153 @@ public class DisasterRestController {
         return ResponseEntity.ok(nodoMap);
     }
 
+    // Grafo: costo mínimo por tiempo entre dos zonas (null si no hay camino)
+    @GetMapping("/grafo/distancia/{idOrigen}/{idDestino}")
+    public ResponseEntity<Map<String, Object>> obtenerCostoMinimo(@PathVariable String idOrigen,
+                                                                  @PathVariable String idDestino) {
+        double costo = sistema.calcularCostoMinimo(idOrigen, idDestino, CriterioRuta.TIEMPO);
+        Map<String, Object> data = new HashMap<>();
+        data.put("origen", idOrigen);
+        data.put("destino", idDestino);
+        data.put("criterio", CriterioRuta.TIEMPO.name());
+        data.put("costo", Double.isInfinite(costo) ? null : costo);
+        return ResponseEntity.ok(data);
+    }
+
+    // Grafo: partición en celdas para los caminos entre regiones (0 la desactiva)
+    @PostMapping("/grafo/particion/{tamanoCelda}")
+    public ResponseEntity<Map<String, Object>> particionarGrafo(@PathVariable int tamanoCelda) {
+        try {
+            ParticionGrafo particion = sistema.particionarGrafo(tamanoCelda);
+            Map<String, Object> data = new HashMap<>();
+            data.put("success", true);
+            data.put("tamanoMaximoCelda", tamanoCelda);
+            data.put("celdas", particion != null ? particion.getNumeroCeldas() : 0);
+            data.put("rutasEntreCeldas", particion != null ? particion.getAristasCorte() : 0);
+            return ResponseEntity.ok(data);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    // Grafo: ruta más corta por distancia con la estrategia seleccionada
+    @GetMapping("/grafo/ruta-corta/{idOrigen}/{idDestino}")
+    public ResponseEntity<Map<String, Object>> obtenerRutaMasCorta(@PathVariable String idOrigen,
+                                                                   @PathVariable String idDestino) {
+        List<Zona> zonasCamino = sistema.calcularRutaMasCorta(idOrigen, idDestino);
+        if (zonasCamino.isEmpty()) return ResponseEntity.notFound().build();
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("zonas", zonasCamino.stream().map(Zona::getId).collect(Collectors.toList()));
+        data.put("estrategia", sistema.getEstrategiaRutas().name());
+        return ResponseEntity.ok(data);
+    }
+
+    // Grafo: cambia la estrategia de ruta más corta (DIJKSTRA, CONTRACCION_JERARQUICA o ALT) y construye su índice
+    @PostMapping("/grafo/estrategia/{estrategia}")
+    public ResponseEntity<Map<String, Object>> seleccionarEstrategiaRutas(@PathVariable String estrategia) {
+        try {
+            EstrategiaRuta seleccionada = EstrategiaRuta.valueOf(estrategia.toUpperCase());
+            sistema.seleccionarEstrategiaRutas(seleccionada);
+            return ResponseEntity.ok(Map.of("success", true, "estrategia", seleccionada.name(),
+                    "descripcion", seleccionada.getDescripcion()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "message", "Estrategia inválida: " + estrategia));
+        }
+    }
+
+    // Grafo: tabla de costos entre todos los pares de zonas (desactivada por defecto)
+    @PostMapping("/grafo/tabla-distancias/{criterio}")
+    public ResponseEntity<Map<String, Object>> activarTablaDistancias(@PathVariable String criterio) {
+        try {
+            CriterioRuta criterioTabla = CriterioRuta.valueOf(criterio);
+            sistema.activarTablaDistancias(criterioTabla);
+            return ResponseEntity.ok(Map.of("success", true, "criterio", criterioTabla.name()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "message", "Criterio inválido: " + criterio));
+        }
+    }
+
+    @DeleteMapping("/grafo/tabla-distancias")
+    public ResponseEntity<Map<String, Object>> desactivarTablaDistancias() {
+        sistema.activarTablaDistancias(null);
+        return ResponseEntity.ok(Map.of("success", true, "message", "Tabla de distancias desactivada"));
+    }
+
+    // Grafo: matriz de costos muchos a muchos (null donde no hay camino)
+    @SuppressWarnings("unchecked")
+    @PostMapping("/grafo/matriz")
+    public ResponseEntity<Map<String, Object>> calcularMatriz(@RequestBody Map<String, Object> body) {
+        try {
+            List<String> origenes = (List<String>) body.get("origenes");
+            List<String> destinos = (List<String>) body.get("destinos");
+            if (origenes == null || destinos == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("success", false, "message", "Se requieren 'origenes' y 'destinos'"));
+            }
+            CriterioRuta criterio = body.get("criterio") != null
+                    ? CriterioRuta.valueOf((String) body.get("criterio"))
+                    : CriterioRuta.TIEMPO;
+            // Quien pide matrices a menudo puede activar la tabla de distancias para el criterio
+            if (Boolean.TRUE.equals(body.get("usarTabla")) && sistema.getCriterioTablaDistancias() != criterio) {
+                sistema.activarTablaDistancias(criterio);
+            }
+
+            double[][] matriz = sistema.calcularMatrizCostos(origenes, destinos, criterio);
+            List<List<Double>> filas = new ArrayList<>(matriz.length);
+            for (double[] fila : matriz) {
+                List<Double> valores = new ArrayList<>(fila.length);
+                for (double valor : fila) {
+                    valores.add(Double.isInfinite(valor) ? null : valor);
+                }
+                filas.add(valores);
+            }
+
+            Map<String, Object> resultado = new HashMap<>();
+            resultado.put("origenes", origenes);
+            resultado.put("destinos", destinos);
+            resultado.put("criterio", criterio.name());
+            resultado.put("matriz", filas);
+            return ResponseEntity.ok(resultado);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    // Grafo: refugio más cercano (por tiempo) de cada zona
+    @GetMapping("/grafo/refugios/asignacion")
+    public ResponseEntity<List<Map<String, Object>>> obtenerAsignacionRefugios() {
+        AsignacionRefugios asignacion = sistema.asignarRefugiosMasCercanos();
+        List<Map<String, Object>> data = asignacion.comoMapa().entrySet().stream().map(entrada -> {
+            Map<String, Object> m = new HashMap<>();
+            m.put("zonaId", entrada.getKey());
+            m.put("refugioId", entrada.getValue());
+            m.put("tiempo", asignacion.obtenerCosto(entrada.getKey()));
+            return m;
+        }).collect(Collectors.toList());
+
+        return ResponseEntity.ok(data);
+    }
+
+    // Grafo: contadores de la caché de rutas
+    @GetMapping("/grafo/cache")
+    public ResponseEntity<Map<String, Object>> obtenerEstadisticasCache() {
+        CacheRutas cache = sistema.obtenerCacheRutas();
+        if (cache == null) return ResponseEntity.notFound().build();
+        Map<String, Object> cacheMap = new HashMap<>();
+        cacheMap.put("entradas", cache.getTamano());
+        cacheMap.put("capacidad", cache.getCapacidad());
+        cacheMap.put("aciertos", cache.getAciertos());
+        cacheMap.put("fallos", cache.getFallos());
+        cacheMap.put("tasaAciertos", cache.calcularTasaAciertos());
+        cacheMap.put("invalidaciones", cache.getInvalidaciones());
+        return ResponseEntity.ok(cacheMap);
+    }
+
     // ColaPrioridad: ver / procesar / priorizar
     @GetMapping("/cola/verSiguiente")
     public ResponseEntity<Map<String, Object>> verSiguienteEvacuacion() {
@@ -509,6 +915,32 @@ public class DisasterRestController {
         return ResponseEntity.ok(Map.of("success", true, "message", "Cola priorizada"));
     }
 
+    // ColaPrioridad: programación de las evacuaciones según el caudal de las rutas
+    @PostMapping("/cola/programar")
+    public ResponseEntity<Map<String, Object>> programarCola() {
+        ProgramaEvacuaciones programa = sistema.programarEvacuaciones();
+        List<Map<String, Object>> evacuacionesData = sistema.obtenerTodasEvacuacionesCola().stream().map(ev -> {
+            Map<String, Object> m = new HashMap<>();
+            m.put("id", ev.getId());
+            m.put("prioridad", ev.calcularPrioridad());
+            m.put("tiempoEstimado", ev.getTiempoEstimadoProgramado());
+            m.put("envios", programa.obtenerEnvios(ev).stream().map(envio -> Map.of(
+                    "personas", envio.getPersonas(),
+                    "salida", envio.getSalida(),
+                    "llegada", envio.getLlegada(),
+                    "rutas", envio.getTramos().stream().map(Ruta::getId).collect(Collectors.toList())
+            )).collect(Collectors.toList()));
+            return m;
+        }).collect(Collectors.toList());
+
+        Map<String, Object> resultado = new HashMap<>();
+        resultado.put("success", true);
+        resultado.put("intervalo", programa.getIntervalo());
+        resultado.put("tiempoTotal", programa.calcularTiempoTotal());
+        resultado.put("evacuaciones", evacuacionesData);
+        return ResponseEntity.ok(resultado);
+    }
+
     @PostMapping("/cola/procesar")
     public ResponseEntity<Map<String, Object>> procesarSiguienteEvacuacion() {
         Evacuacion ev = sistema.procesarSiguienteEvacuacion();
@@ -0,0 +1,20 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Enums;
+
+/**
+ * Enum que representa el criterio usado para medir el costo de una ruta
+ */
+public enum CriterioRuta {
+    DISTANCIA("Distancia"),
+    TIEMPO("Tiempo estimado"),
+    RIESGO("Nivel de riesgo");
+    
+    private final String descripcion;
+    
+    CriterioRuta(String descripcion) {
+        this.descripcion = descripcion;
+    }
+    
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
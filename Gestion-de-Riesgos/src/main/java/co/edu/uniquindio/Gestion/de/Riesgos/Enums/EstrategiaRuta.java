@@ -0,0 +1,20 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Enums;
+
+/**
+ * Enum que representa la estrategia usada para calcular la ruta más corta entre zonas
+ */
+public enum EstrategiaRuta {
+    DIJKSTRA("Dijkstra"),
+    CONTRACCION_JERARQUICA("Jerarquías de contracción"),
+    ALT("A* con landmarks");
+    
+    private final String descripcion;
+    
+    EstrategiaRuta(String descripcion) {
+        this.descripcion = descripcion;
+    }
+    
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
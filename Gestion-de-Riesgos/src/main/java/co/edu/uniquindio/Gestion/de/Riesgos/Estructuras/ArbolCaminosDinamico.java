@@ -0,0 +1,246 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.CriterioRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.Zona;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Árbol de caminos más cortos desde (o hacia) una zona raíz, por ejemplo un refugio,
+ * que se mantiene al día cuando cambia el peso de una ruta.
+ *
+ * Sigue el esquema de Ramalingam y Reps: si una arista del árbol empeora o se cierra,
+ * solo se recalcula el subárbol que colgaba de ella, partiendo de las mejores
+ * conexiones con el resto del árbol; si una arista mejora, se propaga la mejora
+ * únicamente a los nodos cuya distancia baja. Ningún cambio obliga a rehacer el
+ * árbol completo, salvo que se agreguen nodos o rutas al grafo.
+ */
+public class ArbolCaminosDinamico {
+    private final GrafoDirigido grafoDirigido;
+    private final String idRaiz;
+    private final CriterioRuta criterio;
+    private final boolean haciaRaiz;
+
+    private GrafoCompacto grafo;
+    private int raiz;
+    private double[] distancias;
+    private int[] aristasPadre;
+    private boolean[] afectados;
+    private MonticuloIndexado monticulo;
+    private int nodosReparados;
+
+    /**
+     * @param haciaRaiz true para caminos de cada zona hacia la raíz (evacuación hacia un
+     *                  refugio), false para caminos desde la raíz hacia cada zona
+     */
+    ArbolCaminosDinamico(GrafoDirigido grafoDirigido, String idRaiz, CriterioRuta criterio, boolean haciaRaiz) {
+        this.grafoDirigido = grafoDirigido;
+        this.idRaiz = idRaiz;
+        this.criterio = criterio;
+        this.haciaRaiz = haciaRaiz;
+        this.raiz = -1;
+        this.monticulo = new MonticuloIndexado(16);
+    }
+
+    /**
+     * Costo del camino entre la zona y la raíz según el criterio, o infinito si no hay camino
+     */
+    public synchronized double distancia(Zona zona) {
+        sincronizar();
+        int nodo = zona != null && grafo != null ? grafo.indiceDe(zona.getId()) : -1;
+        return nodo >= 0 && raiz >= 0 ? distancias[nodo] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Camino entre la zona y la raíz en el sentido del árbol, o null si no hay camino
+     */
+    public synchronized Camino obtenerCamino(Zona zona) {
+        sincronizar();
+        int nodo = zona != null && grafo != null ? grafo.indiceDe(zona.getId()) : -1;
+        if (nodo < 0 || raiz < 0 || distancias[nodo] == Double.POSITIVE_INFINITY) return null;
+
+        List<Ruta> tramos = new ArrayList<>();
+        for (int e = aristasPadre[nodo]; e >= 0; e = aristasPadre[cerca(e)]) {
+            tramos.add(grafo.ruta(e));
+        }
+        if (!haciaRaiz) {
+            Collections.reverse(tramos);
+        }
+        return new Camino(tramos);
+    }
+
+    /**
+     * Aplica el cambio de peso de una arista de la versión compacta indicada.
+     * Si el árbol se construyó sobre otra versión se ignora: se reconstruirá en la próxima consulta.
+     */
+    synchronized void aristaActualizada(GrafoCompacto compacto, int arista) {
+        if (compacto != grafo || raiz < 0) return;
+        nodosReparados = 0;
+
+        double[] pesos = grafo.pesos(criterio);
+        int cercano = cerca(arista);
+        int lejano = lejos(arista);
+        double nuevaDistancia = distancias[cercano] + pesos[arista];
+
+        if (aristasPadre[lejano] == arista && nuevaDistancia > distancias[lejano]) {
+            repararSubarbol(lejano, pesos);
+        } else if (nuevaDistancia < distancias[lejano]) {
+            distancias[lejano] = nuevaDistancia;
+            aristasPadre[lejano] = arista;
+            monticulo.insertarODisminuir(lejano, nuevaDistancia);
+            propagar(pesos);
+        }
+    }
+
+    /**
+     * Recalcula el subárbol que cuelga del nodo después de que su arista padre empeoró
+     */
+    private void repararSubarbol(int nodo, double[] pesos) {
+        // Fase 1: nodos cuya distancia dependía de la arista modificada
+        List<Integer> subarbol = new ArrayList<>();
+        afectados[nodo] = true;
+        subarbol.add(nodo);
+        for (int i = 0; i < subarbol.size(); i++) {
+            int actual = subarbol.get(i);
+            for (int p = inicioRelajables(actual), fin = finRelajables(actual); p < fin; p++) {
+                int e = relajable(p);
+                int hijo = lejos(e);
+                if (aristasPadre[hijo] == e && !afectados[hijo]) {
+                    afectados[hijo] = true;
+                    subarbol.add(hijo);
+                }
+            }
+        }
+        for (int afectado : subarbol) {
+            distancias[afectado] = Double.POSITIVE_INFINITY;
+            aristasPadre[afectado] = -1;
+        }
+
+        // Fase 2: mejor conexión de cada nodo afectado con la parte intacta del árbol
+        for (int afectado : subarbol) {
+            for (int p = inicioCandidatas(afectado), fin = finCandidatas(afectado); p < fin; p++) {
+                int e = candidata(p);
+                int cercano = cerca(e);
+                if (afectados[cercano]) continue;
+                double nuevaDistancia = distancias[cercano] + pesos[e];
+                if (nuevaDistancia < distancias[afectado]) {
+                    distancias[afectado] = nuevaDistancia;
+                    aristasPadre[afectado] = e;
+                }
+            }
+            if (distancias[afectado] < Double.POSITIVE_INFINITY) {
+                monticulo.insertarODisminuir(afectado, distancias[afectado]);
+            }
+        }
+        for (int afectado : subarbol) {
+            afectados[afectado] = false;
+        }
+        propagar(pesos);
+    }
+
+    /**
+     * Dijkstra a partir de los nodos que están en el montículo
+     */
+    private void propagar(double[] pesos) {
+        while (!monticulo.estaVacio()) {
+            int actual = monticulo.extraerMinimo();
+            nodosReparados++;
+            double distanciaActual = distancias[actual];
+            for (int p = inicioRelajables(actual), fin = finRelajables(actual); p < fin; p++) {
+                int e = relajable(p);
+                int vecino = lejos(e);
+                double nuevaDistancia = distanciaActual + pesos[e];
+                if (nuevaDistancia < distancias[vecino]) {
+                    distancias[vecino] = nuevaDistancia;
+                    aristasPadre[vecino] = e;
+                    monticulo.insertarODisminuir(vecino, nuevaDistancia);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reconstruye el árbol completo si el grafo cambió de topología desde la última consulta
+     */
+    private void sincronizar() {
+        GrafoCompacto actual = grafoDirigido.obtenerGrafoCompacto();
+        if (actual == grafo) return;
+
+        grafo = actual;
+        int n = actual.getNumeroNodos();
+        distancias = new double[n];
+        aristasPadre = new int[n];
+        afectados = new boolean[n];
+        Arrays.fill(distancias, Double.POSITIVE_INFINITY);
+        Arrays.fill(aristasPadre, -1);
+        monticulo = new MonticuloIndexado(Math.max(16, n));
+        nodosReparados = 0;
+
+        raiz = actual.indiceDe(idRaiz);
+        if (raiz < 0) return;
+        distancias[raiz] = 0.0;
+        monticulo.insertarODisminuir(raiz, 0.0);
+        propagar(actual.pesos(criterio));
+    }
+
+    // En el árbol hacia la raíz las aristas se recorren al revés: el extremo cercano a la raíz es el destino
+
+    private int cerca(int arista) {
+        return haciaRaiz ? grafo.destino(arista) : grafo.origen(arista);
+    }
+
+    private int lejos(int arista) {
+        return haciaRaiz ? grafo.origen(arista) : grafo.destino(arista);
+    }
+
+    private int inicioRelajables(int nodo) {
+        return haciaRaiz ? grafo.inicioEntrantes(nodo) : grafo.inicioAristas(nodo);
+    }
+
+    private int finRelajables(int nodo) {
+        return haciaRaiz ? grafo.finEntrantes(nodo) : grafo.finAristas(nodo);
+    }
+
+    private int relajable(int posicion) {
+        return haciaRaiz ? grafo.aristaEntrante(posicion) : posicion;
+    }
+
+    private int inicioCandidatas(int nodo) {
+        return haciaRaiz ? grafo.inicioAristas(nodo) : grafo.inicioEntrantes(nodo);
+    }
+
+    private int finCandidatas(int nodo) {
+        return haciaRaiz ? grafo.finAristas(nodo) : grafo.finEntrantes(nodo);
+    }
+
+    private int candidata(int posicion) {
+        return haciaRaiz ? posicion : grafo.aristaEntrante(posicion);
+    }
+
+    public String getIdRaiz() {
+        return idRaiz;
+    }
+
+    public CriterioRuta getCriterio() {
+        return criterio;
+    }
+
+    public boolean isHaciaRaiz() {
+        return haciaRaiz;
+    }
+
+    /**
+     * Nodos que se volvieron a asentar en la última actualización
+     */
+    public synchronized int getNodosReparados() {
+        return nodosReparados;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ArbolCaminosDinamico{raiz='%s', criterio=%s, haciaRaiz=%s}", idRaiz, criterio, haciaRaiz);
+    }
+}
@@ -0,0 +1,115 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Asignación de cada zona a su refugio más cercano.
+ * Se obtiene con una sola búsqueda de Dijkstra multiorigen sobre las aristas
+ * entrantes: todos los refugios empiezan en el montículo con distancia 0 y cada
+ * nodo hereda el refugio del que lo alcanzó, así que el costo total es
+ * O(E log V) sin importar cuántos refugios haya.
+ */
+public class AsignacionRefugios {
+    private final GrafoCompacto grafo;
+    private final double[] distancias;
+    private final int[] aristasSiguientes;
+    private final int[] refugios;
+
+    private AsignacionRefugios(GrafoCompacto grafo) {
+        int n = grafo.getNumeroNodos();
+        this.grafo = grafo;
+        this.distancias = new double[n];
+        this.aristasSiguientes = new int[n];
+        this.refugios = new int[n];
+        Arrays.fill(distancias, Double.POSITIVE_INFINITY);
+        Arrays.fill(aristasSiguientes, -1);
+        Arrays.fill(refugios, -1);
+    }
+
+    /**
+     * Calcula, para cada nodo, el refugio al que llega con menor costo según los pesos dados
+     *
+     * @param nodosRefugio índices de los nodos que son refugio
+     */
+    public static AsignacionRefugios calcular(GrafoCompacto grafo, int[] nodosRefugio, double[] pesos) {
+        AsignacionRefugios asignacion = new AsignacionRefugios(grafo);
+        MonticuloIndexado monticulo = new MonticuloIndexado(Math.max(16, grafo.getNumeroNodos()));
+        for (int refugio : nodosRefugio) {
+            if (refugio < 0 || asignacion.refugios[refugio] >= 0) continue;
+            asignacion.distancias[refugio] = 0.0;
+            asignacion.refugios[refugio] = refugio;
+            monticulo.insertarODisminuir(refugio, 0.0);
+        }
+
+        while (!monticulo.estaVacio()) {
+            int actual = monticulo.extraerMinimo();
+            double distanciaActual = asignacion.distancias[actual];
+            for (int p = grafo.inicioEntrantes(actual), fin = grafo.finEntrantes(actual); p < fin; p++) {
+                int e = grafo.aristaEntrante(p);
+                int vecino = grafo.origen(e);
+                double nuevaDistancia = distanciaActual + pesos[e];
+                if (nuevaDistancia < asignacion.distancias[vecino]) {
+                    asignacion.distancias[vecino] = nuevaDistancia;
+                    asignacion.aristasSiguientes[vecino] = e;
+                    asignacion.refugios[vecino] = asignacion.refugios[actual];
+                    monticulo.insertarODisminuir(vecino, nuevaDistancia);
+                }
+            }
+        }
+        return asignacion;
+    }
+
+    /**
+     * Id del refugio más cercano a la zona, o null si no alcanza ninguno
+     */
+    public String obtenerRefugio(String idZona) {
+        int nodo = grafo.indiceDe(idZona);
+        return nodo >= 0 && refugios[nodo] >= 0 ? grafo.idNodo(refugios[nodo]) : null;
+    }
+
+    /**
+     * Costo desde la zona hasta su refugio más cercano, o infinito si no alcanza ninguno
+     */
+    public double obtenerCosto(String idZona) {
+        int nodo = grafo.indiceDe(idZona);
+        return nodo >= 0 ? distancias[nodo] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Camino desde la zona hasta su refugio más cercano, o null si no alcanza ninguno
+     */
+    public Camino obtenerCamino(String idZona) {
+        int nodo = grafo.indiceDe(idZona);
+        if (nodo < 0 || refugios[nodo] < 0) return null;
+
+        List<Ruta> tramos = new ArrayList<>();
+        for (int e = aristasSiguientes[nodo]; e >= 0; e = aristasSiguientes[grafo.destino(e)]) {
+            tramos.add(grafo.ruta(e));
+        }
+        return new Camino(tramos);
+    }
+
+    /**
+     * Refugio asignado a cada zona que alcanza alguno, por id de zona
+     */
+    public Map<String, String> comoMapa() {
+        Map<String, String> mapa = new LinkedHashMap<>();
+        for (int v = 0; v < refugios.length; v++) {
+            if (refugios[v] >= 0) {
+                mapa.put(grafo.idNodo(v), grafo.idNodo(refugios[v]));
+            }
+        }
+        return mapa;
+    }
+
+    /**
+     * Versión del grafo compacto sobre la que se calculó la asignación
+     */
+    public GrafoCompacto getGrafo() {
+        return grafo;
+    }
+}
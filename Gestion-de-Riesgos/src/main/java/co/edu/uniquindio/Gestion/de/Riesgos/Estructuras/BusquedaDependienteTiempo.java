@@ -0,0 +1,88 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Llegada más temprana con tiempos de viaje que dependen de la hora de salida.
+ *
+ * Es un Dijkstra cuyas etiquetas son horas de llegada (horas desde la medianoche del día
+ * de salida) y en el que el peso de cada arista se evalúa a la hora en que se llega a su
+ * origen. Como los perfiles cumplen FIFO, esperar en un nodo nunca ayuda y la primera
+ * etiqueta asentada de cada nodo es su llegada más temprana.
+ */
+public final class BusquedaDependienteTiempo {
+    private static final double NANOS_POR_HORA = 3.6e12;
+
+    private BusquedaDependienteTiempo() {
+    }
+
+    /**
+     * Ejecuta la búsqueda desde el origen, saliendo a la hora indicada, hasta asentar el destino.
+     * Con destino negativo recorre todo lo alcanzable.
+     *
+     * @param horaSalida horas desde la medianoche del día de salida
+     * @return hora de llegada al destino, o infinito si no es alcanzable
+     */
+    public static double ejecutar(GrafoCompacto grafo, int origen, int destino, double horaSalida,
+                                  EstadoBusqueda estado) {
+        MonticuloIndexado monticulo = estado.getMonticulo();
+        estado.actualizar(origen, horaSalida, -1);
+        monticulo.insertarODisminuir(origen, horaSalida);
+
+        while (!monticulo.estaVacio()) {
+            int actual = monticulo.extraerMinimo();
+            estado.registrarAsentado();
+            if (actual == destino) break;
+
+            double horaActual = estado.distancia(actual);
+            for (int e = grafo.inicioAristas(actual), fin = grafo.finAristas(actual); e < fin; e++) {
+                double tiempo = grafo.tiempoEn(e, horaActual);
+                if (tiempo == Double.POSITIVE_INFINITY) continue;
+                int vecino = grafo.destino(e);
+                double llegada = horaActual + tiempo;
+                if (llegada < estado.distancia(vecino)) {
+                    estado.actualizar(vecino, llegada, e);
+                    monticulo.insertarODisminuir(vecino, llegada);
+                }
+            }
+        }
+        return destino >= 0 ? estado.distancia(destino) : 0.0;
+    }
+
+    /**
+     * Calcula el itinerario de llegada más temprana entre dos nodos
+     *
+     * @return itinerario, o null si el destino no es alcanzable
+     */
+    public static Itinerario calcular(GrafoCompacto grafo, int origen, int destino, LocalDateTime salida) {
+        if (origen < 0 || destino < 0 || salida == null) return null;
+
+        LocalDateTime medianoche = salida.toLocalDate().atStartOfDay();
+        double horaSalida = horaDelDia(salida.toLocalTime());
+        EstadoBusqueda estado = EstadoBusqueda.delHilo(grafo.getNumeroNodos());
+        if (ejecutar(grafo, origen, destino, horaSalida, estado) == Double.POSITIVE_INFINITY) return null;
+
+        int[] aristas = BusquedaDijkstra.extraerAristas(grafo, estado, destino);
+        List<LocalDateTime> salidasTramos = new ArrayList<>(aristas.length);
+        double hora = horaSalida;
+        for (int e : aristas) {
+            salidasTramos.add(aHora(medianoche, hora));
+            hora += grafo.tiempoEn(e, hora);
+        }
+        return new Itinerario(Camino.desdeAristas(grafo, aristas), salidasTramos, aHora(medianoche, hora));
+    }
+
+    private static LocalDateTime aHora(LocalDateTime medianoche, double horas) {
+        return medianoche.plusNanos(Math.round(horas * NANOS_POR_HORA));
+    }
+
+    /**
+     * Hora del día, en horas, de un instante
+     */
+    static double horaDelDia(LocalTime hora) {
+        return hora.toNanoOfDay() / NANOS_POR_HORA;
+    }
+}
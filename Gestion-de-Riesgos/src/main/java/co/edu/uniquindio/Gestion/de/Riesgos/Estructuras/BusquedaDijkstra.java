@@ -0,0 +1,73 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+/**
+ * Algoritmo de Dijkstra sobre el grafo compacto con montículo indexado.
+ * Cada nodo entra una sola vez al montículo (se usa disminución de clave),
+ * por lo que una consulta cuesta O((V + E) log V) y no crea objetos por arista.
+ */
+public final class BusquedaDijkstra {
+
+    private BusquedaDijkstra() {
+    }
+
+    /**
+     * Ejecuta la búsqueda desde el origen hasta asentar el destino.
+     * Con destino negativo recorre todo lo alcanzable desde el origen.
+     *
+     * @return distancia al destino, o infinito si no es alcanzable
+     */
+    public static double ejecutar(GrafoCompacto grafo, int origen, int destino, double[] pesos, EstadoBusqueda estado) {
+        return ejecutar(grafo, origen, destino, pesos, null, estado);
+    }
+
+    /**
+     * Igual que {@link #ejecutar(GrafoCompacto, int, int, double[], EstadoBusqueda)}, pero solo
+     * relaja las aristas cuyo bit está encendido en el conjunto de aristas permitidas.
+     *
+     * @param permitidas conjunto de bits indexado por arista, o null para usar todas
+     */
+    public static double ejecutar(GrafoCompacto grafo, int origen, int destino, double[] pesos,
+                                  long[] permitidas, EstadoBusqueda estado) {
+        MonticuloIndexado monticulo = estado.getMonticulo();
+        estado.actualizar(origen, 0.0, -1);
+        monticulo.insertarODisminuir(origen, 0.0);
+
+        while (!monticulo.estaVacio()) {
+            int actual = monticulo.extraerMinimo();
+            estado.registrarAsentado();
+            if (actual == destino) break;
+
+            double distanciaActual = estado.distancia(actual);
+            for (int e = grafo.inicioAristas(actual), fin = grafo.finAristas(actual); e < fin; e++) {
+                if (permitidas != null && (permitidas[e >>> 6] & (1L << e)) == 0) continue;
+                int vecino = grafo.destino(e);
+                double nuevaDistancia = distanciaActual + pesos[e];
+                if (nuevaDistancia < estado.distancia(vecino)) {
+                    estado.actualizar(vecino, nuevaDistancia, e);
+                    monticulo.insertarODisminuir(vecino, nuevaDistancia);
+                }
+            }
+        }
+        return destino >= 0 ? estado.distancia(destino) : 0.0;
+    }
+
+    /**
+     * Reconstruye, en orden, las aristas del camino hasta el destino
+     * siguiendo las aristas predecesoras de la última búsqueda.
+     *
+     * @return índices de aristas desde el origen, o null si el destino no fue alcanzado
+     */
+    public static int[] extraerAristas(GrafoCompacto grafo, EstadoBusqueda estado, int destino) {
+        if (!estado.alcanzado(destino)) return null;
+
+        int longitud = 0;
+        for (int e = estado.aristaPredecesora(destino); e >= 0; e = estado.aristaPredecesora(grafo.origen(e))) {
+            longitud++;
+        }
+        int[] camino = new int[longitud];
+        for (int e = estado.aristaPredecesora(destino); e >= 0; e = estado.aristaPredecesora(grafo.origen(e))) {
+            camino[--longitud] = e;
+        }
+        return camino;
+    }
+}
@@ -0,0 +1,245 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.CriterioRuta;
+
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché LRU acotada de caminos calculados, indexada por (origen, destino, criterio).
+ *
+ * La invalidación es selectiva: si una ruta empeora o se cierra solo se descartan
+ * las entradas cuyo camino la usa, porque el resto de caminos sigue disponible y
+ * ningún otro se abarató. Si una ruta mejora o se agrega una nueva, cualquier
+ * camino del criterio afectado puede dejar de ser el mejor, así que se incrementa
+ * la versión del criterio y las entradas anteriores dejan de ser válidas.
+ */
+public class CacheRutas {
+    private final int capacidad;
+    private final LinkedHashMap<Clave, Entrada> entradas;
+    private final Map<Ruta, Set<Clave>> dependientes;
+    private final long[] versiones;
+    private final long[] cambios;
+    private final AtomicLong aciertos;
+    private final AtomicLong fallos;
+    private final AtomicLong invalidaciones;
+
+    /**
+     * Clave de una consulta
+     */
+    private static final class Clave {
+        private final String origen;
+        private final String destino;
+        private final CriterioRuta criterio;
+
+        private Clave(String origen, String destino, CriterioRuta criterio) {
+            this.origen = origen;
+            this.destino = destino;
+            this.criterio = criterio;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Clave)) return false;
+            Clave clave = (Clave) o;
+            return origen.equals(clave.origen) && destino.equals(clave.destino) && criterio == clave.criterio;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(origen, destino, criterio);
+        }
+    }
+
+    /**
+     * Resultado guardado: el camino (null si no había camino) y la versión del criterio
+     */
+    private static final class Entrada {
+        private final Camino camino;
+        private final long version;
+
+        private Entrada(Camino camino, long version) {
+            this.camino = camino;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Resultado de una búsqueda en la caché
+     */
+    public static final class Resultado {
+        private final Camino camino;
+
+        private Resultado(Camino camino) {
+            this.camino = camino;
+        }
+
+        /**
+         * Camino guardado, o null si la consulta se guardó sin camino
+         */
+        public Camino getCamino() {
+            return camino;
+        }
+    }
+
+    public CacheRutas(int capacidad) {
+        this.capacidad = Math.max(1, capacidad);
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true);
+        this.dependientes = new IdentityHashMap<>();
+        this.versiones = new long[CriterioRuta.values().length];
+        this.cambios = new long[CriterioRuta.values().length];
+        this.aciertos = new AtomicLong();
+        this.fallos = new AtomicLong();
+        this.invalidaciones = new AtomicLong();
+    }
+
+    /**
+     * Busca un camino guardado
+     *
+     * @return el resultado guardado, o null si no hay una entrada vigente
+     */
+    public synchronized Resultado obtener(String origen, String destino, CriterioRuta criterio) {
+        Clave clave = new Clave(origen, destino, criterio);
+        Entrada entrada = entradas.get(clave);
+        if (entrada != null && entrada.version != versiones[criterio.ordinal()]) {
+            eliminar(clave);
+            invalidaciones.incrementAndGet();
+            entrada = null;
+        }
+        if (entrada == null) {
+            fallos.incrementAndGet();
+            return null;
+        }
+        aciertos.incrementAndGet();
+        return new Resultado(entrada.camino);
+    }
+
+    /**
+     * Marca de cambios del criterio; se toma antes de calcular el camino y se entrega a
+     * {@link #guardar(String, String, CriterioRuta, Camino, long)}
+     */
+    public synchronized long marca(CriterioRuta criterio) {
+        return cambios[criterio.ordinal()];
+    }
+
+    /**
+     * Guarda un camino (o null si no existe) calculado desde la marca indicada.
+     * Si alguna ruta cambió mientras se calculaba, el resultado no se guarda.
+     */
+    public synchronized void guardar(String origen, String destino, CriterioRuta criterio, Camino camino, long marca) {
+        int indice = criterio.ordinal();
+        if (marca != cambios[indice]) return;
+
+        Clave clave = new Clave(origen, destino, criterio);
+        eliminar(clave);
+        entradas.put(clave, new Entrada(camino, versiones[indice]));
+        if (camino != null) {
+            for (Ruta tramo : camino.getTramos()) {
+                dependientes.computeIfAbsent(tramo, r -> new HashSet<>()).add(clave);
+            }
+        }
+
+        if (entradas.size() > capacidad) {
+            Iterator<Clave> iterador = entradas.keySet().iterator();
+            eliminar(iterador.next());
+        }
+    }
+
+    /**
+     * Cambió algún peso de la ruta: se descartan los caminos que la usan, en cualquier criterio.
+     * Basta para un empeoramiento; si además mejoró, se debe llamar a {@link #rutaMejorada(CriterioRuta)}.
+     */
+    public synchronized void rutaModificada(Ruta ruta) {
+        for (int i = 0; i < cambios.length; i++) {
+            cambios[i]++;
+        }
+        Set<Clave> claves = dependientes.get(ruta);
+        if (claves == null) return;
+        for (Clave clave : claves.toArray(new Clave[0])) {
+            eliminar(clave);
+            invalidaciones.incrementAndGet();
+        }
+    }
+
+    /**
+     * Una ruta mejoró o se agregó: se invalidan todos los caminos del criterio
+     */
+    public synchronized void rutaMejorada(CriterioRuta criterio) {
+        cambios[criterio.ordinal()]++;
+        versiones[criterio.ordinal()]++;
+    }
+
+    /**
+     * Invalida todos los caminos guardados
+     */
+    public synchronized void invalidarTodo() {
+        for (CriterioRuta criterio : CriterioRuta.values()) {
+            rutaMejorada(criterio);
+        }
+    }
+
+    private void eliminar(Clave clave) {
+        Entrada entrada = entradas.remove(clave);
+        if (entrada == null || entrada.camino == null) return;
+        for (Ruta tramo : entrada.camino.getTramos()) {
+            Set<Clave> claves = dependientes.get(tramo);
+            if (claves != null) {
+                claves.remove(clave);
+                if (claves.isEmpty()) dependientes.remove(tramo);
+            }
+        }
+    }
+
+    public long getAciertos() {
+        return aciertos.get();
+    }
+
+    public long getFallos() {
+        return fallos.get();
+    }
+
+    /**
+     * Entradas descartadas porque una ruta cambió
+     */
+    public long getInvalidaciones() {
+        return invalidaciones.get();
+    }
+
+    public synchronized int getTamano() {
+        return entradas.size();
+    }
+
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Calcula el porcentaje de consultas resueltas desde la caché
+     */
+    public double calcularTasaAciertos() {
+        long total = aciertos.get() + fallos.get();
+        if (total == 0) return 0.0;
+        return (double) aciertos.get() / total * 100;
+    }
+
+    /**
+     * Obtiene estadísticas de la caché
+     */
+    public String generarEstadisticas() {
+        StringBuilder stats = new StringBuilder();
+        stats.append("=== ESTADÍSTICAS DE LA CACHÉ DE RUTAS ===\n");
+        stats.append("Entradas: ").append(getTamano()).append(" / ").append(capacidad).append("\n");
+        stats.append("Aciertos: ").append(getAciertos()).append("\n");
+        stats.append("Fallos: ").append(getFallos()).append("\n");
+        stats.append("Tasa de aciertos: ").append(String.format("%.2f%%", calcularTasaAciertos())).append("\n");
+        stats.append("Invalidaciones: ").append(getInvalidaciones()).append("\n");
+        return stats.toString();
+    }
+}
@@ -0,0 +1,67 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Interfaces.ICalcularRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.Zona;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base para las estrategias de ruta más corta que trabajan sobre el grafo compacto.
+ * Las subclases solo implementan la búsqueda entre índices de nodos; el resto de
+ * operaciones de ICalcularRuta se resuelven con el grafo vinculado.
+ */
+public abstract class CalculadorRutaCompacto implements ICalcularRuta {
+    private GrafoDirigido grafo;
+
+    /**
+     * Busca el camino más corto por distancia entre dos nodos del grafo compacto
+     *
+     * @return aristas del camino en orden, o null si no hay camino
+     */
+    protected abstract int[] buscarCamino(GrafoCompacto grafoCompacto, int origen, int destino);
+
+    @Override
+    public void vincularGrafo(GrafoDirigido grafo) {
+        this.grafo = grafo;
+    }
+
+    @Override
+    public List<Zona> calcularRutaMasCorta(Zona origen, Zona destino) {
+        if (grafo == null || origen == null || destino == null) return new ArrayList<>();
+        if (origen.getId().equals(destino.getId())) return new ArrayList<>(List.of(origen));
+
+        GrafoCompacto grafoCompacto = grafo.obtenerGrafoCompacto();
+        int inicio = grafoCompacto.indiceDe(origen.getId());
+        int fin = grafoCompacto.indiceDe(destino.getId());
+        if (inicio < 0 || fin < 0) return new ArrayList<>();
+
+        int[] camino = buscarCamino(grafoCompacto, inicio, fin);
+        if (camino == null) return new ArrayList<>();
+        return GrafoDirigido.convertirAZonas(grafoCompacto, origen, camino);
+    }
+
+    @Override
+    public List<Ruta> calcularTodasLasRutas(Zona origen, Zona destino) {
+        return grafo != null ? grafo.calcularTodasLasRutas(origen, destino) : new ArrayList<>();
+    }
+
+    @Override
+    public Ruta calcularRutaMasRapida(Zona origen, Zona destino) {
+        return grafo != null ? grafo.calcularRutaMasRapida(origen, destino) : null;
+    }
+
+    @Override
+    public Ruta calcularRutaMasSegura(Zona origen, Zona destino) {
+        return grafo != null ? grafo.calcularRutaMasSegura(origen, destino) : null;
+    }
+
+    @Override
+    public boolean existeRuta(Zona origen, Zona destino) {
+        return grafo != null && grafo.existeRuta(origen, destino);
+    }
+
+    protected GrafoDirigido getGrafo() {
+        return grafo;
+    }
+}
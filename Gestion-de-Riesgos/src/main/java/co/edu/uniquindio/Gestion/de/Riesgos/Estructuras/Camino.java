@@ -0,0 +1,160 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.CriterioRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.TipoRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.Zona;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Clase que representa un camino completo entre dos zonas,
+ * formado por una secuencia de rutas consecutivas del grafo
+ */
+public class Camino {
+    private final List<Ruta> tramos;
+    private final double distanciaTotal;
+    private final double tiempoTotal;
+    private final double riesgoTotal;
+
+    public Camino(List<Ruta> tramos) {
+        this.tramos = new ArrayList<>(tramos);
+        double distancia = 0.0;
+        double tiempo = 0.0;
+        double riesgo = 0.0;
+        for (Ruta tramo : tramos) {
+            distancia += tramo.getDistancia();
+            tiempo += tramo.getTiempoEstimado();
+            riesgo += tramo.getNivelRiesgo();
+        }
+        this.distanciaTotal = distancia;
+        this.tiempoTotal = tiempo;
+        this.riesgoTotal = riesgo;
+    }
+
+    /**
+     * Construye el camino a partir de índices de aristas del grafo compacto
+     */
+    static Camino desdeAristas(GrafoCompacto grafo, int[] aristas) {
+        List<Ruta> tramos = new ArrayList<>(aristas.length);
+        for (int e : aristas) {
+            tramos.add(grafo.ruta(e));
+        }
+        return new Camino(tramos);
+    }
+
+    /**
+     * Costo total del camino según el criterio indicado
+     */
+    public double calcularCosto(CriterioRuta criterio) {
+        switch (criterio) {
+            case TIEMPO:
+                return tiempoTotal;
+            case RIESGO:
+                return riesgoTotal;
+            default:
+                return distanciaTotal;
+        }
+    }
+
+    /**
+     * Obtiene la secuencia de zonas recorridas, incluyendo origen y destino
+     */
+    public List<Zona> obtenerZonas() {
+        List<Zona> zonas = new ArrayList<>(tramos.size() + 1);
+        if (!tramos.isEmpty()) {
+            zonas.add(tramos.get(0).getOrigen());
+            for (Ruta tramo : tramos) {
+                zonas.add(tramo.getDestino());
+            }
+        }
+        return zonas;
+    }
+
+    /**
+     * Riesgo del tramo más peligroso del camino
+     */
+    public double calcularRiesgoMaximo() {
+        return tramos.stream().mapToDouble(Ruta::getNivelRiesgo).max().orElse(0.0);
+    }
+
+    /**
+     * Representa el camino como una única Ruta.
+     * Si el camino tiene un solo tramo se devuelve la ruta original; si tiene varios,
+     * se crea una ruta compuesta con la distancia y el tiempo acumulados, el riesgo del
+     * peor tramo y la capacidad disponible del tramo más restrictivo, que conserva sus tramos.
+     */
+    public Ruta comoRuta() {
+        if (tramos.isEmpty()) return null;
+        if (tramos.size() == 1) return tramos.get(0);
+
+        Ruta primero = tramos.get(0);
+        Ruta compuesta = new Ruta(
+            tramos.stream().map(Ruta::getId).collect(Collectors.joining("+")),
+            primero.getOrigen(),
+            tramos.get(tramos.size() - 1).getDestino(),
+            distanciaTotal,
+            tiempoTotal,
+            obtenerTipoPredominante()
+        );
+        compuesta.setTramos(tramos);
+        compuesta.setNivelRiesgo(calcularRiesgoMaximo());
+        compuesta.setActiva(tramos.stream().allMatch(Ruta::isActiva));
+
+        int capacidadMaxima = tramos.stream().mapToInt(Ruta::getCapacidadMaxima).min().orElse(0);
+        int capacidadDisponible = tramos.stream().mapToInt(Ruta::obtenerCapacidadDisponible).min().orElse(0);
+        compuesta.setCapacidadMaxima(capacidadMaxima);
+        compuesta.setCapacidadActual(capacidadMaxima - Math.min(capacidadMaxima, capacidadDisponible));
+        compuesta.setDescripcion("Ruta compuesta: " + obtenerZonas().stream()
+            .map(Zona::getNombre)
+            .collect(Collectors.joining(" -> ")));
+        return compuesta;
+    }
+
+    /**
+     * Tipo de ruta que cubre la mayor distancia del camino
+     */
+    private TipoRuta obtenerTipoPredominante() {
+        double[] distanciaPorTipo = new double[TipoRuta.values().length];
+        for (Ruta tramo : tramos) {
+            if (tramo.getTipo() != null) {
+                distanciaPorTipo[tramo.getTipo().ordinal()] += tramo.getDistancia();
+            }
+        }
+        TipoRuta predominante = tramos.get(0).getTipo();
+        for (TipoRuta tipo : TipoRuta.values()) {
+            if (predominante == null || distanciaPorTipo[tipo.ordinal()] > distanciaPorTipo[predominante.ordinal()]) {
+                predominante = tipo;
+            }
+        }
+        return predominante;
+    }
+
+    public List<Ruta> getTramos() {
+        return new ArrayList<>(tramos);
+    }
+
+    public int getNumeroTramos() {
+        return tramos.size();
+    }
+
+    public double getDistanciaTotal() {
+        return distanciaTotal;
+    }
+
+    public double getTiempoTotal() {
+        return tiempoTotal;
+    }
+
+    public double getRiesgoTotal() {
+        return riesgoTotal;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Camino{tramos=%s, distancia=%.2f, tiempo=%.2f, riesgo=%.2f}",
+            tramos.stream().map(Ruta::getId).collect(Collectors.joining("->")),
+            distanciaTotal, tiempoTotal, riesgoTotal);
+    }
+}
@@ -0,0 +1,98 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.CriterioRuta;
+
+/**
+ * Búsquedas por capacidad sobre el grafo compacto, para evacuaciones en las que el
+ * límite es el tramo más angosto y no la longitud del camino.
+ *
+ * El camino más ancho (de máximo cuello de botella) se obtiene con un Dijkstra que asienta
+ * los nodos en orden decreciente de capacidad alcanzable. Como el grafo es dirigido no se
+ * usa un árbol de expansión máximo, que solo da los cuellos de botella en grafos simétricos.
+ */
+public final class CaminoMasAncho {
+
+    private CaminoMasAncho() {
+    }
+
+    /**
+     * Calcula el mayor cuello de botella posible entre dos nodos
+     *
+     * @return capacidad del camino más ancho (infinita si ningún tramo tiene límite), o 0 si no hay camino con cupo
+     */
+    public static double calcularAnchoMaximo(GrafoCompacto grafo, int origen, int destino) {
+        if (origen < 0 || destino < 0) return 0.0;
+        if (origen == destino) return Double.POSITIVE_INFINITY;
+
+        EstadoBusqueda estado = EstadoBusqueda.delHilo(grafo.getNumeroNodos());
+        MonticuloIndexado monticulo = estado.getMonticulo();
+        // El estado guarda el ancho negado para que el montículo de mínimos extraiga el más ancho
+        estado.actualizar(origen, Double.NEGATIVE_INFINITY, -1);
+        monticulo.insertarODisminuir(origen, Double.NEGATIVE_INFINITY);
+
+        while (!monticulo.estaVacio()) {
+            int actual = monticulo.extraerMinimo();
+            estado.registrarAsentado();
+            double anchoActual = -estado.distancia(actual);
+            if (actual == destino) return anchoActual;
+
+            for (int e = grafo.inicioAristas(actual), fin = grafo.finAristas(actual); e < fin; e++) {
+                double ancho = Math.min(anchoActual, grafo.capacidad(e));
+                if (ancho <= 0.0) continue;
+                int vecino = grafo.destino(e);
+                if (-ancho < estado.distancia(vecino)) {
+                    estado.actualizar(vecino, -ancho, e);
+                    monticulo.insertarODisminuir(vecino, -ancho);
+                }
+            }
+        }
+        return 0.0;
+    }
+
+    /**
+     * Camino de menor costo según el criterio que solo usa tramos con capacidad disponible
+     * de al menos {@code capacidadMinima}
+     *
+     * @return aristas del camino en orden, o null si no hay camino con esa capacidad
+     */
+    public static int[] buscarConCapacidad(GrafoCompacto grafo, int origen, int destino, double capacidadMinima,
+                                           CriterioRuta criterio) {
+        if (origen < 0 || destino < 0) return null;
+
+        double[] pesos = grafo.pesos(criterio);
+        EstadoBusqueda estado = EstadoBusqueda.delHilo(grafo.getNumeroNodos());
+        MonticuloIndexado monticulo = estado.getMonticulo();
+        estado.actualizar(origen, 0.0, -1);
+        monticulo.insertarODisminuir(origen, 0.0);
+
+        while (!monticulo.estaVacio()) {
+            int actual = monticulo.extraerMinimo();
+            estado.registrarAsentado();
+            if (actual == destino) return BusquedaDijkstra.extraerAristas(grafo, estado, destino);
+
+            double distanciaActual = estado.distancia(actual);
+            for (int e = grafo.inicioAristas(actual), fin = grafo.finAristas(actual); e < fin; e++) {
+                double capacidad = grafo.capacidad(e);
+                if (capacidad <= 0.0 || capacidad < capacidadMinima) continue;
+                int vecino = grafo.destino(e);
+                double nuevaDistancia = distanciaActual + pesos[e];
+                if (nuevaDistancia < estado.distancia(vecino)) {
+                    estado.actualizar(vecino, nuevaDistancia, e);
+                    monticulo.insertarODisminuir(vecino, nuevaDistancia);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Camino más ancho entre dos nodos; entre los de igual cuello de botella, el de menor costo según el criterio
+     *
+     * @return aristas del camino en orden, o null si no hay camino con cupo
+     */
+    public static int[] buscarMasAncho(GrafoCompacto grafo, int origen, int destino, CriterioRuta criterio) {
+        double anchoMaximo = calcularAnchoMaximo(grafo, origen, destino);
+        if (anchoMaximo <= 0.0) return null;
+        return buscarConCapacidad(grafo, origen, destino, anchoMaximo, criterio);
+    }
+}
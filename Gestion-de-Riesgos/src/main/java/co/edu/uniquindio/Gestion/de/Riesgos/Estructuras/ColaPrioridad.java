@@ -12,15 +12,21 @@ import java.util.PriorityQueue;
  * según su nivel de urgencia y prioridad
  */
 public class ColaPrioridad {
+    /**
+     * Prioridad descendente; a igual prioridad, primero la que termina antes y luego la más antigua
+     */
+    private static final Comparator<Evacuacion> ORDEN = Comparator
+        .comparingInt(Evacuacion::calcularPrioridad)
+        .reversed()
+        .thenComparingDouble(Evacuacion::calcularTiempoEstimado)
+        .thenComparing(Evacuacion::getFechaInicio);
+    
     private PriorityQueue<Evacuacion> colaEvacuaciones;
     private List<Evacuacion> historialEvacuaciones;
     
     public ColaPrioridad() {
         // Ordenar por prioridad descendente (mayor prioridad primero)
-        this.colaEvacuaciones = new PriorityQueue<>(Comparator
-            .comparingInt(Evacuacion::calcularPrioridad)
-            .reversed()
-            .thenComparing(evacuacion -> evacuacion.getFechaInicio()));
+        this.colaEvacuaciones = new PriorityQueue<>(ORDEN);
         this.historialEvacuaciones = new ArrayList<>();
     }
     
@@ -87,16 +93,35 @@ public class ColaPrioridad {
         List<Evacuacion> evacuaciones = new ArrayList<>(colaEvacuaciones);
         colaEvacuaciones.clear();
         
-        evacuaciones.sort(Comparator
-            .comparingInt(Evacuacion::calcularPrioridad)
-            .reversed()
-            .thenComparing(Evacuacion::getFechaInicio));
+        evacuaciones.sort(ORDEN);
         
         for (Evacuacion evacuacion : evacuaciones) {
             colaEvacuaciones.offer(evacuacion);
         }
     }
     
+    /**
+     * Programa en el tiempo las evacuaciones planificadas o en progreso, en orden de prioridad,
+     * para que compitan por el caudal de las rutas. Actualiza el tiempo estimado de cada una
+     * y vuelve a priorizar la cola con esos tiempos.
+     *
+     * @param intervalo duración de cada intervalo de la programación, en horas
+     */
+    public ProgramaEvacuaciones programar(GrafoDirigido grafo, double intervalo) {
+        List<Evacuacion> pendientes = colaEvacuaciones.stream()
+            .filter(evacuacion -> evacuacion.getEstado() == Evacuacion.EstadoEvacuacion.PLANIFICADA ||
+                evacuacion.getEstado() == Evacuacion.EstadoEvacuacion.EN_PROGRESO)
+            .sorted(ORDEN)
+            .toList();
+        
+        ProgramaEvacuaciones programa = grafo.programarEvacuaciones(pendientes, intervalo);
+        for (Evacuacion evacuacion : pendientes) {
+            evacuacion.setTiempoEstimadoProgramado(programa.obtenerTiempoFinalizacion(evacuacion));
+        }
+        priorizar();
+        return programa;
+    }
+    
     /**
      * Obtiene evacuaciones por estado
      */
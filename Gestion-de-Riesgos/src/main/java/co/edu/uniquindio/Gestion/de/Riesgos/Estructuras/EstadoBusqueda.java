@@ -0,0 +1,105 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import java.util.Arrays;
+
+/**
+ * Memoria de trabajo reutilizable para las búsquedas sobre el grafo compacto.
+ * Cada hilo conserva su propia instancia; en lugar de limpiar los arreglos en
+ * cada consulta se usa una marca de generación, así que preparar una búsqueda
+ * cuesta O(1) y no genera basura.
+ */
+public class EstadoBusqueda {
+    private static final ThreadLocal<EstadoBusqueda> POR_HILO = ThreadLocal.withInitial(EstadoBusqueda::new);
+    private static final ThreadLocal<EstadoBusqueda> INVERSO_POR_HILO = ThreadLocal.withInitial(EstadoBusqueda::new);
+
+    private double[] distancias;
+    private int[] aristasPredecesoras;
+    private int[] marcas;
+    private int generacion;
+    private final MonticuloIndexado monticulo;
+    private int nodosAsentados;
+
+    public EstadoBusqueda() {
+        this.distancias = new double[0];
+        this.aristasPredecesoras = new int[0];
+        this.marcas = new int[0];
+        this.monticulo = new MonticuloIndexado(16);
+    }
+
+    /**
+     * Obtiene el estado del hilo actual preparado para un grafo de n nodos
+     */
+    public static EstadoBusqueda delHilo(int numeroNodos) {
+        EstadoBusqueda estado = POR_HILO.get();
+        estado.preparar(numeroNodos);
+        return estado;
+    }
+
+    /**
+     * Obtiene un segundo estado del hilo actual, para la dirección inversa de las
+     * búsquedas bidireccionales, preparado para un grafo de n nodos
+     */
+    public static EstadoBusqueda inversoDelHilo(int numeroNodos) {
+        EstadoBusqueda estado = INVERSO_POR_HILO.get();
+        estado.preparar(numeroNodos);
+        return estado;
+    }
+
+    /**
+     * Deja el estado listo para una nueva búsqueda sin recorrer los arreglos
+     */
+    public void preparar(int numeroNodos) {
+        if (marcas.length < numeroNodos) {
+            int capacidad = Math.max(numeroNodos, marcas.length + (marcas.length >> 1));
+            distancias = Arrays.copyOf(distancias, capacidad);
+            aristasPredecesoras = Arrays.copyOf(aristasPredecesoras, capacidad);
+            marcas = Arrays.copyOf(marcas, capacidad);
+            monticulo.asegurarCapacidad(capacidad);
+        }
+        monticulo.limpiar();
+        nodosAsentados = 0;
+        if (++generacion == Integer.MAX_VALUE) {
+            Arrays.fill(marcas, 0);
+            generacion = 1;
+        }
+    }
+
+    /**
+     * Distancia tentativa del nodo en la búsqueda actual (infinito si no se ha alcanzado)
+     */
+    public double distancia(int nodo) {
+        return marcas[nodo] == generacion ? distancias[nodo] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Arista por la que se llegó al nodo, o -1 si es el origen o no se ha alcanzado
+     */
+    public int aristaPredecesora(int nodo) {
+        return marcas[nodo] == generacion ? aristasPredecesoras[nodo] : -1;
+    }
+
+    public boolean alcanzado(int nodo) {
+        return marcas[nodo] == generacion;
+    }
+
+    /**
+     * Registra una nueva distancia tentativa y la arista que la produjo
+     */
+    public void actualizar(int nodo, double distancia, int aristaPredecesora) {
+        marcas[nodo] = generacion;
+        distancias[nodo] = distancia;
+        aristasPredecesoras[nodo] = aristaPredecesora;
+    }
+
+    public MonticuloIndexado getMonticulo() {
+        return monticulo;
+    }
+
+    public void registrarAsentado() {
+        nodosAsentados++;
+    }
+
+    public int getNodosAsentados() {
+        return nodosAsentados;
+    }
+}
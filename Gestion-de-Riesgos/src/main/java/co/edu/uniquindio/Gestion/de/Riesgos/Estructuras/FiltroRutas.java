@@ -0,0 +1,110 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.TipoRuta;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Condiciones que debe cumplir una ruta para usarse en una búsqueda: estar activa,
+ * ser de uno de los tipos permitidos y admitir al menos cierta cantidad de personas.
+ *
+ * Antes de buscar, el filtro se traduce a un conjunto de bits sobre las aristas del
+ * grafo compacto, así que durante la búsqueda cada arista cuesta una prueba de bit
+ * en lugar de consultar la ruta.
+ */
+public class FiltroRutas {
+    private final EnumSet<TipoRuta> tipos;
+    private final int capacidadMinima;
+
+    /**
+     * @param tipos tipos de ruta permitidos, o null para permitir todos (incluidas las rutas sin tipo)
+     * @param capacidadMinima personas que debe admitir cada ruta, o 0 para no exigir capacidad
+     * @throws IllegalArgumentException si la capacidad mínima es negativa
+     */
+    public FiltroRutas(Collection<TipoRuta> tipos, int capacidadMinima) {
+        if (capacidadMinima < 0) {
+            throw new IllegalArgumentException("La capacidad mínima no puede ser negativa: " + capacidadMinima);
+        }
+        this.tipos = tipos == null ? null
+            : tipos.isEmpty() ? EnumSet.noneOf(TipoRuta.class) : EnumSet.copyOf(tipos);
+        this.capacidadMinima = capacidadMinima;
+    }
+
+    /**
+     * Filtro que solo descarta las rutas inactivas
+     */
+    public static FiltroRutas soloActivas() {
+        return new FiltroRutas(null, 0);
+    }
+
+    /**
+     * Filtro que descarta las rutas inactivas y las de los tipos indicados
+     */
+    public static FiltroRutas sinTipos(TipoRuta... excluidos) {
+        EnumSet<TipoRuta> tipos = EnumSet.allOf(TipoRuta.class);
+        for (TipoRuta tipo : excluidos) tipos.remove(tipo);
+        return new FiltroRutas(tipos, 0);
+    }
+
+    /**
+     * Copia de este filtro que además exige la capacidad disponible indicada
+     */
+    public FiltroRutas conCapacidadMinima(int personas) {
+        return new FiltroRutas(tipos, personas);
+    }
+
+    /**
+     * Verifica si el filtro descarta algo más que las rutas inactivas
+     */
+    public boolean restringe() {
+        return tipos != null || capacidadMinima > 0;
+    }
+
+    /**
+     * Verifica si la ruta cumple el filtro
+     */
+    public boolean admite(Ruta ruta) {
+        if (ruta == null || !ruta.isActiva()) return false;
+        if (tipos != null && (ruta.getTipo() == null || !tipos.contains(ruta.getTipo()))) return false;
+        return capacidadMinima == 0 || ruta.getCapacidadMaxima() == 0
+            || ruta.obtenerCapacidadDisponible() >= capacidadMinima;
+    }
+
+    /**
+     * Conjunto de bits indexado por arista con las aristas del grafo que cumplen el filtro,
+     * en el formato de {@link BusquedaDijkstra#ejecutar(GrafoCompacto, int, int, double[], long[], EstadoBusqueda)}
+     */
+    long[] compilar(GrafoCompacto grafo) {
+        boolean[] tiposPermitidos = new boolean[TipoRuta.values().length];
+        for (TipoRuta tipo : TipoRuta.values()) {
+            tiposPermitidos[tipo.ordinal()] = tipos == null || tipos.contains(tipo);
+        }
+
+        int numeroAristas = grafo.getNumeroAristas();
+        long[] permitidas = new long[(numeroAristas + 63) >>> 6];
+        for (int e = 0; e < numeroAristas; e++) {
+            int tipo = grafo.ordinalTipo(e);
+            if (tipo >= 0 ? !tiposPermitidos[tipo] : tipos != null) continue;
+            // Las rutas inactivas tienen capacidad 0 y tiempo infinito
+            if (grafo.capacidad(e) < capacidadMinima || grafo.tiempo(e) == Double.POSITIVE_INFINITY) continue;
+            permitidas[e >>> 6] |= 1L << e;
+        }
+        return permitidas;
+    }
+
+    public Set<TipoRuta> getTipos() {
+        return tipos == null ? EnumSet.allOf(TipoRuta.class) : EnumSet.copyOf(tipos);
+    }
+
+    public int getCapacidadMinima() {
+        return capacidadMinima;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FiltroRutas{tipos=%s, capacidadMinima=%d}",
+            tipos == null ? "todos" : tipos, capacidadMinima);
+    }
+}
@@ -0,0 +1,147 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import java.util.Arrays;
+
+/**
+ * Red residual para flujo máximo de costo mínimo con caminos más cortos sucesivos.
+ * Cada aumento busca el camino más barato con Dijkstra sobre costos reducidos
+ * (potenciales de Johnson), que siguen siendo no negativos aunque aparezcan arcos
+ * inversos, así que cada iteración cuesta O(E log V).
+ *
+ * Los arcos se guardan en pares: el arco 2k es el directo y el 2k+1 su inverso.
+ */
+public class FlujoCostoMinimo {
+    /**
+     * Capacidad que se usa para arcos sin límite
+     */
+    public static final long ILIMITADA = Long.MAX_VALUE / 4;
+
+    private final int numeroNodos;
+    private final int[] primerArco;
+    private int[] destinos;
+    private int[] siguientes;
+    private long[] capacidades;
+    private long[] capacidadesIniciales;
+    private double[] costos;
+    private int numeroArcos;
+    private long flujoTotal;
+    private double costoTotal;
+
+    public FlujoCostoMinimo(int numeroNodos) {
+        this.numeroNodos = numeroNodos;
+        this.primerArco = new int[numeroNodos];
+        Arrays.fill(primerArco, -1);
+        int capacidad = 16;
+        this.destinos = new int[capacidad];
+        this.siguientes = new int[capacidad];
+        this.capacidades = new long[capacidad];
+        this.capacidadesIniciales = new long[capacidad];
+        this.costos = new double[capacidad];
+    }
+
+    /**
+     * Agrega un arco con capacidad y costo por unidad no negativo
+     *
+     * @return índice del arco directo, para consultar luego su flujo
+     */
+    public int agregarArco(int origen, int destino, long capacidad, double costo) {
+        if (numeroArcos + 2 > destinos.length) {
+            int nuevaCapacidad = destinos.length * 2;
+            destinos = Arrays.copyOf(destinos, nuevaCapacidad);
+            siguientes = Arrays.copyOf(siguientes, nuevaCapacidad);
+            capacidades = Arrays.copyOf(capacidades, nuevaCapacidad);
+            capacidadesIniciales = Arrays.copyOf(capacidadesIniciales, nuevaCapacidad);
+            costos = Arrays.copyOf(costos, nuevaCapacidad);
+        }
+        int arco = numeroArcos;
+        enlazar(arco, origen, destino, capacidad, costo);
+        enlazar(arco + 1, destino, origen, 0, -costo);
+        numeroArcos += 2;
+        return arco;
+    }
+
+    private void enlazar(int arco, int origen, int destino, long capacidad, double costo) {
+        destinos[arco] = destino;
+        capacidades[arco] = capacidad;
+        capacidadesIniciales[arco] = capacidad;
+        costos[arco] = costo;
+        siguientes[arco] = primerArco[origen];
+        primerArco[origen] = arco;
+    }
+
+    /**
+     * Envía hasta {@code limite} unidades de la fuente al sumidero al menor costo total
+     *
+     * @return unidades enviadas en esta llamada
+     */
+    public long resolver(int fuente, int sumidero, long limite) {
+        double[] potenciales = new double[numeroNodos];
+        double[] distancias = new double[numeroNodos];
+        int[] arcosPrevios = new int[numeroNodos];
+        boolean[] asentados = new boolean[numeroNodos];
+        MonticuloIndexado monticulo = new MonticuloIndexado(Math.max(16, numeroNodos));
+        long enviado = 0;
+
+        while (enviado < limite) {
+            Arrays.fill(distancias, Double.POSITIVE_INFINITY);
+            Arrays.fill(asentados, false);
+            monticulo.limpiar();
+            distancias[fuente] = 0.0;
+            arcosPrevios[fuente] = -1;
+            monticulo.insertarODisminuir(fuente, 0.0);
+
+            while (!monticulo.estaVacio()) {
+                int actual = monticulo.extraerMinimo();
+                asentados[actual] = true;
+                if (actual == sumidero) break;
+                for (int a = primerArco[actual]; a >= 0; a = siguientes[a]) {
+                    int vecino = destinos[a];
+                    if (capacidades[a] == 0 || asentados[vecino]) continue;
+                    // El redondeo puede dejar costos reducidos apenas negativos
+                    double reducido = Math.max(0.0, costos[a] + potenciales[actual] - potenciales[vecino]);
+                    double nuevaDistancia = distancias[actual] + reducido;
+                    if (nuevaDistancia < distancias[vecino]) {
+                        distancias[vecino] = nuevaDistancia;
+                        arcosPrevios[vecino] = a;
+                        monticulo.insertarODisminuir(vecino, nuevaDistancia);
+                    }
+                }
+            }
+            if (!asentados[sumidero]) break;
+
+            double distanciaSumidero = distancias[sumidero];
+            for (int v = 0; v < numeroNodos; v++) {
+                potenciales[v] += Math.min(distancias[v], distanciaSumidero);
+            }
+
+            long aumento = limite - enviado;
+            for (int v = sumidero; v != fuente; v = destinos[arcosPrevios[v] ^ 1]) {
+                aumento = Math.min(aumento, capacidades[arcosPrevios[v]]);
+            }
+            for (int v = sumidero; v != fuente; v = destinos[arcosPrevios[v] ^ 1]) {
+                int a = arcosPrevios[v];
+                capacidades[a] -= aumento;
+                capacidades[a ^ 1] += aumento;
+                costoTotal += aumento * costos[a];
+            }
+            enviado += aumento;
+        }
+        flujoTotal += enviado;
+        return enviado;
+    }
+
+    /**
+     * Flujo que pasa por el arco directo indicado
+     */
+    public long flujo(int arco) {
+        return capacidadesIniciales[arco] - capacidades[arco];
+    }
+
+    public long getFlujoTotal() {
+        return flujoTotal;
+    }
+
+    public double getCostoTotal() {
+        return costoTotal;
+    }
+}
@@ -0,0 +1,309 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.CriterioRuta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Búsqueda multietiqueta (MLC) del frente de Pareto entre dos nodos según distancia,
+ * tiempo y riesgo a la vez. Cada nodo guarda una bolsa de etiquetas no dominadas; las
+ * etiquetas se procesan en orden lexicográfico de su costo más una cota inferior hasta el
+ * destino, de modo que una etiqueta extraída nunca es dominada por otra posterior en el
+ * mismo nodo. Se descartan las etiquetas dominadas en su nodo y las que, aun con la cota
+ * inferior, quedarían dominadas por un camino ya encontrado al destino.
+ *
+ * Con tres criterios poco correlacionados el frente exacto crece muy rápido con el tamaño
+ * del grafo, por eso se admite una tolerancia: una etiqueta se descarta si otra no es más
+ * de (1 + tolerancia) veces peor en ningún criterio. Con tolerancia 0 el frente es exacto.
+ */
+public final class FrentePareto {
+    /**
+     * Tolerancia usada por el grafo: los caminos que difieren menos de 5 % se consideran equivalentes
+     */
+    public static final double TOLERANCIA_POR_DEFECTO = 0.05;
+
+    private static final int CRITERIOS = 3;
+
+    private FrentePareto() {
+    }
+
+    /**
+     * Calcula los caminos no dominados entre dos nodos.
+     * Si el frente tiene más de {@code maximoCaminos} caminos se conservan el mejor en cada
+     * criterio y caminos repartidos a lo largo del frente.
+     *
+     * @param tolerancia fracción en que una etiqueta puede ser peor que otra y aun así considerarse dominada
+     * @return caminos ordenados por distancia; vacío si no hay camino
+     */
+    public static List<Camino> calcular(GrafoCompacto grafo, int origen, int destino, int maximoCaminos,
+                                        double tolerancia) {
+        if (origen < 0 || destino < 0 || maximoCaminos <= 0) return new ArrayList<>();
+        if (origen == destino) return new ArrayList<>(List.of(new Camino(new ArrayList<>())));
+
+        Busqueda busqueda = new Busqueda(grafo, destino, 1.0 + Math.max(0.0, tolerancia));
+        List<int[]> frente = busqueda.ejecutar(origen);
+        List<Camino> caminos = new ArrayList<>(frente.size());
+        for (int[] aristas : reducir(frente, busqueda, maximoCaminos)) {
+            caminos.add(Camino.desdeAristas(grafo, aristas));
+        }
+        caminos.sort(Comparator.comparingDouble(Camino::getDistanciaTotal));
+        return caminos;
+    }
+
+    /**
+     * Reduce el frente al tamaño máximo conservando los extremos y caminos espaciados por distancia
+     */
+    private static List<int[]> reducir(List<int[]> frente, Busqueda busqueda, int maximoCaminos) {
+        if (frente.size() <= maximoCaminos) return frente;
+
+        List<int[]> porDistancia = new ArrayList<>(frente);
+        porDistancia.sort(Comparator.comparingDouble(aristas -> busqueda.costo(aristas, 0)));
+        TreeSet<Integer> elegidos = new TreeSet<>();
+        for (int criterio = 0; criterio < CRITERIOS && elegidos.size() < maximoCaminos; criterio++) {
+            int mejor = 0;
+            for (int i = 1; i < porDistancia.size(); i++) {
+                if (busqueda.costo(porDistancia.get(i), criterio) < busqueda.costo(porDistancia.get(mejor), criterio)) {
+                    mejor = i;
+                }
+            }
+            elegidos.add(mejor);
+        }
+        int ultimo = porDistancia.size() - 1;
+        for (int paso = maximoCaminos; elegidos.size() < maximoCaminos; paso++) {
+            for (int i = 0; i < paso && elegidos.size() < maximoCaminos; i++) {
+                elegidos.add((int) Math.round((double) i * ultimo / Math.max(1, paso - 1)));
+            }
+        }
+
+        List<int[]> reducido = new ArrayList<>(elegidos.size());
+        for (int i : elegidos) {
+            reducido.add(porDistancia.get(i));
+        }
+        return reducido;
+    }
+
+    /**
+     * Estado de una búsqueda: etiquetas en arreglos paralelos y una bolsa por nodo
+     */
+    private static final class Busqueda {
+        private final GrafoCompacto grafo;
+        private final int destino;
+        private final double[][] pesos;
+        private final double[][] cotas;
+        private final double factorDominancia;
+
+        private double[] costos;
+        private int[] nodos;
+        private int[] previas;
+        private int[] aristas;
+        private boolean[] descartadas;
+        private int numeroEtiquetas;
+
+        private final int[][] bolsas;
+        private final int[] tamanosBolsas;
+
+        private int[] monticulo;
+        private int tamanoMonticulo;
+
+        Busqueda(GrafoCompacto grafo, int destino, double factorDominancia) {
+            int n = grafo.getNumeroNodos();
+            this.grafo = grafo;
+            this.destino = destino;
+            this.factorDominancia = factorDominancia;
+            this.pesos = new double[][]{
+                grafo.pesos(CriterioRuta.DISTANCIA), grafo.pesos(CriterioRuta.TIEMPO), grafo.pesos(CriterioRuta.RIESGO)
+            };
+            this.cotas = new double[CRITERIOS][];
+            for (int criterio = 0; criterio < CRITERIOS; criterio++) {
+                cotas[criterio] = calcularCotas(pesos[criterio]);
+            }
+            int capacidad = 64;
+            this.costos = new double[capacidad * CRITERIOS];
+            this.nodos = new int[capacidad];
+            this.previas = new int[capacidad];
+            this.aristas = new int[capacidad];
+            this.descartadas = new boolean[capacidad];
+            this.bolsas = new int[n][];
+            this.tamanosBolsas = new int[n];
+            this.monticulo = new int[capacidad];
+        }
+
+        /**
+         * Costo mínimo de cada nodo al destino en un criterio, por las aristas entrantes
+         */
+        private double[] calcularCotas(double[] pesosCriterio) {
+            double[] distancias = new double[grafo.getNumeroNodos()];
+            Arrays.fill(distancias, Double.POSITIVE_INFINITY);
+            MonticuloIndexado cola = new MonticuloIndexado(Math.max(16, grafo.getNumeroNodos()));
+            distancias[destino] = 0.0;
+            cola.insertarODisminuir(destino, 0.0);
+            while (!cola.estaVacio()) {
+                int actual = cola.extraerMinimo();
+                for (int p = grafo.inicioEntrantes(actual), fin = grafo.finEntrantes(actual); p < fin; p++) {
+                    int e = grafo.aristaEntrante(p);
+                    int vecino = grafo.origen(e);
+                    double distancia = distancias[actual] + pesosCriterio[e];
+                    if (distancia < distancias[vecino]) {
+                        distancias[vecino] = distancia;
+                        cola.insertarODisminuir(vecino, distancia);
+                    }
+                }
+            }
+            return distancias;
+        }
+
+        List<int[]> ejecutar(int origen) {
+            if (cotas[0][origen] == Double.POSITIVE_INFINITY) return new ArrayList<>();
+            agregarEtiqueta(origen, -1, -1, 0.0, 0.0, 0.0);
+
+            while (tamanoMonticulo > 0) {
+                int etiqueta = extraerMinima();
+                if (descartadas[etiqueta]) continue;
+                int actual = nodos[etiqueta];
+                if (actual == destino) continue;
+
+                double distancia = costos[etiqueta * CRITERIOS];
+                double tiempo = costos[etiqueta * CRITERIOS + 1];
+                double riesgo = costos[etiqueta * CRITERIOS + 2];
+                for (int e = grafo.inicioAristas(actual), fin = grafo.finAristas(actual); e < fin; e++) {
+                    int vecino = grafo.destino(e);
+                    if (pesos[0][e] == Double.POSITIVE_INFINITY || cotas[0][vecino] == Double.POSITIVE_INFINITY) continue;
+                    double nuevaDistancia = distancia + pesos[0][e];
+                    double nuevoTiempo = tiempo + pesos[1][e];
+                    double nuevoRiesgo = riesgo + pesos[2][e];
+                    if (dominadaEnBolsa(destino, nuevaDistancia + cotas[0][vecino], nuevoTiempo + cotas[1][vecino],
+                            nuevoRiesgo + cotas[2][vecino])) continue;
+                    if (dominadaEnBolsa(vecino, nuevaDistancia, nuevoTiempo, nuevoRiesgo)) continue;
+                    agregarEtiqueta(vecino, etiqueta, e, nuevaDistancia, nuevoTiempo, nuevoRiesgo);
+                }
+            }
+
+            List<int[]> frente = new ArrayList<>(tamanosBolsas[destino]);
+            for (int i = 0; i < tamanosBolsas[destino]; i++) {
+                frente.add(extraerAristas(bolsas[destino][i]));
+            }
+            return frente;
+        }
+
+        /**
+         * Verifica si alguna etiqueta vigente del nodo no es peor, salvo la tolerancia, en ninguno de los tres criterios
+         */
+        private boolean dominadaEnBolsa(int nodo, double distancia, double tiempo, double riesgo) {
+            int[] bolsa = bolsas[nodo];
+            distancia *= factorDominancia;
+            tiempo *= factorDominancia;
+            riesgo *= factorDominancia;
+            for (int i = 0; i < tamanosBolsas[nodo]; i++) {
+                int base = bolsa[i] * CRITERIOS;
+                if (costos[base] <= distancia && costos[base + 1] <= tiempo && costos[base + 2] <= riesgo) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void agregarEtiqueta(int nodo, int previa, int arista, double distancia, double tiempo, double riesgo) {
+            if (numeroEtiquetas == nodos.length) {
+                int capacidad = nodos.length * 2;
+                costos = Arrays.copyOf(costos, capacidad * CRITERIOS);
+                nodos = Arrays.copyOf(nodos, capacidad);
+                previas = Arrays.copyOf(previas, capacidad);
+                aristas = Arrays.copyOf(aristas, capacidad);
+                descartadas = Arrays.copyOf(descartadas, capacidad);
+            }
+            int etiqueta = numeroEtiquetas++;
+            costos[etiqueta * CRITERIOS] = distancia;
+            costos[etiqueta * CRITERIOS + 1] = tiempo;
+            costos[etiqueta * CRITERIOS + 2] = riesgo;
+            nodos[etiqueta] = nodo;
+            previas[etiqueta] = previa;
+            aristas[etiqueta] = arista;
+
+            // Las etiquetas que la nueva domina salen de la bolsa; si están en el montículo se ignoran al extraerlas
+            int[] bolsa = bolsas[nodo];
+            int tamano = 0;
+            for (int i = 0; i < tamanosBolsas[nodo]; i++) {
+                int otra = bolsa[i];
+                int base = otra * CRITERIOS;
+                if (distancia <= costos[base] && tiempo <= costos[base + 1] && riesgo <= costos[base + 2]) {
+                    descartadas[otra] = true;
+                } else {
+                    bolsa[tamano++] = otra;
+                }
+            }
+            if (bolsa == null) {
+                bolsa = new int[4];
+                bolsas[nodo] = bolsa;
+            } else if (tamano == bolsa.length) {
+                bolsa = Arrays.copyOf(bolsa, tamano * 2);
+                bolsas[nodo] = bolsa;
+            }
+            bolsa[tamano++] = etiqueta;
+            tamanosBolsas[nodo] = tamano;
+
+            insertar(etiqueta);
+        }
+
+        private int[] extraerAristas(int etiqueta) {
+            int longitud = 0;
+            for (int l = etiqueta; previas[l] >= 0; l = previas[l]) longitud++;
+            int[] camino = new int[longitud];
+            for (int l = etiqueta; previas[l] >= 0; l = previas[l]) camino[--longitud] = aristas[l];
+            return camino;
+        }
+
+        double costo(int[] camino, int criterio) {
+            double total = 0.0;
+            for (int e : camino) total += pesos[criterio][e];
+            return total;
+        }
+
+        /**
+         * Orden lexicográfico de costo más cota inferior: distancia, tiempo y riesgo
+         */
+        private boolean menor(int a, int b) {
+            int nodoA = nodos[a];
+            int nodoB = nodos[b];
+            for (int criterio = 0; criterio < CRITERIOS; criterio++) {
+                double claveA = costos[a * CRITERIOS + criterio] + cotas[criterio][nodoA];
+                double claveB = costos[b * CRITERIOS + criterio] + cotas[criterio][nodoB];
+                if (claveA != claveB) return claveA < claveB;
+            }
+            return false;
+        }
+
+        private void insertar(int etiqueta) {
+            if (tamanoMonticulo == monticulo.length) {
+                monticulo = Arrays.copyOf(monticulo, tamanoMonticulo * 2);
+            }
+            int i = tamanoMonticulo++;
+            while (i > 0) {
+                int padre = (i - 1) >>> 1;
+                if (!menor(etiqueta, monticulo[padre])) break;
+                monticulo[i] = monticulo[padre];
+                i = padre;
+            }
+            monticulo[i] = etiqueta;
+        }
+
+        private int extraerMinima() {
+            int minima = monticulo[0];
+            int ultima = monticulo[--tamanoMonticulo];
+            int i = 0;
+            while (true) {
+                int hijo = 2 * i + 1;
+                if (hijo >= tamanoMonticulo) break;
+                if (hijo + 1 < tamanoMonticulo && menor(monticulo[hijo + 1], monticulo[hijo])) hijo++;
+                if (!menor(monticulo[hijo], ultima)) break;
+                monticulo[i] = monticulo[hijo];
+                i = hijo;
+            }
+            monticulo[i] = ultima;
+            return minima;
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.CriterioRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.TipoRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.Zona;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versión congelada del grafo dirigido en formato CSR (compressed sparse row).
+ * Cada nodo se identifica con un entero y las aristas salientes de un nodo
+ * ocupan un rango contiguo de arreglos paralelos de destinos y pesos, de modo
+ * que las búsquedas no necesitan crear objetos ni buscar por String.
+ *
+ * La topología es fija, pero los pesos se actualizan en el mismo arreglo cuando
+ * cambia una ruta; cada cambio incrementa la versión. Las rutas inactivas tienen
+ * peso infinito en todos los criterios, así que ninguna búsqueda las relaja.
+ * También se guarda la capacidad disponible de cada ruta (infinita si no tiene
+ * límite, 0 si está inactiva), que se refresca sin cambiar la versión.
+ * Lo mismo ocurre con el perfil horario y el recargo por tráfico de cada ruta,
+ * que usan las búsquedas dependientes de la hora de salida, y con el tipo de ruta,
+ * que usan los filtros de rutas.
+ *
+ * Un grafo cargado de una {@link InstantaneaGrafo} no tiene rutas al principio: cada ruta se
+ * crea a partir del archivo la primera vez que se pide.
+ */
+public class GrafoCompacto {
+    private final String[] idsNodos;
+    private final Map<String, Integer> indiceNodos;
+    private final double[] coordenadasX;
+    private final double[] coordenadasY;
+    private final int[] inicioAristas;
+    private final int[] origenes;
+    private final int[] destinos;
+    private final double[] distancias;
+    private final double[] tiempos;
+    private final double[] riesgos;
+    private final double[] capacidades;
+    private final PerfilTiempo[] perfiles;
+    private final double[] recargos;
+    private final byte[] tipos;
+    private final Ruta[] rutas;
+    private final Map<Ruta, Integer> indiceRutas;
+    private final int[] inicioEntrantes;
+    private final int[] aristasEntrantes;
+    private volatile int version;
+    private volatile int versionConectividad;
+    private InstantaneaGrafo instantanea;
+    private Zona[] zonasInstantanea;
+
+    private GrafoCompacto(int numeroNodos, int numeroAristas) {
+        this.idsNodos = new String[numeroNodos];
+        this.indiceNodos = new HashMap<>(Math.max(16, (int) (numeroNodos / 0.75f) + 1));
+        this.coordenadasX = new double[numeroNodos];
+        this.coordenadasY = new double[numeroNodos];
+        this.inicioAristas = new int[numeroNodos + 1];
+        this.origenes = new int[numeroAristas];
+        this.destinos = new int[numeroAristas];
+        this.distancias = new double[numeroAristas];
+        this.tiempos = new double[numeroAristas];
+        this.riesgos = new double[numeroAristas];
+        this.capacidades = new double[numeroAristas];
+        this.perfiles = new PerfilTiempo[numeroAristas];
+        this.recargos = new double[numeroAristas];
+        this.tipos = new byte[numeroAristas];
+        this.rutas = new Ruta[numeroAristas];
+        this.indiceRutas = new IdentityHashMap<>(numeroAristas);
+        this.inicioEntrantes = new int[numeroNodos + 1];
+        this.aristasEntrantes = new int[numeroAristas];
+    }
+
+    /**
+     * Construye la versión compacta a partir de los nodos y aristas del grafo.
+     * Las aristas de cada nodo conservan el orden en que fueron agregadas.
+     */
+    public static GrafoCompacto construir(List<Nodo> nodos, List<Ruta> aristas) {
+        GrafoCompacto grafo = new GrafoCompacto(nodos.size(), aristas.size());
+
+        for (int i = 0; i < nodos.size(); i++) {
+            Nodo nodo = nodos.get(i);
+            grafo.idsNodos[i] = nodo.getId();
+            grafo.indiceNodos.put(nodo.getId(), i);
+            grafo.coordenadasX[i] = nodo.getCoordenadaX();
+            grafo.coordenadasY[i] = nodo.getCoordenadaY();
+        }
+
+        // Conteo del grado de salida y suma prefija para ubicar cada rango
+        int[] origenDeArista = new int[aristas.size()];
+        for (int i = 0; i < aristas.size(); i++) {
+            int origen = grafo.indiceNodos.get(aristas.get(i).getOrigen().getId());
+            origenDeArista[i] = origen;
+            grafo.inicioAristas[origen + 1]++;
+        }
+        for (int v = 0; v < nodos.size(); v++) {
+            grafo.inicioAristas[v + 1] += grafo.inicioAristas[v];
+        }
+
+        int[] siguiente = new int[nodos.size()];
+        System.arraycopy(grafo.inicioAristas, 0, siguiente, 0, nodos.size());
+        for (int i = 0; i < aristas.size(); i++) {
+            Ruta ruta = aristas.get(i);
+            int e = siguiente[origenDeArista[i]]++;
+            grafo.origenes[e] = origenDeArista[i];
+            grafo.destinos[e] = grafo.indiceNodos.get(ruta.getDestino().getId());
+            grafo.rutas[e] = ruta;
+            grafo.indiceRutas.putIfAbsent(ruta, e);
+            grafo.cargarPesos(e);
+        }
+
+        grafo.construirEntrantes();
+        return grafo;
+    }
+
+    /**
+     * Arma el grafo a partir de una instantánea mapeada, copiando los arreglos en bloque
+     */
+    static GrafoCompacto desdeInstantanea(InstantaneaGrafo instantanea) throws IOException {
+        int n = instantanea.getNumeroNodos();
+        int m = instantanea.getNumeroAristas();
+        GrafoCompacto grafo = new GrafoCompacto(n, m);
+        instantanea.leerNodos(grafo.idsNodos, grafo.coordenadasX, grafo.coordenadasY);
+        for (int v = 0; v < n; v++) {
+            grafo.indiceNodos.put(grafo.idsNodos[v], v);
+        }
+        instantanea.leerAristas(grafo.inicioAristas, grafo.destinos, grafo.distancias, grafo.tiempos,
+                grafo.riesgos, grafo.capacidades, grafo.recargos, grafo.tipos, grafo.perfiles);
+        for (int v = 0; v < n; v++) {
+            for (int e = grafo.inicioAristas[v]; e < grafo.inicioAristas[v + 1]; e++) {
+                grafo.origenes[e] = v;
+            }
+        }
+        grafo.construirEntrantes();
+        grafo.instantanea = instantanea;
+        grafo.zonasInstantanea = new Zona[n];
+        return grafo;
+    }
+
+    /**
+     * Índice inverso: aristas entrantes de cada nodo, agrupadas por destino
+     */
+    private void construirEntrantes() {
+        int n = idsNodos.length;
+        for (int e = 0; e < destinos.length; e++) {
+            inicioEntrantes[destinos[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            inicioEntrantes[v + 1] += inicioEntrantes[v];
+        }
+        int[] siguiente = new int[n];
+        System.arraycopy(inicioEntrantes, 0, siguiente, 0, n);
+        for (int e = 0; e < destinos.length; e++) {
+            aristasEntrantes[siguiente[destinos[e]]++] = e;
+        }
+    }
+
+    /**
+     * Copia los pesos y la capacidad de la ruta en la arista; una ruta inactiva queda
+     * con peso infinito y sin capacidad
+     */
+    private void cargarPesos(int arista) {
+        Ruta ruta = rutas[arista];
+        boolean activa = ruta.isActiva();
+        distancias[arista] = activa ? ruta.getDistancia() : Double.POSITIVE_INFINITY;
+        tiempos[arista] = activa ? ruta.getTiempoEstimado() : Double.POSITIVE_INFINITY;
+        riesgos[arista] = activa ? ruta.getNivelRiesgo() : Double.POSITIVE_INFINITY;
+        if (!activa) {
+            capacidades[arista] = 0.0;
+        } else {
+            capacidades[arista] = ruta.getCapacidadMaxima() == 0 ? Double.POSITIVE_INFINITY : ruta.obtenerCapacidadDisponible();
+        }
+        perfiles[arista] = ruta.getPerfilTiempo();
+        recargos[arista] = ruta.calcularRecargoTrafico();
+        tipos[arista] = (byte) (ruta.getTipo() != null ? ruta.getTipo().ordinal() : -1);
+    }
+
+    /**
+     * Vuelve a leer los pesos y la capacidad de la ruta asociada a la arista.
+     *
+     * @return true si algún peso cambió (en ese caso se incrementa la versión)
+     */
+    synchronized boolean actualizarArista(int arista) {
+        double distancia = distancias[arista];
+        double tiempo = tiempos[arista];
+        double riesgo = riesgos[arista];
+        cargarPesos(arista);
+        if (distancia == distancias[arista] && tiempo == tiempos[arista] && riesgo == riesgos[arista]) {
+            return false;
+        }
+        if ((tiempo == Double.POSITIVE_INFINITY) != (tiempos[arista] == Double.POSITIVE_INFINITY)) {
+            versionConectividad++;
+        }
+        version++;
+        return true;
+    }
+
+    /**
+     * Obtiene el índice entero de un nodo, o -1 si no pertenece al grafo
+     */
+    public int indiceDe(String idNodo) {
+        Integer indice = idNodo != null ? indiceNodos.get(idNodo) : null;
+        return indice != null ? indice : -1;
+    }
+
+    public String idNodo(int nodo) {
+        return idsNodos[nodo];
+    }
+
+    public double coordenadaX(int nodo) {
+        return coordenadasX[nodo];
+    }
+
+    public double coordenadaY(int nodo) {
+        return coordenadasY[nodo];
+    }
+
+    /**
+     * Obtiene el índice de la arista de una ruta, o -1 si la ruta no pertenece al grafo
+     */
+    public int indiceArista(Ruta ruta) {
+        if (instantanea != null) {
+            // Las rutas de una instantánea se registran al crearlas, bajo el mismo candado
+            synchronized (this) {
+                Integer indice = ruta != null ? indiceRutas.get(ruta) : null;
+                return indice != null ? indice : -1;
+            }
+        }
+        Integer indice = ruta != null ? indiceRutas.get(ruta) : null;
+        return indice != null ? indice : -1;
+    }
+
+    /**
+     * Primera arista saliente del nodo (inclusive)
+     */
+    public int inicioAristas(int nodo) {
+        return inicioAristas[nodo];
+    }
+
+    /**
+     * Fin del rango de aristas salientes del nodo (exclusivo)
+     */
+    public int finAristas(int nodo) {
+        return inicioAristas[nodo + 1];
+    }
+
+    /**
+     * Primera posición de las aristas entrantes del nodo en {@link #aristaEntrante(int)}
+     */
+    public int inicioEntrantes(int nodo) {
+        return inicioEntrantes[nodo];
+    }
+
+    /**
+     * Fin del rango de aristas entrantes del nodo (exclusivo)
+     */
+    public int finEntrantes(int nodo) {
+        return inicioEntrantes[nodo + 1];
+    }
+
+    /**
+     * Índice de la arista que ocupa la posición dada del índice inverso
+     */
+    public int aristaEntrante(int posicion) {
+        return aristasEntrantes[posicion];
+    }
+
+    public int origen(int arista) {
+        return origenes[arista];
+    }
+
+    public int destino(int arista) {
+        return destinos[arista];
+    }
+
+    public double distancia(int arista) {
+        return distancias[arista];
+    }
+
+    /**
+     * Indica si la ruta de la arista está activa (sus pesos son finitos)
+     */
+    public boolean estaActiva(int arista) {
+        return tiempos[arista] != Double.POSITIVE_INFINITY;
+    }
+
+    public double tiempo(int arista) {
+        return tiempos[arista];
+    }
+
+    public double riesgo(int arista) {
+        return riesgos[arista];
+    }
+
+    /**
+     * Personas que aún admite la ruta: infinito si no tiene límite, 0 si está inactiva o llena
+     */
+    public double capacidad(int arista) {
+        return capacidades[arista];
+    }
+
+    /**
+     * Tipo de la ruta de la arista, o null si no tiene
+     */
+    public TipoRuta tipo(int arista) {
+        return tipos[arista] >= 0 ? TipoRuta.values()[tipos[arista]] : null;
+    }
+
+    /**
+     * Ordinal del tipo de ruta de la arista, o -1 si no tiene (para recorridos sin crear objetos)
+     */
+    int ordinalTipo(int arista) {
+        return tipos[arista];
+    }
+
+    /**
+     * Tiempo de viaje de la arista al salir a la hora indicada (horas desde una medianoche),
+     * según el perfil horario de la ruta más el recargo por tráfico; infinito si está inactiva
+     */
+    public double tiempoEn(int arista, double hora) {
+        double tiempo = tiempos[arista];
+        if (tiempo == Double.POSITIVE_INFINITY) return tiempo;
+        PerfilTiempo perfil = perfiles[arista];
+        return (perfil != null ? perfil.evaluar(hora) : tiempo) + recargos[arista];
+    }
+
+    /**
+     * Menor tiempo de viaje de la arista a cualquier hora; sirve como cota inferior
+     */
+    public double tiempoMinimo(int arista) {
+        double tiempo = tiempos[arista];
+        if (tiempo == Double.POSITIVE_INFINITY) return tiempo;
+        PerfilTiempo perfil = perfiles[arista];
+        return (perfil != null ? perfil.getTiempoMinimo() : tiempo) + recargos[arista];
+    }
+
+    public Ruta ruta(int arista) {
+        if (instantanea != null) return rutaDeInstantanea(arista);
+        return rutas[arista];
+    }
+
+    /**
+     * Indica si el grafo se cargó de una instantánea (sus rutas no están vinculadas a un grafo dirigido)
+     */
+    public boolean esInstantanea() {
+        return instantanea != null;
+    }
+
+    private synchronized Ruta rutaDeInstantanea(int arista) {
+        Ruta ruta = rutas[arista];
+        if (ruta == null) {
+            ruta = instantanea.crearRuta(arista, zonaDeInstantanea(origenes[arista]), zonaDeInstantanea(destinos[arista]),
+                    perfiles[arista]);
+            rutas[arista] = ruta;
+            indiceRutas.putIfAbsent(ruta, arista);
+        }
+        return ruta;
+    }
+
+    private Zona zonaDeInstantanea(int nodo) {
+        Zona zona = zonasInstantanea[nodo];
+        if (zona == null) {
+            zona = instantanea.crearZona(nodo, idsNodos[nodo], coordenadasX[nodo], coordenadasY[nodo]);
+            zonasInstantanea[nodo] = zona;
+        }
+        return zona;
+    }
+
+    /**
+     * Zonas de la instantánea, una por nodo y en el orden de los nodos; son las mismas que usan
+     * sus rutas. La lista es de solo lectura y crea cada zona la primera vez que se pide, incluso
+     * después de desvincular la instantánea.
+     */
+    List<Zona> zonasInstantanea() {
+        return new AbstractList<Zona>() {
+            @Override
+            public Zona get(int nodo) {
+                synchronized (GrafoCompacto.this) {
+                    return zonaDeInstantanea(nodo);
+                }
+            }
+
+            @Override
+            public int size() {
+                return idsNodos.length;
+            }
+        };
+    }
+
+    /**
+     * Nodo del grafo con los atributos guardados en la instantánea
+     */
+    Nodo nodoDeInstantanea(int nodo) {
+        return instantanea.crearNodo(nodo, idsNodos[nodo], coordenadasX[nodo], coordenadasY[nodo]);
+    }
+
+    /**
+     * Crea todas las rutas y zonas pendientes y deja de depender del archivo: desde entonces el
+     * grafo se comporta como uno construido a partir de sus rutas
+     */
+    synchronized void desvincularInstantanea() {
+        for (int e = 0; e < rutas.length; e++) {
+            rutaDeInstantanea(e);
+        }
+        // Las zonas sin rutas también se conservan para la lista de zonasInstantanea()
+        for (int v = 0; v < zonasInstantanea.length; v++) {
+            zonaDeInstantanea(v);
+        }
+        instantanea = null;
+    }
+
+    /**
+     * Arreglo de pesos por distancia, indexado por arista (uso interno de las búsquedas)
+     */
+    double[] pesosDistancia() {
+        return distancias;
+    }
+
+    /**
+     * Arreglo de pesos según el criterio, indexado por arista (uso interno de las búsquedas)
+     */
+    double[] pesos(CriterioRuta criterio) {
+        switch (criterio) {
+            case TIEMPO:
+                return tiempos;
+            case RIESGO:
+                return riesgos;
+            default:
+                return distancias;
+        }
+    }
+
+    /**
+     * Número de cambios de pesos aplicados desde que se construyó esta versión compacta
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Número de veces que una ruta se abrió o se cerró desde que se construyó esta versión compacta
+     */
+    public int getVersionConectividad() {
+        return versionConectividad;
+    }
+
+    public int getNumeroNodos() {
+        return idsNodos.length;
+    }
+
+    public int getNumeroAristas() {
+        return destinos.length;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GrafoCompacto{nodos=%d, aristas=%d}", idsNodos.length, destinos.length);
+    }
+}
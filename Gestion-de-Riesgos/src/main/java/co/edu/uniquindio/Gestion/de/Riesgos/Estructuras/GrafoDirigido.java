@@ -1,41 +1,70 @@
 package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
 
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.CriterioRuta;
 import co.edu.uniquindio.Gestion.de.Riesgos.Interfaces.ICalcularRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Interfaces.IObservadorRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.Evacuacion;
 import co.edu.uniquindio.Gestion.de.Riesgos.Model.Zona;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Clase que implementa un grafo dirigido para representar
  * las conexiones entre zonas en el sistema de gestión de desastres
  */
-public class GrafoDirigido implements ICalcularRuta {
+public class GrafoDirigido implements ICalcularRuta, IObservadorRuta {
     private List<Nodo> nodos;
     private List<Ruta> aristas;
     private Map<String, Nodo> mapaNodos;
     private Map<String, List<Ruta>> listaAdyacencia;
+    private Map<String, List<Ruta>> listaAdyacenciaEntrada;
     private ICalcularRuta calculadorRutas;
+    private volatile GrafoCompacto grafoCompacto;
+    private volatile IndiceAlcanzabilidad indiceAlcanzabilidad;
+    private volatile CriterioRuta criterioTablaDistancias;
+    private volatile TablaDistancias tablaDistancias;
+    private final AtomicBoolean construyendoTabla;
+    private volatile int tamanoMaximoCelda;
+    private volatile ParticionGrafo particion;
+    private final Map<CriterioRuta, SuperposicionCeldas> superposiciones;
+    private int numeroRutasAlternativas;
+    private final List<ArbolCaminosDinamico> arbolesDinamicos;
+    private final CacheRutas cacheRutas;
     
     public GrafoDirigido() {
         this.nodos = new ArrayList<>();
         this.aristas = new ArrayList<>();
         this.mapaNodos = new HashMap<>();
         this.listaAdyacencia = new HashMap<>();
+        this.listaAdyacenciaEntrada = new HashMap<>();
+        this.numeroRutasAlternativas = 10;
+        this.arbolesDinamicos = new CopyOnWriteArrayList<>();
+        this.cacheRutas = new CacheRutas(1024);
+        this.construyendoTabla = new AtomicBoolean(false);
+        this.superposiciones = new EnumMap<>(CriterioRuta.class);
     }
     
     public GrafoDirigido(ICalcularRuta calculadorRutas) {
         this();
-        this.calculadorRutas = calculadorRutas;
+        setCalculadorRutas(calculadorRutas);
     }
     
     /**
      * Agrega un nodo al grafo
      */
     public void agregarNodo(Nodo nodo) {
+        materializarInstantanea();
         if (nodo != null && !mapaNodos.containsKey(nodo.getId())) {
             nodos.add(nodo);
             mapaNodos.put(nodo.getId(), nodo);
             listaAdyacencia.put(nodo.getId(), new ArrayList<>());
+            listaAdyacenciaEntrada.put(nodo.getId(), new ArrayList<>());
+            grafoCompacto = null;
         }
     }
     
@@ -43,26 +72,207 @@ public class GrafoDirigido implements ICalcularRuta {
      * Agrega una arista (ruta) al grafo
      */
     public void agregarArista(Ruta ruta) {
-        if (ruta != null && ruta.getOrigen() != null && ruta.getDestino() != null) {
-            Nodo nodoOrigen = new Nodo();
-            nodoOrigen.setId(ruta.getOrigen().getId());
-            nodoOrigen.setNombre(ruta.getOrigen().getNombre());
-            nodoOrigen.setCoordenadaX(ruta.getOrigen().getCoordenadaX());
-            nodoOrigen.setCoordenadaY(ruta.getOrigen().getCoordenadaY());
-            nodoOrigen.setTipo(Nodo.TipoNodo.CIUDAD); // Default type
-            
-            Nodo nodoDestino = new Nodo();
-            nodoDestino.setId(ruta.getDestino().getId());
-            nodoDestino.setNombre(ruta.getDestino().getNombre());
-            nodoDestino.setCoordenadaX(ruta.getDestino().getCoordenadaX());
-            nodoDestino.setCoordenadaY(ruta.getDestino().getCoordenadaY());
-            nodoDestino.setTipo(Nodo.TipoNodo.CIUDAD); // Default type
-            
-            agregarNodo(nodoOrigen);
-            agregarNodo(nodoDestino);
+        materializarInstantanea();
+        if (insertarArista(ruta)) {
+            grafoCompacto = null;
+            cacheRutas.invalidarTodo();
+        }
+    }
+    
+    /**
+     * Agrega varias rutas de una vez: reserva espacio para todas y descarta
+     * la versión compacta y la caché una sola vez
+     */
+    public void agregarAristas(Collection<Ruta> rutas) {
+        materializarInstantanea();
+        if (rutas == null || rutas.isEmpty()) return;
+        List<Ruta> ampliadas = new ArrayList<>(aristas.size() + rutas.size());
+        ampliadas.addAll(aristas);
+        aristas = ampliadas;
+        boolean agregadas = false;
+        for (Ruta ruta : rutas) {
+            agregadas |= insertarArista(ruta);
+        }
+        if (agregadas) {
+            grafoCompacto = null;
+            cacheRutas.invalidarTodo();
+        }
+    }
+    
+    private boolean insertarArista(Ruta ruta) {
+        if (ruta == null || ruta.getOrigen() == null || ruta.getDestino() == null) return false;
+        resolverNodo(ruta.getOrigen());
+        resolverNodo(ruta.getDestino());
+        
+        aristas.add(ruta);
+        listaAdyacencia.get(ruta.getOrigen().getId()).add(ruta);
+        listaAdyacenciaEntrada.get(ruta.getDestino().getId()).add(ruta);
+        ruta.agregarObservador(this);
+        return true;
+    }
+    
+    /**
+     * Nodo del grafo para la zona; solo se crea la primera vez que aparece su ID
+     */
+    private void resolverNodo(Zona zona) {
+        if (!mapaNodos.containsKey(zona.getId())) {
+            agregarNodo(new Nodo(zona.getId(), zona.getNombre(), zona.getCoordenadaX(), zona.getCoordenadaY(),
+                    Nodo.TipoNodo.CIUDAD, 0));
+        }
+    }
+    
+    /**
+     * Elimina una arista (ruta) del grafo
+     */
+    public boolean eliminarArista(Ruta ruta) {
+        materializarInstantanea();
+        if (ruta == null || ruta.getOrigen() == null || ruta.getDestino() == null) return false;
+        if (!aristas.remove(ruta)) return false;
+        
+        listaAdyacencia.get(ruta.getOrigen().getId()).remove(ruta);
+        listaAdyacenciaEntrada.get(ruta.getDestino().getId()).remove(ruta);
+        ruta.eliminarObservador(this);
+        grafoCompacto = null;
+        // Quitar una ruta solo puede empeorar los caminos que pasaban por ella
+        cacheRutas.rutaModificada(ruta);
+        return true;
+    }
+    
+    /**
+     * Aplica el cambio de una ruta sobre la versión compacta sin reconstruirla
+     * y repara los árboles de caminos dinámicos afectados
+     */
+    @Override
+    public void rutaActualizada(Ruta ruta) {
+        GrafoCompacto compacto;
+        int arista;
+        synchronized (this) {
+            compacto = grafoCompacto;
+            if (compacto == null) {
+                // Sin versión compacta no se conocen los pesos anteriores
+                cacheRutas.invalidarTodo();
+                return;
+            }
+            arista = compacto.indiceArista(ruta);
+            if (arista < 0) return;
+            double distancia = compacto.distancia(arista);
+            double tiempo = compacto.tiempo(arista);
+            double riesgo = compacto.riesgo(arista);
+            if (!compacto.actualizarArista(arista)) return;
             
-            aristas.add(ruta);
-            listaAdyacencia.get(ruta.getOrigen().getId()).add(ruta);
+            cacheRutas.rutaModificada(ruta);
+            if (compacto.distancia(arista) < distancia) cacheRutas.rutaMejorada(CriterioRuta.DISTANCIA);
+            if (compacto.tiempo(arista) < tiempo) cacheRutas.rutaMejorada(CriterioRuta.TIEMPO);
+            if (compacto.riesgo(arista) < riesgo) cacheRutas.rutaMejorada(CriterioRuta.RIESGO);
+        }
+        for (ArbolCaminosDinamico arbol : arbolesDinamicos) {
+            arbol.aristaActualizada(compacto, arista);
+        }
+    }
+    
+    /**
+     * Crea un árbol de caminos más cortos con raíz en la zona indicada, que se
+     * mantiene actualizado a medida que cambian las rutas del grafo
+     *
+     * @param haciaRaiz true para caminos desde cada zona hacia la raíz, false para caminos desde la raíz
+     */
+    public ArbolCaminosDinamico crearArbolDinamico(Zona raiz, CriterioRuta criterio, boolean haciaRaiz) {
+        if (raiz == null || criterio == null) return null;
+        ArbolCaminosDinamico arbol = new ArbolCaminosDinamico(this, raiz.getId(), criterio, haciaRaiz);
+        arbolesDinamicos.add(arbol);
+        return arbol;
+    }
+    
+    /**
+     * Deja de mantener un árbol de caminos dinámico
+     */
+    public boolean eliminarArbolDinamico(ArbolCaminosDinamico arbol) {
+        return arbolesDinamicos.remove(arbol);
+    }
+    
+    /**
+     * Obtiene la versión compacta (CSR) del grafo.
+     * Se reconstruye solo si se agregaron nodos o rutas desde la última consulta.
+     */
+    public GrafoCompacto obtenerGrafoCompacto() {
+        GrafoCompacto compacto = grafoCompacto;
+        if (compacto == null) {
+            synchronized (this) {
+                compacto = grafoCompacto;
+                if (compacto == null) {
+                    compacto = GrafoCompacto.construir(nodos, aristas);
+                    grafoCompacto = compacto;
+                }
+            }
+        }
+        return compacto;
+    }
+    
+    /**
+     * Guarda la versión compacta del grafo en una instantánea binaria
+     *
+     * @throws IOException si no se puede escribir el archivo
+     */
+    public void guardarInstantanea(Path archivo) throws IOException {
+        materializarInstantanea();
+        GrafoCompacto compacto;
+        Nodo[] nodosCompactos;
+        synchronized (this) {
+            compacto = obtenerGrafoCompacto();
+            nodosCompactos = new Nodo[compacto.getNumeroNodos()];
+            for (int v = 0; v < nodosCompactos.length; v++) {
+                nodosCompactos[v] = mapaNodos.get(compacto.idNodo(v));
+            }
+        }
+        InstantaneaGrafo.guardar(compacto, nodosCompactos, archivo);
+    }
+    
+    /**
+     * Carga una instantánea binaria en este grafo, que debe estar vacío. Las consultas sobre
+     * la versión compacta quedan disponibles de inmediato; los nodos y rutas como objetos se
+     * crean solo cuando algo los necesita (por ejemplo, al agregar una ruta o listar las aristas).
+     *
+     * @return zonas de la instantánea, una por nodo; es una lista de solo lectura que crea cada
+     *         zona al pedirla, y las rutas que se creen usan estas mismas zonas
+     * @throws IOException si el archivo no se puede leer o no tiene el formato esperado
+     * @throws IllegalStateException si el grafo ya tiene zonas o rutas
+     */
+    public List<Zona> cargarInstantanea(Path archivo) throws IOException {
+        GrafoCompacto compacto = InstantaneaGrafo.cargar(archivo);
+        synchronized (this) {
+            if (!nodos.isEmpty() || grafoCompacto != null && grafoCompacto.getNumeroNodos() > 0) {
+                throw new IllegalStateException("La instantánea solo se puede cargar en un grafo vacío");
+            }
+            grafoCompacto = compacto;
+        }
+        cacheRutas.invalidarTodo();
+        return compacto.zonasInstantanea();
+    }
+    
+    /**
+     * Crea los nodos y rutas del grafo a partir de la instantánea cargada, si la hay, y conserva
+     * su versión compacta, que ya corresponde a esas rutas. Mientras tanto las consultas que
+     * necesiten la versión compacta esperan.
+     */
+    private void materializarInstantanea() {
+        GrafoCompacto compacto = grafoCompacto;
+        if (compacto == null || !compacto.esInstantanea()) return;
+        synchronized (this) {
+            if (grafoCompacto != compacto) return;
+            grafoCompacto = null;
+            List<Nodo> ampliados = new ArrayList<>(nodos.size() + compacto.getNumeroNodos());
+            ampliados.addAll(nodos);
+            nodos = ampliados;
+            for (int v = 0; v < compacto.getNumeroNodos(); v++) {
+                agregarNodo(compacto.nodoDeInstantanea(v));
+            }
+            List<Ruta> rutas = new ArrayList<>(compacto.getNumeroAristas());
+            for (int e = 0; e < compacto.getNumeroAristas(); e++) {
+                rutas.add(compacto.ruta(e));
+            }
+            agregarAristas(rutas);
+            compacto.desvincularInstantanea();
+            grafoCompacto = compacto;
         }
     }
     
@@ -70,6 +280,7 @@ public class GrafoDirigido implements ICalcularRuta {
      * Obtiene un nodo por ID
      */
     public Nodo obtenerNodo(String id) {
+        materializarInstantanea();
         return mapaNodos.get(id);
     }
     
@@ -77,6 +288,7 @@ public class GrafoDirigido implements ICalcularRuta {
      * Obtiene todas las rutas desde un nodo origen
      */
     public List<Ruta> obtenerRutasDesde(String idOrigen) {
+        materializarInstantanea();
         return listaAdyacencia.getOrDefault(idOrigen, new ArrayList<>());
     }
     
@@ -84,126 +296,535 @@ public class GrafoDirigido implements ICalcularRuta {
      * Obtiene todas las rutas hacia un nodo destino
      */
     public List<Ruta> obtenerRutasHacia(String idDestino) {
-        return aristas.stream()
-            .filter(ruta -> ruta.getDestino().getId().equals(idDestino))
-            .toList();
+        materializarInstantanea();
+        return new ArrayList<>(listaAdyacenciaEntrada.getOrDefault(idDestino, new ArrayList<>()));
     }
     
     /**
-     * Verifica si existe una ruta entre dos nodos
+     * Verifica si existe una ruta directa entre dos nodos.
+     * Para saber si hay algún camino, aunque pase por otras zonas, ver {@link #esAlcanzable(String, String)}.
      */
     public boolean existeRuta(String idOrigen, String idDestino) {
+        materializarInstantanea();
         return listaAdyacencia.getOrDefault(idOrigen, new ArrayList<>())
             .stream()
             .anyMatch(ruta -> ruta.getDestino().getId().equals(idDestino));
     }
     
+    /**
+     * Calcula la ruta más corta por distancia. Si el grafo se creó con un
+     * calculador de rutas, la consulta se delega en esa estrategia.
+     */
     @Override
     public List<Zona> calcularRutaMasCorta(Zona origen, Zona destino) {
+        if (calculadorRutas != null) return calculadorRutas.calcularRutaMasCorta(origen, destino);
         if (origen == null || destino == null) return new ArrayList<>();
+        if (origen.getId().equals(destino.getId())) return new ArrayList<>(List.of(origen));
         
-        Map<String, Double> distancias = new HashMap<>();
-        Map<String, Zona> predecesores = new HashMap<>();
-        PriorityQueue<Zona> colaPrioridad = new PriorityQueue<>(
-            Comparator.comparingDouble(zona -> distancias.getOrDefault(zona.getId(), Double.MAX_VALUE))
-        );
-        
-        for (Nodo nodo : nodos) {
-            distancias.put(nodo.getId(), Double.MAX_VALUE);
+        Camino camino = calcularMejorCamino(origen, destino, CriterioRuta.DISTANCIA);
+        return camino != null ? camino.obtenerZonas() : new ArrayList<>();
+    }
+    
+    /**
+     * Convierte una secuencia de aristas del grafo compacto en la lista de zonas recorridas
+     */
+    static List<Zona> convertirAZonas(GrafoCompacto grafo, Zona origen, int[] camino) {
+        List<Zona> ruta = new ArrayList<>(camino.length + 1);
+        ruta.add(origen);
+        for (int e : camino) {
+            ruta.add(grafo.ruta(e).getDestino());
         }
-        distancias.put(origen.getId(), 0.0);
-        colaPrioridad.offer(origen);
+        return ruta;
+    }
+    
+    /**
+     * Calcula los k caminos simples de menor costo entre dos zonas según el criterio.
+     * Cada camino se devuelve completo, con sus tramos en orden.
+     */
+    public List<Camino> calcularKRutasMasCortas(Zona origen, Zona destino, int k, CriterioRuta criterio) {
+        if (origen == null || destino == null || criterio == null) return new ArrayList<>();
         
-        while (!colaPrioridad.isEmpty()) {
-            Zona actual = colaPrioridad.poll();
-            
-            if (actual.getId().equals(destino.getId())) {
-                break;
-            }
-            
-            for (Ruta ruta : obtenerRutasDesde(actual.getId())) {
-                Zona vecino = ruta.getDestino();
-                if (vecino != null) {
-                    double nuevaDistancia = distancias.get(actual.getId()) + ruta.getDistancia();
-                    
-                    if (nuevaDistancia < distancias.get(vecino.getId())) {
-                        distancias.put(vecino.getId(), nuevaDistancia);
-                        predecesores.put(vecino.getId(), actual);
-                        colaPrioridad.offer(vecino);
-                    }
-                }
-            }
-        }
+        GrafoCompacto grafo = obtenerGrafoCompacto();
+        int inicio = grafo.indiceDe(origen.getId());
+        int fin = grafo.indiceDe(destino.getId());
+        if (inicio < 0 || fin < 0) return new ArrayList<>();
         
-        List<Zona> ruta = new ArrayList<>();
-        Zona actual = destino;
-        while (actual != null) {
-            ruta.add(0, actual);
-            actual = predecesores.get(actual.getId());
-        }
+        return KRutasMasCortas.calcular(grafo, inicio, fin, k, criterio);
+    }
+    
+    /**
+     * Igual que {@link #calcularKRutasMasCortas(Zona, Zona, int, CriterioRuta)} usando solo
+     * las rutas que admite el filtro
+     */
+    public List<Camino> calcularKRutasMasCortas(Zona origen, Zona destino, int k, CriterioRuta criterio,
+                                                FiltroRutas filtro) {
+        if (filtro == null) return calcularKRutasMasCortas(origen, destino, k, criterio);
+        if (origen == null || destino == null || criterio == null) return new ArrayList<>();
+        
+        GrafoCompacto grafo = obtenerGrafoCompacto();
+        int inicio = grafo.indiceDe(origen.getId());
+        int fin = grafo.indiceDe(destino.getId());
+        if (inicio < 0 || fin < 0) return new ArrayList<>();
         
-        return ruta.get(0).getId().equals(origen.getId()) ? ruta : new ArrayList<>();
+        return KRutasMasCortas.calcular(grafo, inicio, fin, k, criterio, filtro.compilar(grafo));
     }
     
-    @Override
-    public List<Ruta> calcularTodasLasRutas(Zona origen, Zona destino) {
-        List<Ruta> todasLasRutas = new ArrayList<>();
-        Set<String> visitados = new HashSet<>();
-        List<Zona> rutaActual = new ArrayList<>();
+    /**
+     * Calcula en una sola búsqueda los caminos no dominados entre dos zonas según distancia,
+     * tiempo y riesgo, para mostrar sus compromisos
+     *
+     * @param maximoCaminos tamaño máximo del frente; si hay más se conservan los extremos y caminos repartidos
+     * @return caminos ordenados por distancia
+     */
+    public List<Camino> calcularFrentePareto(Zona origen, Zona destino, int maximoCaminos) {
+        if (origen == null || destino == null) return new ArrayList<>();
         
-        dfsTodasLasRutas(origen, destino, visitados, rutaActual, todasLasRutas);
+        GrafoCompacto grafo = obtenerGrafoCompacto();
+        return FrentePareto.calcular(grafo, grafo.indiceDe(origen.getId()), grafo.indiceDe(destino.getId()),
+            maximoCaminos, FrentePareto.TOLERANCIA_POR_DEFECTO);
+    }
+    
+    /**
+     * Calcula el camino cuyo tramo más angosto tiene la mayor capacidad disponible;
+     * entre los de igual capacidad devuelve el de menor tiempo estimado
+     *
+     * @return camino más ancho, o null si no hay camino con cupo
+     */
+    public Camino calcularCaminoMasAncho(Zona origen, Zona destino) {
+        if (origen == null || destino == null) return null;
         
-        return todasLasRutas;
-    }
-    
-    private void dfsTodasLasRutas(Zona actual, Zona destino, Set<String> visitados, List<Zona> rutaActual, List<Ruta> todasLasRutas) {
-        if (actual.getId().equals(destino.getId())) {
-            for (int i = 0; i < rutaActual.size() - 1; i++) {
-                String idOrigen = rutaActual.get(i).getId();
-                String idDestino = rutaActual.get(i + 1).getId();
-                
-                Ruta ruta = obtenerRutasDesde(idOrigen).stream()
-                    .filter(r -> r.getDestino().getId().equals(idDestino))
-                    .findFirst()
-                    .orElse(null);
-                
-                if (ruta != null) {
-                    todasLasRutas.add(ruta);
-                }
+        GrafoCompacto grafo = obtenerGrafoCompacto();
+        int inicio = grafo.indiceDe(origen.getId());
+        int fin = grafo.indiceDe(destino.getId());
+        if (inicio < 0 || fin < 0 || inicio == fin) return null;
+        
+        int[] camino = CaminoMasAncho.buscarMasAncho(grafo, inicio, fin, CriterioRuta.TIEMPO);
+        return camino != null ? Camino.desdeAristas(grafo, camino) : null;
+    }
+    
+    /**
+     * Calcula el camino más rápido en el que todos los tramos admiten a las personas indicadas
+     *
+     * @return camino, o null si ningún camino tiene esa capacidad disponible
+     */
+    public Camino calcularCaminoConCapacidad(Zona origen, Zona destino, int personas) {
+        if (origen == null || destino == null) return null;
+        
+        GrafoCompacto grafo = obtenerGrafoCompacto();
+        int inicio = grafo.indiceDe(origen.getId());
+        int fin = grafo.indiceDe(destino.getId());
+        if (inicio < 0 || fin < 0 || inicio == fin) return null;
+        
+        int[] camino = CaminoMasAncho.buscarConCapacidad(grafo, inicio, fin, personas, CriterioRuta.TIEMPO);
+        return camino != null ? Camino.desdeAristas(grafo, camino) : null;
+    }
+    
+    /**
+     * Calcula el itinerario de llegada más temprana saliendo en el instante indicado,
+     * usando el perfil horario y la congestión actual de cada ruta
+     *
+     * @return itinerario, o null si no hay camino
+     */
+    public Itinerario calcularItinerario(Zona origen, Zona destino, LocalDateTime salida) {
+        if (origen == null || destino == null || salida == null) return null;
+        
+        GrafoCompacto grafo = obtenerGrafoCompacto();
+        return BusquedaDependienteTiempo.calcular(grafo, grafo.indiceDe(origen.getId()),
+            grafo.indiceDe(destino.getId()), salida);
+    }
+    
+    /**
+     * Obtiene el mejor camino entre dos zonas según el criterio, o null si no hay camino.
+     * Los resultados se guardan en la caché de rutas hasta que cambie alguna ruta que los afecte.
+     */
+    public Camino calcularMejorCamino(Zona origen, Zona destino, CriterioRuta criterio) {
+        if (origen == null || destino == null || criterio == null) return null;
+        
+        CacheRutas.Resultado guardado = cacheRutas.obtener(origen.getId(), destino.getId(), criterio);
+        if (guardado != null) return guardado.getCamino();
+        
+        long marca = cacheRutas.marca(criterio);
+        Camino camino = buscarMejorCamino(origen, destino, criterio);
+        cacheRutas.guardar(origen.getId(), destino.getId(), criterio, camino, marca);
+        return camino;
+    }
+    
+    /**
+     * Obtiene el mejor camino entre dos zonas usando solo las rutas que admite el filtro
+     * (tipos permitidos y capacidad disponible mínima). La capacidad cambia sin invalidar
+     * la caché de rutas, así que estos caminos no se guardan en ella.
+     *
+     * @param filtro condiciones de las rutas, o null para usar todas las activas
+     */
+    public Camino calcularMejorCamino(Zona origen, Zona destino, CriterioRuta criterio, FiltroRutas filtro) {
+        if (filtro == null || !filtro.restringe()) return calcularMejorCamino(origen, destino, criterio);
+        if (origen == null || destino == null || criterio == null) return null;
+        
+        GrafoCompacto grafo = obtenerGrafoCompacto();
+        int inicio = grafo.indiceDe(origen.getId());
+        int fin = grafo.indiceDe(destino.getId());
+        if (inicio < 0 || fin < 0 || inicio == fin) return null;
+        
+        EstadoBusqueda estado = EstadoBusqueda.delHilo(grafo.getNumeroNodos());
+        BusquedaDijkstra.ejecutar(grafo, inicio, fin, grafo.pesos(criterio), filtro.compilar(grafo), estado);
+        int[] camino = BusquedaDijkstra.extraerAristas(grafo, estado, fin);
+        return camino != null ? Camino.desdeAristas(grafo, camino) : null;
+    }
+    
+    /**
+     * Dijkstra bidireccional sobre el grafo compacto con los pesos del criterio, o la superposición
+     * de celdas si el grafo está particionado, sin pasar por la caché
+     */
+    private Camino buscarMejorCamino(Zona origen, Zona destino, CriterioRuta criterio) {
+        GrafoCompacto grafo = obtenerGrafoCompacto();
+        int inicio = grafo.indiceDe(origen.getId());
+        int fin = grafo.indiceDe(destino.getId());
+        if (inicio < 0 || fin < 0 || inicio == fin) return null;
+        
+        SuperposicionCeldas superposicion = obtenerSuperposicion(grafo, criterio);
+        int[] camino = superposicion != null
+            ? superposicion.buscarCamino(inicio, fin)
+            : RutaBidireccional.buscarCamino(grafo, inicio, fin, grafo.pesos(criterio));
+        return camino != null ? Camino.desdeAristas(grafo, camino) : null;
+    }
+    
+    /**
+     * Divide el grafo en celdas de a lo sumo el tamaño indicado, con pocas rutas entre celdas
+     * (por ejemplo, una por municipio en un despliegue de varias regiones). Desde entonces los
+     * mejores caminos se calculan sobre la superposición de celdas: solo se recorren las celdas
+     * de los extremos y los costos precalculados entre los bordes de las demás.
+     *
+     * @param tamanoMaximoCelda máximo de zonas por celda, o 0 para desactivar la partición
+     * @throws IllegalArgumentException si el tamaño es negativo
+     */
+    public void particionar(int tamanoMaximoCelda) {
+        if (tamanoMaximoCelda < 0) {
+            throw new IllegalArgumentException("El tamaño máximo de celda no puede ser negativo: " + tamanoMaximoCelda);
+        }
+        synchronized (superposiciones) {
+            this.tamanoMaximoCelda = tamanoMaximoCelda;
+            particion = null;
+            superposiciones.clear();
+        }
+        if (tamanoMaximoCelda > 0) obtenerParticion();
+    }
+    
+    /**
+     * Partición del grafo actual, o null si no está activa. Se recalcula cuando se agregan
+     * o eliminan zonas o rutas.
+     */
+    public ParticionGrafo obtenerParticion() {
+        if (tamanoMaximoCelda == 0) return null;
+        GrafoCompacto grafo = obtenerGrafoCompacto();
+        synchronized (superposiciones) {
+            return obtenerParticion(grafo);
+        }
+    }
+    
+    private ParticionGrafo obtenerParticion(GrafoCompacto grafo) {
+        ParticionGrafo actual = particion;
+        if (actual == null || !actual.correspondeA(grafo)) {
+            actual = ParticionGrafo.construir(grafo, tamanoMaximoCelda);
+            particion = actual;
+            superposiciones.clear();
+        }
+        return actual;
+    }
+    
+    /**
+     * Superposición de celdas al día para el criterio, o null si el grafo no está particionado.
+     * Si cambiaron pesos desde la última consulta, vuelve a personalizar en paralelo solo las
+     * celdas con rutas interiores modificadas.
+     */
+    private SuperposicionCeldas obtenerSuperposicion(GrafoCompacto grafo, CriterioRuta criterio) {
+        if (tamanoMaximoCelda == 0) return null;
+        synchronized (superposiciones) {
+            if (tamanoMaximoCelda == 0) return null;
+            ParticionGrafo actual = obtenerParticion(grafo);
+            SuperposicionCeldas superposicion = superposiciones.get(criterio);
+            if (superposicion == null) {
+                superposicion = SuperposicionCeldas.construir(actual, criterio);
+                superposiciones.put(criterio, superposicion);
+            } else if (!superposicion.correspondeA(grafo)) {
+                superposicion = superposicion.actualizar();
+                superposiciones.put(criterio, superposicion);
             }
-            return;
+            return superposicion;
         }
+    }
+    
+    /**
+     * Calcula las zonas a las que se llega desde el origen con un tiempo estimado total
+     * menor o igual al indicado
+     *
+     * @param tiempoMaximo tiempo máximo en horas
+     * @return tiempo de llegada por id de zona, en orden creciente (incluye el origen)
+     */
+    public Map<String, Double> calcularIsocrona(Zona origen, double tiempoMaximo) {
+        if (origen == null) return new LinkedHashMap<>();
         
-        visitados.add(actual.getId());
-        rutaActual.add(actual);
+        GrafoCompacto grafo = obtenerGrafoCompacto();
+        return Isocrona.calcular(grafo, grafo.indiceDe(origen.getId()), tiempoMaximo, grafo.pesos(CriterioRuta.TIEMPO))
+            .obtenerCostosPorId();
+    }
+    
+    /**
+     * Calcula la matriz de costos mínimos según el criterio entre cada zona origen y cada zona destino.
+     * Las filas se calculan en paralelo; las zonas que no están en el grafo dan costo infinito.
+     *
+     * @return matriz [idsOrigen.size()][idsDestino.size()]
+     */
+    public double[][] calcularMatrizCostos(List<String> idsOrigen, List<String> idsDestino, CriterioRuta criterio) {
+        GrafoCompacto grafo = obtenerGrafoCompacto();
+        int[] origenes = idsOrigen.stream().mapToInt(grafo::indiceDe).toArray();
+        int[] destinos = idsDestino.stream().mapToInt(grafo::indiceDe).toArray();
+        TablaDistancias tabla = obtenerTablaDistancias(grafo, criterio);
+        if (tabla != null) return tabla.obtenerMatriz(origenes, destinos);
+        return MatrizDistancias.calcular(grafo, origenes, destinos, grafo.pesos(criterio));
+    }
+    
+    /**
+     * Calcula el costo mínimo según el criterio entre dos zonas; con la tabla de distancias
+     * activa y al día es una sola lectura
+     *
+     * @return costo, o infinito si no hay camino
+     */
+    public double calcularCostoMinimo(String idOrigen, String idDestino, CriterioRuta criterio) {
+        GrafoCompacto grafo = obtenerGrafoCompacto();
+        int origen = grafo.indiceDe(idOrigen);
+        int destino = grafo.indiceDe(idDestino);
+        if (origen < 0 || destino < 0) return Double.POSITIVE_INFINITY;
         
-        for (Ruta ruta : obtenerRutasDesde(actual.getId())) {
-            Zona vecino = ruta.getDestino();
-            if (vecino != null && !visitados.contains(vecino.getId())) {
-                dfsTodasLasRutas(vecino, destino, visitados, rutaActual, todasLasRutas);
-            }
+        TablaDistancias tabla = obtenerTablaDistancias(grafo, criterio);
+        if (tabla != null) return tabla.costo(origen, destino);
+        EstadoBusqueda estado = EstadoBusqueda.delHilo(grafo.getNumeroNodos());
+        return BusquedaDijkstra.ejecutar(grafo, origen, destino, grafo.pesos(criterio), estado);
+    }
+    
+    /**
+     * Mantiene una tabla de costos entre todos los pares de zonas según el criterio, para
+     * grafos de hasta {@link TablaDistancias#LIMITE_NODOS} zonas. Si el grafo cambió, la primera
+     * consulta lanza la reconstrucción en segundo plano; mientras tanto las consultas usan Dijkstra.
+     *
+     * @param criterio criterio de la tabla, o null para desactivarla
+     */
+    public void activarTablaDistancias(CriterioRuta criterio) {
+        criterioTablaDistancias = criterio;
+        tablaDistancias = null;
+    }
+    
+    /**
+     * Construye la tabla de distancias en el hilo que llama, si está activa.
+     * Pensado para el arranque, cuando se cargaron todas las rutas.
+     */
+    public void construirTablaDistancias() {
+        CriterioRuta criterio = criterioTablaDistancias;
+        GrafoCompacto grafo = obtenerGrafoCompacto();
+        if (criterio == null || grafo.getNumeroNodos() > TablaDistancias.LIMITE_NODOS) return;
+        TablaDistancias actual = tablaDistancias;
+        if (actual == null || !actual.correspondeA(grafo, criterio)) {
+            tablaDistancias = TablaDistancias.construir(grafo, criterio);
         }
+    }
+    
+    /**
+     * Tabla de distancias al día para el criterio, o null si no está activa o se está reconstruyendo
+     */
+    private TablaDistancias obtenerTablaDistancias(GrafoCompacto grafo, CriterioRuta criterio) {
+        if (criterio == null || criterio != criterioTablaDistancias) return null;
+        TablaDistancias actual = tablaDistancias;
+        if (actual != null && actual.correspondeA(grafo, criterio)) return actual;
+        programarConstruccionTabla();
+        return null;
+    }
+    
+    /**
+     * Lanza la reconstrucción de la tabla en un hilo de fondo si no hay otra en curso
+     */
+    private void programarConstruccionTabla() {
+        if (obtenerGrafoCompacto().getNumeroNodos() > TablaDistancias.LIMITE_NODOS) return;
+        if (!construyendoTabla.compareAndSet(false, true)) return;
         
-        visitados.remove(actual.getId());
-        rutaActual.remove(rutaActual.size() - 1);
+        Thread hilo = new Thread(() -> {
+            try {
+                construirTablaDistancias();
+            } finally {
+                construyendoTabla.set(false);
+            }
+        }, "construccion-tabla-distancias");
+        hilo.setDaemon(true);
+        hilo.start();
     }
     
+    /**
+     * Calcula la matriz de tiempos de viaje entre cada zona origen y cada zona destino
+     */
+    public double[][] calcularMatrizTiempos(List<String> idsOrigen, List<String> idsDestino) {
+        return calcularMatrizCostos(idsOrigen, idsDestino, CriterioRuta.TIEMPO);
+    }
+    
+    /**
+     * Asigna cada zona a su refugio más cercano según el criterio, con una sola búsqueda
+     * multiorigen desde todos los nodos activos de tipo REFUGIO o ZONA_EVACUACION
+     */
+    public AsignacionRefugios asignarRefugiosMasCercanos(CriterioRuta criterio) {
+        GrafoCompacto grafo = obtenerGrafoCompacto();
+        int[] refugios = seleccionarRefugios(null).stream()
+            .mapToInt(nodo -> grafo.indiceDe(nodo.getId()))
+            .toArray();
+        return AsignacionRefugios.calcular(grafo, refugios, grafo.pesos(criterio));
+    }
+
+    /**
+     * Reparte a las personas de cada zona entre rutas y refugios con flujo de costo mínimo,
+     * respetando la capacidad disponible de rutas y refugios y minimizando el tiempo total.
+     *
+     * @param personasPorZona personas a evacuar por id de zona de origen
+     * @param idsRefugios     refugios a usar, o null para los nodos activos de tipo REFUGIO o ZONA_EVACUACION
+     */
+    public PlanFlujoEvacuacion planificarFlujoEvacuacion(Map<String, Integer> personasPorZona, Collection<String> idsRefugios) {
+        GrafoCompacto grafo = obtenerGrafoCompacto();
+        List<Nodo> refugios = seleccionarRefugios(idsRefugios);
+
+        int[] indicesRefugios = new int[refugios.size()];
+        long[] capacidades = new long[refugios.size()];
+        for (int i = 0; i < refugios.size(); i++) {
+            Nodo refugio = refugios.get(i);
+            indicesRefugios[i] = grafo.indiceDe(refugio.getId());
+            capacidades[i] = refugio.getCapacidadMaxima() == 0
+                ? FlujoCostoMinimo.ILIMITADA
+                : refugio.obtenerCapacidadDisponible();
+        }
+
+        List<Map.Entry<String, Integer>> entradas = new ArrayList<>(personasPorZona.entrySet());
+        int[] origenes = new int[entradas.size()];
+        int[] personas = new int[entradas.size()];
+        for (int i = 0; i < entradas.size(); i++) {
+            origenes[i] = grafo.indiceDe(entradas.get(i).getKey());
+            personas[i] = entradas.get(i).getValue() != null ? entradas.get(i).getValue() : 0;
+        }
+        return PlanFlujoEvacuacion.calcular(grafo, origenes, personas, indicesRefugios, capacidades);
+    }
+
+    /**
+     * Refugios activos con los ids indicados (sin repetir), o todos los nodos activos de tipo
+     * REFUGIO o ZONA_EVACUACION si no se indican
+     */
+    private List<Nodo> seleccionarRefugios(Collection<String> idsRefugios) {
+        materializarInstantanea();
+        List<Nodo> refugios = new ArrayList<>();
+        if (idsRefugios == null) {
+            nodos.stream()
+                .filter(Nodo::isActivo)
+                .filter(nodo -> nodo.getTipo() == Nodo.TipoNodo.REFUGIO || nodo.getTipo() == Nodo.TipoNodo.ZONA_EVACUACION)
+                .forEach(refugios::add);
+        } else {
+            for (String id : new LinkedHashSet<>(idsRefugios)) {
+                Nodo nodo = mapaNodos.get(id);
+                if (nodo != null && nodo.isActivo()) refugios.add(nodo);
+            }
+        }
+        return refugios;
+    }
+
+    /**
+     * Obtiene el índice de alcanzabilidad de las rutas activas.
+     * Se reconstruye solo si cambió la topología o se abrió o cerró alguna ruta.
+     */
+    public IndiceAlcanzabilidad obtenerIndiceAlcanzabilidad() {
+        GrafoCompacto compacto = obtenerGrafoCompacto();
+        IndiceAlcanzabilidad indice = indiceAlcanzabilidad;
+        if (indice == null || !indice.correspondeA(compacto)) {
+            synchronized (this) {
+                indice = indiceAlcanzabilidad;
+                if (indice == null || !indice.correspondeA(compacto)) {
+                    indice = IndiceAlcanzabilidad.construir(compacto);
+                    indiceAlcanzabilidad = indice;
+                }
+            }
+        }
+        return indice;
+    }
+
+    /**
+     * Verifica si se puede llegar del origen al destino por rutas activas, directas o no
+     */
+    public boolean esAlcanzable(String idOrigen, String idDestino) {
+        if (idOrigen == null || idDestino == null) return false;
+        IndiceAlcanzabilidad indice = obtenerIndiceAlcanzabilidad();
+        // Los ids se resuelven contra el grafo del índice, que puede no ser el actual si otro hilo lo reconstruyó
+        GrafoCompacto compacto = indice.getGrafo();
+        return indice.esAlcanzable(compacto.indiceDe(idOrigen), compacto.indiceDe(idDestino));
+    }
+
+    /**
+     * Zonas desde las que ya no se puede llegar por rutas activas a ninguno de los refugios
+     *
+     * @param idsRefugios refugios a considerar, o null para los nodos activos de tipo REFUGIO o ZONA_EVACUACION
+     * @return ids de las zonas incomunicadas (sin incluir los refugios)
+     */
+    public List<String> obtenerZonasIncomunicadas(Collection<String> idsRefugios) {
+        IndiceAlcanzabilidad indice = obtenerIndiceAlcanzabilidad();
+        GrafoCompacto compacto = indice.getGrafo();
+        int[] refugios = seleccionarRefugios(idsRefugios).stream()
+            .mapToInt(nodo -> compacto.indiceDe(nodo.getId()))
+            .toArray();
+        boolean[] llega = indice.alcanzanAlguno(refugios);
+        List<String> incomunicadas = new ArrayList<>();
+        for (int v = 0; v < llega.length; v++) {
+            if (!llega[v]) incomunicadas.add(compacto.idNodo(v));
+        }
+        return incomunicadas;
+    }
+
+    /**
+     * Programa las evacuaciones, en el orden dado, sobre una red expandida en el tiempo
+     * donde cada ruta admite un caudal limitado de personas por intervalo
+     *
+     * @param intervalo duración de cada intervalo en horas
+     */
+    public ProgramaEvacuaciones programarEvacuaciones(List<Evacuacion> evacuaciones, double intervalo) {
+        return ProgramaEvacuaciones.calcular(obtenerGrafoCompacto(), evacuaciones, intervalo);
+    }
+
+    /**
+     * Devuelve los tramos de las rutas alternativas entre dos zonas, sin repetir.
+     * Se limita a los {@code numeroRutasAlternativas} caminos simples más cortos
+     * en lugar de enumerar todos los caminos posibles.
+     */
+    @Override
+    public List<Ruta> calcularTodasLasRutas(Zona origen, Zona destino) {
+        Set<Ruta> tramos = new LinkedHashSet<>();
+        for (Camino camino : calcularKRutasMasCortas(origen, destino, numeroRutasAlternativas, CriterioRuta.DISTANCIA)) {
+            tramos.addAll(camino.getTramos());
+        }
+        return new ArrayList<>(tramos);
+    }
+    
+    /**
+     * Calcula el camino de menor tiempo estimado entre dos zonas.
+     * Si el camino tiene varios tramos se devuelve como una ruta compuesta.
+     */
     @Override
     public Ruta calcularRutaMasRapida(Zona origen, Zona destino) {
-        List<Ruta> rutas = calcularTodasLasRutas(origen, destino);
-        return rutas.stream()
-            .min(Comparator.comparingDouble(Ruta::getTiempoEstimado))
-            .orElse(null);
+        Camino camino = calcularMejorCamino(origen, destino, CriterioRuta.TIEMPO);
+        return camino != null ? camino.comoRuta() : null;
     }
     
+    /**
+     * Calcula el camino de menor riesgo acumulado entre dos zonas.
+     * Si el camino tiene varios tramos se devuelve como una ruta compuesta.
+     */
     @Override
     public Ruta calcularRutaMasSegura(Zona origen, Zona destino) {
-        List<Ruta> rutas = calcularTodasLasRutas(origen, destino);
-        return rutas.stream()
-            .min(Comparator.comparingDouble(Ruta::getNivelRiesgo))
-            .orElse(null);
+        Camino camino = calcularMejorCamino(origen, destino, CriterioRuta.RIESGO);
+        return camino != null ? camino.comoRuta() : null;
     }
     
+    /**
+     * Verifica si existe una ruta directa entre las zonas, igual que {@link #existeRuta(String, String)}.
+     * Para saber si hay algún camino de rutas activas, ver {@link #esAlcanzable(String, String)}.
+     */
     @Override
     public boolean existeRuta(Zona origen, Zona destino) {
         if (origen == null || destino == null) return false;
@@ -214,6 +835,7 @@ public class GrafoDirigido implements ICalcularRuta {
      * Simula las rutas del grafo
      */
     public void simularRutas() {
+        materializarInstantanea();
         System.out.println("=== SIMULACIÓN DE RUTAS ===");
         for (Ruta ruta : aristas) {
             System.out.println("Ruta: " + ruta.getOrigen().getNombre() + 
@@ -226,6 +848,7 @@ public class GrafoDirigido implements ICalcularRuta {
      * Obtiene estadísticas del grafo
      */
     public String generarEstadisticas() {
+        materializarInstantanea();
         StringBuilder stats = new StringBuilder();
         stats.append("=== ESTADÍSTICAS DEL GRAFO DIRIGIDO ===\n");
         stats.append("Total de nodos: ").append(nodos.size()).append("\n");
@@ -241,18 +864,50 @@ public class GrafoDirigido implements ICalcularRuta {
     }
     
     public List<Nodo> getNodos() {
+        materializarInstantanea();
         return new ArrayList<>(nodos);
     }
     
     public List<Ruta> getAristas() {
+        materializarInstantanea();
         return new ArrayList<>(aristas);
     }
     
+    public int getNumeroRutasAlternativas() {
+        return numeroRutasAlternativas;
+    }
+    
+    public void setNumeroRutasAlternativas(int numeroRutasAlternativas) {
+        this.numeroRutasAlternativas = Math.max(1, numeroRutasAlternativas);
+    }
+    
+    public CacheRutas getCacheRutas() {
+        return cacheRutas;
+    }
+    
+    public ICalcularRuta getCalculadorRutas() {
+        return calculadorRutas;
+    }
+    
+    /**
+     * Cambia la estrategia de ruta más corta y la vincula a este grafo
+     *
+     * @param calculadorRutas estrategia a usar, o null para el Dijkstra del propio grafo
+     */
+    public void setCalculadorRutas(ICalcularRuta calculadorRutas) {
+        this.calculadorRutas = calculadorRutas;
+        if (calculadorRutas != null) {
+            calculadorRutas.vincularGrafo(this);
+        }
+    }
+    
     public int getNumeroNodos() {
+        materializarInstantanea();
         return nodos.size();
     }
     
     public int getNumeroAristas() {
+        materializarInstantanea();
         return aristas.size();
     }
     
@@ -0,0 +1,281 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import java.util.Arrays;
+
+/**
+ * Índice de alcanzabilidad sobre las rutas activas del grafo compacto.
+ *
+ * Las componentes fuertemente conexas se obtienen con el algoritmo de Tarjan (iterativo,
+ * para no agotar la pila en grafos grandes). Tarjan termina cada componente después de
+ * todas las que alcanza, así que su número ya es un orden topológico inverso del grafo
+ * condensado: si la componente a alcanza a la b, entonces a >= b.
+ *
+ * Sobre el grafo condensado se guarda, por componente, el conjunto de bits de las
+ * componentes alcanzables, y cada consulta cuesta O(1). Si hay demasiadas componentes para
+ * guardar esos conjuntos, la consulta recorre el grafo condensado podando por ese orden.
+ *
+ * El índice corresponde a una versión de conectividad del grafo: solo se debe reconstruir
+ * cuando una ruta se abre o se cierra, no cuando cambian sus pesos.
+ */
+public class IndiceAlcanzabilidad {
+    /**
+     * Máximo de componentes para las que se guardan los conjuntos de bits (2 MB con 4096)
+     */
+    private static final int LIMITE_COMPONENTES_BITS = 4096;
+
+    private final GrafoCompacto grafo;
+    private final int versionConectividad;
+    private final int[] componentes;
+    private final int numeroComponentes;
+    private final int[] inicioSucesores;
+    private final int[] sucesores;
+    private final long[] alcanzables;
+    private final int palabrasPorComponente;
+
+    // Marcas para los recorridos cuando no hay conjuntos de bits
+    private int[] marcas;
+    private int generacion;
+
+    private IndiceAlcanzabilidad(GrafoCompacto grafo, int versionConectividad, int[] componentes,
+                                 int numeroComponentes) {
+        this.grafo = grafo;
+        this.versionConectividad = versionConectividad;
+        this.componentes = componentes;
+        this.numeroComponentes = numeroComponentes;
+
+        // Grafo condensado en formato CSR, sin aristas repetidas
+        int[] grados = new int[numeroComponentes + 1];
+        int[] ultimaMarca = new int[numeroComponentes];
+        Arrays.fill(ultimaMarca, -1);
+        int[] orden = ordenarPorComponente(grafo.getNumeroNodos());
+        for (int v : orden) {
+            int c = componentes[v];
+            for (int e = grafo.inicioAristas(v), fin = grafo.finAristas(v); e < fin; e++) {
+                if (!grafo.estaActiva(e)) continue;
+                int d = componentes[grafo.destino(e)];
+                if (d != c && ultimaMarca[d] != c) {
+                    ultimaMarca[d] = c;
+                    grados[c + 1]++;
+                }
+            }
+        }
+        for (int c = 0; c < numeroComponentes; c++) grados[c + 1] += grados[c];
+        this.inicioSucesores = grados;
+        this.sucesores = new int[grados[numeroComponentes]];
+        Arrays.fill(ultimaMarca, -1);
+        int[] siguiente = Arrays.copyOf(grados, numeroComponentes);
+        for (int v : orden) {
+            int c = componentes[v];
+            for (int e = grafo.inicioAristas(v), fin = grafo.finAristas(v); e < fin; e++) {
+                if (!grafo.estaActiva(e)) continue;
+                int d = componentes[grafo.destino(e)];
+                if (d != c && ultimaMarca[d] != c) {
+                    ultimaMarca[d] = c;
+                    sucesores[siguiente[c]++] = d;
+                }
+            }
+        }
+
+        if (numeroComponentes <= LIMITE_COMPONENTES_BITS) {
+            this.palabrasPorComponente = (numeroComponentes + 63) >>> 6;
+            this.alcanzables = new long[numeroComponentes * palabrasPorComponente];
+            // Los sucesores tienen número menor, así que ya están calculados
+            for (int c = 0; c < numeroComponentes; c++) {
+                int base = c * palabrasPorComponente;
+                alcanzables[base + (c >>> 6)] |= 1L << c;
+                for (int i = inicioSucesores[c]; i < inicioSucesores[c + 1]; i++) {
+                    int baseSucesor = sucesores[i] * palabrasPorComponente;
+                    for (int w = 0; w < palabrasPorComponente; w++) {
+                        alcanzables[base + w] |= alcanzables[baseSucesor + w];
+                    }
+                }
+            }
+        } else {
+            this.palabrasPorComponente = 0;
+            this.alcanzables = null;
+            this.marcas = new int[numeroComponentes];
+        }
+    }
+
+    /**
+     * Calcula las componentes fuertemente conexas de la versión actual del grafo
+     */
+    public static IndiceAlcanzabilidad construir(GrafoCompacto grafo) {
+        int version = grafo.getVersionConectividad();
+        int n = grafo.getNumeroNodos();
+        int[] componentes = new int[n];
+        int[] indices = new int[n];
+        int[] bajos = new int[n];
+        int[] pilaComponente = new int[n];
+        boolean[] enPila = new boolean[n];
+        int[] pilaNodos = new int[n];
+        int[] pilaAristas = new int[n];
+        Arrays.fill(indices, -1);
+
+        int contador = 0;
+        int numeroComponentes = 0;
+        int cimaComponente = 0;
+        for (int raiz = 0; raiz < n; raiz++) {
+            if (indices[raiz] >= 0) continue;
+
+            int cima = 0;
+            pilaNodos[0] = raiz;
+            pilaAristas[0] = grafo.inicioAristas(raiz);
+            indices[raiz] = bajos[raiz] = contador++;
+            pilaComponente[cimaComponente++] = raiz;
+            enPila[raiz] = true;
+
+            while (cima >= 0) {
+                int v = pilaNodos[cima];
+                int e = pilaAristas[cima];
+                if (e < grafo.finAristas(v)) {
+                    pilaAristas[cima]++;
+                    if (!grafo.estaActiva(e)) continue;
+                    int w = grafo.destino(e);
+                    if (indices[w] < 0) {
+                        indices[w] = bajos[w] = contador++;
+                        pilaComponente[cimaComponente++] = w;
+                        enPila[w] = true;
+                        cima++;
+                        pilaNodos[cima] = w;
+                        pilaAristas[cima] = grafo.inicioAristas(w);
+                    } else if (enPila[w]) {
+                        bajos[v] = Math.min(bajos[v], indices[w]);
+                    }
+                    continue;
+                }
+
+                // Todas las aristas de v recorridas: cerrar la componente si v es su raíz
+                if (bajos[v] == indices[v]) {
+                    int w;
+                    do {
+                        w = pilaComponente[--cimaComponente];
+                        enPila[w] = false;
+                        componentes[w] = numeroComponentes;
+                    } while (w != v);
+                    numeroComponentes++;
+                }
+                cima--;
+                if (cima >= 0) {
+                    int padre = pilaNodos[cima];
+                    bajos[padre] = Math.min(bajos[padre], bajos[v]);
+                }
+            }
+        }
+        return new IndiceAlcanzabilidad(grafo, version, componentes, numeroComponentes);
+    }
+
+    /**
+     * Nodos agrupados por componente, para recorrer cada componente una vez al condensar
+     */
+    private int[] ordenarPorComponente(int n) {
+        int[] inicio = new int[numeroComponentes + 1];
+        for (int v = 0; v < n; v++) inicio[componentes[v] + 1]++;
+        for (int c = 0; c < numeroComponentes; c++) inicio[c + 1] += inicio[c];
+        int[] orden = new int[n];
+        for (int v = 0; v < n; v++) orden[inicio[componentes[v]]++] = v;
+        return orden;
+    }
+
+    /**
+     * Verifica si el índice corresponde al grafo y a su estado actual de rutas abiertas y cerradas
+     */
+    public boolean correspondeA(GrafoCompacto grafoCompacto) {
+        return grafo == grafoCompacto && versionConectividad == grafoCompacto.getVersionConectividad();
+    }
+
+    /**
+     * Grafo compacto sobre el que se construyó el índice; los índices de nodo se resuelven contra él
+     */
+    public GrafoCompacto getGrafo() {
+        return grafo;
+    }
+
+    /**
+     * Indica si existe algún camino de rutas activas del origen al destino
+     */
+    public boolean esAlcanzable(int origen, int destino) {
+        if (origen < 0 || destino < 0) return false;
+        int a = componentes[origen];
+        int b = componentes[destino];
+        if (a == b) return true;
+        if (a < b) return false;
+        if (alcanzables != null) {
+            return (alcanzables[a * palabrasPorComponente + (b >>> 6)] & (1L << b)) != 0;
+        }
+        return buscarEnCondensado(a, b);
+    }
+
+    /**
+     * Recorrido en profundidad del grafo condensado que descarta las componentes con número
+     * menor que el objetivo, porque no pueden alcanzarlo
+     */
+    private synchronized boolean buscarEnCondensado(int origen, int objetivo) {
+        if (++generacion == Integer.MAX_VALUE) {
+            Arrays.fill(marcas, 0);
+            generacion = 1;
+        }
+        int[] pila = new int[numeroComponentes];
+        int cima = 0;
+        pila[cima++] = origen;
+        marcas[origen] = generacion;
+        while (cima > 0) {
+            int c = pila[--cima];
+            for (int i = inicioSucesores[c]; i < inicioSucesores[c + 1]; i++) {
+                int d = sucesores[i];
+                if (d == objetivo) return true;
+                if (d < objetivo || marcas[d] == generacion) continue;
+                marcas[d] = generacion;
+                pila[cima++] = d;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marca los nodos desde los que se puede llegar a alguno de los objetivos
+     *
+     * @param objetivos índices de los nodos objetivo (se ignoran los negativos)
+     * @return arreglo indexado por nodo
+     */
+    public boolean[] alcanzanAlguno(int[] objetivos) {
+        boolean[] llega = new boolean[numeroComponentes];
+        for (int objetivo : objetivos) {
+            if (objetivo >= 0) llega[componentes[objetivo]] = true;
+        }
+        // En orden creciente los sucesores de cada componente ya están resueltos
+        for (int c = 0; c < numeroComponentes; c++) {
+            for (int i = inicioSucesores[c]; i < inicioSucesores[c + 1] && !llega[c]; i++) {
+                llega[c] = llega[sucesores[i]];
+            }
+        }
+        boolean[] resultado = new boolean[componentes.length];
+        for (int v = 0; v < componentes.length; v++) {
+            resultado[v] = llega[componentes[v]];
+        }
+        return resultado;
+    }
+
+    /**
+     * Número de la componente fuertemente conexa del nodo
+     */
+    public int componente(int nodo) {
+        return componentes[nodo];
+    }
+
+    public int getNumeroComponentes() {
+        return numeroComponentes;
+    }
+
+    /**
+     * Tamaño de la componente fuertemente conexa más grande
+     */
+    public int calcularTamanoMayorComponente() {
+        int[] tamanos = new int[numeroComponentes];
+        int mayor = 0;
+        for (int c : componentes) {
+            mayor = Math.max(mayor, ++tamanos[c]);
+        }
+        return mayor;
+    }
+}
@@ -0,0 +1,428 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Interfaces.IObservadorZona;
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.Zona;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice espacial de zonas para consultas de las k más cercanas a un punto y de las
+ * zonas dentro de un rectángulo, sin recorrer todas las zonas.
+ *
+ * Combina un árbol KD estático, construido de una vez sobre un arreglo, con una cuadrícula
+ * uniforme que recibe las zonas agregadas o movidas después. Las zonas movidas o eliminadas
+ * quedan marcadas como vencidas en el árbol, y cuando la cuadrícula y las marcas superan una
+ * cuarta parte del árbol, todo se vuelve a cargar en un árbol nuevo. Así las actualizaciones
+ * cuestan O(1) y el árbol se reconstruye en tiempo amortizado.
+ *
+ * Como en {@link RutaAEstrella}, coordenadaX es la latitud y coordenadaY la longitud en grados;
+ * las distancias se miden en la proyección equirectangular centrada en la latitud de la
+ * consulta, que basta para ordenar zonas de una región.
+ */
+public class IndiceEspacial implements IObservadorZona {
+    private static final int MINIMO_PARA_RECONSTRUIR = 32;
+    private static final int MAXIMO_RECORRIDO_LINEAL = 64;
+
+    // Árbol KD implícito: la mediana de cada rango es la raíz de su subárbol
+    private Zona[] arbol;
+    private double[] xs;
+    private double[] ys;
+    private boolean[] vigentes;
+    private final Map<Zona, Integer> posicionesArbol;
+    private int vencidasArbol;
+
+    // Cuadrícula de las zonas agregadas o movidas desde la última reconstrucción
+    private final Map<Long, List<Zona>> celdas;
+    private final Map<Zona, Long> celdasZona;
+    private double tamanoCelda;
+    private int minimaCeldaX;
+    private int maximaCeldaX;
+    private int minimaCeldaY;
+    private int maximaCeldaY;
+
+    public IndiceEspacial() {
+        this.arbol = new Zona[0];
+        this.xs = new double[0];
+        this.ys = new double[0];
+        this.vigentes = new boolean[0];
+        this.posicionesArbol = new IdentityHashMap<>();
+        this.celdas = new HashMap<>();
+        this.celdasZona = new IdentityHashMap<>();
+        this.tamanoCelda = 0.01;
+    }
+
+    /**
+     * Carga de una vez todas las zonas en el árbol, reemplazando el contenido del índice
+     */
+    public synchronized void cargar(Collection<Zona> zonas) {
+        for (Zona zona : posicionesArbol.keySet()) zona.eliminarObservador(this);
+        for (Zona zona : celdasZona.keySet()) zona.eliminarObservador(this);
+        Map<Zona, Boolean> unicas = new IdentityHashMap<>();
+        for (Zona zona : zonas) {
+            if (zona != null) unicas.put(zona, Boolean.TRUE);
+        }
+        construirArbol(new ArrayList<>(unicas.keySet()));
+        for (Zona zona : posicionesArbol.keySet()) zona.agregarObservador(this);
+    }
+
+    /**
+     * Agrega una zona; el índice sigue sus cambios de coordenadas
+     */
+    public synchronized void insertar(Zona zona) {
+        if (zona == null || contiene(zona)) return;
+        insertarEnCuadricula(zona);
+        zona.agregarObservador(this);
+        reconstruirSiHaceFalta();
+    }
+
+    /**
+     * Quita una zona del índice
+     *
+     * @return false si la zona no estaba
+     */
+    public synchronized boolean eliminar(Zona zona) {
+        if (zona == null || !quitar(zona)) return false;
+        zona.eliminarObservador(this);
+        reconstruirSiHaceFalta();
+        return true;
+    }
+
+    @Override
+    public synchronized void coordenadasActualizadas(Zona zona, double xAnterior, double yAnterior) {
+        if (!quitar(zona)) return;
+        insertarEnCuadricula(zona);
+        reconstruirSiHaceFalta();
+    }
+
+    public synchronized boolean contiene(Zona zona) {
+        return posicionesArbol.containsKey(zona) || celdasZona.containsKey(zona);
+    }
+
+    public synchronized int getTamano() {
+        return posicionesArbol.size() + celdasZona.size();
+    }
+
+    /**
+     * Obtiene las k zonas más cercanas al punto, de la más cercana a la más lejana
+     */
+    public synchronized List<Zona> buscarMasCercanas(double x, double y, int k) {
+        List<Zona> resultado = new ArrayList<>();
+        if (k <= 0) return resultado;
+
+        Vecinos vecinos = new Vecinos(x, y, k);
+        buscarEnArbol(vecinos, 0, arbol.length, 0);
+        buscarEnCuadricula(vecinos);
+        for (int i = 0; i < vecinos.cantidad; i++) {
+            resultado.add(vecinos.zonas[i]);
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtiene la zona más cercana al punto, o null si el índice está vacío
+     */
+    public Zona buscarMasCercana(double x, double y) {
+        List<Zona> cercanas = buscarMasCercanas(x, y, 1);
+        return cercanas.isEmpty() ? null : cercanas.get(0);
+    }
+
+    /**
+     * Obtiene las zonas con coordenadas dentro del rectángulo (bordes incluidos)
+     */
+    public synchronized List<Zona> buscarEnRectangulo(double minimoX, double minimoY, double maximoX, double maximoY) {
+        List<Zona> resultado = new ArrayList<>();
+        buscarRangoEnArbol(resultado, 0, arbol.length, 0, minimoX, minimoY, maximoX, maximoY);
+
+        int desdeX = celda(minimoX);
+        int hastaX = celda(maximoX);
+        int desdeY = celda(minimoY);
+        int hastaY = celda(maximoY);
+        long celdasRango = (long) (Math.min(hastaX, maximaCeldaX) - Math.max(desdeX, minimaCeldaX) + 1)
+                * (Math.min(hastaY, maximaCeldaY) - Math.max(desdeY, minimaCeldaY) + 1);
+        if (celdasRango <= 0 || celdasZona.isEmpty()) return resultado;
+
+        if (celdasRango > celdas.size()) {
+            for (List<Zona> zonas : celdas.values()) {
+                agregarDentro(resultado, zonas, minimoX, minimoY, maximoX, maximoY);
+            }
+        } else {
+            for (int cx = Math.max(desdeX, minimaCeldaX); cx <= Math.min(hastaX, maximaCeldaX); cx++) {
+                for (int cy = Math.max(desdeY, minimaCeldaY); cy <= Math.min(hastaY, maximaCeldaY); cy++) {
+                    List<Zona> zonas = celdas.get(clave(cx, cy));
+                    if (zonas != null) agregarDentro(resultado, zonas, minimoX, minimoY, maximoX, maximoY);
+                }
+            }
+        }
+        return resultado;
+    }
+
+    private static void agregarDentro(List<Zona> resultado, List<Zona> zonas, double minimoX, double minimoY,
+                                      double maximoX, double maximoY) {
+        for (Zona zona : zonas) {
+            double x = zona.getCoordenadaX();
+            double y = zona.getCoordenadaY();
+            if (x >= minimoX && x <= maximoX && y >= minimoY && y <= maximoY) resultado.add(zona);
+        }
+    }
+
+    /**
+     * Mejores k candidatos de una consulta, ordenados por distancia
+     */
+    private static final class Vecinos {
+        private final double x;
+        private final double y;
+        private final double escalaY;
+        private final Zona[] zonas;
+        private final double[] distancias;
+        private int cantidad;
+
+        private Vecinos(double x, double y, int k) {
+            this.x = x;
+            this.y = y;
+            this.escalaY = Math.cos(Math.toRadians(x));
+            this.zonas = new Zona[k];
+            this.distancias = new double[k];
+        }
+
+        private double distancia(double px, double py) {
+            double dx = px - x;
+            double dy = (py - y) * escalaY;
+            return dx * dx + dy * dy;
+        }
+
+        /**
+         * Mayor distancia (al cuadrado) que todavía puede entrar en el resultado
+         */
+        private double peor() {
+            return cantidad < zonas.length ? Double.POSITIVE_INFINITY : distancias[cantidad - 1];
+        }
+
+        private void ofrecer(Zona zona, double distancia) {
+            if (distancia >= peor()) return;
+            int i = Math.min(cantidad, zonas.length - 1);
+            while (i > 0 && distancias[i - 1] > distancia) {
+                zonas[i] = zonas[i - 1];
+                distancias[i] = distancias[i - 1];
+                i--;
+            }
+            zonas[i] = zona;
+            distancias[i] = distancia;
+            if (cantidad < zonas.length) cantidad++;
+        }
+    }
+
+    private void buscarEnArbol(Vecinos vecinos, int inicio, int fin, int profundidad) {
+        if (inicio >= fin) return;
+        int medio = (inicio + fin) >>> 1;
+        if (vigentes[medio]) vecinos.ofrecer(arbol[medio], vecinos.distancia(xs[medio], ys[medio]));
+
+        double diferencia = profundidad % 2 == 0
+                ? vecinos.x - xs[medio]
+                : (vecinos.y - ys[medio]) * vecinos.escalaY;
+        boolean primeroIzquierda = diferencia < 0;
+        if (primeroIzquierda) buscarEnArbol(vecinos, inicio, medio, profundidad + 1);
+        else buscarEnArbol(vecinos, medio + 1, fin, profundidad + 1);
+        if (diferencia * diferencia < vecinos.peor()) {
+            if (primeroIzquierda) buscarEnArbol(vecinos, medio + 1, fin, profundidad + 1);
+            else buscarEnArbol(vecinos, inicio, medio, profundidad + 1);
+        }
+    }
+
+    private void buscarRangoEnArbol(List<Zona> resultado, int inicio, int fin, int profundidad,
+                                    double minimoX, double minimoY, double maximoX, double maximoY) {
+        if (inicio >= fin) return;
+        int medio = (inicio + fin) >>> 1;
+        double x = xs[medio];
+        double y = ys[medio];
+        if (vigentes[medio] && x >= minimoX && x <= maximoX && y >= minimoY && y <= maximoY) {
+            resultado.add(arbol[medio]);
+        }
+        double valor = profundidad % 2 == 0 ? x : y;
+        double minimo = profundidad % 2 == 0 ? minimoX : minimoY;
+        double maximo = profundidad % 2 == 0 ? maximoX : maximoY;
+        if (minimo <= valor) {
+            buscarRangoEnArbol(resultado, inicio, medio, profundidad + 1, minimoX, minimoY, maximoX, maximoY);
+        }
+        if (maximo >= valor) {
+            buscarRangoEnArbol(resultado, medio + 1, fin, profundidad + 1, minimoX, minimoY, maximoX, maximoY);
+        }
+    }
+
+    /**
+     * Recorre la cuadrícula por anillos de celdas alrededor del punto hasta que ninguna celda
+     * restante pueda tener una zona más cercana que las ya encontradas
+     */
+    private void buscarEnCuadricula(Vecinos vecinos) {
+        if (celdasZona.isEmpty()) return;
+        if (celdasZona.size() <= MAXIMO_RECORRIDO_LINEAL) {
+            for (Zona zona : celdasZona.keySet()) {
+                vecinos.ofrecer(zona, vecinos.distancia(zona.getCoordenadaX(), zona.getCoordenadaY()));
+            }
+            return;
+        }
+
+        int cx = celda(vecinos.x);
+        int cy = celda(vecinos.y);
+        int radioMaximo = Math.max(Math.max(Math.abs(cx - minimaCeldaX), Math.abs(cx - maximaCeldaX)),
+                Math.max(Math.abs(cy - minimaCeldaY), Math.abs(cy - maximaCeldaY)));
+        double paso = tamanoCelda * Math.min(1.0, Math.abs(vecinos.escalaY));
+        long celdasVisitadas = 0;
+        for (int radio = 0; radio <= radioMaximo; radio++) {
+            double cota = Math.max(0, radio - 1) * paso;
+            if (cota * cota >= vecinos.peor()) return;
+            celdasVisitadas += radio == 0 ? 1 : 8L * radio;
+            if (celdasVisitadas > 2L * celdas.size()) {
+                // Zonas muy dispersas: es más barato revisar las celdas ocupadas que quedan fuera del anillo
+                for (Map.Entry<Long, List<Zona>> entrada : celdas.entrySet()) {
+                    long clave = entrada.getKey();
+                    int distancia = Math.max(Math.abs((int) (clave >> 32) - cx), Math.abs((int) clave - cy));
+                    if (distancia < radio) continue;
+                    for (Zona zona : entrada.getValue()) {
+                        vecinos.ofrecer(zona, vecinos.distancia(zona.getCoordenadaX(), zona.getCoordenadaY()));
+                    }
+                }
+                return;
+            }
+            for (int i = cx - radio; i <= cx + radio; i++) {
+                boolean borde = i == cx - radio || i == cx + radio;
+                int salto = borde ? 1 : 2 * radio;
+                for (int j = cy - radio; j <= cy + radio; j += Math.max(1, salto)) {
+                    List<Zona> zonas = celdas.get(clave(i, j));
+                    if (zonas == null) continue;
+                    for (Zona zona : zonas) {
+                        vecinos.ofrecer(zona, vecinos.distancia(zona.getCoordenadaX(), zona.getCoordenadaY()));
+                    }
+                }
+            }
+        }
+    }
+
+    private void insertarEnCuadricula(Zona zona) {
+        int cx = celda(zona.getCoordenadaX());
+        int cy = celda(zona.getCoordenadaY());
+        if (celdasZona.isEmpty()) {
+            minimaCeldaX = maximaCeldaX = cx;
+            minimaCeldaY = maximaCeldaY = cy;
+        } else {
+            minimaCeldaX = Math.min(minimaCeldaX, cx);
+            maximaCeldaX = Math.max(maximaCeldaX, cx);
+            minimaCeldaY = Math.min(minimaCeldaY, cy);
+            maximaCeldaY = Math.max(maximaCeldaY, cy);
+        }
+        long clave = clave(cx, cy);
+        celdas.computeIfAbsent(clave, c -> new ArrayList<>()).add(zona);
+        celdasZona.put(zona, clave);
+    }
+
+    /**
+     * Quita la zona del árbol (marcándola como vencida) o de la cuadrícula
+     */
+    private boolean quitar(Zona zona) {
+        Integer posicion = posicionesArbol.remove(zona);
+        if (posicion != null) {
+            vigentes[posicion] = false;
+            arbol[posicion] = null;
+            vencidasArbol++;
+            return true;
+        }
+        Long clave = celdasZona.remove(zona);
+        if (clave == null) return false;
+        List<Zona> zonas = celdas.get(clave);
+        zonas.removeIf(z -> z == zona);
+        if (zonas.isEmpty()) celdas.remove(clave);
+        return true;
+    }
+
+    private void reconstruirSiHaceFalta() {
+        int pendientes = celdasZona.size() + vencidasArbol;
+        if (pendientes > Math.max(MINIMO_PARA_RECONSTRUIR, posicionesArbol.size() / 4)) {
+            List<Zona> todas = new ArrayList<>(posicionesArbol.keySet());
+            todas.addAll(celdasZona.keySet());
+            construirArbol(todas);
+        }
+    }
+
+    private void construirArbol(List<Zona> zonas) {
+        int n = zonas.size();
+        arbol = zonas.toArray(new Zona[0]);
+        xs = new double[n];
+        ys = new double[n];
+        vigentes = new boolean[n];
+        Arrays.fill(vigentes, true);
+        double minimoX = Double.POSITIVE_INFINITY;
+        double maximoX = Double.NEGATIVE_INFINITY;
+        double minimoY = Double.POSITIVE_INFINITY;
+        double maximoY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            xs[i] = arbol[i].getCoordenadaX();
+            ys[i] = arbol[i].getCoordenadaY();
+            minimoX = Math.min(minimoX, xs[i]);
+            maximoX = Math.max(maximoX, xs[i]);
+            minimoY = Math.min(minimoY, ys[i]);
+            maximoY = Math.max(maximoY, ys[i]);
+        }
+        ordenarSubarbol(0, n, 0);
+
+        posicionesArbol.clear();
+        for (int i = 0; i < n; i++) posicionesArbol.put(arbol[i], i);
+        vencidasArbol = 0;
+        celdas.clear();
+        celdasZona.clear();
+
+        // Celdas de tamaño parecido a la separación media entre zonas
+        double area = (maximoX - minimoX) * (maximoY - minimoY);
+        if (n > 1 && area > 0) tamanoCelda = Math.sqrt(area / n);
+    }
+
+    /**
+     * Ubica la mediana de cada rango según la coordenada del nivel y sigue con cada mitad
+     */
+    private void ordenarSubarbol(int inicio, int fin, int profundidad) {
+        if (fin - inicio <= 1) return;
+        int medio = (inicio + fin) >>> 1;
+        double[] claves = profundidad % 2 == 0 ? xs : ys;
+        int izquierda = inicio;
+        int derecha = fin - 1;
+        while (izquierda < derecha) {
+            double pivote = claves[(izquierda + derecha) >>> 1];
+            int i = izquierda;
+            int j = derecha;
+            while (i <= j) {
+                while (claves[i] < pivote) i++;
+                while (claves[j] > pivote) j--;
+                if (i <= j) intercambiar(i++, j--);
+            }
+            if (medio <= j) derecha = j;
+            else if (medio >= i) izquierda = i;
+            else break;
+        }
+        ordenarSubarbol(inicio, medio, profundidad + 1);
+        ordenarSubarbol(medio + 1, fin, profundidad + 1);
+    }
+
+    private void intercambiar(int a, int b) {
+        Zona zona = arbol[a];
+        arbol[a] = arbol[b];
+        arbol[b] = zona;
+        double x = xs[a];
+        xs[a] = xs[b];
+        xs[b] = x;
+        double y = ys[a];
+        ys[a] = ys[b];
+        ys[b] = y;
+    }
+
+    private int celda(double coordenada) {
+        return (int) Math.floor(coordenada / tamanoCelda);
+    }
+
+    private static long clave(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+}
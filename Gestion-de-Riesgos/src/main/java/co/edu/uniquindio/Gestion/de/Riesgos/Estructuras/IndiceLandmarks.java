@@ -0,0 +1,308 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Índice ALT (A*, landmarks y desigualdad triangular) sobre las distancias del grafo compacto.
+ *
+ * Para K nodos de referencia L se guardan d(L, v) y d(v, L) de todos los nodos, y la
+ * distancia de v al destino t se acota por max(d(L, t) - d(L, v), d(v, L) - d(t, L)).
+ * La cota no usa coordenadas, así que sirve también con rutas aéreas o marítimas.
+ *
+ * Los landmarks se eligen por lejanía en saltos (cada uno es el nodo más alejado de los
+ * anteriores, ignorando el sentido de las rutas) y las 2K búsquedas de Dijkstra corren en
+ * paralelo. Las tablas se guardan por nodo, con los K valores de un nodo contiguos.
+ *
+ * Si después de construir el índice las distancias solo aumentan (por ejemplo, al cerrar
+ * rutas), las cotas siguen siendo consistentes y el índice se puede seguir usando; si
+ * alguna disminuye hay que reconstruirlo.
+ */
+public class IndiceLandmarks {
+    public static final int LANDMARKS_POR_DEFECTO = 8;
+
+    private static final int MARCA_ARCHIVO = 0x414C5431;
+    private static final int FORMATO_ARCHIVO = 1;
+
+    private final int numeroLandmarks;
+    private final int[] landmarks;
+    private final double[] desdeLandmark;
+    private final double[] haciaLandmark;
+    private final double[] pesosBase;
+
+    private final GrafoCompacto grafo;
+    private volatile int versionVerificada;
+    private volatile int versionRechazada = -1;
+
+    private IndiceLandmarks(GrafoCompacto grafo, int[] landmarks, double[] desdeLandmark,
+                            double[] haciaLandmark, double[] pesosBase) {
+        this.numeroLandmarks = landmarks.length;
+        this.landmarks = landmarks;
+        this.desdeLandmark = desdeLandmark;
+        this.haciaLandmark = haciaLandmark;
+        this.pesosBase = pesosBase;
+        this.grafo = grafo;
+        this.versionVerificada = grafo.getVersion();
+    }
+
+    /**
+     * Elige los landmarks y calcula sus distancias en la versión actual del grafo
+     *
+     * @param numeroLandmarks cantidad de landmarks deseada (se usan menos si el grafo es más pequeño)
+     */
+    public static IndiceLandmarks construir(GrafoCompacto grafo, int numeroLandmarks) {
+        int n = grafo.getNumeroNodos();
+        int[] landmarks = elegirLandmarks(grafo, Math.max(0, Math.min(numeroLandmarks, n)));
+        int k = landmarks.length;
+        double[] desde = new double[n * k];
+        double[] hacia = new double[n * k];
+        double[] pesos = grafo.pesosDistancia().clone();
+
+        IntStream.range(0, 2 * k).parallel().forEach(tarea -> {
+            int i = tarea % k;
+            boolean haciaAdelante = tarea < k;
+            EstadoBusqueda estado = EstadoBusqueda.delHilo(n);
+            recorrerTodo(grafo, landmarks[i], pesos, haciaAdelante, estado);
+            double[] tabla = haciaAdelante ? desde : hacia;
+            for (int v = 0; v < n; v++) {
+                tabla[v * k + i] = estado.distancia(v);
+            }
+        });
+        return new IndiceLandmarks(grafo, landmarks, desde, hacia, pesos);
+    }
+
+    /**
+     * Elige como landmark el nodo más alejado en saltos de los ya elegidos; los nodos de otra
+     * componente quedan a distancia infinita, así que cada componente recibe al menos uno
+     */
+    private static int[] elegirLandmarks(GrafoCompacto grafo, int cantidad) {
+        int n = grafo.getNumeroNodos();
+        int[] landmarks = new int[cantidad];
+        if (cantidad == 0) return landmarks;
+
+        int[] saltosMinimos = new int[n];
+        Arrays.fill(saltosMinimos, Integer.MAX_VALUE);
+        int[] saltos = new int[n];
+        int[] cola = new int[n];
+        int siguiente = 0;
+        for (int v = 1; v < n; v++) {
+            if (grafo.finAristas(v) - grafo.inicioAristas(v) > grafo.finAristas(siguiente) - grafo.inicioAristas(siguiente)) {
+                siguiente = v;
+            }
+        }
+
+        for (int i = 0; i < cantidad; i++) {
+            landmarks[i] = siguiente;
+            Arrays.fill(saltos, -1);
+            saltos[siguiente] = 0;
+            cola[0] = siguiente;
+            int inicio = 0;
+            int fin = 1;
+            while (inicio < fin) {
+                int actual = cola[inicio++];
+                for (int e = grafo.inicioAristas(actual), ultima = grafo.finAristas(actual); e < ultima; e++) {
+                    int vecino = grafo.destino(e);
+                    if (saltos[vecino] < 0) {
+                        saltos[vecino] = saltos[actual] + 1;
+                        cola[fin++] = vecino;
+                    }
+                }
+                for (int j = grafo.inicioEntrantes(actual), ultima = grafo.finEntrantes(actual); j < ultima; j++) {
+                    int vecino = grafo.origen(grafo.aristaEntrante(j));
+                    if (saltos[vecino] < 0) {
+                        saltos[vecino] = saltos[actual] + 1;
+                        cola[fin++] = vecino;
+                    }
+                }
+            }
+
+            int masLejano = -1;
+            for (int v = 0; v < n; v++) {
+                if (saltos[v] >= 0) saltosMinimos[v] = Math.min(saltosMinimos[v], saltos[v]);
+                if (saltosMinimos[v] > 0 && (masLejano < 0 || saltosMinimos[v] > saltosMinimos[masLejano])) {
+                    masLejano = v;
+                }
+            }
+            if (masLejano < 0) return Arrays.copyOf(landmarks, i + 1);
+            siguiente = masLejano;
+        }
+        return landmarks;
+    }
+
+    /**
+     * Dijkstra completo desde el landmark, sobre las aristas salientes o sobre las entrantes
+     */
+    private static void recorrerTodo(GrafoCompacto grafo, int landmark, double[] pesos, boolean haciaAdelante,
+                                     EstadoBusqueda estado) {
+        MonticuloIndexado monticulo = estado.getMonticulo();
+        estado.actualizar(landmark, 0.0, -1);
+        monticulo.insertarODisminuir(landmark, 0.0);
+
+        while (!monticulo.estaVacio()) {
+            int actual = monticulo.extraerMinimo();
+            estado.registrarAsentado();
+            double distanciaActual = estado.distancia(actual);
+            int inicio = haciaAdelante ? grafo.inicioAristas(actual) : grafo.inicioEntrantes(actual);
+            int fin = haciaAdelante ? grafo.finAristas(actual) : grafo.finEntrantes(actual);
+            for (int j = inicio; j < fin; j++) {
+                int e = haciaAdelante ? j : grafo.aristaEntrante(j);
+                int vecino = haciaAdelante ? grafo.destino(e) : grafo.origen(e);
+                double nuevaDistancia = distanciaActual + pesos[e];
+                if (nuevaDistancia < estado.distancia(vecino)) {
+                    estado.actualizar(vecino, nuevaDistancia, e);
+                    monticulo.insertarODisminuir(vecino, nuevaDistancia);
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifica que el índice se pueda usar con la versión actual del grafo: debe ser el mismo
+     * grafo compacto y ninguna distancia puede haber bajado desde la construcción
+     */
+    public boolean esValidoPara(GrafoCompacto grafoCompacto) {
+        if (grafoCompacto != grafo) return false;
+        int version = grafoCompacto.getVersion();
+        if (version == versionVerificada) return true;
+        if (version == versionRechazada) return false;
+
+        double[] pesos = grafoCompacto.pesosDistancia();
+        for (int e = 0; e < pesos.length; e++) {
+            if (pesos[e] < pesosBase[e]) {
+                versionRechazada = version;
+                return false;
+            }
+        }
+        versionVerificada = version;
+        return true;
+    }
+
+    /**
+     * Crea la cota inferior de distancia desde cualquier nodo hasta el destino
+     */
+    public IntToDoubleFunction crearCotaInferior(int destino) {
+        int k = numeroLandmarks;
+        double[] desdeDestino = Arrays.copyOfRange(desdeLandmark, destino * k, destino * k + k);
+        double[] haciaDestino = Arrays.copyOfRange(haciaLandmark, destino * k, destino * k + k);
+        return nodo -> {
+            double cota = 0.0;
+            int base = nodo * k;
+            for (int i = 0; i < k; i++) {
+                // Las diferencias entre infinitos dan NaN y no cambian el máximo
+                double adelante = desdeDestino[i] - desdeLandmark[base + i];
+                double atras = haciaLandmark[base + i] - haciaDestino[i];
+                if (adelante > cota) cota = adelante;
+                if (atras > cota) cota = atras;
+            }
+            return cota;
+        };
+    }
+
+    /**
+     * Guarda el índice en un archivo binario, identificando nodos y rutas por su id para
+     * poder cargarlo sobre un grafo reconstruido con los mismos datos
+     */
+    public void guardar(Path archivo) throws IOException {
+        GrafoCompacto grafoCompacto = grafo;
+        int n = grafoCompacto.getNumeroNodos();
+        int m = grafoCompacto.getNumeroAristas();
+        try (DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(archivo)))) {
+            salida.writeInt(MARCA_ARCHIVO);
+            salida.writeInt(FORMATO_ARCHIVO);
+            salida.writeInt(n);
+            salida.writeInt(m);
+            salida.writeInt(numeroLandmarks);
+            for (int v = 0; v < n; v++) {
+                salida.writeUTF(grafoCompacto.idNodo(v));
+            }
+            for (int e = 0; e < m; e++) {
+                salida.writeInt(grafoCompacto.origen(e));
+                salida.writeInt(grafoCompacto.destino(e));
+                salida.writeDouble(pesosBase[e]);
+            }
+            for (int landmark : landmarks) {
+                salida.writeInt(landmark);
+            }
+            for (double valor : desdeLandmark) {
+                salida.writeDouble(valor);
+            }
+            for (double valor : haciaLandmark) {
+                salida.writeDouble(valor);
+            }
+        }
+    }
+
+    /**
+     * Carga un índice guardado y lo adapta a la numeración de nodos del grafo indicado
+     *
+     * @return el índice, o null si el archivo corresponde a otro grafo o a distancias más largas que las actuales
+     * @throws IOException si el archivo no se puede leer o no tiene el formato esperado
+     */
+    public static IndiceLandmarks cargar(Path archivo, GrafoCompacto grafo) throws IOException {
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(archivo)))) {
+            if (entrada.readInt() != MARCA_ARCHIVO || entrada.readInt() != FORMATO_ARCHIVO) {
+                throw new IOException("El archivo no contiene un índice de landmarks");
+            }
+            int n = entrada.readInt();
+            int m = entrada.readInt();
+            int k = entrada.readInt();
+            if (n != grafo.getNumeroNodos() || m != grafo.getNumeroAristas()) return null;
+
+            // Posición de cada nodo guardado en el grafo actual
+            int[] nodoActual = new int[n];
+            for (int v = 0; v < n; v++) {
+                nodoActual[v] = grafo.indiceDe(entrada.readUTF());
+                if (nodoActual[v] < 0) return null;
+            }
+
+            // Cada arista guardada debe existir en el grafo con una distancia igual o mayor
+            Map<Long, Double> pesosGuardados = new HashMap<>(Math.max(16, (int) (m / 0.75f) + 1));
+            for (int e = 0; e < m; e++) {
+                long clave = ((long) nodoActual[entrada.readInt()] << 32) | nodoActual[entrada.readInt()];
+                pesosGuardados.merge(clave, entrada.readDouble(), Math::min);
+            }
+            double[] pesosActuales = grafo.pesosDistancia();
+            double[] pesosBase = new double[m];
+            for (int e = 0; e < m; e++) {
+                Double guardado = pesosGuardados.get(((long) grafo.origen(e) << 32) | grafo.destino(e));
+                if (guardado == null || pesosActuales[e] < guardado) return null;
+                pesosBase[e] = guardado;
+            }
+
+            int[] landmarks = new int[k];
+            for (int i = 0; i < k; i++) {
+                landmarks[i] = nodoActual[entrada.readInt()];
+            }
+            double[] desde = new double[n * k];
+            double[] hacia = new double[n * k];
+            for (int v = 0; v < n; v++) {
+                for (int i = 0; i < k; i++) desde[nodoActual[v] * k + i] = entrada.readDouble();
+            }
+            for (int v = 0; v < n; v++) {
+                for (int i = 0; i < k; i++) hacia[nodoActual[v] * k + i] = entrada.readDouble();
+            }
+            return new IndiceLandmarks(grafo, landmarks, desde, hacia, pesosBase);
+        }
+    }
+
+    public int getNumeroLandmarks() {
+        return numeroLandmarks;
+    }
+
+    /**
+     * Índices de los nodos usados como landmarks
+     */
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+}
@@ -0,0 +1,482 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.NivelUrgencia;
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.TipoRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.Zona;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Instantánea binaria del grafo compacto para arrancar sin reconstruir el grafo objeto por objeto
+ * (por ejemplo, al recuperarse de una caída con una red de todo el país).
+ *
+ * El archivo guarda los arreglos CSR tal como los usan las búsquedas, los atributos de cada
+ * nodo (tipo, capacidad y ocupación, que necesitan los refugios) y de su zona, los de cada
+ * ruta y una tabla de cadenas con los ids de zonas y rutas y los nombres de los nodos. Se carga con
+ * {@link FileChannel#map}: los arreglos se copian en bloque desde el archivo mapeado y no
+ * se crea ningún objeto por arista. Las rutas se crean solo cuando alguien las pide (por
+ * ejemplo, al armar el {@link Camino} de una respuesta), leyendo sus atributos del archivo.
+ *
+ * Formato (little-endian, secciones alineadas a 8 bytes): cabecera con marca, versión de
+ * formato, número de nodos, número de aristas, tamaño de la tabla de cadenas y número total de
+ * puntos de los perfiles horarios; coordenadas; atributos de los nodos y sus zonas; inicio de
+ * aristas y destinos; pesos de las búsquedas; atributos de las rutas; inicio de los puntos del
+ * perfil de cada ruta (una ruta sin perfil no tiene puntos), sus horas y sus tiempos;
+ * desplazamientos y bytes UTF-8 de la tabla de cadenas (primero los ids de nodos, luego los de
+ * rutas y al final los nombres de los nodos).
+ */
+public class InstantaneaGrafo {
+    private static final int MARCA_ARCHIVO = 0x47525346;
+    private static final int FORMATO_ARCHIVO = 3;
+    private static final int TAMANO_CABECERA = 32;
+    private static final int RUTA_ACTIVA = 1;
+    private static final int NODO_ACTIVO = 1;
+    private static final int ZONA_ACTIVA = 2;
+
+    private final MappedByteBuffer datos;
+    private final Secciones secciones;
+
+    private InstantaneaGrafo(MappedByteBuffer datos, Secciones secciones) {
+        this.datos = datos;
+        this.secciones = secciones;
+    }
+
+    /**
+     * Posición de cada sección en el archivo, calculada a partir de los tamaños de la cabecera
+     */
+    private static final class Secciones {
+        private final int numeroNodos;
+        private final int numeroAristas;
+        private final int coordenadasX;
+        private final int coordenadasY;
+        private final int capacidadesNodo;
+        private final int personasNodo;
+        private final int poblacionesZona;
+        private final int tiposNodo;
+        private final int urgenciasNodo;
+        private final int urgenciasZona;
+        private final int estadosNodo;
+        private final int inicioAristas;
+        private final int destinos;
+        private final int distancias;
+        private final int tiempos;
+        private final int riesgos;
+        private final int capacidades;
+        private final int recargos;
+        private final int distanciasRuta;
+        private final int tiemposRuta;
+        private final int riesgosRuta;
+        private final int capacidadesMaximas;
+        private final int capacidadesActuales;
+        private final int estados;
+        private final int tipos;
+        private final int inicioPerfiles;
+        private final int horasPerfiles;
+        private final int tiemposPerfiles;
+        private final int desplazamientosCadenas;
+        private final int bytesCadenas;
+        private final long numeroPuntosPerfiles;
+        private final long tamanoCadenas;
+        private final long tamanoArchivo;
+
+        private Secciones(int n, int m, long numeroPuntosPerfiles, long tamanoCadenas) {
+            this.numeroNodos = n;
+            this.numeroAristas = m;
+            this.numeroPuntosPerfiles = numeroPuntosPerfiles;
+            this.tamanoCadenas = tamanoCadenas;
+            long posicion = TAMANO_CABECERA;
+            coordenadasX = (int) posicion;
+            posicion += 8L * n;
+            coordenadasY = (int) posicion;
+            posicion += 8L * n;
+            capacidadesNodo = (int) posicion;
+            posicion += 4L * n;
+            personasNodo = (int) posicion;
+            posicion += 4L * n;
+            poblacionesZona = (int) posicion;
+            posicion += 4L * n;
+            tiposNodo = (int) posicion;
+            posicion += n;
+            urgenciasNodo = (int) posicion;
+            posicion += n;
+            urgenciasZona = (int) posicion;
+            posicion += n;
+            estadosNodo = (int) posicion;
+            posicion = alinear(posicion + n);
+            inicioAristas = (int) posicion;
+            posicion += 4L * (n + 1);
+            destinos = (int) posicion;
+            posicion = alinear(posicion + 4L * m);
+            distancias = (int) posicion;
+            posicion += 8L * m;
+            tiempos = (int) posicion;
+            posicion += 8L * m;
+            riesgos = (int) posicion;
+            posicion += 8L * m;
+            capacidades = (int) posicion;
+            posicion += 8L * m;
+            recargos = (int) posicion;
+            posicion += 8L * m;
+            distanciasRuta = (int) posicion;
+            posicion += 8L * m;
+            tiemposRuta = (int) posicion;
+            posicion += 8L * m;
+            riesgosRuta = (int) posicion;
+            posicion += 8L * m;
+            capacidadesMaximas = (int) posicion;
+            posicion += 4L * m;
+            capacidadesActuales = (int) posicion;
+            posicion += 4L * m;
+            estados = (int) posicion;
+            posicion += m;
+            tipos = (int) posicion;
+            posicion = alinear(posicion + m);
+            inicioPerfiles = (int) posicion;
+            posicion = alinear(posicion + 4L * (m + 1));
+            horasPerfiles = (int) posicion;
+            posicion += 8L * numeroPuntosPerfiles;
+            tiemposPerfiles = (int) posicion;
+            posicion += 8L * numeroPuntosPerfiles;
+            desplazamientosCadenas = (int) posicion;
+            posicion += 4L * (2L * n + m + 1);
+            bytesCadenas = (int) posicion;
+            tamanoArchivo = posicion + tamanoCadenas;
+        }
+
+        private static long alinear(long posicion) {
+            return (posicion + 7) & ~7L;
+        }
+    }
+
+    /**
+     * Guarda el grafo compacto en el archivo. Escribe primero en un archivo temporal y lo
+     * reemplaza al final, así que una caída durante el guardado no deja una instantánea a medias.
+     *
+     * @param nodos nodo de cada índice del grafo compacto (un nodo nulo se guarda como ciudad sin capacidad)
+     * @throws IOException si no se puede escribir o el grafo no cabe en un archivo mapeable (2 GB)
+     */
+    public static void guardar(GrafoCompacto grafo, Nodo[] nodos, Path archivo) throws IOException {
+        int n = grafo.getNumeroNodos();
+        int m = grafo.getNumeroAristas();
+        if (nodos.length != n) {
+            throw new IllegalArgumentException("Se esperaban " + n + " nodos y se recibieron " + nodos.length);
+        }
+        byte[][] cadenas = new byte[2 * n + m][];
+        long tamanoCadenas = 0;
+        long numeroPuntosPerfiles = 0;
+        Ruta[] rutas = new Ruta[m];
+        // La zona de cada nodo se toma de cualquiera de sus rutas
+        Zona[] zonas = new Zona[n];
+        for (int e = 0; e < m; e++) {
+            rutas[e] = grafo.ruta(e);
+            String id = rutas[e].getId();
+            cadenas[n + e] = id != null ? id.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            tamanoCadenas += cadenas[n + e].length;
+            if (rutas[e].getPerfilTiempo() != null) numeroPuntosPerfiles += rutas[e].getPerfilTiempo().getNumeroPuntos();
+            if (zonas[grafo.origen(e)] == null) zonas[grafo.origen(e)] = rutas[e].getOrigen();
+            if (zonas[grafo.destino(e)] == null) zonas[grafo.destino(e)] = rutas[e].getDestino();
+        }
+        for (int v = 0; v < n; v++) {
+            cadenas[v] = grafo.idNodo(v).getBytes(StandardCharsets.UTF_8);
+            String nombre = nodos[v] != null && nodos[v].getNombre() != null ? nodos[v].getNombre() : grafo.idNodo(v);
+            cadenas[n + m + v] = nombre.getBytes(StandardCharsets.UTF_8);
+            tamanoCadenas += cadenas[v].length + cadenas[n + m + v].length;
+        }
+        Secciones secciones = new Secciones(n, m, numeroPuntosPerfiles, tamanoCadenas);
+        if (secciones.tamanoArchivo > Integer.MAX_VALUE) {
+            throw new IOException("El grafo es demasiado grande para una instantánea mapeada: "
+                    + secciones.tamanoArchivo + " bytes");
+        }
+
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer datos = canal.map(FileChannel.MapMode.READ_WRITE, 0, secciones.tamanoArchivo);
+            datos.order(ByteOrder.LITTLE_ENDIAN);
+            datos.putInt(0, MARCA_ARCHIVO);
+            datos.putInt(4, FORMATO_ARCHIVO);
+            datos.putInt(8, n);
+            datos.putInt(12, m);
+            datos.putLong(16, tamanoCadenas);
+            datos.putLong(24, numeroPuntosPerfiles);
+
+            for (int v = 0; v < n; v++) {
+                datos.putDouble(secciones.coordenadasX + 8 * v, grafo.coordenadaX(v));
+                datos.putDouble(secciones.coordenadasY + 8 * v, grafo.coordenadaY(v));
+                datos.putInt(secciones.inicioAristas + 4 * v, grafo.inicioAristas(v));
+                escribirNodo(datos, secciones, v, nodos[v], zonas[v]);
+            }
+            datos.putInt(secciones.inicioAristas + 4 * n, m);
+            for (int e = 0; e < m; e++) {
+                Ruta ruta = rutas[e];
+                datos.putInt(secciones.destinos + 4 * e, grafo.destino(e));
+                datos.putDouble(secciones.distancias + 8 * e, grafo.distancia(e));
+                datos.putDouble(secciones.tiempos + 8 * e, grafo.tiempo(e));
+                datos.putDouble(secciones.riesgos + 8 * e, grafo.riesgo(e));
+                datos.putDouble(secciones.capacidades + 8 * e, grafo.capacidad(e));
+                datos.putDouble(secciones.recargos + 8 * e, ruta.calcularRecargoTrafico());
+                datos.putDouble(secciones.distanciasRuta + 8 * e, ruta.getDistancia());
+                datos.putDouble(secciones.tiemposRuta + 8 * e, ruta.getTiempoEstimado());
+                datos.putDouble(secciones.riesgosRuta + 8 * e, ruta.getNivelRiesgo());
+                datos.putInt(secciones.capacidadesMaximas + 4 * e, ruta.getCapacidadMaxima());
+                datos.putInt(secciones.capacidadesActuales + 4 * e, ruta.getCapacidadActual());
+                datos.put(secciones.estados + e, (byte) (ruta.isActiva() ? RUTA_ACTIVA : 0));
+                datos.put(secciones.tipos + e, (byte) (ruta.getTipo() != null ? ruta.getTipo().ordinal() : -1));
+            }
+
+            int punto = 0;
+            for (int e = 0; e < m; e++) {
+                datos.putInt(secciones.inicioPerfiles + 4 * e, punto);
+                PerfilTiempo perfil = rutas[e].getPerfilTiempo();
+                if (perfil == null) continue;
+                double[] horas = perfil.getHoras();
+                double[] tiempos = perfil.getTiempos();
+                for (int i = 0; i < horas.length; i++, punto++) {
+                    datos.putDouble(secciones.horasPerfiles + 8 * punto, horas[i]);
+                    datos.putDouble(secciones.tiemposPerfiles + 8 * punto, tiempos[i]);
+                }
+            }
+            datos.putInt(secciones.inicioPerfiles + 4 * m, punto);
+
+            int desplazamiento = 0;
+            for (int i = 0; i < cadenas.length; i++) {
+                datos.putInt(secciones.desplazamientosCadenas + 4 * i, desplazamiento);
+                datos.put(secciones.bytesCadenas + desplazamiento, cadenas[i]);
+                desplazamiento += cadenas[i].length;
+            }
+            datos.putInt(secciones.desplazamientosCadenas + 4 * cadenas.length, desplazamiento);
+            datos.force();
+        }
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void escribirNodo(ByteBuffer datos, Secciones secciones, int v, Nodo nodo, Zona zona) {
+        Nodo.TipoNodo tipo = nodo != null && nodo.getTipo() != null ? nodo.getTipo() : Nodo.TipoNodo.CIUDAD;
+        NivelUrgencia urgenciaNodo = nodo != null ? nodo.getNivelUrgencia() : null;
+        NivelUrgencia urgenciaZona = zona != null ? zona.getNivelUrgencia() : null;
+        int estado = (nodo == null || nodo.isActivo() ? NODO_ACTIVO : 0) | (zona == null || zona.isActiva() ? ZONA_ACTIVA : 0);
+        datos.putInt(secciones.capacidadesNodo + 4 * v, nodo != null ? nodo.getCapacidadMaxima() : 0);
+        datos.putInt(secciones.personasNodo + 4 * v, nodo != null ? nodo.getPersonasActuales() : 0);
+        datos.putInt(secciones.poblacionesZona + 4 * v, zona != null ? zona.getPoblacionAfectada() : 0);
+        datos.put(secciones.tiposNodo + v, (byte) tipo.ordinal());
+        datos.put(secciones.urgenciasNodo + v, (byte) (urgenciaNodo != null ? urgenciaNodo.ordinal() : -1));
+        datos.put(secciones.urgenciasZona + v, (byte) (urgenciaZona != null ? urgenciaZona.ordinal() : -1));
+        datos.put(secciones.estadosNodo + v, (byte) estado);
+    }
+
+    /**
+     * Mapea el archivo y arma el grafo compacto listo para consultas
+     *
+     * @throws IOException si el archivo no se puede leer o no tiene el formato esperado
+     */
+    public static GrafoCompacto cargar(Path archivo) throws IOException {
+        MappedByteBuffer datos;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano < TAMANO_CABECERA || tamano > Integer.MAX_VALUE) {
+                throw new IOException("El archivo no contiene una instantánea de grafo");
+            }
+            // El mapeo sigue siendo válido después de cerrar el canal
+            datos = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamano);
+        }
+        datos.order(ByteOrder.LITTLE_ENDIAN);
+        if (datos.getInt(0) != MARCA_ARCHIVO) {
+            throw new IOException("El archivo no contiene una instantánea de grafo");
+        }
+        if (datos.getInt(4) != FORMATO_ARCHIVO) {
+            throw new IOException("Versión de instantánea no soportada: " + datos.getInt(4));
+        }
+        int n = datos.getInt(8);
+        int m = datos.getInt(12);
+        long tamanoCadenas = datos.getLong(16);
+        long numeroPuntosPerfiles = datos.getLong(24);
+        if (n < 0 || m < 0 || tamanoCadenas < 0 || numeroPuntosPerfiles < 0
+                || numeroPuntosPerfiles > Integer.MAX_VALUE || tamanoCadenas > Integer.MAX_VALUE) {
+            throw new IOException("La instantánea de grafo está dañada");
+        }
+        Secciones secciones = new Secciones(n, m, numeroPuntosPerfiles, tamanoCadenas);
+        if (secciones.tamanoArchivo != datos.capacity()) {
+            throw new IOException("La instantánea de grafo está incompleta o dañada");
+        }
+        InstantaneaGrafo instantanea = new InstantaneaGrafo(datos, secciones);
+        instantanea.validarCadenas();
+        return GrafoCompacto.desdeInstantanea(instantanea);
+    }
+
+    /**
+     * Verifica que los desplazamientos de la tabla de cadenas sean crecientes y no se salgan de ella
+     */
+    private void validarCadenas() throws IOException {
+        int cantidad = 2 * secciones.numeroNodos + secciones.numeroAristas;
+        int anterior = 0;
+        for (int i = 0; i <= cantidad; i++) {
+            int desplazamiento = datos.getInt(secciones.desplazamientosCadenas + 4 * i);
+            if (desplazamiento < anterior || (i == 0 && desplazamiento != 0)
+                    || (i == cantidad && desplazamiento != secciones.tamanoCadenas)) {
+                throw new IOException("La instantánea de grafo está dañada");
+            }
+            anterior = desplazamiento;
+        }
+    }
+
+    int getNumeroNodos() {
+        return secciones.numeroNodos;
+    }
+
+    int getNumeroAristas() {
+        return secciones.numeroAristas;
+    }
+
+    /**
+     * Copia en bloque los ids y las coordenadas de los nodos
+     */
+    void leerNodos(String[] ids, double[] coordenadasX, double[] coordenadasY) {
+        leerDoubles(secciones.coordenadasX, coordenadasX);
+        leerDoubles(secciones.coordenadasY, coordenadasY);
+        for (int v = 0; v < ids.length; v++) {
+            ids[v] = leerCadena(v);
+        }
+    }
+
+    /**
+     * Copia en bloque los arreglos CSR y los pesos de las búsquedas, y crea los perfiles
+     * horarios de las rutas que tienen uno
+     *
+     * @throws IOException si los índices o los perfiles del archivo no son válidos
+     */
+    void leerAristas(int[] inicioAristas, int[] destinos, double[] distancias, double[] tiempos, double[] riesgos,
+                     double[] capacidades, double[] recargos, byte[] tipos, PerfilTiempo[] perfiles) throws IOException {
+        leerInts(secciones.inicioAristas, inicioAristas);
+        leerInts(secciones.destinos, destinos);
+        leerDoubles(secciones.distancias, distancias);
+        leerDoubles(secciones.tiempos, tiempos);
+        leerDoubles(secciones.riesgos, riesgos);
+        leerDoubles(secciones.capacidades, capacidades);
+        leerDoubles(secciones.recargos, recargos);
+        datos.get(secciones.tipos, tipos);
+
+        int n = secciones.numeroNodos;
+        if (inicioAristas[0] != 0 || inicioAristas[n] != secciones.numeroAristas) {
+            throw new IOException("La instantánea de grafo está dañada");
+        }
+        for (int v = 0; v < n; v++) {
+            if (inicioAristas[v] > inicioAristas[v + 1]) throw new IOException("La instantánea de grafo está dañada");
+        }
+        for (int destino : destinos) {
+            if (destino < 0 || destino >= n) throw new IOException("La instantánea de grafo está dañada");
+        }
+        leerPerfiles(perfiles);
+    }
+
+    private void leerPerfiles(PerfilTiempo[] perfiles) throws IOException {
+        int m = secciones.numeroAristas;
+        int[] inicioPerfiles = new int[m + 1];
+        leerInts(secciones.inicioPerfiles, inicioPerfiles);
+        if (inicioPerfiles[0] != 0 || inicioPerfiles[m] != secciones.numeroPuntosPerfiles) {
+            throw new IOException("La instantánea de grafo está dañada");
+        }
+        for (int e = 0; e < m; e++) {
+            if (inicioPerfiles[e] > inicioPerfiles[e + 1]) throw new IOException("La instantánea de grafo está dañada");
+        }
+        for (int e = 0; e < m; e++) {
+            int puntos = inicioPerfiles[e + 1] - inicioPerfiles[e];
+            if (puntos == 0) continue;
+            double[] horas = new double[puntos];
+            double[] tiempos = new double[puntos];
+            leerDoubles(secciones.horasPerfiles + 8 * inicioPerfiles[e], horas);
+            leerDoubles(secciones.tiemposPerfiles + 8 * inicioPerfiles[e], tiempos);
+            try {
+                perfiles[e] = new PerfilTiempo(horas, tiempos);
+            } catch (IllegalArgumentException ex) {
+                throw new IOException("La instantánea de grafo tiene un perfil horario inválido", ex);
+            }
+        }
+    }
+
+    /**
+     * Crea el nodo con los atributos guardados
+     */
+    Nodo crearNodo(int nodo, String id, double coordenadaX, double coordenadaY) {
+        int tipo = datos.get(secciones.tiposNodo + nodo);
+        Nodo resultado = new Nodo(id, leerNombre(nodo),
+                coordenadaX, coordenadaY,
+                tipo >= 0 && tipo < Nodo.TipoNodo.values().length ? Nodo.TipoNodo.values()[tipo] : Nodo.TipoNodo.CIUDAD,
+                datos.getInt(secciones.capacidadesNodo + 4 * nodo));
+        resultado.setPersonasActuales(datos.getInt(secciones.personasNodo + 4 * nodo));
+        NivelUrgencia urgencia = leerUrgencia(secciones.urgenciasNodo + nodo);
+        if (urgencia != null) resultado.setNivelUrgencia(urgencia);
+        resultado.setActivo((datos.get(secciones.estadosNodo + nodo) & NODO_ACTIVO) != 0);
+        return resultado;
+    }
+
+    /**
+     * Crea la zona del nodo con los atributos guardados
+     */
+    Zona crearZona(int nodo, String id, double coordenadaX, double coordenadaY) {
+        NivelUrgencia urgencia = leerUrgencia(secciones.urgenciasZona + nodo);
+        Zona zona = new Zona(id, leerNombre(nodo), NivelUrgencia.BAJA);
+        zona.setCoordenadaX(coordenadaX);
+        zona.setCoordenadaY(coordenadaY);
+        // La población recalcula el nivel de riesgo; después se restaura el guardado
+        zona.setPoblacionAfectada(datos.getInt(secciones.poblacionesZona + 4 * nodo));
+        if (urgencia != null) zona.setNivelRiesgo(urgencia);
+        zona.setActiva((datos.get(secciones.estadosNodo + nodo) & ZONA_ACTIVA) != 0);
+        return zona;
+    }
+
+    private String leerNombre(int nodo) {
+        return leerCadena(secciones.numeroNodos + secciones.numeroAristas + nodo);
+    }
+
+    private NivelUrgencia leerUrgencia(int posicion) {
+        int urgencia = datos.get(posicion);
+        return urgencia >= 0 && urgencia < NivelUrgencia.values().length ? NivelUrgencia.values()[urgencia] : null;
+    }
+
+    /**
+     * Crea la ruta de la arista con los atributos guardados y el perfil horario ya leído. La
+     * ruta no queda vinculada a ningún grafo: sus cambios no se reflejan en la instantánea.
+     */
+    Ruta crearRuta(int arista, Zona origen, Zona destino, PerfilTiempo perfil) {
+        int tipo = datos.get(secciones.tipos + arista);
+        String id = leerCadena(secciones.numeroNodos + arista);
+        Ruta ruta = new Ruta(id.isEmpty() ? null : id, origen, destino,
+                datos.getDouble(secciones.distanciasRuta + 8 * arista),
+                datos.getDouble(secciones.tiemposRuta + 8 * arista),
+                tipo >= 0 && tipo < TipoRuta.values().length ? TipoRuta.values()[tipo] : null);
+        ruta.setNivelRiesgo(datos.getDouble(secciones.riesgosRuta + 8 * arista));
+        ruta.setCapacidadMaxima(datos.getInt(secciones.capacidadesMaximas + 4 * arista));
+        ruta.setCapacidadActual(datos.getInt(secciones.capacidadesActuales + 4 * arista));
+        ruta.setActiva((datos.get(secciones.estados + arista) & RUTA_ACTIVA) != 0);
+        ruta.setPerfilTiempo(perfil);
+        return ruta;
+    }
+
+    private String leerCadena(int indice) {
+        int posicion = secciones.desplazamientosCadenas + 4 * indice;
+        int desde = datos.getInt(posicion);
+        int hasta = datos.getInt(posicion + 4);
+        byte[] bytes = new byte[hasta - desde];
+        datos.get(secciones.bytesCadenas + desde, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void leerInts(int posicion, int[] destino) {
+        ByteBuffer vista = datos.duplicate().order(ByteOrder.LITTLE_ENDIAN).position(posicion);
+        vista.asIntBuffer().get(destino);
+    }
+
+    private void leerDoubles(int posicion, double[] destino) {
+        ByteBuffer vista = datos.duplicate().order(ByteOrder.LITTLE_ENDIAN).position(posicion);
+        vista.asDoubleBuffer().get(destino);
+    }
+}
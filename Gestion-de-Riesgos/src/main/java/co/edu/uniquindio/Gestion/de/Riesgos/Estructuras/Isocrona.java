@@ -0,0 +1,101 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Nodos alcanzables desde un origen sin superar un costo máximo (por ejemplo, las zonas a
+ * las que un equipo llega en menos de 30 minutos), con el costo de llegada a cada uno.
+ *
+ * Es un Dijkstra que no inserta en el montículo los nodos que superan el límite, así que
+ * solo recorre la región alcanzable. Usa el estado de búsqueda del hilo, por lo que una
+ * consulta no crea arreglos del tamaño del grafo.
+ */
+public class Isocrona {
+    private final GrafoCompacto grafo;
+    private final int origen;
+    private final double limite;
+    private final int[] nodos;
+    private final double[] costos;
+
+    private Isocrona(GrafoCompacto grafo, int origen, double limite, int[] nodos, double[] costos) {
+        this.grafo = grafo;
+        this.origen = origen;
+        this.limite = limite;
+        this.nodos = nodos;
+        this.costos = costos;
+    }
+
+    /**
+     * Calcula los nodos con costo mínimo desde el origen menor o igual al límite
+     */
+    public static Isocrona calcular(GrafoCompacto grafo, int origen, double limite, double[] pesos) {
+        if (origen < 0 || !(limite >= 0.0)) return new Isocrona(grafo, origen, limite, new int[0], new double[0]);
+
+        EstadoBusqueda estado = EstadoBusqueda.delHilo(grafo.getNumeroNodos());
+        MonticuloIndexado monticulo = estado.getMonticulo();
+        estado.actualizar(origen, 0.0, -1);
+        monticulo.insertarODisminuir(origen, 0.0);
+
+        int[] nodos = new int[16];
+        double[] costos = new double[16];
+        int alcanzados = 0;
+        while (!monticulo.estaVacio()) {
+            int actual = monticulo.extraerMinimo();
+            estado.registrarAsentado();
+            double distanciaActual = estado.distancia(actual);
+            if (alcanzados == nodos.length) {
+                nodos = Arrays.copyOf(nodos, alcanzados * 2);
+                costos = Arrays.copyOf(costos, alcanzados * 2);
+            }
+            nodos[alcanzados] = actual;
+            costos[alcanzados] = distanciaActual;
+            alcanzados++;
+
+            for (int e = grafo.inicioAristas(actual), fin = grafo.finAristas(actual); e < fin; e++) {
+                int vecino = grafo.destino(e);
+                double nuevaDistancia = distanciaActual + pesos[e];
+                if (nuevaDistancia <= limite && nuevaDistancia < estado.distancia(vecino)) {
+                    estado.actualizar(vecino, nuevaDistancia, e);
+                    monticulo.insertarODisminuir(vecino, nuevaDistancia);
+                }
+            }
+        }
+        return new Isocrona(grafo, origen, limite, Arrays.copyOf(nodos, alcanzados), Arrays.copyOf(costos, alcanzados));
+    }
+
+    /**
+     * Ids de los nodos alcanzados con su costo de llegada, en orden creciente de costo
+     */
+    public Map<String, Double> obtenerCostosPorId() {
+        Map<String, Double> resultado = new LinkedHashMap<>();
+        for (int i = 0; i < nodos.length; i++) {
+            resultado.put(grafo.idNodo(nodos[i]), costos[i]);
+        }
+        return resultado;
+    }
+
+    /**
+     * Índices de los nodos alcanzados, en orden creciente de costo (incluye el origen)
+     */
+    public int[] getNodos() {
+        return nodos.clone();
+    }
+
+    public double[] getCostos() {
+        return costos.clone();
+    }
+
+    public int getNumeroNodos() {
+        return nodos.length;
+    }
+
+    public int getOrigen() {
+        return origen;
+    }
+
+    public double getLimite() {
+        return limite;
+    }
+}
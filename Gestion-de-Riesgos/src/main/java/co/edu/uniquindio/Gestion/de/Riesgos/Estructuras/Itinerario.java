@@ -0,0 +1,54 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Camino con horario: además de las rutas recorridas guarda la hora en que se entra
+ * a cada tramo y la hora de llegada, calculadas con los perfiles horarios de las rutas
+ */
+public class Itinerario {
+    private final Camino camino;
+    private final List<LocalDateTime> salidasTramos;
+    private final LocalDateTime llegada;
+
+    Itinerario(Camino camino, List<LocalDateTime> salidasTramos, LocalDateTime llegada) {
+        this.camino = camino;
+        this.salidasTramos = salidasTramos;
+        this.llegada = llegada;
+    }
+
+    public Camino getCamino() {
+        return camino;
+    }
+
+    public LocalDateTime getSalida() {
+        return salidasTramos.isEmpty() ? llegada : salidasTramos.get(0);
+    }
+
+    public LocalDateTime getLlegada() {
+        return llegada;
+    }
+
+    /**
+     * Hora en que se entra a cada tramo del camino, en orden
+     */
+    public List<LocalDateTime> getSalidasTramos() {
+        return new ArrayList<>(salidasTramos);
+    }
+
+    /**
+     * Duración del viaje en horas
+     */
+    public double calcularDuracionHoras() {
+        return Duration.between(getSalida(), llegada).toNanos() / 3.6e12;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Itinerario{tramos=%d, salida=%s, llegada=%s}",
+            camino.getNumeroTramos(), getSalida(), llegada);
+    }
+}
@@ -0,0 +1,515 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Índice de jerarquías de contracción (contraction hierarchies) sobre el grafo compacto.
+ *
+ * En el preprocesamiento los nodos se contraen de menor a mayor importancia y se
+ * agregan atajos que preservan las distancias entre los nodos restantes. Cada ronda
+ * contrae en paralelo un conjunto independiente de nodos (mínimos locales de prioridad)
+ * y las búsquedas de testigos ignoran los nodos de la ronda, de modo que los atajos
+ * calculados en paralelo siguen siendo correctos.
+ *
+ * Las consultas son una búsqueda bidireccional que solo sube en la jerarquía, y los
+ * atajos se desempaquetan al final para devolver las aristas originales.
+ */
+public class JerarquiaContraccion {
+    private static final int LIMITE_ASENTADOS_TESTIGO = 500;
+
+    private static final byte PENDIENTE = 0;
+    private static final byte EN_RONDA = 1;
+    private static final byte CONTRAIDO = 2;
+
+    private final GrafoCompacto grafo;
+    private final int version;
+    private final int[] rangos;
+
+    // Aristas de la jerarquía (originales y atajos)
+    private final int[] origenes;
+    private final int[] destinos;
+    private final int[] primerHijo;
+    private final int[] segundoHijo;
+    private final int[] aristaOriginal;
+
+    // Grafo de subida hacia adelante: aristas u -> v con rango(v) > rango(u), agrupadas por u
+    private final int[] inicioSubida;
+    private final int[] aristasSubida;
+    private final double[] pesosSubida;
+
+    // Grafo de subida hacia atrás: aristas u -> v con rango(u) > rango(v), agrupadas por v
+    private final int[] inicioBajada;
+    private final int[] aristasBajada;
+    private final double[] pesosBajada;
+
+    /**
+     * Lista dinámica de enteros usada durante la construcción
+     */
+    private static final class ListaEnteros {
+        private int[] datos = new int[4];
+        private int tamano;
+
+        private void agregar(int valor) {
+            if (tamano == datos.length) datos = Arrays.copyOf(datos, tamano * 2);
+            datos[tamano++] = valor;
+        }
+    }
+
+    /**
+     * Marcas por hilo de los destinos que busca cada búsqueda de testigos
+     */
+    private static final class MarcasObjetivo {
+        private int[] marcas = new int[0];
+        private int generacion;
+
+        private void preparar(int numeroNodos) {
+            if (marcas.length < numeroNodos) {
+                marcas = new int[numeroNodos];
+                generacion = 0;
+            }
+            if (++generacion == Integer.MAX_VALUE) {
+                Arrays.fill(marcas, 0);
+                generacion = 1;
+            }
+        }
+
+        private boolean marcar(int nodo) {
+            if (marcas[nodo] == generacion) return false;
+            marcas[nodo] = generacion;
+            return true;
+        }
+
+        private boolean estaMarcado(int nodo) {
+            return marcas[nodo] == generacion;
+        }
+    }
+
+    private static final ThreadLocal<MarcasObjetivo> MARCAS_POR_HILO = ThreadLocal.withInitial(MarcasObjetivo::new);
+
+    /**
+     * Estado mutable de la construcción: grafo dinámico con aristas originales y atajos
+     */
+    private static final class Construccion {
+        private final GrafoCompacto grafo;
+        private final int version;
+        private final int numeroNodos;
+        private int numeroAristas;
+        private int[] origenes;
+        private int[] destinos;
+        private double[] pesos;
+        private int[] primerHijo;
+        private int[] segundoHijo;
+        private int[] aristaOriginal;
+        private final ListaEnteros[] salientes;
+        private final ListaEnteros[] entrantes;
+        private final byte[] estados;
+        private final int[] prioridades;
+        private final int[] vecinosContraidos;
+        private final int[] rangos;
+
+        private Construccion(GrafoCompacto grafo) {
+            this.grafo = grafo;
+            this.version = grafo.getVersion();
+            this.numeroNodos = grafo.getNumeroNodos();
+            int capacidad = Math.max(16, grafo.getNumeroAristas() * 2);
+            this.origenes = new int[capacidad];
+            this.destinos = new int[capacidad];
+            this.pesos = new double[capacidad];
+            this.primerHijo = new int[capacidad];
+            this.segundoHijo = new int[capacidad];
+            this.aristaOriginal = new int[capacidad];
+            this.salientes = new ListaEnteros[numeroNodos];
+            this.entrantes = new ListaEnteros[numeroNodos];
+            this.estados = new byte[numeroNodos];
+            this.prioridades = new int[numeroNodos];
+            this.vecinosContraidos = new int[numeroNodos];
+            this.rangos = new int[numeroNodos];
+            for (int v = 0; v < numeroNodos; v++) {
+                salientes[v] = new ListaEnteros();
+                entrantes[v] = new ListaEnteros();
+            }
+            double[] distancias = grafo.pesosDistancia();
+            for (int e = 0; e < grafo.getNumeroAristas(); e++) {
+                // Las rutas cerradas (peso infinito) no forman parte de la jerarquía
+                if (grafo.origen(e) != grafo.destino(e) && distancias[e] < Double.POSITIVE_INFINITY) {
+                    agregarArista(grafo.origen(e), grafo.destino(e), distancias[e], -1, -1, e);
+                }
+            }
+        }
+
+        private int agregarArista(int origen, int destino, double peso, int hijoA, int hijoB, int original) {
+            if (numeroAristas == origenes.length) {
+                int capacidad = numeroAristas + (numeroAristas >> 1);
+                origenes = Arrays.copyOf(origenes, capacidad);
+                destinos = Arrays.copyOf(destinos, capacidad);
+                pesos = Arrays.copyOf(pesos, capacidad);
+                primerHijo = Arrays.copyOf(primerHijo, capacidad);
+                segundoHijo = Arrays.copyOf(segundoHijo, capacidad);
+                aristaOriginal = Arrays.copyOf(aristaOriginal, capacidad);
+            }
+            int id = numeroAristas++;
+            origenes[id] = origen;
+            destinos[id] = destino;
+            pesos[id] = peso;
+            primerHijo[id] = hijoA;
+            segundoHijo[id] = hijoB;
+            aristaOriginal[id] = original;
+            salientes[origen].agregar(id);
+            entrantes[destino].agregar(id);
+            return id;
+        }
+
+        /**
+         * Calcula los atajos necesarios para contraer el nodo.
+         * Cada atajo se devuelve como {entrante, saliente} (ids de aristas).
+         */
+        private List<int[]> calcularAtajos(int nodo) {
+            List<int[]> atajos = new ArrayList<>();
+            ListaEnteros entrada = entrantes[nodo];
+            ListaEnteros salida = salientes[nodo];
+
+            double maximoSalida = 0.0;
+            for (int j = 0; j < salida.tamano; j++) {
+                int arista = salida.datos[j];
+                if (estados[destinos[arista]] == PENDIENTE) maximoSalida = Math.max(maximoSalida, pesos[arista]);
+            }
+
+            for (int i = 0; i < entrada.tamano; i++) {
+                int aristaEntrada = entrada.datos[i];
+                int u = origenes[aristaEntrada];
+                if (estados[u] != PENDIENTE || !esMinimaEntre(entrada, i, origenes)) continue;
+
+                EstadoBusqueda testigo = buscarTestigos(u, nodo, pesos[aristaEntrada] + maximoSalida, salida);
+                for (int j = 0; j < salida.tamano; j++) {
+                    int aristaSalida = salida.datos[j];
+                    int w = destinos[aristaSalida];
+                    if (w == u || estados[w] != PENDIENTE || !esMinimaEntre(salida, j, destinos)) continue;
+                    double porNodo = pesos[aristaEntrada] + pesos[aristaSalida];
+                    if (testigo.distancia(w) > porNodo) {
+                        atajos.add(new int[]{aristaEntrada, aristaSalida});
+                    }
+                }
+            }
+            return atajos;
+        }
+
+        /**
+         * Verifica si la arista en la posición indicada es la de menor peso (y primera en
+         * caso de empate) entre las aristas paralelas de la lista que llegan al mismo extremo
+         */
+        private boolean esMinimaEntre(ListaEnteros lista, int posicion, int[] extremos) {
+            int arista = lista.datos[posicion];
+            for (int k = 0; k < lista.tamano; k++) {
+                int otra = lista.datos[k];
+                if (k != posicion && extremos[otra] == extremos[arista]
+                        && (pesos[otra] < pesos[arista] || (pesos[otra] == pesos[arista] && k < posicion))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Elimina de las listas del nodo las aristas que llevan a nodos ya contraídos
+         */
+        private void depurar(int nodo) {
+            ListaEnteros salida = salientes[nodo];
+            int conservadas = 0;
+            for (int j = 0; j < salida.tamano; j++) {
+                if (estados[destinos[salida.datos[j]]] != CONTRAIDO) salida.datos[conservadas++] = salida.datos[j];
+            }
+            salida.tamano = conservadas;
+
+            ListaEnteros entrada = entrantes[nodo];
+            conservadas = 0;
+            for (int j = 0; j < entrada.tamano; j++) {
+                if (estados[origenes[entrada.datos[j]]] != CONTRAIDO) entrada.datos[conservadas++] = entrada.datos[j];
+            }
+            entrada.tamano = conservadas;
+        }
+
+        /**
+         * Dijkstra acotado desde u que evita el nodo a contraer y los nodos no pendientes.
+         * Termina al superar el límite de distancia o al asentar todos los destinos buscados.
+         */
+        private EstadoBusqueda buscarTestigos(int u, int evitado, double limite, ListaEnteros objetivos) {
+            MarcasObjetivo marcas = MARCAS_POR_HILO.get();
+            marcas.preparar(numeroNodos);
+            int objetivosPendientes = 0;
+            for (int j = 0; j < objetivos.tamano; j++) {
+                int w = destinos[objetivos.datos[j]];
+                if (w != u && estados[w] == PENDIENTE && marcas.marcar(w)) objetivosPendientes++;
+            }
+
+            EstadoBusqueda estado = EstadoBusqueda.delHilo(numeroNodos);
+            MonticuloIndexado monticulo = estado.getMonticulo();
+            estado.actualizar(u, 0.0, -1);
+            monticulo.insertarODisminuir(u, 0.0);
+            while (objetivosPendientes > 0 && !monticulo.estaVacio()
+                    && estado.getNodosAsentados() < LIMITE_ASENTADOS_TESTIGO) {
+                if (monticulo.claveMinima() > limite) break;
+                int actual = monticulo.extraerMinimo();
+                estado.registrarAsentado();
+                if (marcas.estaMarcado(actual)) objetivosPendientes--;
+                double distanciaActual = estado.distancia(actual);
+                ListaEnteros salida = salientes[actual];
+                for (int j = 0; j < salida.tamano; j++) {
+                    int arista = salida.datos[j];
+                    int vecino = destinos[arista];
+                    if (vecino == evitado || estados[vecino] != PENDIENTE) continue;
+                    double nuevaDistancia = distanciaActual + pesos[arista];
+                    if (nuevaDistancia < estado.distancia(vecino)) {
+                        estado.actualizar(vecino, nuevaDistancia, arista);
+                        monticulo.insertarODisminuir(vecino, nuevaDistancia);
+                    }
+                }
+            }
+            return estado;
+        }
+
+        private int contarVecinosPendientes(int nodo) {
+            int grado = 0;
+            for (int j = 0; j < salientes[nodo].tamano; j++) {
+                if (estados[destinos[salientes[nodo].datos[j]]] == PENDIENTE) grado++;
+            }
+            for (int j = 0; j < entrantes[nodo].tamano; j++) {
+                if (estados[origenes[entrantes[nodo].datos[j]]] == PENDIENTE) grado++;
+            }
+            return grado;
+        }
+
+        /**
+         * Prioridad por diferencia de aristas más vecinos ya contraídos
+         */
+        private int calcularPrioridad(int nodo) {
+            return 2 * calcularAtajos(nodo).size() - contarVecinosPendientes(nodo) + vecinosContraidos[nodo];
+        }
+
+        private boolean precede(int a, int b) {
+            return prioridades[a] < prioridades[b] || (prioridades[a] == prioridades[b] && a < b);
+        }
+
+        /**
+         * Verifica si el nodo tiene menor prioridad que todos sus vecinos pendientes
+         */
+        private boolean esMinimoLocal(int nodo) {
+            for (int j = 0; j < salientes[nodo].tamano; j++) {
+                int vecino = destinos[salientes[nodo].datos[j]];
+                if (vecino != nodo && estados[vecino] == PENDIENTE && !precede(nodo, vecino)) return false;
+            }
+            for (int j = 0; j < entrantes[nodo].tamano; j++) {
+                int vecino = origenes[entrantes[nodo].datos[j]];
+                if (vecino != nodo && estados[vecino] == PENDIENTE && !precede(nodo, vecino)) return false;
+            }
+            return true;
+        }
+
+        private void contraerTodo() {
+            IntStream.range(0, numeroNodos).parallel().forEach(v -> prioridades[v] = calcularPrioridad(v));
+
+            int[] pendientes = IntStream.range(0, numeroNodos).toArray();
+            int siguienteRango = 0;
+            while (pendientes.length > 0) {
+                int[] ronda = Arrays.stream(pendientes).parallel().filter(this::esMinimoLocal).toArray();
+                for (int v : ronda) estados[v] = EN_RONDA;
+
+                List<List<int[]>> atajosPorNodo = Arrays.stream(ronda).parallel()
+                    .mapToObj(this::calcularAtajos)
+                    .toList();
+
+                ListaEnteros afectados = new ListaEnteros();
+                for (int i = 0; i < ronda.length; i++) {
+                    int v = ronda[i];
+                    for (int[] atajo : atajosPorNodo.get(i)) {
+                        int entrada = atajo[0];
+                        int salida = atajo[1];
+                        agregarArista(origenes[entrada], destinos[salida], pesos[entrada] + pesos[salida], entrada, salida, -1);
+                    }
+                    estados[v] = CONTRAIDO;
+                    rangos[v] = siguienteRango++;
+                    for (int j = 0; j < salientes[v].tamano; j++) afectados.agregar(destinos[salientes[v].datos[j]]);
+                    for (int j = 0; j < entrantes[v].tamano; j++) afectados.agregar(origenes[entrantes[v].datos[j]]);
+                }
+
+                int[] vecinos = Arrays.stream(afectados.datos, 0, afectados.tamano)
+                    .filter(u -> estados[u] == PENDIENTE)
+                    .toArray();
+                for (int u : vecinos) vecinosContraidos[u]++;
+                vecinos = Arrays.stream(vecinos).distinct().toArray();
+                for (int u : vecinos) depurar(u);
+                Arrays.stream(vecinos).parallel().forEach(u -> prioridades[u] = calcularPrioridad(u));
+
+                pendientes = Arrays.stream(pendientes).filter(v -> estados[v] == PENDIENTE).toArray();
+            }
+        }
+    }
+
+    private JerarquiaContraccion(Construccion construccion) {
+        this.grafo = construccion.grafo;
+        this.version = construccion.version;
+        this.rangos = construccion.rangos;
+        int numeroNodos = construccion.numeroNodos;
+        int numeroAristas = construccion.numeroAristas;
+        this.origenes = Arrays.copyOf(construccion.origenes, numeroAristas);
+        this.destinos = Arrays.copyOf(construccion.destinos, numeroAristas);
+        this.primerHijo = Arrays.copyOf(construccion.primerHijo, numeroAristas);
+        this.segundoHijo = Arrays.copyOf(construccion.segundoHijo, numeroAristas);
+        this.aristaOriginal = Arrays.copyOf(construccion.aristaOriginal, numeroAristas);
+
+        this.inicioSubida = new int[numeroNodos + 1];
+        this.inicioBajada = new int[numeroNodos + 1];
+        for (int a = 0; a < numeroAristas; a++) {
+            if (rangos[origenes[a]] < rangos[destinos[a]]) {
+                inicioSubida[origenes[a] + 1]++;
+            } else {
+                inicioBajada[destinos[a] + 1]++;
+            }
+        }
+        for (int v = 0; v < numeroNodos; v++) {
+            inicioSubida[v + 1] += inicioSubida[v];
+            inicioBajada[v + 1] += inicioBajada[v];
+        }
+        this.aristasSubida = new int[inicioSubida[numeroNodos]];
+        this.pesosSubida = new double[inicioSubida[numeroNodos]];
+        this.aristasBajada = new int[inicioBajada[numeroNodos]];
+        this.pesosBajada = new double[inicioBajada[numeroNodos]];
+        int[] siguienteSubida = Arrays.copyOf(inicioSubida, numeroNodos);
+        int[] siguienteBajada = Arrays.copyOf(inicioBajada, numeroNodos);
+        for (int a = 0; a < numeroAristas; a++) {
+            if (rangos[origenes[a]] < rangos[destinos[a]]) {
+                int posicion = siguienteSubida[origenes[a]]++;
+                aristasSubida[posicion] = a;
+                pesosSubida[posicion] = construccion.pesos[a];
+            } else {
+                int posicion = siguienteBajada[destinos[a]]++;
+                aristasBajada[posicion] = a;
+                pesosBajada[posicion] = construccion.pesos[a];
+            }
+        }
+    }
+
+    /**
+     * Construye la jerarquía para la versión compacta del grafo, usando la distancia como peso
+     */
+    public static JerarquiaContraccion construir(GrafoCompacto grafo) {
+        Construccion construccion = new Construccion(grafo);
+        construccion.contraerTodo();
+        return new JerarquiaContraccion(construccion);
+    }
+
+    /**
+     * Calcula el camino más corto con búsqueda bidireccional ascendente
+     *
+     * @return aristas del grafo compacto en orden, o null si no hay camino
+     */
+    public int[] buscarCamino(int origen, int destino) {
+        int n = grafo.getNumeroNodos();
+        EstadoBusqueda adelante = EstadoBusqueda.delHilo(n);
+        EstadoBusqueda atras = EstadoBusqueda.inversoDelHilo(n);
+        MonticuloIndexado monticuloAdelante = adelante.getMonticulo();
+        MonticuloIndexado monticuloAtras = atras.getMonticulo();
+
+        adelante.actualizar(origen, 0.0, -1);
+        monticuloAdelante.insertarODisminuir(origen, 0.0);
+        atras.actualizar(destino, 0.0, -1);
+        monticuloAtras.insertarODisminuir(destino, 0.0);
+
+        double mejor = Double.POSITIVE_INFINITY;
+        int encuentro = -1;
+        while (true) {
+            double claveAdelante = monticuloAdelante.claveMinima();
+            double claveAtras = monticuloAtras.claveMinima();
+            if (Math.min(claveAdelante, claveAtras) >= mejor) break;
+
+            boolean haciaAdelante = claveAdelante <= claveAtras;
+            EstadoBusqueda estado = haciaAdelante ? adelante : atras;
+            EstadoBusqueda opuesto = haciaAdelante ? atras : adelante;
+            MonticuloIndexado monticulo = estado.getMonticulo();
+
+            int actual = monticulo.extraerMinimo();
+            estado.registrarAsentado();
+            double distanciaActual = estado.distancia(actual);
+            if (opuesto.alcanzado(actual) && distanciaActual + opuesto.distancia(actual) < mejor) {
+                mejor = distanciaActual + opuesto.distancia(actual);
+                encuentro = actual;
+            }
+
+            int[] inicio = haciaAdelante ? inicioSubida : inicioBajada;
+            int[] aristas = haciaAdelante ? aristasSubida : aristasBajada;
+            double[] pesos = haciaAdelante ? pesosSubida : pesosBajada;
+            for (int i = inicio[actual]; i < inicio[actual + 1]; i++) {
+                int arista = aristas[i];
+                int vecino = haciaAdelante ? destinos[arista] : origenes[arista];
+                double nuevaDistancia = distanciaActual + pesos[i];
+                if (nuevaDistancia < estado.distancia(vecino)) {
+                    estado.actualizar(vecino, nuevaDistancia, arista);
+                    monticulo.insertarODisminuir(vecino, nuevaDistancia);
+                }
+            }
+        }
+
+        if (encuentro < 0) return null;
+
+        // Aristas de la jerarquía: subida desde el origen y bajada hasta el destino
+        ListaEnteros jerarquicas = new ListaEnteros();
+        for (int a = adelante.aristaPredecesora(encuentro); a >= 0; a = adelante.aristaPredecesora(origenes[a])) {
+            jerarquicas.agregar(a);
+        }
+        int subida = jerarquicas.tamano;
+        for (int i = 0; i < subida / 2; i++) {
+            int temporal = jerarquicas.datos[i];
+            jerarquicas.datos[i] = jerarquicas.datos[subida - 1 - i];
+            jerarquicas.datos[subida - 1 - i] = temporal;
+        }
+        for (int a = atras.aristaPredecesora(encuentro); a >= 0; a = atras.aristaPredecesora(destinos[a])) {
+            jerarquicas.agregar(a);
+        }
+
+        ListaEnteros camino = new ListaEnteros();
+        ListaEnteros pila = new ListaEnteros();
+        for (int i = 0; i < jerarquicas.tamano; i++) {
+            pila.agregar(jerarquicas.datos[i]);
+            while (pila.tamano > 0) {
+                int a = pila.datos[--pila.tamano];
+                if (aristaOriginal[a] >= 0) {
+                    camino.agregar(aristaOriginal[a]);
+                } else {
+                    pila.agregar(segundoHijo[a]);
+                    pila.agregar(primerHijo[a]);
+                }
+            }
+        }
+        return Arrays.copyOf(camino.datos, camino.tamano);
+    }
+
+    /**
+     * Versión del grafo compacto sobre la que se construyó el índice
+     */
+    public GrafoCompacto getGrafo() {
+        return grafo;
+    }
+
+    /**
+     * Indica si el índice corresponde a los pesos actuales de la versión compacta dada
+     */
+    public boolean correspondeA(GrafoCompacto grafoCompacto) {
+        return grafo == grafoCompacto && version == grafoCompacto.getVersion();
+    }
+
+    public int getNumeroAtajos() {
+        int atajos = 0;
+        for (int original : aristaOriginal) {
+            if (original < 0) atajos++;
+        }
+        return atajos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("JerarquiaContraccion{nodos=%d, aristas=%d, atajos=%d}",
+            grafo.getNumeroNodos(), origenes.length, getNumeroAtajos());
+    }
+}
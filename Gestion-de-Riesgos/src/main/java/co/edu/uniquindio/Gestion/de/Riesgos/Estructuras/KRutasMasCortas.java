@@ -0,0 +1,159 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.CriterioRuta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Algoritmo de Yen para obtener los K caminos simples (sin ciclos) de menor costo
+ * entre dos nodos del grafo compacto. Cada camino nuevo se obtiene con a lo sumo
+ * una búsqueda de Dijkstra por nodo del camino anterior, por lo que el costo es
+ * O(K · V · (V + E) log V) en lugar de la enumeración exponencial de todos los caminos.
+ */
+public final class KRutasMasCortas {
+
+    private KRutasMasCortas() {
+    }
+
+    /**
+     * Camino candidato expresado como índices de aristas
+     */
+    private static final class Candidato {
+        private final int[] aristas;
+        private final double costo;
+        private final double distancia;
+
+        private Candidato(int[] aristas, double costo, double distancia) {
+            this.aristas = aristas;
+            this.costo = costo;
+            this.distancia = distancia;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Candidato && Arrays.equals(aristas, ((Candidato) o).aristas);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(aristas);
+        }
+    }
+
+    /**
+     * Calcula hasta k caminos simples ordenados por costo ascendente según el criterio.
+     * Los empates se resuelven a favor del camino de menor distancia.
+     */
+    public static List<Camino> calcular(GrafoCompacto grafo, int origen, int destino, int k, CriterioRuta criterio) {
+        return calcular(grafo, origen, destino, k, criterio, null);
+    }
+
+    /**
+     * Igual que {@link #calcular(GrafoCompacto, int, int, int, CriterioRuta)} restringido
+     * a las aristas permitidas (null para usar todas)
+     */
+    public static List<Camino> calcular(GrafoCompacto grafo, int origen, int destino, int k,
+                                        CriterioRuta criterio, long[] permitidas) {
+        List<Camino> resultado = new ArrayList<>();
+        if (k <= 0 || origen == destino) return resultado;
+
+        double[] pesos = grafo.pesos(criterio);
+        double[] distancias = grafo.pesosDistancia();
+        int numeroPalabras = (grafo.getNumeroAristas() + 63) >>> 6;
+        long[] mascara = new long[numeroPalabras];
+
+        restaurarMascara(mascara, permitidas, grafo.getNumeroAristas());
+        EstadoBusqueda estado = EstadoBusqueda.delHilo(grafo.getNumeroNodos());
+        BusquedaDijkstra.ejecutar(grafo, origen, destino, pesos, mascara, estado);
+        int[] primero = BusquedaDijkstra.extraerAristas(grafo, estado, destino);
+        if (primero == null) return resultado;
+
+        List<Candidato> aceptados = new ArrayList<>();
+        Set<Candidato> vistos = new HashSet<>();
+        PriorityQueue<Candidato> candidatos = new PriorityQueue<>(Comparator
+            .comparingDouble((Candidato c) -> c.costo)
+            .thenComparingDouble(c -> c.distancia)
+            .thenComparingInt(c -> c.aristas.length));
+
+        Candidato inicial = crearCandidato(primero, pesos, distancias);
+        aceptados.add(inicial);
+        vistos.add(inicial);
+
+        while (aceptados.size() < k) {
+            int[] anterior = aceptados.get(aceptados.size() - 1).aristas;
+
+            for (int i = 0; i < anterior.length; i++) {
+                int nodoDesvio = grafo.origen(anterior[i]);
+                restaurarMascara(mascara, permitidas, grafo.getNumeroAristas());
+
+                // Se bloquea la arista siguiente de cada camino aceptado que comparte la raíz
+                for (Candidato aceptado : aceptados) {
+                    int[] aristas = aceptado.aristas;
+                    if (aristas.length > i && Arrays.equals(aristas, 0, i, anterior, 0, i)) {
+                        bloquear(mascara, aristas[i]);
+                    }
+                }
+                // Los nodos de la raíz (salvo el de desvío) no pueden volver a usarse
+                for (int j = 0; j < i; j++) {
+                    int nodoRaiz = grafo.origen(anterior[j]);
+                    for (int e = grafo.inicioAristas(nodoRaiz); e < grafo.finAristas(nodoRaiz); e++) {
+                        bloquear(mascara, e);
+                    }
+                }
+
+                estado = EstadoBusqueda.delHilo(grafo.getNumeroNodos());
+                BusquedaDijkstra.ejecutar(grafo, nodoDesvio, destino, pesos, mascara, estado);
+                int[] desvio = BusquedaDijkstra.extraerAristas(grafo, estado, destino);
+                if (desvio == null) continue;
+
+                int[] completo = Arrays.copyOf(anterior, i + desvio.length);
+                System.arraycopy(desvio, 0, completo, i, desvio.length);
+                Candidato candidato = crearCandidato(completo, pesos, distancias);
+                if (vistos.add(candidato)) {
+                    candidatos.offer(candidato);
+                }
+            }
+
+            Candidato siguiente = candidatos.poll();
+            if (siguiente == null) break;
+            aceptados.add(siguiente);
+        }
+
+        for (Candidato aceptado : aceptados) {
+            resultado.add(Camino.desdeAristas(grafo, aceptado.aristas));
+        }
+        return resultado;
+    }
+
+    private static Candidato crearCandidato(int[] aristas, double[] pesos, double[] distancias) {
+        double costo = 0.0;
+        double distancia = 0.0;
+        for (int e : aristas) {
+            costo += pesos[e];
+            distancia += distancias[e];
+        }
+        return new Candidato(aristas, costo, distancia);
+    }
+
+    private static void restaurarMascara(long[] mascara, long[] permitidas, int numeroAristas) {
+        if (permitidas != null) {
+            System.arraycopy(permitidas, 0, mascara, 0, mascara.length);
+        } else {
+            Arrays.fill(mascara, -1L);
+        }
+        int sobrantes = numeroAristas & 63;
+        if (sobrantes != 0 && mascara.length > 0) {
+            mascara[mascara.length - 1] &= (1L << sobrantes) - 1;
+        }
+    }
+
+    private static void bloquear(long[] mascara, int arista) {
+        mascara[arista >>> 6] &= ~(1L << arista);
+    }
+}
@@ -0,0 +1,78 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Cálculo de matrices de costos muchos a muchos sobre el grafo compacto.
+ * Cada fila es una búsqueda de Dijkstra uno a muchos que se detiene al asentar
+ * todos los destinos; las filas se reparten en paralelo en el ForkJoinPool común
+ * y cada hilo usa su propio estado de búsqueda.
+ */
+public final class MatrizDistancias {
+
+    private MatrizDistancias() {
+    }
+
+    /**
+     * Calcula el costo mínimo de cada origen a cada destino.
+     * Los índices negativos (zonas que no están en el grafo) producen filas o columnas infinitas.
+     *
+     * @return matriz [origenes.length][destinos.length], con infinito donde no hay camino
+     */
+    public static double[][] calcular(GrafoCompacto grafo, int[] origenes, int[] destinos, double[] pesos) {
+        double[][] matriz = new double[origenes.length][destinos.length];
+        boolean[] esDestino = new boolean[grafo.getNumeroNodos()];
+        int destinosDistintos = 0;
+        for (int destino : destinos) {
+            if (destino >= 0 && !esDestino[destino]) {
+                esDestino[destino] = true;
+                destinosDistintos++;
+            }
+        }
+        int totalDestinos = destinosDistintos;
+
+        IntStream.range(0, origenes.length).parallel().forEach(fila -> {
+            int origen = origenes[fila];
+            if (origen < 0) {
+                Arrays.fill(matriz[fila], Double.POSITIVE_INFINITY);
+                return;
+            }
+            EstadoBusqueda estado = EstadoBusqueda.delHilo(grafo.getNumeroNodos());
+            buscarDestinos(grafo, origen, esDestino, totalDestinos, pesos, estado);
+            for (int columna = 0; columna < destinos.length; columna++) {
+                matriz[fila][columna] = destinos[columna] >= 0
+                        ? estado.distancia(destinos[columna])
+                        : Double.POSITIVE_INFINITY;
+            }
+        });
+        return matriz;
+    }
+
+    /**
+     * Dijkstra desde el origen hasta asentar todos los nodos marcados como destino
+     */
+    private static void buscarDestinos(GrafoCompacto grafo, int origen, boolean[] esDestino, int totalDestinos,
+                                       double[] pesos, EstadoBusqueda estado) {
+        MonticuloIndexado monticulo = estado.getMonticulo();
+        estado.actualizar(origen, 0.0, -1);
+        monticulo.insertarODisminuir(origen, 0.0);
+
+        int pendientes = totalDestinos;
+        while (!monticulo.estaVacio() && pendientes > 0) {
+            int actual = monticulo.extraerMinimo();
+            estado.registrarAsentado();
+            if (esDestino[actual]) pendientes--;
+
+            double distanciaActual = estado.distancia(actual);
+            for (int e = grafo.inicioAristas(actual), fin = grafo.finAristas(actual); e < fin; e++) {
+                int vecino = grafo.destino(e);
+                double nuevaDistancia = distanciaActual + pesos[e];
+                if (nuevaDistancia < estado.distancia(vecino)) {
+                    estado.actualizar(vecino, nuevaDistancia, e);
+                    monticulo.insertarODisminuir(vecino, nuevaDistancia);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import java.util.Arrays;
+
+/**
+ * Montículo d-ario de mínimos indexado por enteros (nodos del grafo compacto).
+ * Cada nodo aparece a lo sumo una vez y su prioridad se puede disminuir en sitio,
+ * por lo que no se insertan entradas duplicadas ni se crean objetos por operación.
+ */
+public class MonticuloIndexado {
+    private static final int ARIDAD = 4;
+
+    private int[] elementos;
+    private double[] claves;
+    private int[] posiciones;
+    private int tamano;
+
+    public MonticuloIndexado(int capacidad) {
+        this.elementos = new int[Math.max(1, capacidad)];
+        this.claves = new double[Math.max(1, capacidad)];
+        this.posiciones = new int[Math.max(1, capacidad)];
+        Arrays.fill(posiciones, -1);
+    }
+
+    /**
+     * Amplía la capacidad para admitir nodos con índice menor a capacidad
+     */
+    public void asegurarCapacidad(int capacidad) {
+        if (capacidad > posiciones.length) {
+            int anterior = posiciones.length;
+            elementos = Arrays.copyOf(elementos, capacidad);
+            claves = Arrays.copyOf(claves, capacidad);
+            posiciones = Arrays.copyOf(posiciones, capacidad);
+            Arrays.fill(posiciones, anterior, capacidad, -1);
+        }
+    }
+
+    /**
+     * Inserta el nodo o disminuye su prioridad si ya estaba en el montículo.
+     * Si la nueva prioridad no es menor, el montículo no cambia.
+     */
+    public void insertarODisminuir(int nodo, double clave) {
+        int posicion = posiciones[nodo];
+        if (posicion < 0) {
+            posicion = tamano++;
+            elementos[posicion] = nodo;
+            claves[posicion] = clave;
+            posiciones[nodo] = posicion;
+            subir(posicion);
+        } else if (clave < claves[posicion]) {
+            claves[posicion] = clave;
+            subir(posicion);
+        }
+    }
+
+    /**
+     * Extrae el nodo con menor prioridad
+     */
+    public int extraerMinimo() {
+        int minimo = elementos[0];
+        posiciones[minimo] = -1;
+        tamano--;
+        if (tamano > 0) {
+            elementos[0] = elementos[tamano];
+            claves[0] = claves[tamano];
+            posiciones[elementos[0]] = 0;
+            bajar(0);
+        }
+        return minimo;
+    }
+
+    /**
+     * Prioridad del nodo en la cima sin extraerlo
+     */
+    public double claveMinima() {
+        return tamano > 0 ? claves[0] : Double.POSITIVE_INFINITY;
+    }
+
+    public boolean contiene(int nodo) {
+        return nodo < posiciones.length && posiciones[nodo] >= 0;
+    }
+
+    public boolean estaVacio() {
+        return tamano == 0;
+    }
+
+    public int getTamano() {
+        return tamano;
+    }
+
+    /**
+     * Vacía el montículo en O(tamaño) dejando las posiciones listas para reutilizarlo
+     */
+    public void limpiar() {
+        for (int i = 0; i < tamano; i++) {
+            posiciones[elementos[i]] = -1;
+        }
+        tamano = 0;
+    }
+
+    private void subir(int posicion) {
+        int nodo = elementos[posicion];
+        double clave = claves[posicion];
+        while (posicion > 0) {
+            int padre = (posicion - 1) / ARIDAD;
+            if (claves[padre] <= clave) break;
+            mover(padre, posicion);
+            posicion = padre;
+        }
+        colocar(nodo, clave, posicion);
+    }
+
+    private void bajar(int posicion) {
+        int nodo = elementos[posicion];
+        double clave = claves[posicion];
+        while (true) {
+            int primerHijo = posicion * ARIDAD + 1;
+            if (primerHijo >= tamano) break;
+            int menor = primerHijo;
+            int ultimoHijo = Math.min(primerHijo + ARIDAD, tamano);
+            for (int hijo = primerHijo + 1; hijo < ultimoHijo; hijo++) {
+                if (claves[hijo] < claves[menor]) menor = hijo;
+            }
+            if (claves[menor] >= clave) break;
+            mover(menor, posicion);
+            posicion = menor;
+        }
+        colocar(nodo, clave, posicion);
+    }
+
+    private void mover(int desde, int hacia) {
+        elementos[hacia] = elementos[desde];
+        claves[hacia] = claves[desde];
+        posiciones[elementos[hacia]] = hacia;
+    }
+
+    private void colocar(int nodo, double clave, int posicion) {
+        elementos[posicion] = nodo;
+        claves[posicion] = clave;
+        posiciones[nodo] = posicion;
+    }
+}
@@ -0,0 +1,315 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import java.util.Arrays;
+
+/**
+ * Partición de los nodos del grafo compacto en celdas de tamaño acotado, con pocas rutas
+ * entre celdas, como base de la {@link SuperposicionCeldas}.
+ *
+ * Cada rango de nodos se divide en dos con un corte inercial: se ordenan los nodos por su
+ * proyección sobre unas pocas direcciones del plano (norte-sur, este-oeste y las diagonales)
+ * y, para cada dirección, se barre el orden buscando el punto de corte, dentro del rango
+ * central, que deja menos aristas entre las dos mitades. Se aplica recursivamente hasta que
+ * cada celda tiene a lo sumo el tamaño pedido.
+ *
+ * La partición solo depende de la topología (incluye las rutas cerradas), así que sirve
+ * para todas las versiones de pesos de un mismo grafo compacto.
+ */
+public class ParticionGrafo {
+    // Cada mitad conserva al menos esta fracción de los nodos del rango
+    private static final double BALANCE_MINIMO = 0.25;
+    private static final double[][] DIRECCIONES = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+
+    private final GrafoCompacto grafo;
+    private final int[] celdas;
+    private final int numeroCeldas;
+    private final int[] inicioNodosCelda;
+    private final int[] nodosCelda;
+    private final int[] inicioEntradas;
+    private final int[] entradas;
+    private final int[] inicioSalidas;
+    private final int[] salidas;
+    private final int[] posicionEntrada;
+    private final int[] posicionSalida;
+    private final int aristasCorte;
+
+    private ParticionGrafo(GrafoCompacto grafo, int[] celdas, int numeroCeldas) {
+        this.grafo = grafo;
+        this.celdas = celdas;
+        this.numeroCeldas = numeroCeldas;
+        int n = grafo.getNumeroNodos();
+
+        // Entradas: destinos de aristas que llegan desde otra celda; salidas: orígenes de aristas hacia otra celda
+        boolean[] esEntrada = new boolean[n];
+        boolean[] esSalida = new boolean[n];
+        int corte = 0;
+        for (int e = 0; e < grafo.getNumeroAristas(); e++) {
+            int origen = grafo.origen(e);
+            int destino = grafo.destino(e);
+            if (celdas[origen] != celdas[destino]) {
+                esSalida[origen] = true;
+                esEntrada[destino] = true;
+                corte++;
+            }
+        }
+        this.aristasCorte = corte;
+
+        this.inicioNodosCelda = new int[numeroCeldas + 1];
+        this.inicioEntradas = new int[numeroCeldas + 1];
+        this.inicioSalidas = new int[numeroCeldas + 1];
+        for (int v = 0; v < n; v++) {
+            inicioNodosCelda[celdas[v] + 1]++;
+            if (esEntrada[v]) inicioEntradas[celdas[v] + 1]++;
+            if (esSalida[v]) inicioSalidas[celdas[v] + 1]++;
+        }
+        for (int c = 0; c < numeroCeldas; c++) {
+            inicioNodosCelda[c + 1] += inicioNodosCelda[c];
+            inicioEntradas[c + 1] += inicioEntradas[c];
+            inicioSalidas[c + 1] += inicioSalidas[c];
+        }
+
+        this.nodosCelda = new int[n];
+        this.entradas = new int[inicioEntradas[numeroCeldas]];
+        this.salidas = new int[inicioSalidas[numeroCeldas]];
+        this.posicionEntrada = new int[n];
+        this.posicionSalida = new int[n];
+        int[] siguienteNodo = Arrays.copyOf(inicioNodosCelda, numeroCeldas);
+        int[] siguienteEntrada = Arrays.copyOf(inicioEntradas, numeroCeldas);
+        int[] siguienteSalida = Arrays.copyOf(inicioSalidas, numeroCeldas);
+        for (int v = 0; v < n; v++) {
+            int c = celdas[v];
+            nodosCelda[siguienteNodo[c]++] = v;
+            posicionEntrada[v] = -1;
+            posicionSalida[v] = -1;
+            if (esEntrada[v]) {
+                posicionEntrada[v] = siguienteEntrada[c] - inicioEntradas[c];
+                entradas[siguienteEntrada[c]++] = v;
+            }
+            if (esSalida[v]) {
+                posicionSalida[v] = siguienteSalida[c] - inicioSalidas[c];
+                salidas[siguienteSalida[c]++] = v;
+            }
+        }
+    }
+
+    /**
+     * Particiona el grafo en celdas de a lo sumo el tamaño indicado
+     *
+     * @throws IllegalArgumentException si el tamaño máximo es menor que 1
+     */
+    public static ParticionGrafo construir(GrafoCompacto grafo, int tamanoMaximoCelda) {
+        if (tamanoMaximoCelda < 1) {
+            throw new IllegalArgumentException("El tamaño máximo de celda debe ser positivo: " + tamanoMaximoCelda);
+        }
+        int n = grafo.getNumeroNodos();
+        int[] nodos = new int[n];
+        for (int v = 0; v < n; v++) nodos[v] = v;
+
+        Biseccion biseccion = new Biseccion(grafo);
+        int[] celdas = new int[n];
+        int numeroCeldas = biseccion.dividir(nodos, 0, n, tamanoMaximoCelda, celdas, 0);
+        return new ParticionGrafo(grafo, celdas, numeroCeldas);
+    }
+
+    /**
+     * Memoria de trabajo de los cortes inerciales
+     */
+    private static final class Biseccion {
+        private final GrafoCompacto grafo;
+        private final double[] xs;
+        private final double[] ys;
+        private final double[] proyecciones;
+        // Marca de rango: el nodo pertenece al rango que se está dividiendo
+        private final int[] rango;
+        // Marca de lado: el nodo ya pasó a la primera mitad en el barrido actual
+        private final int[] lado;
+        private int generacionRango;
+        private int generacionLado;
+
+        private Biseccion(GrafoCompacto grafo) {
+            this.grafo = grafo;
+            int n = grafo.getNumeroNodos();
+            this.xs = new double[n];
+            this.ys = new double[n];
+            this.proyecciones = new double[n];
+            this.rango = new int[n];
+            this.lado = new int[n];
+
+            // Proyección equirectangular centrada en la latitud media
+            double latitudMedia = 0.0;
+            for (int v = 0; v < n; v++) latitudMedia += grafo.coordenadaX(v);
+            double escalaY = Math.cos(Math.toRadians(n > 0 ? latitudMedia / n : 0.0));
+            for (int v = 0; v < n; v++) {
+                xs[v] = grafo.coordenadaX(v);
+                ys[v] = grafo.coordenadaY(v) * escalaY;
+            }
+        }
+
+        /**
+         * Divide nodos[desde, hasta) en celdas y las numera a partir de primeraCelda
+         *
+         * @return siguiente número de celda libre
+         */
+        private int dividir(int[] nodos, int desde, int hasta, int tamanoMaximo, int[] celdas, int primeraCelda) {
+            int tamano = hasta - desde;
+            if (tamano == 0) return primeraCelda;
+            if (tamano <= tamanoMaximo) {
+                for (int i = desde; i < hasta; i++) celdas[nodos[i]] = primeraCelda;
+                return primeraCelda + 1;
+            }
+            int medio = cortar(nodos, desde, hasta);
+            int siguiente = dividir(nodos, desde, medio, tamanoMaximo, celdas, primeraCelda);
+            return dividir(nodos, medio, hasta, tamanoMaximo, celdas, siguiente);
+        }
+
+        /**
+         * Reordena nodos[desde, hasta) según la mejor dirección y devuelve la posición del corte
+         */
+        private int cortar(int[] nodos, int desde, int hasta) {
+            int tamano = hasta - desde;
+            int minimo = Math.max(1, (int) (tamano * BALANCE_MINIMO));
+            int maximo = tamano - minimo;
+            int centro = tamano / 2;
+
+            generacionRango++;
+            for (int i = desde; i < hasta; i++) rango[nodos[i]] = generacionRango;
+
+            Integer[] orden = new Integer[tamano];
+            int mejorDireccion = -1;
+            int mejorCorte = -1;
+            int mejorAristas = Integer.MAX_VALUE;
+            for (int d = 0; d < DIRECCIONES.length; d++) {
+                ordenar(orden, nodos, desde, DIRECCIONES[d]);
+
+                // Barrido: al pasar v a la primera mitad, sus aristas con esa mitad dejan de cortar y las demás empiezan a hacerlo
+                generacionLado++;
+                int aristas = 0;
+                for (int i = 0; i < maximo; i++) {
+                    int v = orden[i];
+                    aristas += cambioAlMover(v);
+                    lado[v] = generacionLado;
+                    int k = i + 1;
+                    if (k < minimo) continue;
+                    if (aristas < mejorAristas
+                            || (aristas == mejorAristas && Math.abs(k - centro) < Math.abs(mejorCorte - centro))) {
+                        mejorAristas = aristas;
+                        mejorCorte = k;
+                        mejorDireccion = d;
+                    }
+                }
+            }
+            ordenar(orden, nodos, desde, DIRECCIONES[mejorDireccion]);
+            for (int i = 0; i < tamano; i++) nodos[desde + i] = orden[i];
+            return desde + mejorCorte;
+        }
+
+        private void ordenar(Integer[] orden, int[] nodos, int desde, double[] direccion) {
+            for (int i = 0; i < orden.length; i++) {
+                int v = nodos[desde + i];
+                proyecciones[v] = direccion[0] * xs[v] + direccion[1] * ys[v];
+                orden[i] = v;
+            }
+            // Orden estable: con proyecciones iguales se conserva el orden previo
+            Arrays.sort(orden, (a, b) -> Double.compare(proyecciones[a], proyecciones[b]));
+        }
+
+        private int cambioAlMover(int v) {
+            int cambio = 0;
+            for (int e = grafo.inicioAristas(v), fin = grafo.finAristas(v); e < fin; e++) {
+                cambio += cambioPorVecino(grafo.destino(e), v);
+            }
+            for (int i = grafo.inicioEntrantes(v), fin = grafo.finEntrantes(v); i < fin; i++) {
+                cambio += cambioPorVecino(grafo.origen(grafo.aristaEntrante(i)), v);
+            }
+            return cambio;
+        }
+
+        private int cambioPorVecino(int vecino, int v) {
+            if (vecino == v || rango[vecino] != generacionRango) return 0;
+            return lado[vecino] == generacionLado ? -1 : 1;
+        }
+    }
+
+    /**
+     * Verifica si la partición corresponde al grafo (la topología no cambia dentro de una versión compacta)
+     */
+    public boolean correspondeA(GrafoCompacto grafoCompacto) {
+        return grafo == grafoCompacto;
+    }
+
+    public GrafoCompacto getGrafo() {
+        return grafo;
+    }
+
+    /**
+     * Celda a la que pertenece el nodo
+     */
+    public int celda(int nodo) {
+        return celdas[nodo];
+    }
+
+    public int getNumeroCeldas() {
+        return numeroCeldas;
+    }
+
+    /**
+     * Número de aristas cuyos extremos están en celdas distintas
+     */
+    public int getAristasCorte() {
+        return aristasCorte;
+    }
+
+    public int inicioNodos(int celda) {
+        return inicioNodosCelda[celda];
+    }
+
+    public int finNodos(int celda) {
+        return inicioNodosCelda[celda + 1];
+    }
+
+    public int nodoCelda(int posicion) {
+        return nodosCelda[posicion];
+    }
+
+    /**
+     * Número de nodos de la celda a los que llega alguna arista desde otra celda
+     */
+    public int numeroEntradas(int celda) {
+        return inicioEntradas[celda + 1] - inicioEntradas[celda];
+    }
+
+    /**
+     * Número de nodos de la celda de los que sale alguna arista hacia otra celda
+     */
+    public int numeroSalidas(int celda) {
+        return inicioSalidas[celda + 1] - inicioSalidas[celda];
+    }
+
+    /**
+     * Nodo de la i-ésima entrada de la celda
+     */
+    public int entrada(int celda, int i) {
+        return entradas[inicioEntradas[celda] + i];
+    }
+
+    /**
+     * Nodo de la i-ésima salida de la celda
+     */
+    public int salida(int celda, int i) {
+        return salidas[inicioSalidas[celda] + i];
+    }
+
+    /**
+     * Posición del nodo entre las entradas de su celda, o -1 si no es entrada
+     */
+    public int posicionEntrada(int nodo) {
+        return posicionEntrada[nodo];
+    }
+
+    /**
+     * Posición del nodo entre las salidas de su celda, o -1 si no es salida
+     */
+    public int posicionSalida(int nodo) {
+        return posicionSalida[nodo];
+    }
+}
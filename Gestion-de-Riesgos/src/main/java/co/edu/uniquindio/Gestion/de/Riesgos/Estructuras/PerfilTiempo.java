@@ -0,0 +1,136 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import java.util.Arrays;
+
+/**
+ * Tiempo de viaje de una ruta según la hora de salida, como función lineal por tramos que
+ * se repite cada 24 horas. Se guarda solo la lista de puntos de quiebre (hora, tiempo).
+ *
+ * El perfil cumple la propiedad FIFO: salir más tarde nunca hace llegar antes, es decir,
+ * en ningún tramo el tiempo de viaje baja más rápido que el paso de las horas (pendiente
+ * mayor o igual a -1). Con esa propiedad una búsqueda de Dijkstra sobre horas de llegada
+ * encuentra la llegada más temprana.
+ */
+public final class PerfilTiempo {
+    /**
+     * Duración del ciclo del perfil, en horas
+     */
+    public static final double PERIODO = 24.0;
+
+    private final double[] horas;
+    private final double[] tiempos;
+    private final double tiempoMinimo;
+
+    /**
+     * Crea el perfil a partir de sus puntos de quiebre
+     *
+     * @param horas   horas del día en [0, 24), estrictamente crecientes
+     * @param tiempos tiempo de viaje en horas al salir en cada una de esas horas
+     * @throws IllegalArgumentException si los puntos no son válidos o el perfil no cumple FIFO
+     */
+    public PerfilTiempo(double[] horas, double[] tiempos) {
+        if (horas == null || tiempos == null || horas.length == 0 || horas.length != tiempos.length) {
+            throw new IllegalArgumentException("Se requiere al menos un punto con hora y tiempo");
+        }
+        for (int i = 0; i < horas.length; i++) {
+            if (!(horas[i] >= 0.0 && horas[i] < PERIODO) || (i > 0 && horas[i] <= horas[i - 1])) {
+                throw new IllegalArgumentException("Las horas deben ser crecientes y estar entre 0 y 24");
+            }
+            if (!(tiempos[i] >= 0.0) || Double.isInfinite(tiempos[i])) {
+                throw new IllegalArgumentException("Los tiempos deben ser finitos y no negativos");
+            }
+        }
+        for (int i = 0; i < horas.length; i++) {
+            int siguiente = (i + 1) % horas.length;
+            double duracion = siguiente > i ? horas[siguiente] - horas[i] : horas[siguiente] + PERIODO - horas[i];
+            if (tiempos[siguiente] - tiempos[i] < -duracion) {
+                throw new IllegalArgumentException(String.format(
+                    "El perfil no cumple FIFO entre las %.2f y las %.2f horas", horas[i], horas[siguiente]));
+            }
+        }
+        this.horas = horas.clone();
+        this.tiempos = tiempos.clone();
+        this.tiempoMinimo = Arrays.stream(tiempos).min().orElse(0.0);
+    }
+
+    /**
+     * Perfil que no depende de la hora
+     */
+    public static PerfilTiempo constante(double tiempo) {
+        return new PerfilTiempo(new double[]{0.0}, new double[]{tiempo});
+    }
+
+    /**
+     * Perfil con un punto por hora: el tiempo base multiplicado por el factor de tráfico de cada hora
+     *
+     * @param factores 24 factores, el primero para las 0:00
+     */
+    public static PerfilTiempo porHora(double tiempoBase, double[] factores) {
+        if (factores == null || factores.length != (int) PERIODO) {
+            throw new IllegalArgumentException("Se requieren 24 factores horarios");
+        }
+        double[] horas = new double[factores.length];
+        double[] tiempos = new double[factores.length];
+        for (int h = 0; h < factores.length; h++) {
+            horas[h] = h;
+            tiempos[h] = tiempoBase * factores[h];
+        }
+        return new PerfilTiempo(horas, tiempos);
+    }
+
+    /**
+     * Tiempo de viaje al salir a la hora indicada (horas desde una medianoche; se toma módulo 24)
+     */
+    public double evaluar(double hora) {
+        if (horas.length == 1) return tiempos[0];
+
+        double h = hora - PERIODO * Math.floor(hora / PERIODO);
+        int i = Arrays.binarySearch(horas, h);
+        if (i >= 0) return tiempos[i];
+        int siguiente = -i - 1;
+        int anterior = siguiente - 1;
+
+        double horaAnterior;
+        double horaSiguiente;
+        if (anterior < 0) {
+            // Antes del primer punto: tramo que viene del último punto del día anterior
+            anterior = horas.length - 1;
+            horaAnterior = horas[anterior] - PERIODO;
+            horaSiguiente = horas[0];
+            siguiente = 0;
+        } else if (siguiente == horas.length) {
+            horaAnterior = horas[anterior];
+            horaSiguiente = horas[0] + PERIODO;
+            siguiente = 0;
+        } else {
+            horaAnterior = horas[anterior];
+            horaSiguiente = horas[siguiente];
+        }
+        double fraccion = (h - horaAnterior) / (horaSiguiente - horaAnterior);
+        return tiempos[anterior] + fraccion * (tiempos[siguiente] - tiempos[anterior]);
+    }
+
+    /**
+     * Menor tiempo de viaje del perfil, útil como cota inferior
+     */
+    public double getTiempoMinimo() {
+        return tiempoMinimo;
+    }
+
+    public double[] getHoras() {
+        return horas.clone();
+    }
+
+    public double[] getTiempos() {
+        return tiempos.clone();
+    }
+
+    public int getNumeroPuntos() {
+        return horas.length;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PerfilTiempo{puntos=%d, minimo=%.2f}", horas.length, tiempoMinimo);
+    }
+}
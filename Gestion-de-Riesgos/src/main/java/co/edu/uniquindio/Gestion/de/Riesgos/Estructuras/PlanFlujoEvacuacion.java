@@ -0,0 +1,251 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.CriterioRuta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plan de evacuación que reparte a las personas de varias zonas de origen entre
+ * rutas paralelas y refugios, respetando la capacidad disponible de cada ruta y
+ * de cada refugio y minimizando el tiempo total (personas por tiempo de viaje).
+ *
+ * Se modela como flujo de costo mínimo: una fuente alimenta cada origen con sus
+ * personas, cada ruta activa es un arco con su capacidad disponible y su tiempo
+ * como costo, y cada refugio desagua en un sumidero con su capacidad libre. Una
+ * capacidad máxima de 0 en rutas o refugios se interpreta como sin límite.
+ */
+public class PlanFlujoEvacuacion {
+    private final List<Asignacion> asignaciones;
+    private final Map<Ruta, Integer> personasPorRuta;
+    private final int personasEvacuadas;
+    private final int personasSinEvacuar;
+    private final double costoTotal;
+
+    /**
+     * Grupo de personas que viaja por un mismo camino de un origen a un refugio
+     */
+    public static class Asignacion {
+        private final String idOrigen;
+        private final String idRefugio;
+        private final Camino camino;
+        private final int personas;
+
+        private Asignacion(String idOrigen, String idRefugio, Camino camino, int personas) {
+            this.idOrigen = idOrigen;
+            this.idRefugio = idRefugio;
+            this.camino = camino;
+            this.personas = personas;
+        }
+
+        public String getIdOrigen() {
+            return idOrigen;
+        }
+
+        public String getIdRefugio() {
+            return idRefugio;
+        }
+
+        /**
+         * Camino a seguir; no tiene tramos si el origen ya es un refugio con cupo
+         */
+        public Camino getCamino() {
+            return camino;
+        }
+
+        public int getPersonas() {
+            return personas;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Asignacion{origen='%s', refugio='%s', personas=%d, tiempo=%.2f}",
+                idOrigen, idRefugio, personas, camino.getTiempoTotal());
+        }
+    }
+
+    private PlanFlujoEvacuacion(List<Asignacion> asignaciones, Map<Ruta, Integer> personasPorRuta,
+                                int personasEvacuadas, int personasSinEvacuar, double costoTotal) {
+        this.asignaciones = asignaciones;
+        this.personasPorRuta = personasPorRuta;
+        this.personasEvacuadas = personasEvacuadas;
+        this.personasSinEvacuar = personasSinEvacuar;
+        this.costoTotal = costoTotal;
+    }
+
+    /**
+     * Calcula el plan sobre el grafo compacto
+     *
+     * @param origenes            índices de los nodos de origen
+     * @param personas            personas a evacuar desde cada origen (paralelo a origenes)
+     * @param refugios            índices de los nodos refugio, sin repetir
+     * @param capacidadesRefugios cupo de cada refugio (paralelo a refugios), o {@link FlujoCostoMinimo#ILIMITADA}
+     */
+    public static PlanFlujoEvacuacion calcular(GrafoCompacto grafo, int[] origenes, int[] personas,
+                                               int[] refugios, long[] capacidadesRefugios) {
+        int n = grafo.getNumeroNodos();
+        int fuente = n;
+        int sumidero = n + 1;
+        FlujoCostoMinimo red = new FlujoCostoMinimo(n + 2);
+
+        int[] arcoDeArista = new int[grafo.getNumeroAristas()];
+        double[] tiempos = grafo.pesos(CriterioRuta.TIEMPO);
+        for (int e = 0; e < grafo.getNumeroAristas(); e++) {
+            arcoDeArista[e] = -1;
+            if (tiempos[e] == Double.POSITIVE_INFINITY || grafo.origen(e) == grafo.destino(e)) continue;
+            Ruta ruta = grafo.ruta(e);
+            long capacidad = ruta.getCapacidadMaxima() == 0 ? FlujoCostoMinimo.ILIMITADA : ruta.obtenerCapacidadDisponible();
+            if (capacidad > 0) {
+                arcoDeArista[e] = red.agregarArco(grafo.origen(e), grafo.destino(e), capacidad, tiempos[e]);
+            }
+        }
+
+        long totalPersonas = 0;
+        long[] oferta = new long[n];
+        for (int i = 0; i < origenes.length; i++) {
+            if (origenes[i] < 0 || personas[i] <= 0) continue;
+            oferta[origenes[i]] += personas[i];
+            totalPersonas += personas[i];
+        }
+        int[] arcoFuente = new int[n];
+        for (int v = 0; v < n; v++) {
+            arcoFuente[v] = oferta[v] > 0 ? red.agregarArco(fuente, v, oferta[v], 0.0) : -1;
+        }
+
+        long[] cupo = new long[n];
+        for (int i = 0; i < refugios.length; i++) {
+            if (refugios[i] >= 0) {
+                cupo[refugios[i]] = Math.min(FlujoCostoMinimo.ILIMITADA, capacidadesRefugios[i]);
+            }
+        }
+        int[] arcoSumidero = new int[n];
+        for (int v = 0; v < n; v++) {
+            arcoSumidero[v] = cupo[v] > 0 ? red.agregarArco(v, sumidero, cupo[v], 0.0) : -1;
+        }
+
+        red.resolver(fuente, sumidero, totalPersonas);
+
+        // Descomposición del flujo en caminos origen -> refugio
+        long[] flujoArista = new long[grafo.getNumeroAristas()];
+        for (int e = 0; e < flujoArista.length; e++) {
+            flujoArista[e] = arcoDeArista[e] >= 0 ? red.flujo(arcoDeArista[e]) : 0;
+        }
+        long[] salidaFuente = new long[n];
+        long[] entradaSumidero = new long[n];
+        for (int v = 0; v < n; v++) {
+            if (arcoFuente[v] >= 0) salidaFuente[v] = red.flujo(arcoFuente[v]);
+            if (arcoSumidero[v] >= 0) entradaSumidero[v] = red.flujo(arcoSumidero[v]);
+        }
+
+        Map<Ruta, Integer> personasPorRuta = new IdentityHashMap<>();
+        for (int e = 0; e < flujoArista.length; e++) {
+            if (flujoArista[e] > 0) personasPorRuta.merge(grafo.ruta(e), (int) flujoArista[e], Integer::sum);
+        }
+
+        List<Asignacion> asignaciones = descomponer(grafo, flujoArista, salidaFuente, entradaSumidero);
+        return new PlanFlujoEvacuacion(asignaciones, personasPorRuta, (int) red.getFlujoTotal(),
+            (int) (totalPersonas - red.getFlujoTotal()), red.getCostoTotal());
+    }
+
+    /**
+     * Recorre aristas con flujo desde cada origen hasta un refugio con entrada al sumidero.
+     * Si el recorrido cierra un ciclo (posible con tramos de tiempo 0), el ciclo se cancela.
+     */
+    private static List<Asignacion> descomponer(GrafoCompacto grafo, long[] flujoArista,
+                                                long[] salidaFuente, long[] entradaSumidero) {
+        int n = grafo.getNumeroNodos();
+        int[] cursor = new int[n];
+        for (int v = 0; v < n; v++) {
+            cursor[v] = grafo.inicioAristas(v);
+        }
+        int[] posicionEnCamino = new int[n];
+        Arrays.fill(posicionEnCamino, -1);
+        List<Asignacion> asignaciones = new ArrayList<>();
+        int[] nodosCamino = new int[n + 1];
+        int[] aristasCamino = new int[n];
+
+        for (int origen = 0; origen < n; origen++) {
+            while (salidaFuente[origen] > 0) {
+                int longitud = 0;
+                nodosCamino[0] = origen;
+                posicionEnCamino[origen] = 0;
+                int actual = origen;
+
+                while (entradaSumidero[actual] == 0) {
+                    while (flujoArista[cursor[actual]] == 0) {
+                        cursor[actual]++;
+                    }
+                    int e = cursor[actual];
+                    int siguiente = grafo.destino(e);
+                    if (posicionEnCamino[siguiente] >= 0) {
+                        // Ciclo: se resta su flujo mínimo y se retrocede hasta donde empezó
+                        int inicio = posicionEnCamino[siguiente];
+                        long minimo = flujoArista[e];
+                        for (int i = inicio; i < longitud; i++) minimo = Math.min(minimo, flujoArista[aristasCamino[i]]);
+                        flujoArista[e] -= minimo;
+                        for (int i = inicio; i < longitud; i++) flujoArista[aristasCamino[i]] -= minimo;
+                        for (int i = inicio + 1; i <= longitud; i++) posicionEnCamino[nodosCamino[i]] = -1;
+                        longitud = inicio;
+                        actual = siguiente;
+                        continue;
+                    }
+                    aristasCamino[longitud++] = e;
+                    nodosCamino[longitud] = siguiente;
+                    posicionEnCamino[siguiente] = longitud;
+                    actual = siguiente;
+                }
+
+                long personas = Math.min(salidaFuente[origen], entradaSumidero[actual]);
+                for (int i = 0; i < longitud; i++) personas = Math.min(personas, flujoArista[aristasCamino[i]]);
+                salidaFuente[origen] -= personas;
+                entradaSumidero[actual] -= personas;
+                List<Ruta> tramos = new ArrayList<>(longitud);
+                for (int i = 0; i < longitud; i++) {
+                    flujoArista[aristasCamino[i]] -= personas;
+                    tramos.add(grafo.ruta(aristasCamino[i]));
+                }
+                for (int i = 0; i <= longitud; i++) posicionEnCamino[nodosCamino[i]] = -1;
+                asignaciones.add(new Asignacion(grafo.idNodo(origen), grafo.idNodo(actual), new Camino(tramos), (int) personas));
+            }
+        }
+        return asignaciones;
+    }
+
+    public List<Asignacion> getAsignaciones() {
+        return new ArrayList<>(asignaciones);
+    }
+
+    /**
+     * Personas asignadas a cada ruta del plan
+     */
+    public Map<Ruta, Integer> getPersonasPorRuta() {
+        return new IdentityHashMap<>(personasPorRuta);
+    }
+
+    public int getPersonasEvacuadas() {
+        return personasEvacuadas;
+    }
+
+    /**
+     * Personas que no caben en ningún refugio alcanzable con las capacidades actuales
+     */
+    public int getPersonasSinEvacuar() {
+        return personasSinEvacuar;
+    }
+
+    /**
+     * Suma de personas por tiempo de viaje de todo el plan
+     */
+    public double getCostoTotal() {
+        return costoTotal;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PlanFlujoEvacuacion{asignaciones=%d, evacuadas=%d, sinEvacuar=%d, costo=%.2f}",
+            asignaciones.size(), personasEvacuadas, personasSinEvacuar, costoTotal);
+    }
+}
@@ -0,0 +1,414 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.CriterioRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.Evacuacion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Programación en el tiempo de un conjunto de evacuaciones que compiten por las mismas rutas.
+ *
+ * El tiempo se divide en intervalos y cada ruta deja pasar un número limitado de personas
+ * por intervalo: una ruta que aloja {@code capacidadMaxima} personas y se recorre en
+ * {@code tiempoEstimado} horas tiene un caudal de capacidadMaxima / tiempoEstimado personas
+ * por hora (capacidad 0 = sin límite). Las evacuaciones se atienden en el orden dado; para
+ * cada una se busca repetidamente el camino de llegada más temprana en la red expandida en
+ * el tiempo (se permite esperar en los nodos hasta el primer intervalo con cupo) y se envía
+ * por él todo lo que admite su tramo más restrictivo. Es una aproximación voraz del
+ * transbordo más rápido que refleja la congestión entre evacuaciones.
+ *
+ * Si la evacuación ya tiene asignada una ruta del grafo (simple o compuesta) con todos sus
+ * tramos abiertos, se programa sobre esa ruta y solo se eligen los intervalos de salida.
+ */
+public class ProgramaEvacuaciones {
+    private final double intervalo;
+    private final List<Envio> envios;
+    private final Map<Evacuacion, Double> finalizaciones;
+    private final List<Evacuacion> sinProgramar;
+
+    /**
+     * Grupo de personas de una evacuación que sale en un mismo intervalo por un mismo camino
+     */
+    public static class Envio {
+        private final Evacuacion evacuacion;
+        private final List<Ruta> tramos;
+        private final double[] salidas;
+        private final double llegada;
+        private final int personas;
+
+        private Envio(Evacuacion evacuacion, List<Ruta> tramos, double[] salidas, double llegada, int personas) {
+            this.evacuacion = evacuacion;
+            this.tramos = tramos;
+            this.salidas = salidas;
+            this.llegada = llegada;
+            this.personas = personas;
+        }
+
+        public Evacuacion getEvacuacion() {
+            return evacuacion;
+        }
+
+        public List<Ruta> getTramos() {
+            return new ArrayList<>(tramos);
+        }
+
+        /**
+         * Hora (desde el inicio de la programación) en que el grupo entra al primer tramo
+         */
+        public double getSalida() {
+            return salidas[0];
+        }
+
+        /**
+         * Hora en que el grupo entra al tramo indicado
+         */
+        public double getSalidaTramo(int tramo) {
+            return salidas[tramo];
+        }
+
+        /**
+         * Hora en que el grupo llega al destino
+         */
+        public double getLlegada() {
+            return llegada;
+        }
+
+        public int getPersonas() {
+            return personas;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Envio{evacuacion='%s', personas=%d, salida=%.2f, llegada=%.2f}",
+                evacuacion.getId(), personas, getSalida(), llegada);
+        }
+    }
+
+    private ProgramaEvacuaciones(double intervalo) {
+        this.intervalo = intervalo;
+        this.envios = new ArrayList<>();
+        this.finalizaciones = new IdentityHashMap<>();
+        this.sinProgramar = new ArrayList<>();
+    }
+
+    /**
+     * Programa las personas pendientes de cada evacuación, en el orden dado, entre su
+     * zona de origen y su zona de destino, por su ruta asignada si la hay
+     *
+     * @param intervalo duración de cada intervalo en horas
+     */
+    public static ProgramaEvacuaciones calcular(GrafoCompacto grafo, List<Evacuacion> evacuaciones, double intervalo) {
+        if (intervalo <= 0) {
+            throw new IllegalArgumentException("El intervalo debe ser positivo");
+        }
+        ProgramaEvacuaciones programa = new ProgramaEvacuaciones(intervalo);
+        new Programador(grafo, intervalo).programar(evacuaciones, programa);
+        return programa;
+    }
+
+    /**
+     * Estado de la red expandida en el tiempo: cupo restante de cada ruta en cada intervalo
+     */
+    private static class Programador {
+        private static final int SIN_LIMITE = -1;
+
+        private final GrafoCompacto grafo;
+        private final double intervalo;
+        private final double[] tiempos;
+        private final int[] caudales;
+        private final int[][] cupos;
+        private final int[] primerosLibres;
+        private final double[] llegadas;
+        private final double[] cotas;
+        private final int[] aristasPrevias;
+        private final int[] intervalosPrevios;
+        private final MonticuloIndexado monticulo;
+
+        Programador(GrafoCompacto grafo, double intervalo) {
+            int n = grafo.getNumeroNodos();
+            int m = grafo.getNumeroAristas();
+            this.grafo = grafo;
+            this.intervalo = intervalo;
+            this.tiempos = grafo.pesos(CriterioRuta.TIEMPO);
+            this.caudales = new int[m];
+            this.cupos = new int[m][];
+            this.primerosLibres = new int[m];
+            this.llegadas = new double[n];
+            this.cotas = new double[n];
+            this.aristasPrevias = new int[n];
+            this.intervalosPrevios = new int[n];
+            this.monticulo = new MonticuloIndexado(Math.max(16, n));
+            for (int e = 0; e < m; e++) {
+                caudales[e] = calcularCaudal(grafo.ruta(e), tiempos[e]);
+            }
+        }
+
+        /**
+         * Personas que entran a la ruta por intervalo, o SIN_LIMITE
+         */
+        private int calcularCaudal(Ruta ruta, double tiempo) {
+            if (ruta.getCapacidadMaxima() == 0 || tiempo <= 0) return SIN_LIMITE;
+            double porIntervalo = ruta.getCapacidadMaxima() * intervalo / tiempo;
+            return (int) Math.max(1, Math.min(Integer.MAX_VALUE, Math.floor(porIntervalo)));
+        }
+
+        void programar(List<Evacuacion> evacuaciones, ProgramaEvacuaciones programa) {
+            for (Evacuacion evacuacion : evacuaciones) {
+                int origen = grafo.indiceDe(evacuacion.getZonaOrigen());
+                int destino = grafo.indiceDe(evacuacion.getZonaDestino());
+                int pendientes = evacuacion.getPersonasAEvacuar() - evacuacion.getPersonasEvacuadas();
+                if (origen < 0 || destino < 0 || origen == destino || pendientes <= 0) {
+                    programa.sinProgramar.add(evacuacion);
+                    continue;
+                }
+
+                int[] asignadas = aristasAsignadas(evacuacion.getRuta(), origen, destino);
+                if (asignadas == null) calcularCotas(destino);
+                double finalizacion = 0.0;
+                while (pendientes > 0 && (asignadas != null
+                        ? ubicarEnCamino(origen, asignadas)
+                        : buscarLlegadaMasTemprana(origen, destino))) {
+                    Envio envio = enviar(evacuacion, origen, destino, pendientes);
+                    programa.envios.add(envio);
+                    pendientes -= envio.personas;
+                    finalizacion = Math.max(finalizacion, envio.llegada);
+                }
+                if (pendientes > 0) {
+                    programa.sinProgramar.add(evacuacion);
+                } else {
+                    programa.finalizaciones.put(evacuacion, finalizacion);
+                }
+            }
+        }
+
+        /**
+         * Aristas de la ruta asignada, en orden, o null si no hay ruta, si algún tramo no
+         * pertenece al grafo o está cerrado, o si los tramos no forman un camino simple del
+         * origen al destino
+         */
+        private int[] aristasAsignadas(Ruta ruta, int origen, int destino) {
+            if (ruta == null) return null;
+            List<Ruta> tramos = ruta.obtenerTramos();
+            int[] aristas = new int[tramos.size()];
+            Set<Integer> visitados = new HashSet<>();
+            visitados.add(origen);
+            int actual = origen;
+            for (int i = 0; i < aristas.length; i++) {
+                int e = grafo.indiceArista(tramos.get(i));
+                if (e < 0 || grafo.origen(e) != actual || tiempos[e] == Double.POSITIVE_INFINITY) return null;
+                aristas[i] = e;
+                actual = grafo.destino(e);
+                if (!visitados.add(actual)) return null;
+            }
+            return actual == destino ? aristas : null;
+        }
+
+        /**
+         * Sigue las aristas dadas tomando cada tramo en el primer intervalo con cupo a partir
+         * de la llegada a su origen, y deja el resultado como lo deja la búsqueda
+         */
+        private boolean ubicarEnCamino(int origen, int[] aristas) {
+            llegadas[origen] = 0.0;
+            aristasPrevias[origen] = -1;
+            for (int e : aristas) {
+                double horaActual = llegadas[grafo.origen(e)];
+                int intervaloSalida = SIN_LIMITE;
+                double salida = horaActual;
+                if (caudales[e] != SIN_LIMITE) {
+                    intervaloSalida = primerIntervaloLibre(e, (int) Math.floor(horaActual / intervalo));
+                    salida = Math.max(horaActual, intervaloSalida * intervalo);
+                }
+                int vecino = grafo.destino(e);
+                llegadas[vecino] = salida + tiempos[e];
+                aristasPrevias[vecino] = e;
+                intervalosPrevios[vecino] = intervaloSalida;
+            }
+            return true;
+        }
+
+        /**
+         * Tiempo de viaje sin esperas de cada nodo al destino, por las aristas entrantes.
+         * Es una cota inferior consistente de lo que falta por recorrer con congestión.
+         */
+        private void calcularCotas(int destino) {
+            Arrays.fill(cotas, Double.POSITIVE_INFINITY);
+            monticulo.limpiar();
+            cotas[destino] = 0.0;
+            monticulo.insertarODisminuir(destino, 0.0);
+            while (!monticulo.estaVacio()) {
+                int actual = monticulo.extraerMinimo();
+                for (int p = grafo.inicioEntrantes(actual), fin = grafo.finEntrantes(actual); p < fin; p++) {
+                    int e = grafo.aristaEntrante(p);
+                    int vecino = grafo.origen(e);
+                    double cota = cotas[actual] + tiempos[e];
+                    if (cota < cotas[vecino]) {
+                        cotas[vecino] = cota;
+                        monticulo.insertarODisminuir(vecino, cota);
+                    }
+                }
+            }
+        }
+
+        /**
+         * A* sobre horas de llegada, guiado por las cotas: cada tramo se toma en el primer
+         * intervalo con cupo a partir de la llegada a su origen, así que las llegadas respetan FIFO
+         */
+        private boolean buscarLlegadaMasTemprana(int origen, int destino) {
+            Arrays.fill(llegadas, Double.POSITIVE_INFINITY);
+            monticulo.limpiar();
+            if (cotas[origen] == Double.POSITIVE_INFINITY) return false;
+            llegadas[origen] = 0.0;
+            aristasPrevias[origen] = -1;
+            monticulo.insertarODisminuir(origen, cotas[origen]);
+
+            while (!monticulo.estaVacio()) {
+                int actual = monticulo.extraerMinimo();
+                if (actual == destino) return true;
+                double horaActual = llegadas[actual];
+                for (int e = grafo.inicioAristas(actual), fin = grafo.finAristas(actual); e < fin; e++) {
+                    int vecino = grafo.destino(e);
+                    if (cotas[vecino] == Double.POSITIVE_INFINITY) continue;
+                    int intervaloSalida = SIN_LIMITE;
+                    double salida = horaActual;
+                    if (caudales[e] != SIN_LIMITE) {
+                        intervaloSalida = primerIntervaloLibre(e, (int) Math.floor(horaActual / intervalo));
+                        salida = Math.max(horaActual, intervaloSalida * intervalo);
+                    }
+                    double llegada = salida + tiempos[e];
+                    if (llegada < llegadas[vecino]) {
+                        llegadas[vecino] = llegada;
+                        aristasPrevias[vecino] = e;
+                        intervalosPrevios[vecino] = intervaloSalida;
+                        monticulo.insertarODisminuir(vecino, llegada + cotas[vecino]);
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Envía por el camino encontrado tantas personas como admita su tramo más restrictivo
+         */
+        private Envio enviar(Evacuacion evacuacion, int origen, int destino, int pendientes) {
+            int longitud = 0;
+            int personas = pendientes;
+            for (int v = destino; v != origen; v = grafo.origen(aristasPrevias[v])) {
+                int e = aristasPrevias[v];
+                if (caudales[e] != SIN_LIMITE) {
+                    personas = Math.min(personas, cupo(e, intervalosPrevios[v]));
+                }
+                longitud++;
+            }
+
+            Ruta[] tramos = new Ruta[longitud];
+            double[] salidas = new double[longitud];
+            int i = longitud;
+            for (int v = destino; v != origen; v = grafo.origen(aristasPrevias[v])) {
+                int e = aristasPrevias[v];
+                i--;
+                tramos[i] = grafo.ruta(e);
+                salidas[i] = llegadas[grafo.origen(e)];
+                if (caudales[e] != SIN_LIMITE) {
+                    salidas[i] = Math.max(salidas[i], intervalosPrevios[v] * intervalo);
+                    consumir(e, intervalosPrevios[v], personas);
+                }
+            }
+            return new Envio(evacuacion, Arrays.asList(tramos), salidas, llegadas[destino], personas);
+        }
+
+        private int primerIntervaloLibre(int arista, int desde) {
+            int k = Math.max(desde, primerosLibres[arista]);
+            int[] cupoArista = cupos[arista];
+            while (cupoArista != null && k < cupoArista.length && cupoArista[k] == 0) {
+                k++;
+            }
+            return k;
+        }
+
+        private int cupo(int arista, int k) {
+            int[] cupoArista = cupos[arista];
+            return cupoArista != null && k < cupoArista.length ? cupoArista[k] : caudales[arista];
+        }
+
+        private void consumir(int arista, int k, int personas) {
+            int[] cupoArista = cupos[arista];
+            if (cupoArista == null || k >= cupoArista.length) {
+                int anterior = cupoArista == null ? 0 : cupoArista.length;
+                cupoArista = cupoArista == null
+                    ? new int[Math.max(16, k + 1)]
+                    : Arrays.copyOf(cupoArista, Math.max(anterior * 2, k + 1));
+                Arrays.fill(cupoArista, anterior, cupoArista.length, caudales[arista]);
+                cupos[arista] = cupoArista;
+            }
+            cupoArista[k] -= personas;
+            while (primerosLibres[arista] < cupoArista.length && cupoArista[primerosLibres[arista]] == 0) {
+                primerosLibres[arista]++;
+            }
+        }
+    }
+
+    /**
+     * Hora estimada (desde el inicio de la programación) en que termina la evacuación,
+     * o null si no se pudo programar
+     */
+    public Double obtenerTiempoFinalizacion(Evacuacion evacuacion) {
+        return finalizaciones.get(evacuacion);
+    }
+
+    /**
+     * Envíos de una evacuación, en el orden en que se programaron
+     */
+    public List<Envio> obtenerEnvios(Evacuacion evacuacion) {
+        return envios.stream().filter(envio -> envio.evacuacion == evacuacion).toList();
+    }
+
+    /**
+     * Personas que entran a la ruta en cada intervalo
+     */
+    public int[] obtenerFlujoPorIntervalo(Ruta ruta) {
+        int[] flujo = new int[0];
+        for (Envio envio : envios) {
+            for (int i = 0; i < envio.tramos.size(); i++) {
+                if (envio.tramos.get(i) != ruta) continue;
+                int k = (int) Math.floor(envio.salidas[i] / intervalo);
+                if (k >= flujo.length) flujo = Arrays.copyOf(flujo, k + 1);
+                flujo[k] += envio.personas;
+            }
+        }
+        return flujo;
+    }
+
+    public List<Envio> getEnvios() {
+        return new ArrayList<>(envios);
+    }
+
+    /**
+     * Evacuaciones sin origen o destino en el grafo, sin camino, o sin personas pendientes
+     */
+    public List<Evacuacion> getSinProgramar() {
+        return new ArrayList<>(sinProgramar);
+    }
+
+    public double getIntervalo() {
+        return intervalo;
+    }
+
+    /**
+     * Hora en que termina la última evacuación programada
+     */
+    public double calcularTiempoTotal() {
+        return finalizaciones.values().stream().mapToDouble(Double::doubleValue).max().orElse(0.0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ProgramaEvacuaciones{programadas=%d, sinProgramar=%d, envios=%d, tiempoTotal=%.2f}",
+            finalizaciones.size(), sinProgramar.size(), envios.size(), calcularTiempoTotal());
+    }
+}
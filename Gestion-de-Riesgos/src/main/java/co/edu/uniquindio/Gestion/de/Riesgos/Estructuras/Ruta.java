@@ -2,9 +2,13 @@ package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
 
 
 import co.edu.uniquindio.Gestion.de.Riesgos.Enums.TipoRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Interfaces.IObservadorRuta;
 import co.edu.uniquindio.Gestion.de.Riesgos.Model.Zona;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Clase que representa una ruta entre dos zonas en el grafo dirigido
@@ -21,8 +25,13 @@ public class Ruta {
     private int capacidadActual;
     private double nivelRiesgo;
     private String descripcion;
+    private PerfilTiempo perfilTiempo;
+    // Rutas del grafo que forman una ruta compuesta; null si la ruta es un solo tramo
+    private List<Ruta> tramos;
+    private final List<IObservadorRuta> observadores;
     
     public Ruta() {
+        this.observadores = new CopyOnWriteArrayList<>();
         this.activa = true;
         this.capacidadActual = 0;
         this.nivelRiesgo = 0.0;
@@ -91,12 +100,30 @@ public class Ruta {
         return tiempoEstimado * factorCongestion * factorRiesgo;
     }
     
+    /**
+     * Calcula el tiempo de viaje al salir a una hora del día, según el perfil horario de la ruta.
+     * El recargo por congestión y riesgo se suma en lugar de multiplicarse para no romper la
+     * propiedad FIFO del perfil. Sin perfil equivale a {@link #calcularTiempoConTrafico()}.
+     */
+    public double calcularTiempoConTrafico(double horaDelDia) {
+        double base = perfilTiempo != null ? perfilTiempo.evaluar(horaDelDia) : tiempoEstimado;
+        return base + calcularRecargoTrafico();
+    }
+    
+    /**
+     * Tiempo adicional que la congestión y el riesgo actuales suman al tiempo estimado
+     */
+    public double calcularRecargoTrafico() {
+        return calcularTiempoConTrafico() - tiempoEstimado;
+    }
+    
     /**
      * Actualiza la capacidad actual de la ruta
      */
     public boolean actualizarCapacidad(int nuevaCapacidad) {
         if (nuevaCapacidad >= 0 && nuevaCapacidad <= capacidadMaxima) {
             this.capacidadActual = nuevaCapacidad;
+            notificarCambio();
             return true;
         }
         return false;
@@ -108,6 +135,7 @@ public class Ruta {
     public boolean incrementarCapacidad(int incremento) {
         if (incremento > 0 && capacidadActual + incremento <= capacidadMaxima) {
             this.capacidadActual += incremento;
+            notificarCambio();
             return true;
         }
         return false;
@@ -119,6 +147,7 @@ public class Ruta {
     public boolean decrementarCapacidad(int decremento) {
         if (decremento > 0 && capacidadActual - decremento >= 0) {
             this.capacidadActual -= decremento;
+            notificarCambio();
             return true;
         }
         return false;
@@ -151,6 +180,25 @@ public class Ruta {
         return Math.max(1, prioridad);
     }
     
+    /**
+     * Registra un observador que será avisado cada vez que la ruta cambie
+     */
+    public void agregarObservador(IObservadorRuta observador) {
+        if (observador != null && !observadores.contains(observador)) {
+            observadores.add(observador);
+        }
+    }
+    
+    public void eliminarObservador(IObservadorRuta observador) {
+        observadores.remove(observador);
+    }
+    
+    private void notificarCambio() {
+        for (IObservadorRuta observador : observadores) {
+            observador.rutaActualizada(this);
+        }
+    }
+    
     public String getId() {
         return id;
     }
@@ -181,6 +229,7 @@ public class Ruta {
     
     public void setDistancia(double distancia) {
         this.distancia = Math.max(0, distancia);
+        notificarCambio();
     }
     
     public double getTiempoEstimado() {
@@ -189,6 +238,7 @@ public class Ruta {
     
     public void setTiempoEstimado(double tiempoEstimado) {
         this.tiempoEstimado = Math.max(0, tiempoEstimado);
+        notificarCambio();
     }
     
     public TipoRuta getTipo() {
@@ -196,7 +246,9 @@ public class Ruta {
     }
     
     public void setTipo(TipoRuta tipo) {
+        if (this.tipo == tipo) return;
         this.tipo = tipo;
+        notificarCambio();
     }
     
     public boolean isActiva() {
@@ -204,7 +256,9 @@ public class Ruta {
     }
     
     public void setActiva(boolean activa) {
+        if (this.activa == activa) return;
         this.activa = activa;
+        notificarCambio();
     }
     
     public int getCapacidadMaxima() {
@@ -213,6 +267,7 @@ public class Ruta {
     
     public void setCapacidadMaxima(int capacidadMaxima) {
         this.capacidadMaxima = Math.max(0, capacidadMaxima);
+        notificarCambio();
     }
     
     public int getCapacidadActual() {
@@ -221,6 +276,7 @@ public class Ruta {
     
     public void setCapacidadActual(int capacidadActual) {
         this.capacidadActual = Math.max(0, Math.min(capacidadActual, capacidadMaxima));
+        notificarCambio();
     }
     
     public double getNivelRiesgo() {
@@ -229,6 +285,7 @@ public class Ruta {
     
     public void setNivelRiesgo(double nivelRiesgo) {
         this.nivelRiesgo = Math.max(0.0, Math.min(1.0, nivelRiesgo));
+        notificarCambio();
     }
     
     public String getDescripcion() {
@@ -239,6 +296,27 @@ public class Ruta {
         this.descripcion = descripcion;
     }
     
+    public PerfilTiempo getPerfilTiempo() {
+        return perfilTiempo;
+    }
+    
+    public void setPerfilTiempo(PerfilTiempo perfilTiempo) {
+        this.perfilTiempo = perfilTiempo;
+        notificarCambio();
+    }
+    
+    /**
+     * Rutas del grafo que se recorren al seguir esta ruta: los tramos si es una ruta
+     * compuesta (ver {@link Camino#comoRuta()}) o la propia ruta
+     */
+    public List<Ruta> obtenerTramos() {
+        return tramos != null ? new ArrayList<>(tramos) : new ArrayList<>(List.of(this));
+    }
+    
+    void setTramos(List<Ruta> tramos) {
+        this.tramos = tramos;
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
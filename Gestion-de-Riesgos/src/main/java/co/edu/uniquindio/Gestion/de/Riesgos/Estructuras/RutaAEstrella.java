@@ -0,0 +1,109 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Estrategia de ruta más corta con A*, usando como cota inferior la distancia
+ * de gran círculo (haversine) entre las coordenadas de cada zona y el destino.
+ * Se interpreta coordenadaX como latitud y coordenadaY como longitud, en grados.
+ *
+ * La cota se multiplica por el mayor factor que no supera distancia/haversine en
+ * ninguna arista del grafo, así que es consistente aunque las distancias estén
+ * en otra unidad o algunas coordenadas sean imprecisas; en el peor caso el
+ * factor es 0 y la búsqueda se comporta como Dijkstra.
+ *
+ * Se selecciona con {@code new GrafoDirigido(new RutaAEstrella())}.
+ */
+public class RutaAEstrella extends CalculadorRutaCompacto {
+    private static final double RADIO_TIERRA_KM = 6371.0088;
+
+    private volatile Geometria geometria;
+
+    /**
+     * Coordenadas en radianes y factor de escala calculados para una versión de los pesos del grafo compacto
+     */
+    private static final class Geometria {
+        private final GrafoCompacto grafo;
+        private final int version;
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private final double[] cosenosLatitud;
+        private final double escala;
+
+        private Geometria(GrafoCompacto grafo) {
+            int n = grafo.getNumeroNodos();
+            this.grafo = grafo;
+            this.version = grafo.getVersion();
+            this.latitudes = new double[n];
+            this.longitudes = new double[n];
+            this.cosenosLatitud = new double[n];
+            for (int v = 0; v < n; v++) {
+                latitudes[v] = Math.toRadians(grafo.coordenadaX(v));
+                longitudes[v] = Math.toRadians(grafo.coordenadaY(v));
+                cosenosLatitud[v] = Math.cos(latitudes[v]);
+            }
+
+            double factor = Double.POSITIVE_INFINITY;
+            double[] pesos = grafo.pesosDistancia();
+            for (int e = 0; e < grafo.getNumeroAristas(); e++) {
+                double granCirculo = haversine(grafo.origen(e), grafo.destino(e));
+                if (granCirculo > 0) {
+                    factor = Math.min(factor, pesos[e] / granCirculo);
+                }
+            }
+            this.escala = Double.isFinite(factor) ? factor : 0.0;
+        }
+
+        private double haversine(int a, int b) {
+            double senoLatitud = Math.sin((latitudes[b] - latitudes[a]) / 2);
+            double senoLongitud = Math.sin((longitudes[b] - longitudes[a]) / 2);
+            double h = senoLatitud * senoLatitud
+                    + cosenosLatitud[a] * cosenosLatitud[b] * senoLongitud * senoLongitud;
+            return 2 * RADIO_TIERRA_KM * Math.asin(Math.min(1.0, Math.sqrt(h)));
+        }
+    }
+
+    @Override
+    protected int[] buscarCamino(GrafoCompacto grafo, int origen, int destino) {
+        IntToDoubleFunction cota = crearCotaInferior(grafo, destino);
+        EstadoBusqueda estado = EstadoBusqueda.delHilo(grafo.getNumeroNodos());
+        MonticuloIndexado monticulo = estado.getMonticulo();
+        double[] pesos = grafo.pesosDistancia();
+
+        estado.actualizar(origen, 0.0, -1);
+        monticulo.insertarODisminuir(origen, cota.applyAsDouble(origen));
+
+        while (!monticulo.estaVacio()) {
+            int actual = monticulo.extraerMinimo();
+            estado.registrarAsentado();
+            if (actual == destino) break;
+
+            double distanciaActual = estado.distancia(actual);
+            for (int e = grafo.inicioAristas(actual), fin = grafo.finAristas(actual); e < fin; e++) {
+                int vecino = grafo.destino(e);
+                double nuevaDistancia = distanciaActual + pesos[e];
+                if (nuevaDistancia < estado.distancia(vecino)) {
+                    estado.actualizar(vecino, nuevaDistancia, e);
+                    monticulo.insertarODisminuir(vecino, nuevaDistancia + cota.applyAsDouble(vecino));
+                }
+            }
+        }
+        return BusquedaDijkstra.extraerAristas(grafo, estado, destino);
+    }
+
+    /**
+     * Crea la cota inferior de distancia desde cualquier nodo hasta el destino.
+     * Las subclases pueden reemplazarla por otra heurística consistente.
+     */
+    protected IntToDoubleFunction crearCotaInferior(GrafoCompacto grafo, int destino) {
+        Geometria actual = geometria;
+        // El factor depende de las distancias, así que se recalcula cuando cambian los pesos
+        if (actual == null || actual.grafo != grafo || actual.version != grafo.getVersion()) {
+            actual = new Geometria(grafo);
+            geometria = actual;
+        }
+        Geometria geo = actual;
+        if (geo.escala == 0.0) return nodo -> 0.0;
+        return nodo -> geo.escala * geo.haversine(nodo, destino);
+    }
+}
@@ -0,0 +1,146 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Estrategia A* que usa como cota inferior un índice de landmarks ({@link IndiceLandmarks})
+ * en lugar de las coordenadas. Mientras el índice no existe o dejó de ser válido (alguna
+ * distancia bajó o cambió la topología) se usa la cota geográfica de {@link RutaAEstrella}
+ * y el índice se reconstruye en segundo plano.
+ *
+ * Si se indica un archivo, {@link #construirIndice()} carga el índice guardado cuando
+ * corresponde al grafo y cada índice construido se vuelve a guardar en él. El sistema usa
+ * un archivo junto a su instantánea del grafo.
+ *
+ * Se selecciona con {@code new GrafoDirigido(new RutaALT())} o, en el sistema, con
+ * {@code seleccionarEstrategiaRutas(EstrategiaRuta.ALT)}.
+ */
+public class RutaALT extends RutaAEstrella {
+    private final int numeroLandmarks;
+    private volatile Path archivoIndice;
+    private volatile IndiceLandmarks indice;
+    private final AtomicBoolean construyendo;
+
+    public RutaALT() {
+        this(IndiceLandmarks.LANDMARKS_POR_DEFECTO, null);
+    }
+
+    /**
+     * @param archivoIndice archivo donde se guarda y se carga el índice, o null para no guardarlo
+     */
+    public RutaALT(int numeroLandmarks, Path archivoIndice) {
+        this.numeroLandmarks = numeroLandmarks;
+        this.archivoIndice = archivoIndice;
+        this.construyendo = new AtomicBoolean(false);
+    }
+
+    /**
+     * Deja listo el índice para la versión actual del grafo en el hilo que llama: lo carga del
+     * archivo si corresponde al grafo y, si no, lo construye y lo guarda.
+     * Pensado para el arranque, cuando se cargaron todas las rutas.
+     *
+     * @throws UncheckedIOException si el archivo del índice no se puede leer o escribir
+     */
+    public void construirIndice() {
+        if (getGrafo() == null) return;
+        GrafoCompacto grafoCompacto = getGrafo().obtenerGrafoCompacto();
+        if (estaActualizado(grafoCompacto)) return;
+
+        Path archivo = archivoIndice;
+        try {
+            if (archivo != null && Files.exists(archivo)) {
+                IndiceLandmarks guardado = IndiceLandmarks.cargar(archivo, grafoCompacto);
+                if (guardado != null) {
+                    indice = guardado;
+                    return;
+                }
+            }
+            indice = IndiceLandmarks.construir(grafoCompacto, numeroLandmarks);
+            if (archivo != null) indice.guardar(archivo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Guarda el índice en el archivo indicado, construyéndolo antes si no sirve para la versión
+     * actual del grafo. No hace nada si no hay grafo vinculado o archivo.
+     *
+     * @throws IOException si no se puede escribir el archivo
+     */
+    public void guardarIndice() throws IOException {
+        Path archivo = archivoIndice;
+        if (getGrafo() == null || archivo == null) return;
+        GrafoCompacto grafoCompacto = getGrafo().obtenerGrafoCompacto();
+        IndiceLandmarks actual = indice;
+        if (actual == null || !actual.esValidoPara(grafoCompacto)) {
+            actual = IndiceLandmarks.construir(grafoCompacto, numeroLandmarks);
+            indice = actual;
+        }
+        actual.guardar(archivo);
+    }
+
+    /**
+     * Verifica si el índice se puede usar con la versión actual del grafo
+     */
+    public boolean estaActualizado() {
+        return getGrafo() != null && estaActualizado(getGrafo().obtenerGrafoCompacto());
+    }
+
+    @Override
+    protected IntToDoubleFunction crearCotaInferior(GrafoCompacto grafo, int destino) {
+        IndiceLandmarks actual = indice;
+        if (actual != null && actual.esValidoPara(grafo)) {
+            return actual.crearCotaInferior(destino);
+        }
+        programarConstruccion(grafo);
+        return super.crearCotaInferior(grafo, destino);
+    }
+
+    private boolean estaActualizado(GrafoCompacto grafoCompacto) {
+        IndiceLandmarks actual = indice;
+        return actual != null && actual.esValidoPara(grafoCompacto);
+    }
+
+    /**
+     * Lanza la reconstrucción en un hilo de fondo si no hay otra en curso
+     */
+    private void programarConstruccion(GrafoCompacto grafoCompacto) {
+        if (!construyendo.compareAndSet(false, true)) return;
+
+        Thread hilo = new Thread(() -> {
+            try {
+                IndiceLandmarks nuevo = IndiceLandmarks.construir(grafoCompacto, numeroLandmarks);
+                indice = nuevo;
+                Path archivo = archivoIndice;
+                if (archivo != null) nuevo.guardar(archivo);
+            } catch (IOException e) {
+                // El índice ya está en memoria; se volverá a guardar en la próxima construcción
+            } finally {
+                construyendo.set(false);
+            }
+        }, "construccion-indice-landmarks");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    public IndiceLandmarks getIndice() {
+        return indice;
+    }
+
+    public Path getArchivoIndice() {
+        return archivoIndice;
+    }
+
+    /**
+     * @param archivoIndice archivo donde se guardarán los próximos índices, o null para no guardarlos
+     */
+    public void setArchivoIndice(Path archivoIndice) {
+        this.archivoIndice = archivoIndice;
+    }
+}
@@ -0,0 +1,93 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import java.util.Arrays;
+
+/**
+ * Estrategia de ruta más corta con Dijkstra bidireccional: una búsqueda avanza
+ * desde el origen por las aristas salientes y otra retrocede desde el destino por
+ * las entrantes, hasta que la suma de las claves mínimas de ambos montículos ya no
+ * puede mejorar el mejor punto de encuentro. El encuentro se evalúa al asentar cada
+ * nodo: cuando se cumple la condición de parada, el camino óptimo tiene un nodo
+ * asentado en una dirección y alcanzado en la otra. En consultas punto a punto asienta
+ * aproximadamente la mitad de nodos que la búsqueda en una sola dirección.
+ *
+ * Se selecciona con {@code new GrafoDirigido(new RutaBidireccional())}.
+ */
+public class RutaBidireccional extends CalculadorRutaCompacto {
+
+    @Override
+    protected int[] buscarCamino(GrafoCompacto grafoCompacto, int origen, int destino) {
+        return buscarCamino(grafoCompacto, origen, destino, grafoCompacto.pesosDistancia());
+    }
+
+    /**
+     * Búsqueda bidireccional con los pesos indicados, indexados por arista
+     *
+     * @return aristas del camino en orden, o null si no hay camino
+     */
+    static int[] buscarCamino(GrafoCompacto grafo, int origen, int destino, double[] pesos) {
+        int n = grafo.getNumeroNodos();
+        EstadoBusqueda adelante = EstadoBusqueda.delHilo(n);
+        EstadoBusqueda atras = EstadoBusqueda.inversoDelHilo(n);
+        MonticuloIndexado monticuloAdelante = adelante.getMonticulo();
+        MonticuloIndexado monticuloAtras = atras.getMonticulo();
+
+        adelante.actualizar(origen, 0.0, -1);
+        monticuloAdelante.insertarODisminuir(origen, 0.0);
+        atras.actualizar(destino, 0.0, -1);
+        monticuloAtras.insertarODisminuir(destino, 0.0);
+
+        double mejor = origen == destino ? 0.0 : Double.POSITIVE_INFINITY;
+        int encuentro = origen == destino ? origen : -1;
+        while (monticuloAdelante.claveMinima() + monticuloAtras.claveMinima() < mejor) {
+            if (monticuloAdelante.claveMinima() <= monticuloAtras.claveMinima()) {
+                int actual = monticuloAdelante.extraerMinimo();
+                adelante.registrarAsentado();
+                double distanciaActual = adelante.distancia(actual);
+                if (distanciaActual + atras.distancia(actual) < mejor) {
+                    mejor = distanciaActual + atras.distancia(actual);
+                    encuentro = actual;
+                }
+                for (int e = grafo.inicioAristas(actual), fin = grafo.finAristas(actual); e < fin; e++) {
+                    int vecino = grafo.destino(e);
+                    double nuevaDistancia = distanciaActual + pesos[e];
+                    if (nuevaDistancia < adelante.distancia(vecino)) {
+                        adelante.actualizar(vecino, nuevaDistancia, e);
+                        monticuloAdelante.insertarODisminuir(vecino, nuevaDistancia);
+                    }
+                }
+            } else {
+                int actual = monticuloAtras.extraerMinimo();
+                atras.registrarAsentado();
+                double distanciaActual = atras.distancia(actual);
+                if (distanciaActual + adelante.distancia(actual) < mejor) {
+                    mejor = distanciaActual + adelante.distancia(actual);
+                    encuentro = actual;
+                }
+                for (int p = grafo.inicioEntrantes(actual), fin = grafo.finEntrantes(actual); p < fin; p++) {
+                    int e = grafo.aristaEntrante(p);
+                    int vecino = grafo.origen(e);
+                    double nuevaDistancia = distanciaActual + pesos[e];
+                    if (nuevaDistancia < atras.distancia(vecino)) {
+                        atras.actualizar(vecino, nuevaDistancia, e);
+                        monticuloAtras.insertarODisminuir(vecino, nuevaDistancia);
+                    }
+                }
+            }
+        }
+        if (encuentro < 0) return null;
+
+        // Mitad hacia adelante hasta el encuentro y mitad hacia atrás hasta el destino
+        int[] primeraMitad = BusquedaDijkstra.extraerAristas(grafo, adelante, encuentro);
+        int longitud = primeraMitad.length;
+        for (int e = atras.aristaPredecesora(encuentro); e >= 0; e = atras.aristaPredecesora(grafo.destino(e))) {
+            longitud++;
+        }
+        int[] camino = Arrays.copyOf(primeraMitad, longitud);
+        int i = primeraMitad.length;
+        for (int e = atras.aristaPredecesora(encuentro); e >= 0; e = atras.aristaPredecesora(grafo.destino(e))) {
+            camino[i++] = e;
+        }
+        return camino;
+    }
+}
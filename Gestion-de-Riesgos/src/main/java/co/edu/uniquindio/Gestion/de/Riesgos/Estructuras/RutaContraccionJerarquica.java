@@ -0,0 +1,79 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Estrategia de ruta más corta respaldada por un índice de jerarquías de contracción.
+ * El índice se construye una vez por versión del grafo compacto; mientras está
+ * desactualizado (por ejemplo, justo después de agregar o cerrar una ruta) las consultas usan
+ * Dijkstra y el índice se reconstruye en segundo plano.
+ *
+ * Se selecciona con {@code new GrafoDirigido(new RutaContraccionJerarquica())} o, en el sistema,
+ * con {@code seleccionarEstrategiaRutas(EstrategiaRuta.CONTRACCION_JERARQUICA)}.
+ */
+public class RutaContraccionJerarquica extends CalculadorRutaCompacto {
+    private volatile JerarquiaContraccion jerarquia;
+    private final AtomicBoolean construyendo;
+
+    public RutaContraccionJerarquica() {
+        this.construyendo = new AtomicBoolean(false);
+    }
+
+    /**
+     * Construye el índice para la versión actual del grafo en el hilo que llama.
+     * Pensado para el arranque, cuando se cargaron todas las rutas.
+     */
+    public void construirIndice() {
+        if (getGrafo() == null) return;
+        GrafoCompacto grafoCompacto = getGrafo().obtenerGrafoCompacto();
+        if (!estaActualizado(grafoCompacto)) {
+            jerarquia = JerarquiaContraccion.construir(grafoCompacto);
+        }
+    }
+
+    /**
+     * Verifica si el índice corresponde a la versión actual del grafo
+     */
+    public boolean estaActualizado() {
+        return getGrafo() != null && estaActualizado(getGrafo().obtenerGrafoCompacto());
+    }
+
+    @Override
+    protected int[] buscarCamino(GrafoCompacto grafoCompacto, int origen, int destino) {
+        JerarquiaContraccion actual = jerarquia;
+        if (actual != null && actual.correspondeA(grafoCompacto)) {
+            return actual.buscarCamino(origen, destino);
+        }
+
+        programarConstruccion(grafoCompacto);
+        EstadoBusqueda estado = EstadoBusqueda.delHilo(grafoCompacto.getNumeroNodos());
+        BusquedaDijkstra.ejecutar(grafoCompacto, origen, destino, grafoCompacto.pesosDistancia(), estado);
+        return BusquedaDijkstra.extraerAristas(grafoCompacto, estado, destino);
+    }
+
+    private boolean estaActualizado(GrafoCompacto grafoCompacto) {
+        JerarquiaContraccion actual = jerarquia;
+        return actual != null && actual.correspondeA(grafoCompacto);
+    }
+
+    /**
+     * Lanza la reconstrucción en un hilo de fondo si no hay otra en curso
+     */
+    private void programarConstruccion(GrafoCompacto grafoCompacto) {
+        if (!construyendo.compareAndSet(false, true)) return;
+
+        Thread hilo = new Thread(() -> {
+            try {
+                jerarquia = JerarquiaContraccion.construir(grafoCompacto);
+            } finally {
+                construyendo.set(false);
+            }
+        }, "construccion-jerarquia-contraccion");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    public JerarquiaContraccion getJerarquia() {
+        return jerarquia;
+    }
+}
@@ -0,0 +1,239 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.CriterioRuta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Grafo superpuesto sobre una {@link ParticionGrafo} (planificación de rutas personalizable):
+ * para cada celda guarda el costo mínimo de cada entrada a cada salida sin salir de la celda.
+ *
+ * Una consulta recorre con aristas normales solo las celdas del origen y del destino; en
+ * las demás celdas salta de la entrada a las salidas con esos costos y sigue por las aristas
+ * de corte, así que no toca el interior de las celdas intermedias.
+ *
+ * La personalización (calcular los costos de cada celda para unos pesos) es independiente
+ * por celda y se hace en paralelo. Al cambiar los pesos solo se recalculan las celdas con
+ * alguna arista interior modificada.
+ */
+public class SuperposicionCeldas {
+    private final ParticionGrafo particion;
+    private final CriterioRuta criterio;
+    private final int version;
+    private final double[] pesos;
+    private final int[] inicioMatriz;
+    private final double[] costos;
+
+    private SuperposicionCeldas(ParticionGrafo particion, CriterioRuta criterio, int version, double[] pesos,
+                                int[] inicioMatriz, double[] costos) {
+        this.particion = particion;
+        this.criterio = criterio;
+        this.version = version;
+        this.pesos = pesos;
+        this.inicioMatriz = inicioMatriz;
+        this.costos = costos;
+    }
+
+    /**
+     * Personaliza todas las celdas de la partición con los pesos actuales del criterio
+     */
+    public static SuperposicionCeldas construir(ParticionGrafo particion, CriterioRuta criterio) {
+        return personalizar(particion, criterio, null);
+    }
+
+    /**
+     * Crea la superposición para los pesos actuales reutilizando las celdas de esta que no cambiaron
+     */
+    public SuperposicionCeldas actualizar() {
+        return personalizar(particion, criterio, this);
+    }
+
+    private static SuperposicionCeldas personalizar(ParticionGrafo particion, CriterioRuta criterio,
+                                                    SuperposicionCeldas anterior) {
+        GrafoCompacto grafo = particion.getGrafo();
+        int version = grafo.getVersion();
+        // Copia de los pesos: la superposición responde de forma coherente aunque cambien durante una consulta
+        double[] pesos = grafo.pesos(criterio).clone();
+        int numeroCeldas = particion.getNumeroCeldas();
+
+        int[] inicioMatriz;
+        double[] costos;
+        boolean[] pendientes = new boolean[numeroCeldas];
+        if (anterior == null) {
+            inicioMatriz = new int[numeroCeldas + 1];
+            for (int c = 0; c < numeroCeldas; c++) {
+                inicioMatriz[c + 1] = inicioMatriz[c] + particion.numeroEntradas(c) * particion.numeroSalidas(c);
+            }
+            costos = new double[inicioMatriz[numeroCeldas]];
+            Arrays.fill(pendientes, true);
+        } else {
+            inicioMatriz = anterior.inicioMatriz;
+            costos = anterior.costos.clone();
+            for (int e = 0; e < pesos.length; e++) {
+                int c = particion.celda(grafo.origen(e));
+                if (pesos[e] != anterior.pesos[e] && c == particion.celda(grafo.destino(e))) pendientes[c] = true;
+            }
+        }
+
+        IntStream.range(0, numeroCeldas).parallel()
+                .filter(c -> pendientes[c])
+                .forEach(c -> personalizarCelda(particion, pesos, c, costos, inicioMatriz[c]));
+        return new SuperposicionCeldas(particion, criterio, version, pesos, inicioMatriz, costos);
+    }
+
+    /**
+     * Un Dijkstra por entrada, limitado a las aristas interiores de la celda
+     */
+    private static void personalizarCelda(ParticionGrafo particion, double[] pesos, int celda, double[] costos,
+                                          int base) {
+        GrafoCompacto grafo = particion.getGrafo();
+        int salidas = particion.numeroSalidas(celda);
+        for (int i = 0; i < particion.numeroEntradas(celda); i++) {
+            EstadoBusqueda estado = EstadoBusqueda.delHilo(grafo.getNumeroNodos());
+            buscarEnCelda(particion, pesos, celda, particion.entrada(celda, i), -1, estado);
+            for (int j = 0; j < salidas; j++) {
+                costos[base + i * salidas + j] = estado.distancia(particion.salida(celda, j));
+            }
+        }
+    }
+
+    private static void buscarEnCelda(ParticionGrafo particion, double[] pesos, int celda, int origen, int destino,
+                                      EstadoBusqueda estado) {
+        GrafoCompacto grafo = particion.getGrafo();
+        MonticuloIndexado monticulo = estado.getMonticulo();
+        estado.actualizar(origen, 0.0, -1);
+        monticulo.insertarODisminuir(origen, 0.0);
+        while (!monticulo.estaVacio()) {
+            int actual = monticulo.extraerMinimo();
+            if (actual == destino) return;
+            double distanciaActual = estado.distancia(actual);
+            for (int e = grafo.inicioAristas(actual), fin = grafo.finAristas(actual); e < fin; e++) {
+                int vecino = grafo.destino(e);
+                if (particion.celda(vecino) != celda) continue;
+                double nuevaDistancia = distanciaActual + pesos[e];
+                if (nuevaDistancia < estado.distancia(vecino)) {
+                    estado.actualizar(vecino, nuevaDistancia, e);
+                    monticulo.insertarODisminuir(vecino, nuevaDistancia);
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifica si la superposición corresponde a la versión actual de los pesos del grafo
+     */
+    public boolean correspondeA(GrafoCompacto grafoCompacto) {
+        return particion.correspondeA(grafoCompacto) && version == grafoCompacto.getVersion();
+    }
+
+    /**
+     * Costo mínimo del origen al destino (infinito si no hay camino o algún índice es negativo)
+     */
+    public double costo(int origen, int destino) {
+        if (origen < 0 || destino < 0) return Double.POSITIVE_INFINITY;
+        EstadoBusqueda estado = EstadoBusqueda.delHilo(particion.getGrafo().getNumeroNodos());
+        return buscar(origen, destino, estado);
+    }
+
+    /**
+     * Camino de costo mínimo del origen al destino
+     *
+     * @return índices de aristas desde el origen, o null si no hay camino
+     */
+    public int[] buscarCamino(int origen, int destino) {
+        if (origen < 0 || destino < 0) return null;
+        GrafoCompacto grafo = particion.getGrafo();
+        EstadoBusqueda estado = EstadoBusqueda.delHilo(grafo.getNumeroNodos());
+        if (buscar(origen, destino, estado) == Double.POSITIVE_INFINITY) return null;
+
+        // Tramos en orden inverso: aristas normales (>= 0) o saltos de entrada a salida (entrada, salida)
+        List<int[]> tramos = new ArrayList<>();
+        int nodo = destino;
+        while (nodo != origen) {
+            int predecesora = estado.aristaPredecesora(nodo);
+            if (predecesora >= 0) {
+                tramos.add(new int[]{predecesora});
+                nodo = grafo.origen(predecesora);
+            } else {
+                int entrada = -predecesora - 2;
+                tramos.add(new int[]{entrada, nodo});
+                nodo = entrada;
+            }
+        }
+
+        // Los saltos se desempaquetan con un Dijkstra dentro de la celda (reutiliza el estado del hilo)
+        List<Integer> aristas = new ArrayList<>();
+        for (int i = tramos.size() - 1; i >= 0; i--) {
+            int[] tramo = tramos.get(i);
+            if (tramo.length == 1) {
+                aristas.add(tramo[0]);
+                continue;
+            }
+            int celda = particion.celda(tramo[0]);
+            estado = EstadoBusqueda.delHilo(grafo.getNumeroNodos());
+            buscarEnCelda(particion, pesos, celda, tramo[0], tramo[1], estado);
+            for (int e : BusquedaDijkstra.extraerAristas(grafo, estado, tramo[1])) aristas.add(e);
+        }
+        return aristas.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Dijkstra sobre el grafo mixto. El predecesor de un nodo alcanzado por un salto de la
+     * superposición se guarda como -(entrada + 2), para distinguirlo de las aristas y del origen.
+     */
+    private double buscar(int origen, int destino, EstadoBusqueda estado) {
+        GrafoCompacto grafo = particion.getGrafo();
+        int celdaOrigen = particion.celda(origen);
+        int celdaDestino = particion.celda(destino);
+        MonticuloIndexado monticulo = estado.getMonticulo();
+        estado.actualizar(origen, 0.0, -1);
+        monticulo.insertarODisminuir(origen, 0.0);
+
+        while (!monticulo.estaVacio()) {
+            int actual = monticulo.extraerMinimo();
+            estado.registrarAsentado();
+            if (actual == destino) break;
+            double distanciaActual = estado.distancia(actual);
+            int celda = particion.celda(actual);
+
+            boolean celdaExtremo = celda == celdaOrigen || celda == celdaDestino;
+            int entrada = particion.posicionEntrada(actual);
+            if (!celdaExtremo && entrada >= 0) {
+                int salidas = particion.numeroSalidas(celda);
+                int base = inicioMatriz[celda] + entrada * salidas;
+                for (int j = 0; j < salidas; j++) {
+                    int salida = particion.salida(celda, j);
+                    double nuevaDistancia = distanciaActual + costos[base + j];
+                    if (nuevaDistancia < estado.distancia(salida)) {
+                        estado.actualizar(salida, nuevaDistancia, -actual - 2);
+                        monticulo.insertarODisminuir(salida, nuevaDistancia);
+                    }
+                }
+            }
+            if (!celdaExtremo && particion.posicionSalida(actual) < 0) continue;
+
+            // En las celdas del origen y del destino se usan todas las aristas; en las demás, solo las de corte
+            for (int e = grafo.inicioAristas(actual), fin = grafo.finAristas(actual); e < fin; e++) {
+                int vecino = grafo.destino(e);
+                if (!celdaExtremo && particion.celda(vecino) == celda) continue;
+                double nuevaDistancia = distanciaActual + pesos[e];
+                if (nuevaDistancia < estado.distancia(vecino)) {
+                    estado.actualizar(vecino, nuevaDistancia, e);
+                    monticulo.insertarODisminuir(vecino, nuevaDistancia);
+                }
+            }
+        }
+        return estado.distancia(destino);
+    }
+
+    public ParticionGrafo getParticion() {
+        return particion;
+    }
+
+    public CriterioRuta getCriterio() {
+        return criterio;
+    }
+}
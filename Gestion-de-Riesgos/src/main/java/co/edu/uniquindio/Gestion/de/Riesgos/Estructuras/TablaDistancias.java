@@ -0,0 +1,103 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.CriterioRuta;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.stream.IntStream;
+
+/**
+ * Tabla de costos mínimos entre todos los pares de nodos, para grafos regionales de
+ * unos pocos miles de zonas. Con la tabla cada consulta de costo es una lectura.
+ *
+ * Se construye con un Dijkstra completo por origen, repartidos en paralelo en el
+ * ForkJoinPool común (en grafos dispersos es más rápido que Floyd-Warshall), y se guarda
+ * por filas en un único DoubleBuffer fuera del heap para no cargar al recolector de basura
+ * con n² valores.
+ */
+public class TablaDistancias {
+    /**
+     * Máximo de nodos para los que se construye la tabla (128 MB con 4096)
+     */
+    public static final int LIMITE_NODOS = 4096;
+
+    private final GrafoCompacto grafo;
+    private final int version;
+    private final CriterioRuta criterio;
+    private final int numeroNodos;
+    private final DoubleBuffer costos;
+
+    private TablaDistancias(GrafoCompacto grafo, int version, CriterioRuta criterio, DoubleBuffer costos) {
+        this.grafo = grafo;
+        this.version = version;
+        this.criterio = criterio;
+        this.numeroNodos = grafo.getNumeroNodos();
+        this.costos = costos;
+    }
+
+    /**
+     * Calcula la tabla para la versión actual de los pesos del grafo
+     *
+     * @throws IllegalArgumentException si el grafo tiene más de {@link #LIMITE_NODOS} nodos
+     */
+    public static TablaDistancias construir(GrafoCompacto grafo, CriterioRuta criterio) {
+        int n = grafo.getNumeroNodos();
+        if (n > LIMITE_NODOS) {
+            throw new IllegalArgumentException("El grafo tiene demasiados nodos para la tabla de distancias: " + n);
+        }
+        int version = grafo.getVersion();
+        double[] pesos = grafo.pesos(criterio);
+        DoubleBuffer costos = ByteBuffer.allocateDirect(n * n * Double.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asDoubleBuffer();
+
+        IntStream.range(0, n).parallel().forEach(origen -> {
+            EstadoBusqueda estado = EstadoBusqueda.delHilo(n);
+            BusquedaDijkstra.ejecutar(grafo, origen, -1, pesos, estado);
+            double[] fila = new double[n];
+            for (int v = 0; v < n; v++) {
+                fila[v] = estado.distancia(v);
+            }
+            // Escritura absoluta: cada hilo escribe su propia fila sin mover la posición del buffer
+            costos.put(origen * n, fila);
+        });
+        return new TablaDistancias(grafo, version, criterio, costos);
+    }
+
+    /**
+     * Verifica si la tabla corresponde a la versión actual del grafo y al criterio
+     */
+    public boolean correspondeA(GrafoCompacto grafoCompacto, CriterioRuta criterioRuta) {
+        return grafo == grafoCompacto && version == grafoCompacto.getVersion() && criterio == criterioRuta;
+    }
+
+    /**
+     * Costo mínimo del origen al destino (infinito si no hay camino o algún índice es negativo)
+     */
+    public double costo(int origen, int destino) {
+        if (origen < 0 || destino < 0) return Double.POSITIVE_INFINITY;
+        return costos.get(origen * numeroNodos + destino);
+    }
+
+    /**
+     * Arma la matriz de costos entre los orígenes y destinos indicados
+     */
+    public double[][] obtenerMatriz(int[] origenes, int[] destinos) {
+        double[][] matriz = new double[origenes.length][destinos.length];
+        for (int i = 0; i < origenes.length; i++) {
+            for (int j = 0; j < destinos.length; j++) {
+                matriz[i][j] = costo(origenes[i], destinos[j]);
+            }
+        }
+        return matriz;
+    }
+
+    public CriterioRuta getCriterio() {
+        return criterio;
+    }
+
+    public int getNumeroNodos() {
+        return numeroNodos;
+    }
+}
@@ -1,6 +1,7 @@
 package co.edu.uniquindio.Gestion.de.Riesgos.Interfaces;
 
 import co.edu.uniquindio.Gestion.de.Riesgos.Model.Zona;
+import co.edu.uniquindio.Gestion.de.Riesgos.Estructuras.GrafoDirigido;
 import co.edu.uniquindio.Gestion.de.Riesgos.Estructuras.Ruta;
 import java.util.List;
 
@@ -53,4 +54,13 @@ public interface ICalcularRuta {
      * @return true si existe ruta, false en caso contrario
      */
     boolean existeRuta(Zona origen, Zona destino);
+
+    /**
+     * Asocia el calculador con el grafo sobre el que debe operar.
+     * GrafoDirigido lo invoca al recibir el calculador en su constructor o en setCalculadorRutas.
+     *
+     * @param grafo Grafo que usará el calculador
+     */
+    default void vincularGrafo(GrafoDirigido grafo) {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Interfaces;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Estructuras.Ruta;
+
+/**
+ * Interfaz para recibir avisos cuando cambia el estado de una ruta
+ * (apertura o cierre, distancia, tiempo, riesgo o capacidad)
+ */
+public interface IObservadorRuta {
+
+    /**
+     * Se invoca después de que la ruta cambió
+     *
+     * @param ruta Ruta modificada
+     */
+    void rutaActualizada(Ruta ruta);
+}
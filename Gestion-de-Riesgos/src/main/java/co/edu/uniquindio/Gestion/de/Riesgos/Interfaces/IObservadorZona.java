@@ -0,0 +1,18 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Interfaces;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.Zona;
+
+/**
+ * Interfaz para recibir avisos cuando cambian las coordenadas de una zona
+ */
+public interface IObservadorZona {
+
+    /**
+     * Se invoca después de que la zona cambió de coordenadas
+     *
+     * @param zona       Zona modificada
+     * @param xAnterior  coordenada X antes del cambio
+     * @param yAnterior  coordenada Y antes del cambio
+     */
+    void coordenadasActualizadas(Zona zona, double xAnterior, double yAnterior);
+}
@@ -25,6 +25,7 @@ public class Evacuacion {
     private String responsable;
     private String zonaOrigen;
     private String zonaDestino;
+    private Double tiempoEstimadoProgramado;
     
     /**
      * Enum para representar el estado de la evacuación
@@ -122,6 +123,7 @@ public class Evacuacion {
         if (estaCompletada()) {
             this.estado = EstadoEvacuacion.COMPLETADA;
             this.fechaFin = LocalDateTime.now();
+            this.tiempoEstimadoProgramado = null;
         } else if (this.personasEvacuadas > 0) {
             this.estado = EstadoEvacuacion.EN_PROGRESO;
         }
@@ -143,6 +145,7 @@ public class Evacuacion {
     public void cancelarEvacuacion() {
         this.estado = EstadoEvacuacion.CANCELADA;
         this.fechaFin = LocalDateTime.now();
+        this.tiempoEstimadoProgramado = null;
     }
     
     /**
@@ -151,6 +154,7 @@ public class Evacuacion {
     public void suspenderEvacuacion() {
         if (estado == EstadoEvacuacion.EN_PROGRESO) {
             this.estado = EstadoEvacuacion.SUSPENDIDA;
+            this.tiempoEstimadoProgramado = null;
         }
     }
     
@@ -246,6 +250,9 @@ public class Evacuacion {
     
     public void setEstado(EstadoEvacuacion estado) {
         this.estado = estado;
+        if (estado != EstadoEvacuacion.PLANIFICADA && estado != EstadoEvacuacion.EN_PROGRESO) {
+            this.tiempoEstimadoProgramado = null;
+        }
     }
     
     public String getResponsable() {
@@ -272,6 +279,19 @@ public class Evacuacion {
         this.zonaDestino = zonaDestino;
     }
     
+    /**
+     * Horas hasta completar la evacuación según la última programación de la cola, que
+     * considera el caudal de las rutas compartidas con las demás evacuaciones. Es null si no
+     * se programó o si la evacuación ya no está planificada ni en progreso.
+     */
+    public Double getTiempoEstimadoProgramado() {
+        return tiempoEstimadoProgramado;
+    }
+    
+    public void setTiempoEstimadoProgramado(Double tiempoEstimadoProgramado) {
+        this.tiempoEstimadoProgramado = tiempoEstimadoProgramado;
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -2,19 +2,28 @@
 package co.edu.uniquindio.Gestion.de.Riesgos.Model;
 
 
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.CriterioRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.EstrategiaRuta;
 import co.edu.uniquindio.Gestion.de.Riesgos.Enums.NivelUrgencia;
 import co.edu.uniquindio.Gestion.de.Riesgos.Enums.TipoRecurso;
 import co.edu.uniquindio.Gestion.de.Riesgos.Enums.TipoRuta;
 import co.edu.uniquindio.Gestion.de.Riesgos.Estructuras.*;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Clase central del sistema de gestión de desastres naturales.
  * Gestiona todas las entidades principales del sistema.
  */
 public class SistemaGestionDesastres {
+    private static final double INTERVALO_PROGRAMACION = 0.25;
+    
     private List<Usuario> usuarios;
     private List<Recurso> recursos;
     private List<Evacuacion> evacuaciones;
@@ -25,6 +34,12 @@ public class SistemaGestionDesastres {
     private ColaPrioridad colaPrioridad;
     private MapaRecursos mapaRecursos;
     private ArbolDistribucion arbolDistribucion;
+    private Map<String, ArbolCaminosDinamico> arbolesRefugios;
+    private IndiceEspacial indiceZonas;
+    private CriterioRuta criterioTablaDistancias;
+    private EstrategiaRuta estrategiaRutas;
+    private Path archivoInstantanea;
+    private volatile List<Zona> zonasInstantanea;
     
     public SistemaGestionDesastres() {
         this.usuarios = new ArrayList<>();
@@ -37,6 +52,9 @@ public class SistemaGestionDesastres {
         this.colaPrioridad = new ColaPrioridad();
         this.mapaRecursos = new MapaRecursos();
         this.arbolDistribucion = new ArbolDistribucion();
+        this.arbolesRefugios = new LinkedHashMap<>();
+        this.indiceZonas = new IndiceEspacial();
+        this.estrategiaRutas = EstrategiaRuta.DIJKSTRA;
     }
     
     /**
@@ -44,12 +62,16 @@ public class SistemaGestionDesastres {
      */
     public void inicializarSistema() {
         System.out.println("Inicializando Sistema de Gestión de Desastres...");
+        adoptarInstantanea();
         
         // Inicializar estructuras de datos
         grafoDirigido = new GrafoDirigido();
+        grafoDirigido.activarTablaDistancias(criterioTablaDistancias);
+        aplicarEstrategiaRutas();
         colaPrioridad = new ColaPrioridad();
         mapaRecursos = new MapaRecursos();
         arbolDistribucion = new ArbolDistribucion();
+        arbolesRefugios = new LinkedHashMap<>();
         
         System.out.println("Sistema inicializado correctamente");
     }
@@ -104,6 +126,7 @@ public class SistemaGestionDesastres {
      * Agrega una ruta al sistema
      */
     public boolean agregarRuta(Ruta ruta) {
+        adoptarInstantanea();
         if (ruta != null && !rutas.contains(ruta)) {
             rutas.add(ruta);
             grafoDirigido.agregarArista(ruta);
@@ -112,12 +135,25 @@ public class SistemaGestionDesastres {
         return false;
     }
     
+    /**
+     * Elimina una ruta del sistema y del grafo
+     */
+    public boolean eliminarRuta(String idRuta) {
+        Ruta ruta = buscarRuta(idRuta);
+        if (ruta == null) return false;
+        rutas.remove(ruta);
+        grafoDirigido.eliminarArista(ruta);
+        return true;
+    }
+    
     /**
      * Agrega una zona al sistema
      */
     public boolean agregarZona(Zona zona) {
+        adoptarInstantanea();
         if (zona != null && !zonas.contains(zona)) {
             zonas.add(zona);
+            indiceZonas.insertar(zona);
             return true;
         }
         return false;
@@ -138,6 +174,7 @@ public class SistemaGestionDesastres {
      * Obtiene estadísticas generales del sistema
      */
     public String obtenerEstadisticasGenerales() {
+        adoptarInstantanea();
         StringBuilder stats = new StringBuilder();
         stats.append("=== ESTADÍSTICAS DEL SISTEMA ===\n");
         stats.append("Usuarios registrados: ").append(usuarios.size()).append("\n");
@@ -158,8 +195,8 @@ public class SistemaGestionDesastres {
     public Ruta conectarZonas(String idRuta, String idOrigen, String idDestino,
                               double distancia, double tiempo,
                               TipoRuta tipo) {
-        Zona origen = zonas.stream().filter(z -> z.getId().equals(idOrigen)).findFirst().orElse(null);
-        Zona destino = zonas.stream().filter(z -> z.getId().equals(idDestino)).findFirst().orElse(null);
+        Zona origen = buscarZona(idOrigen);
+        Zona destino = buscarZona(idDestino);
         if (origen == null || destino == null) return null;
 
         Ruta r =
@@ -178,8 +215,8 @@ public class SistemaGestionDesastres {
      * Retorna la secuencia de Zonas que conforma la ruta más corta (por distancia).
      */
     public java.util.List<Zona> calcularRutaMasCorta(String idOrigen, String idDestino) {
-        Zona o = zonas.stream().filter(z -> z.getId().equals(idOrigen)).findFirst().orElse(null);
-        Zona d = zonas.stream().filter(z -> z.getId().equals(idDestino)).findFirst().orElse(null);
+        Zona o = buscarZona(idOrigen);
+        Zona d = buscarZona(idDestino);
         if (o == null || d == null) return java.util.List.of();
         return grafoDirigido.calcularRutaMasCorta(o, d);
     }
@@ -188,13 +225,311 @@ public class SistemaGestionDesastres {
      * Retorna la mejor ruta por tiempo estimado entre dos zonas (si existe).
      */
     public Ruta calcularRutaMasRapida(String idOrigen, String idDestino) {
-        Zona o = zonas.stream().filter(z -> z.getId().equals(idOrigen)).findFirst().orElse(null);
-        Zona d = zonas.stream().filter(z -> z.getId().equals(idDestino)).findFirst().orElse(null);
+        Zona o = buscarZona(idOrigen);
+        Zona d = buscarZona(idDestino);
         if (o == null || d == null) return null;
         return grafoDirigido.calcularRutaMasRapida(o, d);
     }
 
 
+    /**
+     * Retorna hasta k caminos alternativos entre dos zonas, ordenados por el criterio indicado.
+     */
+    public List<Camino> calcularRutasAlternativas(String idOrigen, String idDestino, int k, CriterioRuta criterio) {
+        Zona o = buscarZona(idOrigen);
+        Zona d = buscarZona(idDestino);
+        if (o == null || d == null) return new ArrayList<>();
+        return grafoDirigido.calcularKRutasMasCortas(o, d, k, criterio);
+    }
+
+    /**
+     * Retorna el mejor camino entre dos zonas según el criterio usando solo las rutas que admite el filtro
+     */
+    public Camino calcularRutaFiltrada(String idOrigen, String idDestino, CriterioRuta criterio, FiltroRutas filtro) {
+        Zona o = buscarZona(idOrigen);
+        Zona d = buscarZona(idDestino);
+        if (o == null || d == null) return null;
+        return grafoDirigido.calcularMejorCamino(o, d, criterio, filtro);
+    }
+
+    /**
+     * Retorna el camino entre dos zonas cuyo tramo más angosto tiene más capacidad disponible
+     */
+    public Camino calcularRutaMasAncha(String idOrigen, String idDestino) {
+        Zona o = buscarZona(idOrigen);
+        Zona d = buscarZona(idDestino);
+        if (o == null || d == null) return null;
+        return grafoDirigido.calcularCaminoMasAncho(o, d);
+    }
+
+    /**
+     * Retorna el itinerario de llegada más temprana entre dos zonas saliendo en el instante
+     * indicado, según el perfil horario y la congestión actual de cada ruta
+     */
+    public Itinerario calcularItinerario(String idOrigen, String idDestino, LocalDateTime salida) {
+        Zona o = buscarZona(idOrigen);
+        Zona d = buscarZona(idDestino);
+        if (o == null || d == null) return null;
+        return grafoDirigido.calcularItinerario(o, d, salida);
+    }
+
+    /**
+     * Asigna a la ruta su perfil de tiempo de viaje por hora del día (null para volver al tiempo estimado fijo)
+     *
+     * @return false si la ruta no existe
+     */
+    public boolean asignarPerfilTiempo(String idRuta, PerfilTiempo perfil) {
+        Ruta ruta = buscarRuta(idRuta);
+        if (ruta == null) return false;
+        ruta.setPerfilTiempo(perfil);
+        return true;
+    }
+
+    /**
+     * Retorna las zonas alcanzables desde una zona en el tiempo indicado (en horas),
+     * con el tiempo de llegada a cada una
+     */
+    public Map<String, Double> calcularZonasAlcanzables(String idOrigen, double tiempoMaximo) {
+        Zona o = buscarZona(idOrigen);
+        if (o == null) return new LinkedHashMap<>();
+        return grafoDirigido.calcularIsocrona(o, tiempoMaximo);
+    }
+
+    /**
+     * Retorna las zonas a las que el equipo puede llegar desde su ubicación actual en el tiempo indicado (en horas)
+     */
+    public Map<String, Double> calcularAlcanceEquipo(String idEquipo, double tiempoMaximo) {
+        EquipoRescate equipo = buscarEquipo(idEquipo);
+        if (equipo == null || equipo.getUbicacionActual() == null) return new LinkedHashMap<>();
+        return calcularZonasAlcanzables(equipo.getUbicacionActual(), tiempoMaximo);
+    }
+
+    /**
+     * Retorna las k zonas más cercanas a un punto, de la más cercana a la más lejana
+     */
+    public List<Zona> buscarZonasCercanas(double coordenadaX, double coordenadaY, int k) {
+        adoptarInstantanea();
+        return indiceZonas.buscarMasCercanas(coordenadaX, coordenadaY, k);
+    }
+
+    /**
+     * Retorna la zona más cercana a un punto (null si no hay zonas)
+     */
+    public Zona buscarZonaMasCercana(double coordenadaX, double coordenadaY) {
+        adoptarInstantanea();
+        return indiceZonas.buscarMasCercana(coordenadaX, coordenadaY);
+    }
+
+    /**
+     * Retorna las zonas cuyas coordenadas están dentro del rectángulo indicado
+     */
+    public List<Zona> buscarZonasEnRectangulo(double minimoX, double minimoY, double maximoX, double maximoY) {
+        adoptarInstantanea();
+        return indiceZonas.buscarEnRectangulo(minimoX, minimoY, maximoX, maximoY);
+    }
+
+    /**
+     * Retorna hasta maximo caminos entre dos zonas que no son peores en distancia, tiempo y riesgo
+     * a la vez que ningún otro, ordenados por distancia.
+     */
+    public List<Camino> calcularAlternativasPareto(String idOrigen, String idDestino, int maximo) {
+        Zona o = buscarZona(idOrigen);
+        Zona d = buscarZona(idDestino);
+        if (o == null || d == null) return new ArrayList<>();
+        return grafoDirigido.calcularFrentePareto(o, d, maximo);
+    }
+
+
+    /**
+     * Retorna la matriz de costos entre cada zona origen y cada zona destino según el criterio
+     * (por defecto, tiempo estimado), por ejemplo de la ubicación de los equipos a las zonas críticas.
+     */
+    public double[][] calcularMatrizCostos(List<String> idsOrigen, List<String> idsDestino, CriterioRuta criterio) {
+        if (idsOrigen == null || idsDestino == null) return new double[0][0];
+        return grafoDirigido.calcularMatrizCostos(idsOrigen, idsDestino, criterio != null ? criterio : CriterioRuta.TIEMPO);
+    }
+
+    /**
+     * Activa la tabla de costos entre todos los pares de zonas para el criterio. Con ella las
+     * matrices y los costos mínimos de ese criterio son lecturas directas, a cambio de memoria
+     * cuadrática en el número de zonas y de reconstruirla en segundo plano tras cada cambio de
+     * rutas, así que está desactivada por defecto y solo conviene si se piden matrices a menudo.
+     *
+     * @param criterio criterio de la tabla, o null para desactivarla
+     */
+    public void activarTablaDistancias(CriterioRuta criterio) {
+        criterioTablaDistancias = criterio;
+        grafoDirigido.activarTablaDistancias(criterio);
+    }
+
+    /**
+     * Criterio de la tabla de distancias activa, o null si está desactivada
+     */
+    public CriterioRuta getCriterioTablaDistancias() {
+        return criterioTablaDistancias;
+    }
+
+    /**
+     * Selecciona la estrategia de ruta más corta del grafo y construye su índice en el hilo que
+     * llama, así que conviene invocarla al arrancar, después de cargar las zonas y rutas.
+     * Los cambios posteriores de rutas reconstruyen el índice en segundo plano. El índice de
+     * ALT se guarda y se carga junto a la última instantánea del grafo guardada o cargada.
+     *
+     * @param estrategia estrategia a usar, o null para Dijkstra
+     */
+    public void seleccionarEstrategiaRutas(EstrategiaRuta estrategia) {
+        estrategiaRutas = estrategia != null ? estrategia : EstrategiaRuta.DIJKSTRA;
+        aplicarEstrategiaRutas();
+    }
+
+    public EstrategiaRuta getEstrategiaRutas() {
+        return estrategiaRutas;
+    }
+
+    /**
+     * Instala en el grafo actual el calculador de la estrategia seleccionada
+     */
+    private void aplicarEstrategiaRutas() {
+        switch (estrategiaRutas) {
+            case CONTRACCION_JERARQUICA:
+                RutaContraccionJerarquica contraccion = new RutaContraccionJerarquica();
+                grafoDirigido.setCalculadorRutas(contraccion);
+                contraccion.construirIndice();
+                break;
+            case ALT:
+                RutaALT alt = new RutaALT(IndiceLandmarks.LANDMARKS_POR_DEFECTO,
+                        archivoInstantanea != null ? archivoLandmarks(archivoInstantanea) : null);
+                grafoDirigido.setCalculadorRutas(alt);
+                alt.construirIndice();
+                break;
+            default:
+                grafoDirigido.setCalculadorRutas(null);
+        }
+    }
+
+    /**
+     * Retorna el costo mínimo entre dos zonas según el criterio (por defecto, tiempo estimado);
+     * por tiempo se lee de la tabla de distancias precalculada cuando está al día
+     */
+    public double calcularCostoMinimo(String idOrigen, String idDestino, CriterioRuta criterio) {
+        if (idOrigen == null || idDestino == null) return Double.POSITIVE_INFINITY;
+        return grafoDirigido.calcularCostoMinimo(idOrigen, idDestino, criterio != null ? criterio : CriterioRuta.TIEMPO);
+    }
+
+    /**
+     * Guarda el grafo de rutas en una instantánea binaria para acelerar el próximo arranque.
+     * Con la estrategia ALT también guarda su índice de landmarks junto a la instantánea.
+     *
+     * @throws IOException si no se puede escribir el archivo
+     */
+    public void guardarInstantaneaGrafo(Path archivo) throws IOException {
+        grafoDirigido.guardarInstantanea(archivo);
+        archivoInstantanea = archivo;
+        if (grafoDirigido.getCalculadorRutas() instanceof RutaALT) {
+            RutaALT alt = (RutaALT) grafoDirigido.getCalculadorRutas();
+            alt.setArchivoIndice(archivoLandmarks(archivo));
+            alt.guardarIndice();
+        }
+    }
+
+    /**
+     * Archivo del índice de landmarks que acompaña a una instantánea del grafo
+     */
+    public static Path archivoLandmarks(Path instantanea) {
+        return instantanea.resolveSibling(instantanea.getFileName() + ".landmarks");
+    }
+
+    /**
+     * Restaura las zonas, las rutas y el grafo de rutas desde una instantánea binaria (por
+     * ejemplo, al arrancar después de una caída). La versión compacta del archivo queda lista
+     * para consultas sin reconstruirla ruta por ruta. Las listas de zonas y rutas del sistema
+     * se llenan con las del grafo la primera vez que algo las recorre o las modifica, así que
+     * sus cambios llegan a las búsquedas; mientras tanto las consultas por id de zona no crean
+     * las rutas. Con la estrategia ALT se reutiliza
+     * el índice de landmarks guardado junto a la instantánea si corresponde al grafo.
+     *
+     * @throws IOException si el archivo no se puede leer o no tiene el formato esperado
+     * @throws IllegalStateException si el sistema ya tiene zonas o rutas
+     */
+    public void cargarInstantaneaGrafo(Path archivo) throws IOException {
+        if (!zonas.isEmpty() || !rutas.isEmpty() || zonasInstantanea != null) {
+            throw new IllegalStateException("La instantánea solo se puede cargar en un sistema sin zonas ni rutas");
+        }
+        GrafoDirigido grafo = new GrafoDirigido();
+        List<Zona> zonasGrafo = grafo.cargarInstantanea(archivo);
+        grafo.activarTablaDistancias(criterioTablaDistancias);
+
+        zonasInstantanea = zonasGrafo;
+        grafoDirigido = grafo;
+        archivoInstantanea = archivo;
+        aplicarEstrategiaRutas();
+        arbolesRefugios = new LinkedHashMap<>();
+    }
+
+    /**
+     * Pasa a las listas del sistema las zonas y rutas de la instantánea cargada, si quedan
+     * pendientes. Crea todas las rutas del grafo como objetos, así que solo se invoca desde las
+     * operaciones que recorren o modifican esas listas.
+     */
+    private synchronized void adoptarInstantanea() {
+        List<Zona> pendientes = zonasInstantanea;
+        if (pendientes == null) return;
+        zonas.addAll(pendientes);
+        rutas.addAll(grafoDirigido.getAristas());
+        indiceZonas.cargar(zonas);
+        zonasInstantanea = null;
+    }
+
+    /**
+     * Divide el grafo en celdas de a lo sumo el tamaño indicado para acelerar los caminos entre
+     * regiones (0 desactiva la partición)
+     *
+     * @return partición resultante, o null si quedó desactivada
+     */
+    public ParticionGrafo particionarGrafo(int tamanoMaximoCelda) {
+        grafoDirigido.particionar(tamanoMaximoCelda);
+        return grafoDirigido.obtenerParticion();
+    }
+
+    /**
+     * Asigna cada zona del grafo al refugio (nodo REFUGIO o ZONA_EVACUACION) al que llega en menor tiempo
+     */
+    public AsignacionRefugios asignarRefugiosMasCercanos() {
+        return grafoDirigido.asignarRefugiosMasCercanos(CriterioRuta.TIEMPO);
+    }
+
+    /**
+     * Registra una zona como refugio. Se mantiene un árbol de caminos de menor tiempo
+     * hacia ella que se repara solo cuando se cierran o modifican rutas.
+     */
+    public boolean registrarRefugio(String idZona) {
+        Zona refugio = buscarZona(idZona);
+        if (refugio == null || arbolesRefugios.containsKey(idZona)) return false;
+        arbolesRefugios.put(idZona, grafoDirigido.crearArbolDinamico(refugio, CriterioRuta.TIEMPO, true));
+        return true;
+    }
+
+    /**
+     * Retorna el camino de menor tiempo desde la zona hasta el refugio registrado más cercano,
+     * o null si ningún refugio es alcanzable.
+     */
+    public Camino calcularCaminoAlRefugioMasCercano(String idZona) {
+        Zona zona = buscarZona(idZona);
+        if (zona == null) return null;
+
+        ArbolCaminosDinamico mejor = null;
+        double mejorTiempo = Double.POSITIVE_INFINITY;
+        for (ArbolCaminosDinamico arbol : arbolesRefugios.values()) {
+            double tiempo = arbol.distancia(zona);
+            if (tiempo < mejorTiempo) {
+                mejorTiempo = tiempo;
+                mejor = arbol;
+            }
+        }
+        return mejor != null ? mejor.obtenerCamino(zona) : null;
+    }
+
+
     /**
      * Simula el funcionamiento del sistema
      */
@@ -215,6 +550,16 @@ public class SistemaGestionDesastres {
     /** Busca una zona por ID (o null si no existe). */
     public Zona buscarZona(String id) {
         if (id == null) return null;
+        List<Zona> pendientes = zonasInstantanea;
+        if (pendientes != null) {
+            // Sin adoptar la instantánea: el índice del nodo en su versión compacta da la zona
+            GrafoCompacto compacto = grafoDirigido.obtenerGrafoCompacto();
+            if (compacto.esInstantanea()) {
+                int nodo = compacto.indiceDe(id);
+                return nodo >= 0 ? pendientes.get(nodo) : null;
+            }
+            adoptarInstantanea();
+        }
         for (Zona z : zonas) if (id.equals(z.getId())) return z;
         return null;
     }
@@ -236,6 +581,7 @@ public class SistemaGestionDesastres {
     /** Busca una ruta por ID (o null si no existe). */
     public Ruta buscarRuta(String id) {
         if (id == null) return null;
+        adoptarInstantanea();
         for (Ruta r : rutas) if (id.equals(r.getId())) return r;
         return null;
     }
@@ -244,8 +590,8 @@ public class SistemaGestionDesastres {
      * Devuelve la ruta con menor nivel de riesgo entre dos zonas (si existe).
      */
     public Ruta calcularRutaMasSegura(String idOrigen, String idDestino) {
-        Zona o = zonas.stream().filter(z -> z.getId().equals(idOrigen)).findFirst().orElse(null);
-        Zona d = zonas.stream().filter(z -> z.getId().equals(idDestino)).findFirst().orElse(null);
+        Zona o = buscarZona(idOrigen);
+        Zona d = buscarZona(idDestino);
         if (o == null || d == null) return null;
         return grafoDirigido.calcularRutaMasSegura(o, d);
     }
@@ -296,7 +642,9 @@ public class SistemaGestionDesastres {
     }
     /**
      * Planea una evacuación entre dos zonas:
-     * - Usa la ruta más rápida si existe; si no, registra origen/destino sin ruta.
+     * - Usa la ruta más rápida cuyos tramos tengan capacidad disponible para todas las personas;
+     *   si no existe, la de mayor capacidad, y si ninguna tiene cupo, la más rápida.
+     * - Si no hay ruta, registra origen/destino sin ruta.
      * - Encola la evacuación en la Cola de Prioridad.
      */
     public Evacuacion planificarEvacuacionEntreZonas(
@@ -311,7 +659,10 @@ public class SistemaGestionDesastres {
         Zona destino = buscarZona(idZonaDestino);
         if (origen == null || destino == null || personasAEvacuar <= 0) return null;
 
-        Ruta rutaElegida = calcularRutaMasRapida(idZonaOrigen, idZonaDestino);
+        // Primero el camino más rápido que admite a todos; si no lo hay, el de mayor capacidad
+        Camino camino = grafoDirigido.calcularCaminoConCapacidad(origen, destino, personasAEvacuar);
+        if (camino == null) camino = grafoDirigido.calcularCaminoMasAncho(origen, destino);
+        Ruta rutaElegida = camino != null ? camino.comoRuta() : calcularRutaMasRapida(idZonaOrigen, idZonaDestino);
 
         Evacuacion ev = new Evacuacion();
         ev.setId(idEvac);
@@ -328,11 +679,65 @@ public class SistemaGestionDesastres {
         }
 
         if (agregarEvacuacion(ev)) {
-            colaPrioridad.priorizar();
+            programarEvacuaciones();
             return ev;
         }
         return null;
     }
+    /**
+     * Planea la evacuación de varias zonas a la vez repartiendo a las personas entre
+     * rutas paralelas y refugios según su capacidad disponible (flujo de costo mínimo en tiempo):
+     * - Crea y encola una evacuación por cada grupo que comparte camino y refugio.
+     * - No reserva capacidad; la ocupación se actualiza al ejecutar las evacuaciones.
+     *
+     * Las evacuaciones se identifican como idBase-1, idBase-2, ...; si alguno de esos ids ya existe
+     * no se encola ninguna.
+     *
+     * @param idsRefugios refugios a usar, o null para los nodos REFUGIO y ZONA_EVACUACION activos
+     * @param urgencia nivel de las evacuaciones, o null para usar el de cada zona de origen (MEDIA si no es una zona del sistema)
+     * @return plan cuyas asignaciones quedaron todas encoladas, o null si no se pudo encolar el plan completo
+     * @throws IllegalArgumentException si el id base es nulo o vacío
+     */
+    public PlanFlujoEvacuacion planificarEvacuacionMasiva(
+            String idBase,
+            Map<String, Integer> personasPorZona,
+            List<String> idsRefugios,
+            NivelUrgencia urgencia,
+            String responsable) {
+
+        if (idBase == null || idBase.isBlank()) {
+            throw new IllegalArgumentException("Se requiere un id base para las evacuaciones");
+        }
+        if (personasPorZona == null || personasPorZona.isEmpty()) return null;
+        PlanFlujoEvacuacion plan = grafoDirigido.planificarFlujoEvacuacion(personasPorZona, idsRefugios);
+
+        List<Evacuacion> nuevas = new ArrayList<>();
+        int i = 1;
+        for (PlanFlujoEvacuacion.Asignacion asignacion : plan.getAsignaciones()) {
+            Zona origen = buscarZona(asignacion.getIdOrigen());
+            NivelUrgencia nivel = urgencia;
+            if (nivel == null) nivel = origen != null ? origen.getNivelUrgencia() : null;
+            if (nivel == null) nivel = NivelUrgencia.MEDIA;
+
+            Evacuacion ev = new Evacuacion();
+            ev.setId(idBase + "-" + i++);
+            ev.setNombre("Evacuación " + ev.getId());
+            ev.setNivelUrgencia(nivel);
+            ev.setPersonasAEvacuar(asignacion.getPersonas());
+            ev.setResponsable(responsable);
+            ev.setZonaOrigen(asignacion.getIdOrigen());
+            ev.setZonaDestino(asignacion.getIdRefugio());
+            ev.setRuta(asignacion.getCamino().comoRuta());
+            // Un id repetido haría que la evacuación se descartara: se revisa antes de encolar ninguna
+            if (evacuaciones.contains(ev)) return null;
+            nuevas.add(ev);
+        }
+        for (Evacuacion ev : nuevas) {
+            agregarEvacuacion(ev);
+        }
+        programarEvacuaciones();
+        return plan;
+    }
 
     /**
      * Procesar y completar evacuaciones
@@ -380,6 +785,7 @@ public class SistemaGestionDesastres {
      * Devuelve las N zonas más críticas ordenadas por nivel de riesgo y población afectada.
      */
     public java.util.List<Zona> topZonasCriticas(int n) {
+        adoptarInstantanea();
         return zonas.stream()
                 .sorted((a, b) -> {
                     int cmp = Integer.compare(b.getNivelRiesgo().getValor(), a.getNivelRiesgo().getValor());
@@ -400,6 +806,7 @@ public class SistemaGestionDesastres {
      */
     public String generarReporteGeneral() {
         StringBuilder sb = new StringBuilder();
+        adoptarInstantanea();
         sb.append("=== REPORTE GENERAL ===\n");
         sb.append("Usuarios: ").append(usuarios.size()).append("\n");
         sb.append("Zonas: ").append(zonas.size()).append("\n");
@@ -409,6 +816,7 @@ public class SistemaGestionDesastres {
         sb.append("Evacuaciones: ").append(evacuaciones.size()).append("\n\n");
 
         sb.append(grafoDirigido.generarEstadisticas()).append("\n\n");
+        sb.append(grafoDirigido.getCacheRutas().generarEstadisticas()).append("\n\n");
         sb.append(colaPrioridad.generarEstadisticas()).append("\n\n");
         sb.append(mapaRecursos.generarEstadisticas()).append("\n");
 
@@ -447,6 +855,11 @@ public class SistemaGestionDesastres {
         if (grafoDirigido != null && nodo != null) grafoDirigido.agregarNodo(nodo);
     }
 
+    public CacheRutas obtenerCacheRutas() {
+        if (grafoDirigido == null) return null;
+        return grafoDirigido.getCacheRutas();
+    }
+
     public Nodo obtenerNodoGrafo(String id) {
         if (grafoDirigido == null || id == null) return null;
         return grafoDirigido.obtenerNodo(id);
@@ -467,6 +880,27 @@ public class SistemaGestionDesastres {
         return grafoDirigido.existeRuta(idOrigen, idDestino);
     }
 
+    /**
+     * Indica si se puede llegar de una zona a otra por rutas activas, pasando por otras zonas si hace falta
+     */
+    public boolean esAlcanzableEnGrafo(String idOrigen, String idDestino) {
+        if (grafoDirigido == null || idOrigen == null || idDestino == null) return false;
+        return grafoDirigido.esAlcanzable(idOrigen, idDestino);
+    }
+
+    /**
+     * Zonas que quedaron sin camino por rutas activas hacia algún refugio o zona de evacuación
+     */
+    public List<Zona> obtenerZonasIncomunicadas() {
+        if (grafoDirigido == null) return new ArrayList<>();
+        List<Zona> incomunicadas = new ArrayList<>();
+        for (String id : grafoDirigido.obtenerZonasIncomunicadas(null)) {
+            Zona zona = buscarZona(id);
+            if (zona != null) incomunicadas.add(zona);
+        }
+        return incomunicadas;
+    }
+
     // ColaPrioridad
     public Evacuacion verSiguienteEvacuacionCola() {
         if (colaPrioridad == null) return null;
@@ -495,6 +929,14 @@ public class SistemaGestionDesastres {
         if (colaPrioridad != null) colaPrioridad.priorizar();
     }
 
+    /**
+     * Recalcula los tiempos estimados de las evacuaciones en cola según el caudal de las
+     * rutas que comparten (intervalos de 15 minutos) y vuelve a priorizar la cola
+     */
+    public ProgramaEvacuaciones programarEvacuaciones() {
+        return colaPrioridad.programar(grafoDirigido, INTERVALO_PROGRAMACION);
+    }
+
     // ArbolDistribucion
     public void crearNodoRaizArbol(Recurso recurso, int cantidad) {
         if (arbolDistribucion != null) arbolDistribucion.crearNodoRaiz(recurso, cantidad);
@@ -563,10 +1005,12 @@ public class SistemaGestionDesastres {
     }
     
     public List<Ruta> getRutas() {
+        adoptarInstantanea();
         return new ArrayList<>(rutas);
     }
     
     public List<Zona> getZonas() {
+        adoptarInstantanea();
         return new ArrayList<>(zonas);
     }
     
@@ -592,6 +1036,7 @@ public class SistemaGestionDesastres {
     
     @Override
     public String toString() {
+        adoptarInstantanea();
         return String.format("SistemaGestionDesastres{usuarios=%d, recursos=%d, evacuaciones=%d, rutas=%d, zonas=%d, equipos=%d}", 
             usuarios.size(), recursos.size(), evacuaciones.size(), rutas.size(), zonas.size(), equipos.size());
     }
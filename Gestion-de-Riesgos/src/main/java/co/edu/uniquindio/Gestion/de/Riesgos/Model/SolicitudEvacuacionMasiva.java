@@ -0,0 +1,61 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Model;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.NivelUrgencia;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Datos de una solicitud de evacuación masiva: personas por zona de origen,
+ * refugios a usar y datos comunes de las evacuaciones que se crean
+ */
+public class SolicitudEvacuacionMasiva {
+    private String id;
+    private Map<String, Integer> personasPorZona;
+    private List<String> refugios;
+    private NivelUrgencia nivelUrgencia;
+    private String responsable;
+    
+    public SolicitudEvacuacionMasiva() {
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public Map<String, Integer> getPersonasPorZona() {
+        return personasPorZona;
+    }
+    
+    public void setPersonasPorZona(Map<String, Integer> personasPorZona) {
+        this.personasPorZona = personasPorZona;
+    }
+    
+    public List<String> getRefugios() {
+        return refugios;
+    }
+    
+    public void setRefugios(List<String> refugios) {
+        this.refugios = refugios;
+    }
+    
+    public NivelUrgencia getNivelUrgencia() {
+        return nivelUrgencia;
+    }
+    
+    public void setNivelUrgencia(NivelUrgencia nivelUrgencia) {
+        this.nivelUrgencia = nivelUrgencia;
+    }
+    
+    public String getResponsable() {
+        return responsable;
+    }
+    
+    public void setResponsable(String responsable) {
+        this.responsable = responsable;
+    }
+}
@@ -1,8 +1,11 @@
 package co.edu.uniquindio.Gestion.de.Riesgos.Model;
 
 import co.edu.uniquindio.Gestion.de.Riesgos.Enums.NivelUrgencia;
+import co.edu.uniquindio.Gestion.de.Riesgos.Interfaces.IObservadorZona;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Clase que representa una zona en el sistema de gestión de desastres
@@ -17,8 +20,10 @@ public class Zona {
     private double coordenadaY;
     private int poblacionAfectada;
     private boolean activa;
+    private final List<IObservadorZona> observadores;
     
     public Zona() {
+        this.observadores = new CopyOnWriteArrayList<>();
         this.activa = true;
         this.poblacionAfectada = 0;
         this.nivelRiesgo = NivelUrgencia.BAJA;
@@ -118,7 +123,9 @@ public class Zona {
     }
     
     public void setCoordenadaX(double coordenadaX) {
+        double anterior = this.coordenadaX;
         this.coordenadaX = coordenadaX;
+        if (anterior != coordenadaX) notificarCambioCoordenadas(anterior, coordenadaY);
     }
     
     public double getCoordenadaY() {
@@ -126,7 +133,28 @@ public class Zona {
     }
     
     public void setCoordenadaY(double coordenadaY) {
+        double anterior = this.coordenadaY;
         this.coordenadaY = coordenadaY;
+        if (anterior != coordenadaY) notificarCambioCoordenadas(coordenadaX, anterior);
+    }
+    
+    /**
+     * Registra un observador que recibe los cambios de coordenadas de la zona
+     */
+    public void agregarObservador(IObservadorZona observador) {
+        if (observador != null && !observadores.contains(observador)) {
+            observadores.add(observador);
+        }
+    }
+    
+    public void eliminarObservador(IObservadorZona observador) {
+        observadores.remove(observador);
+    }
+    
+    private void notificarCambioCoordenadas(double xAnterior, double yAnterior) {
+        for (IObservadorZona observador : observadores) {
+            observador.coordenadasActualizadas(this, xAnterior, yAnterior);
+        }
     }
     
     public int getPoblacionAfectada() {
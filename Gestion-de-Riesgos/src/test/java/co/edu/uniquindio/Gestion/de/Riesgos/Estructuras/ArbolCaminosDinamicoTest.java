@@ -0,0 +1,93 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.CriterioRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.Zona;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArbolCaminosDinamicoTest {
+
+	/**
+	 * Compara la distancia y el camino de cada zona del árbol con un Dijkstra desde cero
+	 */
+	private void verificar(GrafoDirigido grafo, ArbolCaminosDinamico arbol, Zona raiz) {
+		GrafoCompacto compacto = grafo.obtenerGrafoCompacto();
+		double[] esperadas = GrafosDePrueba.dijkstra(compacto, compacto.indiceDe(raiz.getId()),
+				arbol.getCriterio(), arbol.isHaciaRaiz());
+		for (Zona zona : zonas(grafo).values()) {
+			double esperada = esperadas[compacto.indiceDe(zona.getId())];
+			assertEquals(esperada, arbol.distancia(zona), 1e-9);
+			Camino camino = arbol.obtenerCamino(zona);
+			if (esperada == Double.POSITIVE_INFINITY) {
+				assertNull(camino);
+			} else {
+				assertEquals(esperada, camino.calcularCosto(arbol.getCriterio()), 1e-9);
+			}
+		}
+	}
+
+	private Map<String, Zona> zonas(GrafoDirigido grafo) {
+		Map<String, Zona> zonas = new HashMap<>();
+		for (Ruta ruta : grafo.getAristas()) {
+			zonas.put(ruta.getOrigen().getId(), ruta.getOrigen());
+			zonas.put(ruta.getDestino().getId(), ruta.getDestino());
+		}
+		return zonas;
+	}
+
+	@Test
+	void seMantieneIgualADijkstraAlCambiarLasRutas() {
+		for (boolean haciaRaiz : new boolean[]{true, false}) {
+			GrafoDirigido grafo = GrafosDePrueba.grilla(64, haciaRaiz ? 3 : 4);
+			List<Ruta> rutas = grafo.getAristas();
+			Zona raiz = rutas.get(0).getOrigen();
+			ArbolCaminosDinamico porTiempo = grafo.crearArbolDinamico(raiz, CriterioRuta.TIEMPO, haciaRaiz);
+			ArbolCaminosDinamico porDistancia = grafo.crearArbolDinamico(raiz, CriterioRuta.DISTANCIA, haciaRaiz);
+			verificar(grafo, porTiempo, raiz);
+			verificar(grafo, porDistancia, raiz);
+
+			Random aleatorio = new Random(17);
+			int reparados = 0;
+			for (int cambio = 0; cambio < 200; cambio++) {
+				Ruta ruta = rutas.get(aleatorio.nextInt(rutas.size()));
+				switch (aleatorio.nextInt(4)) {
+					case 0:
+						ruta.setTiempoEstimado(ruta.getTiempoEstimado() * (0.2 + aleatorio.nextDouble() * 3.0));
+						break;
+					case 1:
+						ruta.setDistancia(ruta.getDistancia() * (0.2 + aleatorio.nextDouble() * 3.0));
+						break;
+					default:
+						ruta.setActiva(!ruta.isActiva());
+						break;
+				}
+				reparados += porTiempo.getNodosReparados();
+				verificar(grafo, porTiempo, raiz);
+				verificar(grafo, porDistancia, raiz);
+			}
+			// Cada cambio repara solo una parte del árbol
+			assertTrue(reparados > 0 && reparados < 200 * 64 / 4);
+		}
+	}
+
+	@Test
+	void seReconstruyeAlAgregarRutas() {
+		GrafoDirigido grafo = GrafosDePrueba.grilla(25, 8);
+		List<Ruta> rutas = grafo.getAristas();
+		Zona raiz = rutas.get(0).getOrigen();
+		ArbolCaminosDinamico arbol = grafo.crearArbolDinamico(raiz, CriterioRuta.TIEMPO, false);
+		verificar(grafo, arbol, raiz);
+
+		Zona lejana = rutas.get(rutas.size() - 1).getDestino();
+		grafo.agregarArista(GrafosDePrueba.ruta(raiz, lejana, new Random(1)));
+
+		verificar(grafo, arbol, raiz);
+		assertTrue(grafo.eliminarArbolDinamico(arbol));
+	}
+}
@@ -0,0 +1,65 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlujoCostoMinimoTest {
+
+	/**
+	 * Red de ejemplo: 0 es la fuente y 3 el sumidero, con dos caminos baratos de poca
+	 * capacidad y uno caro sin límite; el arco 1->2 permite combinar los baratos
+	 */
+	private FlujoCostoMinimo red(int[] arcos) {
+		FlujoCostoMinimo red = new FlujoCostoMinimo(4);
+		arcos[0] = red.agregarArco(0, 1, 4, 1.0);
+		arcos[1] = red.agregarArco(0, 2, 2, 2.0);
+		arcos[2] = red.agregarArco(1, 2, 3, 1.0);
+		arcos[3] = red.agregarArco(1, 3, 2, 3.0);
+		arcos[4] = red.agregarArco(2, 3, 3, 1.0);
+		arcos[5] = red.agregarArco(0, 3, FlujoCostoMinimo.ILIMITADA, 10.0);
+		return red;
+	}
+
+	@Test
+	void enviaElFlujoPedidoAlMenorCosto() {
+		int[] arcos = new int[6];
+		FlujoCostoMinimo red = red(arcos);
+
+		// Caminos: 0-1-2-3 cuesta 3, 0-2-3 cuesta 3, 0-1-3 cuesta 4 y 0-3 cuesta 10;
+		// 1-2 y 2-3 se comparten, así que con 5 unidades: 3 por 0-1-2-3 o 0-2-3 y 2 por 0-1-3
+		assertEquals(5L, red.resolver(0, 3, 5));
+		assertEquals(3.0 * 3 + 2 * 4, red.getCostoTotal(), 1e-9);
+
+		// Conservación en los nodos intermedios y capacidades respetadas
+		assertEquals(red.flujo(arcos[0]), red.flujo(arcos[2]) + red.flujo(arcos[3]));
+		assertEquals(red.flujo(arcos[1]) + red.flujo(arcos[2]), red.flujo(arcos[4]));
+		assertTrue(red.flujo(arcos[4]) <= 3 && red.flujo(arcos[3]) <= 2 && red.flujo(arcos[0]) <= 4);
+		assertEquals(0L, red.flujo(arcos[5]));
+	}
+
+	@Test
+	void seContinuaDondeQuedoLaLlamadaAnterior() {
+		int[] arcos = new int[6];
+		FlujoCostoMinimo porPartes = red(arcos);
+		assertEquals(3L, porPartes.resolver(0, 3, 3));
+		assertEquals(4L, porPartes.resolver(0, 3, 4));
+
+		FlujoCostoMinimo deUnaVez = red(new int[6]);
+		assertEquals(7L, deUnaVez.resolver(0, 3, 7));
+
+		// Después de llenar los caminos baratos (5 unidades) el resto va por el arco caro
+		assertEquals(7L, porPartes.getFlujoTotal());
+		assertEquals(deUnaVez.getCostoTotal(), porPartes.getCostoTotal(), 1e-9);
+		assertEquals(3.0 * 3 + 2 * 4 + 2 * 10, porPartes.getCostoTotal(), 1e-9);
+		assertEquals(2L, porPartes.flujo(arcos[5]));
+	}
+
+	@Test
+	void sinCaminoNoEnviaNada() {
+		FlujoCostoMinimo red = new FlujoCostoMinimo(3);
+		red.agregarArco(0, 1, 5, 1.0);
+		assertEquals(0L, red.resolver(0, 2, 10));
+		assertEquals(0.0, red.getCostoTotal(), 0.0);
+	}
+}
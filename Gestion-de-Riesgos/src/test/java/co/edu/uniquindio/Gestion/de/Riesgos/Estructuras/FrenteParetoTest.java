@@ -0,0 +1,154 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.NivelUrgencia;
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.TipoRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.Zona;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrenteParetoTest {
+
+	private static final int NODOS = 9;
+
+	/**
+	 * Grafo pequeño con pesos aleatorios en conflicto entre distancia, tiempo y riesgo
+	 */
+	private GrafoDirigido grafoAleatorio(long semilla) {
+		Random aleatorio = new Random(semilla);
+		List<Zona> zonas = new ArrayList<>();
+		for (int i = 0; i < NODOS; i++) {
+			zonas.add(new Zona("Z" + i, "Zona " + i, NivelUrgencia.MEDIA));
+		}
+		List<Ruta> rutas = new ArrayList<>();
+		for (int i = 0; i < NODOS; i++) {
+			for (int j = 0; j < NODOS; j++) {
+				if (i == j || aleatorio.nextDouble() > (j > i ? 0.8 : 0.2)) continue;
+				// Los tres pesos se reparten una misma cantidad, así que mejorar uno empeora otro
+				double a = aleatorio.nextDouble();
+				double b = aleatorio.nextDouble();
+				double c = aleatorio.nextDouble();
+				double suma = a + b + c;
+				Ruta ruta = new Ruta("R" + i + "-" + j, zonas.get(i), zonas.get(j), 1.0 + 9.0 * a / suma,
+						1.0 + 9.0 * b / suma, TipoRuta.TERRESTRE);
+				ruta.setNivelRiesgo(c / suma);
+				rutas.add(ruta);
+			}
+		}
+		GrafoDirigido grafo = new GrafoDirigido();
+		grafo.agregarAristas(rutas);
+		return grafo;
+	}
+
+	private static double[] costos(Camino camino) {
+		return new double[]{camino.getDistanciaTotal(), camino.getTiempoTotal(), camino.getRiesgoTotal()};
+	}
+
+	/**
+	 * Todos los caminos simples entre dos zonas; con pesos positivos ningún ciclo mejora un criterio
+	 */
+	private void enumerar(GrafoDirigido grafo, String actual, String destino, List<Ruta> tramos,
+						  List<String> visitados, List<Camino> caminos) {
+		if (actual.equals(destino)) {
+			caminos.add(new Camino(tramos));
+			return;
+		}
+		for (Ruta ruta : grafo.obtenerRutasDesde(actual)) {
+			String siguiente = ruta.getDestino().getId();
+			if (visitados.contains(siguiente)) continue;
+			tramos.add(ruta);
+			visitados.add(siguiente);
+			enumerar(grafo, siguiente, destino, tramos, visitados, caminos);
+			visitados.remove(visitados.size() - 1);
+			tramos.remove(tramos.size() - 1);
+		}
+	}
+
+	private List<double[]> frenteExacto(GrafoDirigido grafo, String origen, String destino) {
+		List<Camino> caminos = new ArrayList<>();
+		List<String> visitados = new ArrayList<>(List.of(origen));
+		enumerar(grafo, origen, destino, new ArrayList<>(), visitados, caminos);
+		List<double[]> frente = new ArrayList<>();
+		for (Camino camino : caminos) {
+			double[] c = costos(camino);
+			boolean dominado = false;
+			for (Camino otro : caminos) {
+				double[] o = costos(otro);
+				if (o[0] <= c[0] && o[1] <= c[1] && o[2] <= c[2] && (o[0] < c[0] || o[1] < c[1] || o[2] < c[2])) {
+					dominado = true;
+					break;
+				}
+			}
+			if (!dominado) frente.add(c);
+		}
+		return frente;
+	}
+
+	private static boolean cubre(double[] a, double[] b, double factor) {
+		return a[0] <= b[0] * factor + 1e-9 && a[1] <= b[1] * factor + 1e-9 && a[2] <= b[2] * factor + 1e-9;
+	}
+
+	@Test
+	void sinToleranciaCoincideConLaFuerzaBruta() {
+		for (long semilla = 1; semilla <= 20; semilla++) {
+			GrafoDirigido grafo = grafoAleatorio(semilla);
+			GrafoCompacto compacto = grafo.obtenerGrafoCompacto();
+			List<double[]> esperado = frenteExacto(grafo, "Z0", "Z" + (NODOS - 1));
+
+			List<Camino> frente = FrentePareto.calcular(compacto, compacto.indiceDe("Z0"),
+					compacto.indiceDe("Z" + (NODOS - 1)), 1000, 0.0);
+
+			assertEquals(esperado.size(), frente.size(), "semilla " + semilla);
+			for (int i = 0; i < frente.size(); i++) {
+				double[] encontrado = costos(frente.get(i));
+				assertTrue(esperado.stream().anyMatch(c -> cubre(c, encontrado, 1.0) && cubre(encontrado, c, 1.0)),
+						"semilla " + semilla);
+				if (i > 0) assertTrue(frente.get(i - 1).getDistanciaTotal() <= encontrado[0]);
+			}
+		}
+	}
+
+	@Test
+	void conToleranciaCadaCaminoExactoTieneUnoCercano() {
+		double tolerancia = FrentePareto.TOLERANCIA_POR_DEFECTO;
+		// La tolerancia puede acumularse una vez por tramo
+		double factor = Math.pow(1.0 + tolerancia, NODOS);
+		for (long semilla = 1; semilla <= 20; semilla++) {
+			GrafoDirigido grafo = grafoAleatorio(semilla);
+			GrafoCompacto compacto = grafo.obtenerGrafoCompacto();
+			List<double[]> exacto = frenteExacto(grafo, "Z0", "Z" + (NODOS - 1));
+
+			List<Camino> frente = FrentePareto.calcular(compacto, compacto.indiceDe("Z0"),
+					compacto.indiceDe("Z" + (NODOS - 1)), 1000, tolerancia);
+
+			assertTrue(frente.size() <= exacto.size(), "semilla " + semilla);
+			assertEquals(exacto.isEmpty(), frente.isEmpty());
+			for (double[] camino : exacto) {
+				assertTrue(frente.stream().anyMatch(c -> cubre(costos(c), camino, factor)), "semilla " + semilla);
+			}
+			// Los caminos devueltos son caminos reales del grafo que terminan en el destino
+			for (Camino camino : frente) {
+				List<Zona> zonas = camino.obtenerZonas();
+				assertEquals("Z0", zonas.get(0).getId());
+				assertEquals("Z" + (NODOS - 1), zonas.get(zonas.size() - 1).getId());
+			}
+		}
+	}
+
+	@Test
+	void mismoOrigenYDestinoDevuelveListaModificable() {
+		GrafoCompacto compacto = grafoAleatorio(1).obtenerGrafoCompacto();
+		int origen = compacto.indiceDe("Z0");
+
+		List<Camino> frente = FrentePareto.calcular(compacto, origen, origen, 5, 0.0);
+
+		assertEquals(1, frente.size());
+		assertEquals(0, frente.get(0).getNumeroTramos());
+		frente.add(new Camino(new ArrayList<>()));
+		assertEquals(2, frente.size());
+	}
+}
@@ -0,0 +1,130 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.CriterioRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.NivelUrgencia;
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.TipoRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.Zona;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Grafos pequeños y una búsqueda de Dijkstra sin optimizaciones para comparar contra ella
+ * las estructuras de rutas
+ */
+final class GrafosDePrueba {
+
+	private GrafosDePrueba() {
+	}
+
+	/**
+	 * Zonas Z0..Zn-1 en una grilla con algo de ruido, para que las particiones tengan coordenadas útiles
+	 */
+	static List<Zona> zonas(int cantidad, Random aleatorio) {
+		int lado = (int) Math.ceil(Math.sqrt(cantidad));
+		List<Zona> zonas = new ArrayList<>();
+		for (int i = 0; i < cantidad; i++) {
+			Zona zona = new Zona("Z" + i, "Zona " + i, NivelUrgencia.MEDIA);
+			zona.setCoordenadaX(i % lado + aleatorio.nextDouble() * 0.5);
+			zona.setCoordenadaY(i / lado + aleatorio.nextDouble() * 0.5);
+			zonas.add(zona);
+		}
+		return zonas;
+	}
+
+	/**
+	 * Grafo de grilla con rutas en ambos sentidos entre vecinos, algunos atajos y algunas rutas cerradas
+	 */
+	static GrafoDirigido grilla(int cantidad, long semilla) {
+		Random aleatorio = new Random(semilla);
+		List<Zona> zonas = zonas(cantidad, aleatorio);
+		int lado = (int) Math.ceil(Math.sqrt(cantidad));
+		List<Ruta> rutas = new ArrayList<>();
+		for (int i = 0; i < cantidad; i++) {
+			if (i % lado + 1 < lado && i + 1 < cantidad) {
+				agregarPar(rutas, zonas.get(i), zonas.get(i + 1), aleatorio);
+			}
+			if (i + lado < cantidad) {
+				agregarPar(rutas, zonas.get(i), zonas.get(i + lado), aleatorio);
+			}
+			if (aleatorio.nextDouble() < 0.1) {
+				int j = aleatorio.nextInt(cantidad);
+				if (j != i) rutas.add(ruta(zonas.get(i), zonas.get(j), aleatorio));
+			}
+		}
+		for (Ruta ruta : rutas) {
+			if (aleatorio.nextDouble() < 0.05) ruta.setActiva(false);
+		}
+		GrafoDirigido grafo = new GrafoDirigido();
+		grafo.agregarAristas(rutas);
+		return grafo;
+	}
+
+	private static void agregarPar(List<Ruta> rutas, Zona a, Zona b, Random aleatorio) {
+		rutas.add(ruta(a, b, aleatorio));
+		rutas.add(ruta(b, a, aleatorio));
+	}
+
+	static Ruta ruta(Zona origen, Zona destino, Random aleatorio) {
+		Ruta ruta = new Ruta(origen.getId() + "-" + destino.getId() + "-" + aleatorio.nextInt(1000000), origen, destino,
+				1.0 + aleatorio.nextDouble() * 9.0, 0.5 + aleatorio.nextDouble() * 4.0, TipoRuta.TERRESTRE);
+		ruta.setNivelRiesgo(aleatorio.nextDouble());
+		return ruta;
+	}
+
+	static double peso(GrafoCompacto grafo, int arista, CriterioRuta criterio) {
+		switch (criterio) {
+			case TIEMPO:
+				return grafo.tiempo(arista);
+			case RIESGO:
+				return grafo.riesgo(arista);
+			default:
+				return grafo.distancia(arista);
+		}
+	}
+
+	/**
+	 * Dijkstra cuadrático sobre las rutas activas, desde la raíz o hacia ella
+	 */
+	static double[] dijkstra(GrafoCompacto grafo, int raiz, CriterioRuta criterio, boolean haciaRaiz) {
+		int n = grafo.getNumeroNodos();
+		double[] distancias = new double[n];
+		boolean[] asentados = new boolean[n];
+		Arrays.fill(distancias, Double.POSITIVE_INFINITY);
+		distancias[raiz] = 0.0;
+		for (int paso = 0; paso < n; paso++) {
+			int v = -1;
+			for (int w = 0; w < n; w++) {
+				if (!asentados[w] && (v < 0 || distancias[w] < distancias[v])) v = w;
+			}
+			if (distancias[v] == Double.POSITIVE_INFINITY) break;
+			asentados[v] = true;
+			for (int e = 0; e < grafo.getNumeroAristas(); e++) {
+				int desde = haciaRaiz ? grafo.destino(e) : grafo.origen(e);
+				int hasta = haciaRaiz ? grafo.origen(e) : grafo.destino(e);
+				if (desde != v) continue;
+				double distancia = distancias[v] + peso(grafo, e, criterio);
+				if (distancia < distancias[hasta]) distancias[hasta] = distancia;
+			}
+		}
+		return distancias;
+	}
+
+	/**
+	 * Costo de una lista de aristas que debe formar un camino del origen al destino
+	 *
+	 * @return infinito si las aristas no encadenan
+	 */
+	static double costoCamino(GrafoCompacto grafo, int[] aristas, int origen, int destino, CriterioRuta criterio) {
+		double total = 0.0;
+		int actual = origen;
+		for (int e : aristas) {
+			if (grafo.origen(e) != actual) return Double.POSITIVE_INFINITY;
+			total += peso(grafo, e, criterio);
+			actual = grafo.destino(e);
+		}
+		return actual == destino ? total : Double.POSITIVE_INFINITY;
+	}
+}
@@ -0,0 +1,130 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.NivelUrgencia;
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.TipoRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.Zona;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceAlcanzabilidadTest {
+
+	private List<Zona> zonas(int cantidad) {
+		List<Zona> zonas = new ArrayList<>();
+		for (int i = 0; i < cantidad; i++) {
+			zonas.add(new Zona("Z" + i, "Zona " + i, NivelUrgencia.MEDIA));
+		}
+		return zonas;
+	}
+
+	/**
+	 * Grafo aleatorio disperso con algunas rutas cerradas, para que haya varias componentes
+	 */
+	private GrafoDirigido grafoAleatorio(int cantidad, double probabilidad, long semilla) {
+		Random aleatorio = new Random(semilla);
+		List<Zona> zonas = zonas(cantidad);
+		List<Ruta> rutas = new ArrayList<>();
+		for (int i = 0; i < cantidad; i++) {
+			for (int j = 0; j < cantidad; j++) {
+				if (i == j || aleatorio.nextDouble() > probabilidad) continue;
+				Ruta ruta = new Ruta("R" + i + "-" + j, zonas.get(i), zonas.get(j), 1.0, 1.0, TipoRuta.TERRESTRE);
+				ruta.setActiva(aleatorio.nextDouble() > 0.2);
+				rutas.add(ruta);
+			}
+		}
+		GrafoDirigido grafo = new GrafoDirigido();
+		grafo.agregarAristas(rutas);
+		return grafo;
+	}
+
+	/**
+	 * Nodos alcanzables desde el origen por rutas activas, con un recorrido en anchura
+	 */
+	private boolean[] recorrer(GrafoCompacto grafo, int origen) {
+		boolean[] visitados = new boolean[grafo.getNumeroNodos()];
+		Deque<Integer> cola = new ArrayDeque<>();
+		visitados[origen] = true;
+		cola.add(origen);
+		while (!cola.isEmpty()) {
+			int v = cola.poll();
+			for (int e = grafo.inicioAristas(v); e < grafo.finAristas(v); e++) {
+				if (grafo.estaActiva(e) && !visitados[grafo.destino(e)]) {
+					visitados[grafo.destino(e)] = true;
+					cola.add(grafo.destino(e));
+				}
+			}
+		}
+		return visitados;
+	}
+
+	@Test
+	void coincideConUnRecorridoEnAnchura() {
+		for (long semilla = 1; semilla <= 10; semilla++) {
+			GrafoCompacto grafo = grafoAleatorio(40, 0.04, semilla).obtenerGrafoCompacto();
+			IndiceAlcanzabilidad indice = IndiceAlcanzabilidad.construir(grafo);
+			int n = grafo.getNumeroNodos();
+			boolean[][] alcanza = new boolean[n][];
+			for (int v = 0; v < n; v++) alcanza[v] = recorrer(grafo, v);
+
+			for (int v = 0; v < n; v++) {
+				for (int w = 0; w < n; w++) {
+					assertEquals(alcanza[v][w], indice.esAlcanzable(v, w), "semilla " + semilla);
+					// Misma componente si y solo si se alcanzan mutuamente
+					assertEquals(alcanza[v][w] && alcanza[w][v], indice.componente(v) == indice.componente(w));
+				}
+			}
+
+			int[] objetivos = {0, 7, -1};
+			boolean[] llega = indice.alcanzanAlguno(objetivos);
+			for (int v = 0; v < n; v++) {
+				assertEquals(alcanza[v][0] || alcanza[v][7], llega[v]);
+			}
+		}
+	}
+
+	@Test
+	void sinConjuntosDeBitsCoincideConUnRecorridoEnAnchura() {
+		// Más componentes que el límite de los conjuntos de bits: se consulta recorriendo el grafo condensado
+		GrafoCompacto grafo = grafoAleatorio(5000, 0.0003, 11).obtenerGrafoCompacto();
+		IndiceAlcanzabilidad indice = IndiceAlcanzabilidad.construir(grafo);
+		assertTrue(indice.getNumeroComponentes() > 4096);
+
+		Random aleatorio = new Random(5);
+		for (int i = 0; i < 20; i++) {
+			int origen = aleatorio.nextInt(grafo.getNumeroNodos());
+			boolean[] alcanza = recorrer(grafo, origen);
+			for (int w = 0; w < grafo.getNumeroNodos(); w++) {
+				assertEquals(alcanza[w], indice.esAlcanzable(origen, w));
+			}
+		}
+	}
+
+	@Test
+	void seReconstruyeAlCerrarUnaRuta() {
+		List<Zona> zonas = zonas(4);
+		Ruta puente = new Ruta("R1", zonas.get(1), zonas.get(2), 1.0, 1.0, TipoRuta.TERRESTRE);
+		GrafoDirigido grafo = new GrafoDirigido();
+		grafo.agregarAristas(List.of(
+				new Ruta("R0", zonas.get(0), zonas.get(1), 1.0, 1.0, TipoRuta.TERRESTRE),
+				puente,
+				new Ruta("R2", zonas.get(2), zonas.get(3), 1.0, 1.0, TipoRuta.TERRESTRE)));
+		assertTrue(grafo.esAlcanzable("Z0", "Z3"));
+		assertFalse(grafo.esAlcanzable("Z3", "Z0"));
+		assertTrue(grafo.obtenerZonasIncomunicadas(List.of("Z3")).isEmpty());
+
+		puente.setActiva(false);
+
+		assertFalse(grafo.esAlcanzable("Z0", "Z3"));
+		assertTrue(grafo.esAlcanzable("Z0", "Z1"));
+		List<String> incomunicadas = new ArrayList<>(grafo.obtenerZonasIncomunicadas(List.of("Z3")));
+		incomunicadas.sort(null);
+		assertEquals(Arrays.asList("Z0", "Z1"), incomunicadas);
+	}
+}
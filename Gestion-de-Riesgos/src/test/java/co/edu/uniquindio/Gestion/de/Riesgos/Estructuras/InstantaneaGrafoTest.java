@@ -0,0 +1,279 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.CriterioRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.NivelUrgencia;
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.TipoRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.SistemaGestionDesastres;
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.Zona;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstantaneaGrafoTest {
+
+	@TempDir
+	Path directorio;
+
+	private Zona zona(String id, String nombre, NivelUrgencia nivel, double x, double y, int poblacion) {
+		Zona zona = new Zona(id, nombre, nivel);
+		zona.setCoordenadaX(x);
+		zona.setCoordenadaY(y);
+		zona.setPoblacionAfectada(poblacion);
+		zona.setNivelRiesgo(nivel);
+		return zona;
+	}
+
+	private List<Zona> zonas() {
+		return Arrays.asList(
+				zona("Z1", "Armenia", NivelUrgencia.CRITICA, 4.53, -75.68, 1200),
+				zona("Z2", "Calarcá", NivelUrgencia.MEDIA, 4.52, -75.64, 300),
+				zona("Z3", "Circasia", NivelUrgencia.BAJA, 4.61, -75.63, 0),
+				zona("R1", "Coliseo del Café", NivelUrgencia.BAJA, 4.55, -75.66, 0),
+				zona("Z4", "Pijao", NivelUrgencia.ALTA, 4.33, -75.70, 50));
+	}
+
+	private GrafoDirigido grafoDePrueba(List<Zona> zonas) {
+		GrafoDirigido grafo = new GrafoDirigido();
+		Nodo refugio = new Nodo("R1", "Coliseo del Café", 4.55, -75.66, Nodo.TipoNodo.REFUGIO, 500);
+		refugio.setPersonasActuales(120);
+		grafo.agregarNodo(refugio);
+
+		Ruta cerrada = new Ruta("RT5", zonas.get(4), zonas.get(0), 30.0, 0.9, TipoRuta.TERRESTRE);
+		cerrada.setActiva(false);
+		Ruta maritima = new Ruta("RT4", zonas.get(2), zonas.get(3), 4.0, 0.1, TipoRuta.MARITIMA);
+		maritima.setCapacidadMaxima(80);
+		maritima.setCapacidadActual(30);
+		maritima.setNivelRiesgo(0.6);
+		grafo.agregarAristas(List.of(
+				new Ruta("RT1", zonas.get(0), zonas.get(1), 5.0, 0.2, TipoRuta.TERRESTRE),
+				new Ruta("RT2", zonas.get(1), zonas.get(3), 3.0, 0.15, TipoRuta.TERRESTRE),
+				new Ruta("RT3", zonas.get(0), zonas.get(2), 9.0, 0.3, TipoRuta.AEREA),
+				maritima,
+				cerrada));
+		return grafo;
+	}
+
+	@Test
+	void conservaGrafoNodosYZonasAlGuardarYCargar() throws IOException {
+		List<Zona> zonas = zonas();
+		GrafoDirigido original = grafoDePrueba(zonas);
+		Path archivo = directorio.resolve("grafo.bin");
+		original.guardarInstantanea(archivo);
+
+		GrafoDirigido cargado = new GrafoDirigido();
+		List<Zona> zonasCargadas = cargado.cargarInstantanea(archivo);
+
+		// Consultas sobre la versión compacta, antes de crear las rutas como objetos
+		for (Zona origen : zonas) {
+			for (Zona destino : zonas) {
+				for (CriterioRuta criterio : CriterioRuta.values()) {
+					assertEquals(original.calcularCostoMinimo(origen.getId(), destino.getId(), criterio),
+							cargado.calcularCostoMinimo(origen.getId(), destino.getId(), criterio), 1e-12);
+				}
+			}
+		}
+
+		assertEquals(zonas.size(), zonasCargadas.size());
+		for (Zona esperada : zonas) {
+			Zona zona = zonasCargadas.stream().filter(z -> z.getId().equals(esperada.getId())).findFirst().orElseThrow();
+			assertEquals(esperada.getNombre(), zona.getNombre());
+			assertEquals(esperada.getNivelRiesgo(), zona.getNivelRiesgo());
+			assertEquals(esperada.getPoblacionAfectada(), zona.getPoblacionAfectada());
+			assertEquals(esperada.getCoordenadaX(), zona.getCoordenadaX());
+			assertEquals(esperada.getCoordenadaY(), zona.getCoordenadaY());
+		}
+
+		Nodo refugio = cargado.obtenerNodo("R1");
+		assertEquals(Nodo.TipoNodo.REFUGIO, refugio.getTipo());
+		assertEquals("Coliseo del Café", refugio.getNombre());
+		assertEquals(500, refugio.getCapacidadMaxima());
+		assertEquals(120, refugio.getPersonasActuales());
+		assertEquals("Calarcá", cargado.obtenerNodo("Z2").getNombre());
+
+		assertEquals(original.getNumeroAristas(), cargado.getNumeroAristas());
+		for (Ruta esperada : original.getAristas()) {
+			Ruta ruta = cargado.getAristas().stream().filter(r -> r.getId().equals(esperada.getId())).findFirst().orElseThrow();
+			assertEquals(esperada.getOrigen().getId(), ruta.getOrigen().getId());
+			assertEquals(esperada.getDestino().getId(), ruta.getDestino().getId());
+			assertEquals(esperada.getDistancia(), ruta.getDistancia());
+			assertEquals(esperada.getTiempoEstimado(), ruta.getTiempoEstimado());
+			assertEquals(esperada.getNivelRiesgo(), ruta.getNivelRiesgo());
+			assertEquals(esperada.getTipo(), ruta.getTipo());
+			assertEquals(esperada.getCapacidadMaxima(), ruta.getCapacidadMaxima());
+			assertEquals(esperada.getCapacidadActual(), ruta.getCapacidadActual());
+			assertEquals(esperada.isActiva(), ruta.isActiva());
+			assertTrue(zonasCargadas.contains(ruta.getOrigen()));
+		}
+
+		// Los refugios sobreviven a la recuperación
+		assertEquals(original.obtenerZonasIncomunicadas(null), cargado.obtenerZonasIncomunicadas(null));
+		assertEquals("R1", cargado.asignarRefugiosMasCercanos(CriterioRuta.TIEMPO).obtenerRefugio("Z1"));
+
+		// Los cambios en las rutas restauradas llegan a las búsquedas
+		cargado.getAristas().stream().filter(r -> r.getId().equals("RT2")).findFirst().orElseThrow().setActiva(false);
+		assertEquals(8.0, original.calcularCostoMinimo("Z1", "R1", CriterioRuta.DISTANCIA), 1e-12);
+		assertEquals(13.0, cargado.calcularCostoMinimo("Z1", "R1", CriterioRuta.DISTANCIA), 1e-12);
+	}
+
+	@Test
+	void rechazaArchivosDanados() throws IOException {
+		Path archivo = directorio.resolve("grafo.bin");
+		grafoDePrueba(zonas()).guardarInstantanea(archivo);
+		byte[] bytes = Files.readAllBytes(archivo);
+
+		Path truncado = directorio.resolve("truncado.bin");
+		Files.write(truncado, Arrays.copyOf(bytes, bytes.length - 3));
+		assertThrows(IOException.class, () -> new GrafoDirigido().cargarInstantanea(truncado));
+
+		Path otraVersion = directorio.resolve("version.bin");
+		bytes[4] = 1;
+		Files.write(otraVersion, bytes);
+		assertThrows(IOException.class, () -> new GrafoDirigido().cargarInstantanea(otraVersion));
+
+		GrafoDirigido conRutas = grafoDePrueba(zonas());
+		assertThrows(IllegalStateException.class, () -> conRutas.cargarInstantanea(archivo));
+	}
+
+	@Test
+	void sistemaAdoptaZonasYRutasDeLaInstantanea() throws IOException {
+		SistemaGestionDesastres anterior = new SistemaGestionDesastres();
+		List<Zona> zonas = zonas();
+		zonas.forEach(anterior::agregarZona);
+		grafoDePrueba(zonas).getAristas().forEach(anterior::agregarRuta);
+		Path archivo = directorio.resolve("sistema.bin");
+		anterior.guardarInstantaneaGrafo(archivo);
+
+		SistemaGestionDesastres sistema = new SistemaGestionDesastres();
+		sistema.cargarInstantaneaGrafo(archivo);
+		assertEquals("Armenia", sistema.buscarZona("Z1").getNombre());
+		assertEquals(5, sistema.getRutas().size());
+		assertNotNull(sistema.buscarZonaMasCercana(4.53, -75.68));
+		assertNotNull(sistema.calcularRutaFiltrada("Z1", "R1", CriterioRuta.TIEMPO, FiltroRutas.soloActivas()));
+
+		// Las rutas del sistema son las del grafo: cerrarlas cambia las búsquedas
+		sistema.buscarRuta("RT2").setActiva(false);
+		sistema.buscarRuta("RT4").setActiva(false);
+		assertNull(sistema.calcularRutaFiltrada("Z1", "R1", CriterioRuta.TIEMPO, FiltroRutas.soloActivas()));
+
+		assertThrows(IllegalStateException.class, () -> sistema.cargarInstantaneaGrafo(archivo));
+	}
+
+	/**
+	 * Posición del inicio de aristas en el archivo, según el formato descrito en InstantaneaGrafo:
+	 * cabecera, coordenadas, tres enteros y cuatro bytes por nodo, alineado a 8 bytes
+	 */
+	private static int posicionInicioAristas(int numeroNodos) {
+		return (32 + 16 * numeroNodos + 12 * numeroNodos + 4 * numeroNodos + 7) & ~7;
+	}
+
+	private Path copiaModificada(byte[] bytes, String nombre, int posicion, int valor) throws IOException {
+		ByteBuffer copia = ByteBuffer.wrap(bytes.clone()).order(ByteOrder.LITTLE_ENDIAN);
+		copia.putInt(posicion, valor);
+		Path archivo = directorio.resolve(nombre);
+		Files.write(archivo, copia.array());
+		return archivo;
+	}
+
+	@Test
+	void rechazaAristasDanadasConIOException() throws IOException {
+		Path archivo = directorio.resolve("grafo.bin");
+		GrafoDirigido original = grafoDePrueba(zonas());
+		original.guardarInstantanea(archivo);
+		int n = original.obtenerGrafoCompacto().getNumeroNodos();
+		byte[] bytes = Files.readAllBytes(archivo);
+		int inicioAristas = posicionInicioAristas(n);
+		int destinos = inicioAristas + 4 * (n + 1);
+		assertDoesNotThrow(() -> new GrafoDirigido().cargarInstantanea(archivo));
+
+		Path destinoFuera = copiaModificada(bytes, "destino.bin", destinos, n + 3);
+		assertThrows(IOException.class, () -> new GrafoDirigido().cargarInstantanea(destinoFuera));
+
+		Path destinoNegativo = copiaModificada(bytes, "negativo.bin", destinos + 4, -1);
+		assertThrows(IOException.class, () -> new GrafoDirigido().cargarInstantanea(destinoNegativo));
+
+		Path inicioDesordenado = copiaModificada(bytes, "inicio.bin", inicioAristas + 4, 99);
+		assertThrows(IOException.class, () -> new GrafoDirigido().cargarInstantanea(inicioDesordenado));
+		assertThrows(IOException.class, () -> new SistemaGestionDesastres().cargarInstantaneaGrafo(inicioDesordenado));
+	}
+
+	@Test
+	void conservaLosPerfilesHorarios() throws IOException {
+		GrafoDirigido original = grafoDePrueba(zonas());
+		double[] factores = new double[24];
+		Arrays.fill(factores, 1.0);
+		for (int hora = 7; hora <= 9; hora++) factores[hora] = 1.5;
+		Ruta conPerfil = original.getAristas().stream().filter(r -> r.getId().equals("RT1")).findFirst().orElseThrow();
+		conPerfil.setPerfilTiempo(PerfilTiempo.porHora(0.2, factores));
+		original.getAristas().stream().filter(r -> r.getId().equals("RT3")).findFirst().orElseThrow()
+				.setPerfilTiempo(new PerfilTiempo(new double[]{0.0, 12.0}, new double[]{0.3, 0.5}));
+		Path archivo = directorio.resolve("grafo.bin");
+		original.guardarInstantanea(archivo);
+
+		GrafoDirigido cargado = new GrafoDirigido();
+		cargado.cargarInstantanea(archivo);
+
+		// Las búsquedas por hora de salida ven los perfiles sin crear las rutas
+		GrafoCompacto esperado = original.obtenerGrafoCompacto();
+		GrafoCompacto compacto = cargado.obtenerGrafoCompacto();
+		assertTrue(compacto.esInstantanea());
+		for (int e = 0; e < compacto.getNumeroAristas(); e++) {
+			for (double hora = 0.0; hora < 24.0; hora += 0.25) {
+				assertEquals(esperado.tiempoEn(e, hora), compacto.tiempoEn(e, hora), 1e-12);
+			}
+			assertEquals(esperado.tiempoMinimo(e), compacto.tiempoMinimo(e), 1e-12);
+		}
+
+		for (Ruta ruta : cargado.getAristas()) {
+			PerfilTiempo perfil = ruta.getPerfilTiempo();
+			if (!ruta.getId().equals("RT1") && !ruta.getId().equals("RT3")) {
+				assertNull(perfil);
+				continue;
+			}
+			assertNotNull(perfil, ruta.getId());
+			assertEquals(ruta.getId().equals("RT1") ? 24 : 2, perfil.getNumeroPuntos());
+		}
+		assertEquals(0.3, cargado.getAristas().stream().filter(r -> r.getId().equals("RT1")).findFirst().orElseThrow()
+				.getPerfilTiempo().evaluar(8.0), 1e-12);
+	}
+
+	@Test
+	void sistemaNoCreaLasRutasHastaQueLasNecesita() throws IOException {
+		SistemaGestionDesastres anterior = new SistemaGestionDesastres();
+		List<Zona> zonas = zonas();
+		zonas.forEach(anterior::agregarZona);
+		grafoDePrueba(zonas).getAristas().forEach(anterior::agregarRuta);
+		Path archivo = directorio.resolve("sistema.bin");
+		anterior.guardarInstantaneaGrafo(archivo);
+
+		SistemaGestionDesastres sistema = new SistemaGestionDesastres();
+		sistema.cargarInstantaneaGrafo(archivo);
+		GrafoCompacto compacto = sistema.getGrafoDirigido().obtenerGrafoCompacto();
+
+		Zona armenia = sistema.buscarZona("Z1");
+		assertEquals("Armenia", armenia.getNombre());
+		assertEquals("Calarcá", sistema.buscarZona("Z2").getNombre());
+		assertNull(sistema.buscarZona("Z9"));
+		assertEquals(List.of("Z1", "Z2", "R1"),
+				sistema.calcularRutaMasCorta("Z1", "R1").stream().map(Zona::getId).collect(Collectors.toList()));
+		assertEquals(8.0, sistema.calcularCostoMinimo("Z1", "R1", CriterioRuta.DISTANCIA), 1e-12);
+		assertTrue(compacto.esInstantanea());
+
+		// Recorrer las rutas del sistema las crea, con las mismas zonas ya entregadas
+		assertEquals(5, sistema.getRutas().size());
+		assertFalse(compacto.esInstantanea());
+		assertEquals(5, sistema.getZonas().size());
+		assertSame(armenia, sistema.buscarZona("Z1"));
+		assertSame(armenia, sistema.buscarRuta("RT1").getOrigen());
+		assertNotNull(sistema.buscarZonaMasCercana(4.53, -75.68));
+	}
+}
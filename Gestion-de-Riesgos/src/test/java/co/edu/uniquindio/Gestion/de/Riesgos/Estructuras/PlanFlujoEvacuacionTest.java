@@ -0,0 +1,138 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.NivelUrgencia;
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.TipoRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.Zona;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanFlujoEvacuacionTest {
+
+	private final Zona origenA = new Zona("A", "Barrio A", NivelUrgencia.ALTA);
+	private final Zona origenB = new Zona("B", "Barrio B", NivelUrgencia.MEDIA);
+	private final Zona cruce = new Zona("C", "Cruce", NivelUrgencia.BAJA);
+	private final Zona refugio1 = new Zona("R1", "Coliseo", NivelUrgencia.BAJA);
+	private final Zona refugio2 = new Zona("R2", "Estadio", NivelUrgencia.BAJA);
+	private Ruta directaA;
+	private Ruta haciaR2;
+
+	private Ruta ruta(String id, Zona origen, Zona destino, double tiempo) {
+		return new Ruta(id, origen, destino, 1.0, tiempo, TipoRuta.TERRESTRE);
+	}
+
+	/**
+	 * R1 admite 8 personas y R2 no tiene límite. Desde A se llega a R1 en 1 hora por una
+	 * ruta de 5 personas o en 2 por el cruce, y a R2 en 5; desde B a R1 en 1 y a R2 en 2.
+	 */
+	private GrafoDirigido grafo() {
+		GrafoDirigido grafo = new GrafoDirigido();
+		grafo.agregarNodo(new Nodo("R1", "Coliseo", 0, 0, Nodo.TipoNodo.REFUGIO, 8));
+		grafo.agregarNodo(new Nodo("R2", "Estadio", 0, 0, Nodo.TipoNodo.REFUGIO, 0));
+		directaA = ruta("A-R1", origenA, refugio1, 1.0);
+		directaA.setCapacidadMaxima(5);
+		haciaR2 = ruta("B-R2", origenB, refugio2, 2.0);
+		grafo.agregarAristas(List.of(
+				directaA,
+				ruta("A-C", origenA, cruce, 1.0),
+				ruta("C-R1", cruce, refugio1, 1.0),
+				ruta("A-R2", origenA, refugio2, 5.0),
+				ruta("B-R1", origenB, refugio1, 1.0),
+				haciaR2));
+		return grafo;
+	}
+
+	private Map<String, Integer> personas() {
+		Map<String, Integer> personas = new LinkedHashMap<>();
+		personas.put("A", 10);
+		personas.put("B", 6);
+		return personas;
+	}
+
+	/**
+	 * Comprueba que el plan respeta las capacidades de rutas, refugios y orígenes
+	 *
+	 * @return personas que llegan a cada refugio
+	 */
+	private Map<String, Integer> verificarFactible(PlanFlujoEvacuacion plan, Map<String, Integer> personas) {
+		Map<String, Integer> porOrigen = new HashMap<>();
+		Map<String, Integer> porRefugio = new HashMap<>();
+		Map<Ruta, Integer> porRuta = new HashMap<>();
+		double costo = 0.0;
+		for (PlanFlujoEvacuacion.Asignacion asignacion : plan.getAsignaciones()) {
+			assertTrue(asignacion.getPersonas() > 0);
+			List<Zona> zonas = asignacion.getCamino().obtenerZonas();
+			assertEquals(asignacion.getIdOrigen(), zonas.get(0).getId());
+			assertEquals(asignacion.getIdRefugio(), zonas.get(zonas.size() - 1).getId());
+			porOrigen.merge(asignacion.getIdOrigen(), asignacion.getPersonas(), Integer::sum);
+			porRefugio.merge(asignacion.getIdRefugio(), asignacion.getPersonas(), Integer::sum);
+			for (Ruta tramo : asignacion.getCamino().getTramos()) {
+				porRuta.merge(tramo, asignacion.getPersonas(), Integer::sum);
+			}
+			costo += asignacion.getPersonas() * asignacion.getCamino().getTiempoTotal();
+		}
+		for (Map.Entry<Ruta, Integer> entrada : porRuta.entrySet()) {
+			Ruta ruta = entrada.getKey();
+			assertTrue(ruta.isActiva());
+			if (ruta.getCapacidadMaxima() > 0) assertTrue(entrada.getValue() <= ruta.obtenerCapacidadDisponible());
+			assertEquals(entrada.getValue(), plan.getPersonasPorRuta().get(ruta));
+		}
+		for (Map.Entry<String, Integer> entrada : porOrigen.entrySet()) {
+			assertTrue(entrada.getValue() <= personas.get(entrada.getKey()));
+		}
+		assertTrue(porRefugio.getOrDefault("R1", 0) <= 8);
+		int evacuadas = porOrigen.values().stream().mapToInt(Integer::intValue).sum();
+		assertEquals(evacuadas, plan.getPersonasEvacuadas());
+		assertEquals(personas.values().stream().mapToInt(Integer::intValue).sum() - evacuadas,
+				plan.getPersonasSinEvacuar());
+		assertEquals(costo, plan.getCostoTotal(), 1e-9);
+		return porRefugio;
+	}
+
+	@Test
+	void repartePersonasAlMenorTiempoTotal() {
+		PlanFlujoEvacuacion plan = grafo().planificarFlujoEvacuacion(personas(), null);
+
+		Map<String, Integer> porRefugio = verificarFactible(plan, personas());
+		assertEquals(16, plan.getPersonasEvacuadas());
+		assertEquals(8, (int) porRefugio.get("R1"));
+		// R1 conviene más a A (ahorra 4 o 3 horas por persona) que a B (ahorra 1): 5 por la
+		// ruta directa y 3 por el cruce; los otros 2 de A y todo B van a R2
+		assertEquals(5 * 1.0 + 3 * 2.0 + 2 * 5.0 + 6 * 2.0, plan.getCostoTotal(), 1e-9);
+		assertEquals(5, (int) plan.getPersonasPorRuta().get(directaA));
+		assertEquals(6, (int) plan.getPersonasPorRuta().get(haciaR2));
+	}
+
+	@Test
+	void sinCupoSuficienteEvacuaElMaximoAlMenorCosto() {
+		GrafoDirigido grafo = grafo();
+		PlanFlujoEvacuacion plan = grafo.planificarFlujoEvacuacion(personas(), List.of("R1"));
+
+		Map<String, Integer> porRefugio = verificarFactible(plan, personas());
+		assertEquals(8, plan.getPersonasEvacuadas());
+		assertEquals(8, plan.getPersonasSinEvacuar());
+		assertEquals(8, (int) porRefugio.get("R1"));
+		// Los 8 cupos se llenan con los caminos de 1 hora: 5 de A por la ruta directa y 3 de B
+		assertEquals(8.0, plan.getCostoTotal(), 1e-9);
+	}
+
+	@Test
+	void ignoraLasRutasCerradas() {
+		GrafoDirigido grafo = grafo();
+		directaA.setActiva(false);
+		haciaR2.setActiva(false);
+
+		PlanFlujoEvacuacion plan = grafo.planificarFlujoEvacuacion(personas(), null);
+
+		verificarFactible(plan, personas());
+		assertEquals(16, plan.getPersonasEvacuadas());
+		assertNull(plan.getPersonasPorRuta().get(directaA));
+		// R1: 6 de B en 1 hora y 2 de A por el cruce en 2; los otros 8 de A van a R2 en 5
+		assertEquals(6 * 1.0 + 2 * 2.0 + 8 * 5.0, plan.getCostoTotal(), 1e-9);
+	}
+}
@@ -0,0 +1,99 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.NivelUrgencia;
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.TipoRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.Evacuacion;
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.Zona;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProgramaEvacuacionesTest {
+
+	private final Zona origen = new Zona("A", "Barrio", NivelUrgencia.ALTA);
+	private final Zona rapido = new Zona("B", "Avenida", NivelUrgencia.BAJA);
+	private final Zona lento = new Zona("C", "Vereda", NivelUrgencia.BAJA);
+	private final Zona refugio = new Zona("R", "Coliseo", NivelUrgencia.BAJA);
+	private final Ruta rapida1 = new Ruta("AB", origen, rapido, 1.0, 0.5, TipoRuta.TERRESTRE);
+	private final Ruta rapida2 = new Ruta("BR", rapido, refugio, 1.0, 0.5, TipoRuta.TERRESTRE);
+	private final Ruta lenta1 = new Ruta("AC", origen, lento, 1.0, 1.0, TipoRuta.TERRESTRE);
+	private final Ruta lenta2 = new Ruta("CR", lento, refugio, 1.0, 1.0, TipoRuta.TERRESTRE);
+
+	private GrafoDirigido grafo() {
+		// 100 personas en ruta de 1 hora: caudal de 25 personas por intervalo de 15 minutos
+		lenta1.setCapacidadMaxima(100);
+		GrafoDirigido grafo = new GrafoDirigido();
+		grafo.agregarAristas(List.of(rapida1, rapida2, lenta1, lenta2));
+		return grafo;
+	}
+
+	private Evacuacion evacuacion(String id, int personas, Ruta ruta) {
+		Evacuacion evacuacion = new Evacuacion();
+		evacuacion.setId(id);
+		evacuacion.setNivelUrgencia(NivelUrgencia.ALTA);
+		evacuacion.setPersonasAEvacuar(personas);
+		evacuacion.setZonaOrigen("A");
+		evacuacion.setZonaDestino("R");
+		if (ruta != null) evacuacion.setRuta(ruta);
+		return evacuacion;
+	}
+
+	@Test
+	void sinRutaAsignadaUsaElCaminoMasRapido() {
+		Evacuacion evacuacion = evacuacion("E1", 60, null);
+
+		ProgramaEvacuaciones programa = grafo().programarEvacuaciones(List.of(evacuacion), 0.25);
+
+		for (ProgramaEvacuaciones.Envio envio : programa.obtenerEnvios(evacuacion)) {
+			assertEquals(List.of(rapida1, rapida2), envio.getTramos());
+		}
+		assertEquals(1.0, programa.obtenerTiempoFinalizacion(evacuacion), 1e-9);
+	}
+
+	@Test
+	void respetaLaRutaCompuestaAsignada() {
+		Ruta asignada = new Camino(List.of(lenta1, lenta2)).comoRuta();
+		Evacuacion evacuacion = evacuacion("E1", 60, asignada);
+
+		ProgramaEvacuaciones programa = grafo().programarEvacuaciones(List.of(evacuacion), 0.25);
+
+		int personas = 0;
+		for (ProgramaEvacuaciones.Envio envio : programa.obtenerEnvios(evacuacion)) {
+			assertEquals(List.of(lenta1, lenta2), envio.getTramos());
+			personas += envio.getPersonas();
+		}
+		assertEquals(60, personas);
+		// 25 por intervalo por la primera ruta: salen a las 0, 0.25 y 0.5 y llegan 2 horas después
+		assertEquals(2.5, programa.obtenerTiempoFinalizacion(evacuacion), 1e-9);
+		assertArrayEquals(new int[]{25, 25, 10}, programa.obtenerFlujoPorIntervalo(lenta1));
+	}
+
+	@Test
+	void conUnTramoCerradoBuscaOtroCamino() {
+		GrafoDirigido grafo = grafo();
+		Evacuacion evacuacion = evacuacion("E1", 60, new Camino(List.of(lenta1, lenta2)).comoRuta());
+		lenta2.setActiva(false);
+
+		ProgramaEvacuaciones programa = grafo.programarEvacuaciones(List.of(evacuacion), 0.25);
+
+		assertEquals(1.0, programa.obtenerTiempoFinalizacion(evacuacion), 1e-9);
+		assertTrue(programa.getSinProgramar().isEmpty());
+	}
+
+	@Test
+	void laProgramacionNoCambiaElTiempoEstimadoDeLaRuta() {
+		Evacuacion evacuacion = evacuacion("E1", 60, new Camino(List.of(lenta1, lenta2)).comoRuta());
+		double estimado = evacuacion.calcularTiempoEstimado();
+		ColaPrioridad cola = new ColaPrioridad();
+		cola.agregarEvacuacion(evacuacion);
+
+		cola.programar(grafo(), 0.25);
+
+		assertEquals(2.5, evacuacion.getTiempoEstimadoProgramado(), 1e-9);
+		assertEquals(estimado, evacuacion.calcularTiempoEstimado(), 0.0);
+		evacuacion.cancelarEvacuacion();
+		assertNull(evacuacion.getTiempoEstimadoProgramado());
+	}
+}
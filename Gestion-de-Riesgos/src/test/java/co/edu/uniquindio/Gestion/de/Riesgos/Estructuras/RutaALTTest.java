@@ -0,0 +1,113 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.CriterioRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.EstrategiaRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.SistemaGestionDesastres;
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.Zona;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RutaALTTest {
+
+	@TempDir
+	Path directorio;
+
+	@Test
+	void conElIndiceConstruidoCoincideConDijkstra() {
+		for (long semilla = 1; semilla <= 3; semilla++) {
+			GrafoDirigido grafo = GrafosDePrueba.grilla(64, semilla);
+			RutaALT estrategia = new RutaALT();
+			grafo.setCalculadorRutas(estrategia);
+			estrategia.construirIndice();
+			assertTrue(estrategia.estaActualizado());
+
+			GrafoCompacto compacto = grafo.obtenerGrafoCompacto();
+			for (int origen = 0; origen < compacto.getNumeroNodos(); origen++) {
+				double[] esperadas = GrafosDePrueba.dijkstra(compacto, origen, CriterioRuta.DISTANCIA, false);
+				for (int destino = 0; destino < compacto.getNumeroNodos(); destino++) {
+					int[] camino = estrategia.buscarCamino(compacto, origen, destino);
+					double costo = camino == null ? Double.POSITIVE_INFINITY
+							: GrafosDePrueba.costoCamino(compacto, camino, origen, destino, CriterioRuta.DISTANCIA);
+					assertEquals(esperadas[destino], costo, 1e-9, "semilla " + semilla);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sistema con las rutas de una grilla, agregadas como lo haría la aplicación
+	 */
+	private SistemaGestionDesastres sistemaConGrilla() {
+		SistemaGestionDesastres sistema = new SistemaGestionDesastres();
+		sistema.inicializarSistema();
+		GrafoDirigido grilla = GrafosDePrueba.grilla(49, 4);
+		for (Ruta ruta : grilla.getAristas()) {
+			sistema.agregarZona(ruta.getOrigen());
+			sistema.agregarZona(ruta.getDestino());
+			sistema.agregarRuta(ruta);
+		}
+		return sistema;
+	}
+
+	@Test
+	void elSistemaGuardaElIndiceJuntoALaInstantanea() throws IOException {
+		SistemaGestionDesastres sistema = sistemaConGrilla();
+		sistema.seleccionarEstrategiaRutas(EstrategiaRuta.ALT);
+		Path archivo = directorio.resolve("grafo.bin");
+
+		sistema.guardarInstantaneaGrafo(archivo);
+
+		Path landmarks = SistemaGestionDesastres.archivoLandmarks(archivo);
+		assertTrue(Files.exists(landmarks));
+		RutaALT estrategia = (RutaALT) sistema.getGrafoDirigido().getCalculadorRutas();
+		assertEquals(landmarks, estrategia.getArchivoIndice());
+		assertNotNull(IndiceLandmarks.cargar(landmarks, sistema.getGrafoDirigido().obtenerGrafoCompacto()));
+	}
+
+	@Test
+	void alCargarLaInstantaneaSeUsaElIndiceGuardado() throws IOException {
+		SistemaGestionDesastres original = sistemaConGrilla();
+		original.seleccionarEstrategiaRutas(EstrategiaRuta.ALT);
+		Path archivo = directorio.resolve("grafo.bin");
+		original.guardarInstantaneaGrafo(archivo);
+		// Un índice con otro número de landmarks permite distinguir si se cargó o se reconstruyó
+		Path landmarks = SistemaGestionDesastres.archivoLandmarks(archivo);
+		IndiceLandmarks.construir(original.getGrafoDirigido().obtenerGrafoCompacto(), 3).guardar(landmarks);
+
+		SistemaGestionDesastres restaurado = new SistemaGestionDesastres();
+		restaurado.inicializarSistema();
+		restaurado.seleccionarEstrategiaRutas(EstrategiaRuta.ALT);
+		restaurado.cargarInstantaneaGrafo(archivo);
+
+		RutaALT estrategia = assertInstanceOf(RutaALT.class, restaurado.getGrafoDirigido().getCalculadorRutas());
+		assertEquals(landmarks, estrategia.getArchivoIndice());
+		assertTrue(estrategia.estaActualizado());
+		assertEquals(3, estrategia.getIndice().getNumeroLandmarks());
+		assertEquals(original.calcularRutaMasCorta("Z0", "Z48").size(),
+				restaurado.calcularRutaMasCorta("Z0", "Z48").size());
+	}
+
+	@Test
+	void sinIndiceGuardadoSeConstruyeYSeGuarda() throws IOException {
+		SistemaGestionDesastres original = sistemaConGrilla();
+		Path archivo = directorio.resolve("grafo.bin");
+		original.guardarInstantaneaGrafo(archivo);
+		Path landmarks = SistemaGestionDesastres.archivoLandmarks(archivo);
+		assertFalse(Files.exists(landmarks));
+
+		SistemaGestionDesastres restaurado = new SistemaGestionDesastres();
+		restaurado.cargarInstantaneaGrafo(archivo);
+		restaurado.seleccionarEstrategiaRutas(EstrategiaRuta.ALT);
+
+		RutaALT estrategia = (RutaALT) restaurado.getGrafoDirigido().getCalculadorRutas();
+		assertTrue(estrategia.estaActualizado());
+		assertEquals(IndiceLandmarks.LANDMARKS_POR_DEFECTO, estrategia.getIndice().getNumeroLandmarks());
+		assertTrue(Files.exists(landmarks));
+	}
+}
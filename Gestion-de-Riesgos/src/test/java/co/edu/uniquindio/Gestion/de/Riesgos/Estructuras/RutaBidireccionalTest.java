@@ -0,0 +1,46 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.CriterioRuta;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RutaBidireccionalTest {
+
+	@Test
+	void coincideConDijkstraEnTodosLosPares() {
+		for (long semilla = 1; semilla <= 5; semilla++) {
+			GrafoCompacto grafo = GrafosDePrueba.grilla(49, semilla).obtenerGrafoCompacto();
+			RutaBidireccional estrategia = new RutaBidireccional();
+			for (int origen = 0; origen < grafo.getNumeroNodos(); origen++) {
+				double[] esperadas = GrafosDePrueba.dijkstra(grafo, origen, CriterioRuta.DISTANCIA, false);
+				for (int destino = 0; destino < grafo.getNumeroNodos(); destino++) {
+					int[] camino = estrategia.buscarCamino(grafo, origen, destino);
+					if (esperadas[destino] == Double.POSITIVE_INFINITY) {
+						assertNull(camino);
+						continue;
+					}
+					assertNotNull(camino);
+					assertEquals(esperadas[destino],
+							GrafosDePrueba.costoCamino(grafo, camino, origen, destino, CriterioRuta.DISTANCIA), 1e-9);
+				}
+			}
+		}
+	}
+
+	@Test
+	void usaLosPesosDelCriterioIndicado() {
+		GrafoCompacto grafo = GrafosDePrueba.grilla(64, 9).obtenerGrafoCompacto();
+		for (CriterioRuta criterio : CriterioRuta.values()) {
+			for (int origen = 0; origen < grafo.getNumeroNodos(); origen += 7) {
+				double[] esperadas = GrafosDePrueba.dijkstra(grafo, origen, criterio, false);
+				for (int destino = 0; destino < grafo.getNumeroNodos(); destino++) {
+					int[] camino = RutaBidireccional.buscarCamino(grafo, origen, destino, grafo.pesos(criterio));
+					double costo = camino == null ? Double.POSITIVE_INFINITY
+							: GrafosDePrueba.costoCamino(grafo, camino, origen, destino, criterio);
+					assertEquals(esperadas[destino], costo, 1e-9);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.CriterioRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.EstrategiaRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.NivelUrgencia;
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.TipoRuta;
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.SistemaGestionDesastres;
+import co.edu.uniquindio.Gestion.de.Riesgos.Model.Zona;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RutaContraccionJerarquicaTest {
+
+	@Test
+	void conElIndiceConstruidoCoincideConDijkstra() {
+		for (long semilla = 1; semilla <= 3; semilla++) {
+			GrafoDirigido grafo = GrafosDePrueba.grilla(64, semilla);
+			RutaContraccionJerarquica estrategia = new RutaContraccionJerarquica();
+			grafo.setCalculadorRutas(estrategia);
+			estrategia.construirIndice();
+			assertTrue(estrategia.estaActualizado());
+
+			GrafoCompacto compacto = grafo.obtenerGrafoCompacto();
+			for (int origen = 0; origen < compacto.getNumeroNodos(); origen++) {
+				double[] esperadas = GrafosDePrueba.dijkstra(compacto, origen, CriterioRuta.DISTANCIA, false);
+				for (int destino = 0; destino < compacto.getNumeroNodos(); destino++) {
+					int[] camino = estrategia.buscarCamino(compacto, origen, destino);
+					double costo = camino == null ? Double.POSITIVE_INFINITY
+							: GrafosDePrueba.costoCamino(compacto, camino, origen, destino, CriterioRuta.DISTANCIA);
+					assertEquals(esperadas[destino], costo, 1e-9, "semilla " + semilla);
+				}
+			}
+		}
+	}
+
+	@Test
+	void conElIndiceDesactualizadoSigueDandoElCaminoCorrecto() {
+		Zona a = new Zona("A", "Zona A", NivelUrgencia.MEDIA);
+		Zona b = new Zona("B", "Zona B", NivelUrgencia.MEDIA);
+		Zona c = new Zona("C", "Zona C", NivelUrgencia.MEDIA);
+		Ruta atajo = new Ruta("AC", a, c, 1.0, 1.0, TipoRuta.TERRESTRE);
+		RutaContraccionJerarquica estrategia = new RutaContraccionJerarquica();
+		GrafoDirigido grafo = new GrafoDirigido(estrategia);
+		grafo.agregarAristas(List.of(atajo,
+				new Ruta("AB", a, b, 2.0, 1.0, TipoRuta.TERRESTRE),
+				new Ruta("BC", b, c, 2.0, 1.0, TipoRuta.TERRESTRE)));
+		estrategia.construirIndice();
+		assertEquals(List.of("A", "C"), ids(grafo.calcularRutaMasCorta(a, c)));
+
+		atajo.setActiva(false);
+
+		assertFalse(estrategia.estaActualizado());
+		assertEquals(List.of("A", "B", "C"), ids(grafo.calcularRutaMasCorta(a, c)));
+	}
+
+	@Test
+	void elSistemaConstruyeElIndiceAlSeleccionarLaEstrategia() {
+		SistemaGestionDesastres sistema = new SistemaGestionDesastres();
+		sistema.inicializarSistema();
+		for (String id : List.of("A", "B", "C")) sistema.agregarZona(new Zona(id, "Zona " + id, NivelUrgencia.MEDIA));
+		sistema.conectarZonas("AB", "A", "B", 1.0, 1.0, TipoRuta.TERRESTRE);
+		sistema.conectarZonas("BC", "B", "C", 1.0, 1.0, TipoRuta.TERRESTRE);
+		sistema.conectarZonas("AC", "A", "C", 5.0, 1.0, TipoRuta.TERRESTRE);
+
+		sistema.seleccionarEstrategiaRutas(EstrategiaRuta.CONTRACCION_JERARQUICA);
+
+		RutaContraccionJerarquica estrategia =
+				assertInstanceOf(RutaContraccionJerarquica.class, sistema.getGrafoDirigido().getCalculadorRutas());
+		assertTrue(estrategia.estaActualizado());
+		assertEquals(List.of("A", "B", "C"), ids(sistema.calcularRutaMasCorta("A", "C")));
+
+		sistema.seleccionarEstrategiaRutas(EstrategiaRuta.DIJKSTRA);
+		assertNull(sistema.getGrafoDirigido().getCalculadorRutas());
+		assertEquals(List.of("A", "B", "C"), ids(sistema.calcularRutaMasCorta("A", "C")));
+	}
+
+	private static List<String> ids(List<Zona> zonas) {
+		return zonas.stream().map(Zona::getId).collect(Collectors.toList());
+	}
+}
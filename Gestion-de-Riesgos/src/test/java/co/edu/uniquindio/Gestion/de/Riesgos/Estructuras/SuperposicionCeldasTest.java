@@ -0,0 +1,98 @@
+package co.edu.uniquindio.Gestion.de.Riesgos.Estructuras;
+
+import co.edu.uniquindio.Gestion.de.Riesgos.Enums.CriterioRuta;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuperposicionCeldasTest {
+
+	private void verificarCostos(GrafoCompacto grafo, SuperposicionCeldas superposicion, CriterioRuta criterio) {
+		for (int origen = 0; origen < grafo.getNumeroNodos(); origen++) {
+			double[] esperadas = GrafosDePrueba.dijkstra(grafo, origen, criterio, false);
+			for (int destino = 0; destino < grafo.getNumeroNodos(); destino++) {
+				assertEquals(esperadas[destino], superposicion.costo(origen, destino), 1e-9);
+				int[] camino = superposicion.buscarCamino(origen, destino);
+				if (esperadas[destino] == Double.POSITIVE_INFINITY) {
+					assertNull(camino);
+				} else {
+					assertEquals(esperadas[destino],
+							GrafosDePrueba.costoCamino(grafo, camino, origen, destino, criterio), 1e-9);
+				}
+			}
+		}
+	}
+
+	@Test
+	void particionaEnCeldasAcotadasQueCubrenTodosLosNodos() {
+		GrafoCompacto grafo = GrafosDePrueba.grilla(100, 2).obtenerGrafoCompacto();
+		ParticionGrafo particion = ParticionGrafo.construir(grafo, 12);
+
+		int[] vecesVisto = new int[grafo.getNumeroNodos()];
+		for (int celda = 0; celda < particion.getNumeroCeldas(); celda++) {
+			assertTrue(particion.finNodos(celda) - particion.inicioNodos(celda) <= 12);
+			for (int p = particion.inicioNodos(celda); p < particion.finNodos(celda); p++) {
+				int nodo = particion.nodoCelda(p);
+				assertEquals(celda, particion.celda(nodo));
+				vecesVisto[nodo]++;
+			}
+		}
+		int corte = 0;
+		for (int e = 0; e < grafo.getNumeroAristas(); e++) {
+			int origen = grafo.origen(e);
+			int destino = grafo.destino(e);
+			if (particion.celda(origen) == particion.celda(destino)) continue;
+			corte++;
+			assertTrue(particion.posicionSalida(origen) >= 0);
+			assertTrue(particion.posicionEntrada(destino) >= 0);
+		}
+		for (int veces : vecesVisto) assertEquals(1, veces);
+		assertEquals(corte, particion.getAristasCorte());
+		// El corte inercial de una grilla deja bastante menos que la mitad de las aristas entre celdas
+		assertTrue(corte < grafo.getNumeroAristas() / 2);
+		assertThrows(IllegalArgumentException.class, () -> ParticionGrafo.construir(grafo, 0));
+	}
+
+	@Test
+	void coincideConDijkstraEnTodosLosPares() {
+		for (long semilla = 1; semilla <= 3; semilla++) {
+			GrafoCompacto grafo = GrafosDePrueba.grilla(81, semilla).obtenerGrafoCompacto();
+			ParticionGrafo particion = ParticionGrafo.construir(grafo, 10);
+			for (CriterioRuta criterio : CriterioRuta.values()) {
+				verificarCostos(grafo, SuperposicionCeldas.construir(particion, criterio), criterio);
+			}
+		}
+	}
+
+	@Test
+	void actualizarRecalculaLasCeldasConRutasModificadas() {
+		GrafoDirigido grafoDirigido = GrafosDePrueba.grilla(64, 5);
+		GrafoCompacto grafo = grafoDirigido.obtenerGrafoCompacto();
+		ParticionGrafo particion = ParticionGrafo.construir(grafo, 8);
+		SuperposicionCeldas superposicion = SuperposicionCeldas.construir(particion, CriterioRuta.TIEMPO);
+
+		List<Ruta> rutas = grafoDirigido.getAristas();
+		Random aleatorio = new Random(3);
+		for (int cambio = 0; cambio < 10; cambio++) {
+			Ruta ruta = rutas.get(aleatorio.nextInt(rutas.size()));
+			int version = grafo.getVersion();
+			if (cambio % 3 == 0) {
+				ruta.setActiva(!ruta.isActiva());
+			} else {
+				ruta.setTiempoEstimado(ruta.getTiempoEstimado() * (0.1 + aleatorio.nextDouble() * 5.0));
+			}
+			// Los cambios de peso no reconstruyen la versión compacta ni la partición
+			assertSame(grafo, grafoDirigido.obtenerGrafoCompacto());
+			// Un cambio sobre una ruta cerrada no modifica los pesos
+			assertEquals(grafo.getVersion() == version, superposicion.correspondeA(grafo));
+
+			superposicion = superposicion.actualizar();
+
+			assertTrue(superposicion.correspondeA(grafo));
+			verificarCostos(grafo, superposicion, CriterioRuta.TIEMPO);
+		}
+	}
+}